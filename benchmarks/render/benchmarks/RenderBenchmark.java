@@ -0,0 +1,154 @@
+package benchmarks;
+
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.RayTracerBasic;
+import renderer.RenderStatistics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * End to end benchmark of rendering the scenes of the render tests, without writing the images.
+ * Every scene is rendered in every mode of the camera with every option of the ray tracer,
+ * and the results are written as JSON, so they can be compared between commits.
+ * The rays are counted by the statistics of the render: the primary rays traced through the pixels, and the rays
+ * of all the kinds, including the shadow, reflected, refracted and glossy rays.
+ * <p>
+ * Usage: {@code RenderBenchmark [output.json] [resolution]} - writes the results to the given file,
+ * or to the standard output if it is not given, the images are resolution x resolution pixels (200 by default).
+ */
+public class RenderBenchmark {
+    /**
+     * Amount of rays per pixel in anti-aliasing and adaptive modes
+     */
+    private static final int AA_RAYS = 4;
+    /**
+     * Amount of rays in the beams of the soft shadow and glossy options
+     */
+    private static final int BEAM_RAYS = 16;
+
+    /**
+     * The modes of the camera
+     */
+    private enum Mode {
+        PLAIN(camera -> camera),
+        ANTI_ALIASING(camera -> camera.useAntiAliasing(true).setNumOfAARays(AA_RAYS)),
+        ADAPTIVE(camera -> camera.useAntiAliasing(true).useAdaptive(true).setNumOfAARays(AA_RAYS)),
+        MULTITHREADED(camera -> camera.setMultithreading(0).setProgressListener(null));
+
+        final UnaryOperator<Camera> setup;
+
+        Mode(UnaryOperator<Camera> setup) {
+            this.setup = setup;
+        }
+    }
+
+    /**
+     * The options of the ray tracer
+     */
+    private enum Option {
+        NONE(tracer -> tracer),
+        SOFT_SHADOW(tracer -> tracer.useSoftShadow(true).setNumOfSSRays(BEAM_RAYS)),
+        GLOSSY(tracer -> tracer.useGlossiness(true).setNumOfGlossinessRays(BEAM_RAYS)),
+        PACKETS(tracer -> tracer.usePacketTracing(true));
+
+        final UnaryOperator<RayTracerBasic> setup;
+
+        Option(UnaryOperator<RayTracerBasic> setup) {
+            this.setup = setup;
+        }
+    }
+
+    private RenderBenchmark() {
+    }
+
+    /**
+     * @param args optional output file and resolution
+     * @throws IOException if the output file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int resolution = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        List<String> results = new ArrayList<>();
+        for (RenderScenes.BenchmarkScene scene : RenderScenes.all()) {
+            //warm up the code of the scene before measuring it
+            render(scene, Mode.PLAIN, Option.NONE, resolution);
+            for (Mode mode : Mode.values())
+                for (Option option : Option.values()) {
+                    String result = render(scene, mode, option, resolution);
+                    System.err.println(result);
+                    results.add(result);
+                }
+        }
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"java\": \"").append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"cores\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"resolution\": ").append(resolution).append(",\n");
+        json.append("  \"results\": [\n    ").append(String.join(",\n    ", results)).append("\n  ]\n}\n");
+
+        if (args.length > 0)
+            Files.writeString(Path.of(args[0]), json);
+        else
+            System.out.print(json);
+    }
+
+    /**
+     * Renders a scene once and measures the render
+     *
+     * @param scene      the scene
+     * @param mode       the mode of the camera
+     * @param option     the option of the ray tracer
+     * @param resolution the width and height of the image in pixels
+     * @return the measurements as a JSON object
+     */
+    private static String render(RenderScenes.BenchmarkScene scene, Mode mode, Option option, int resolution) {
+        Camera camera = mode.setup.apply(scene.camera.get())
+                .setImageWriter(new ImageWriter(scene.name, resolution, resolution))
+                .setRayTracer(option.setup.apply(new RayTracerBasic(scene.scene)))
+                .useStatistics(true);
+
+        List<MemoryPoolMXBean> pools = heapPools();
+        System.gc();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        camera.renderImage();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : pools)
+            peakHeap += pool.getPeakUsage().getUsed();
+
+        long pixels = (long) resolution * resolution;
+        RenderStatistics statistics = camera.getRenderStatistics();
+        long primaryRays = statistics.getRays(RenderStatistics.RayKind.PRIMARY);
+        long rays = statistics.getTotalRays();
+        return String.format(Locale.ROOT,
+                "{\"scene\": \"%s\", \"mode\": \"%s\", \"option\": \"%s\", \"wallTimeMs\": %.3f, "
+                        + "\"pixels\": %d, \"pixelsPerSecond\": %.1f, \"primaryRays\": %d, \"totalRays\": %d, "
+                        + "\"raysPerSecond\": %.1f, \"peakHeapBytes\": %d}",
+                scene.name, mode.name().toLowerCase(Locale.ROOT), option.name().toLowerCase(Locale.ROOT),
+                seconds * 1000, pixels, pixels / seconds, primaryRays, rays, rays / seconds, peakHeap);
+    }
+
+    /**
+     * @return the memory pools of the heap
+     */
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP)
+                pools.add(pool);
+        return pools;
+    }
+}
@@ -0,0 +1,420 @@
+package benchmarks;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.Camera;
+import scene.Scene;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static java.awt.Color.*;
+
+/**
+ * The scenes of the render tests, built without rendering them, for the render benchmarks
+ */
+class RenderScenes {
+    /**
+     * A scene with the camera looking at it
+     */
+    static class BenchmarkScene {
+        final String name;
+        final Scene scene;
+        final Supplier<Camera> camera;
+
+        /**
+         * @param name   name of the scene in the results
+         * @param scene  the scene
+         * @param camera creates the camera looking at the scene, without image writer and ray tracer
+         */
+        BenchmarkScene(String name, Scene scene, Supplier<Camera> camera) {
+            this.name = name;
+            this.scene = scene;
+            this.camera = camera;
+        }
+    }
+
+    /**
+     * Seed of the random placement of the clouds, the stones and the leaves of the picture
+     */
+    private static final long PICTURE_SEED = 5783;
+
+    private RenderScenes() {
+    }
+
+    /**
+     * @return all the benchmark scenes
+     */
+    static List<BenchmarkScene> all() {
+        return List.of(twoSpheres(), twoSpheresOnMirrors(), trianglesTransparentSphere(),
+                sphereTriangle(), trianglesMultiLights(), picture());
+    }
+
+    /**
+     * ReflectionRefractionTests.twoSpheres
+     */
+    static BenchmarkScene twoSpheres() {
+        Scene scene = new Scene("twoSpheres");
+        scene.geometries.add(
+                new Sphere(50d, new Point(0, 0, -50)).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setKd(0.4).setKs(0.3).setShininess(100).setKt(new Double3(0.3))),
+                new Sphere(25d, new Point(0, 0, -50)).setEmission(new Color(RED))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(100)));
+        scene.lights.add(
+                new SpotLight(new Color(1000, 600, 0), new Point(-100, -100, 500), new Vector(-1, -1, -2))
+                        .setKl(0.0004).setKq(0.0000006));
+        return new BenchmarkScene(scene.name, scene,
+                () -> new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setViewPlaneSize(150, 150).setViewPlaneDistance(1000));
+    }
+
+    /**
+     * ReflectionRefractionTests.twoSpheresOnMirrors
+     */
+    static BenchmarkScene twoSpheresOnMirrors() {
+        Scene scene = new Scene("twoSpheresOnMirrors");
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)));
+        scene.geometries.add(
+                new Sphere(400d, new Point(-950, -900, -1000)).setEmission(new Color(0, 50, 100))
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)
+                                .setKt(new Double3(0.5, 0, 0))),
+                new Sphere(200d, new Point(-950, -900, -1000)).setEmission(new Color(100, 50, 20))
+                        .setMaterial(new Material().setKd(0.25).setKs(0.25).setShininess(20)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                        new Point(670, 670, 3000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKr(1)),
+                new Triangle(new Point(1500, -1500, -1500), new Point(-1500, 1500, -1500),
+                        new Point(-1500, -1500, -2000))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKr(new Double3(0.5, 0, 0.4))));
+        scene.lights.add(new SpotLight(new Color(1020, 400, 400), new Point(-750, -750, -150), new Vector(-1, -1, -4))
+                .setKl(0.00001).setKq(0.000005));
+        return new BenchmarkScene(scene.name, scene,
+                () -> new Camera(new Point(0, 0, 10000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setViewPlaneSize(2500, 2500).setViewPlaneDistance(10000));
+    }
+
+    /**
+     * ReflectionRefractionTests.trianglesTransparentSphere
+     */
+    static BenchmarkScene trianglesTransparentSphere() {
+        Scene scene = new Scene("trianglesTransparentSphere");
+        scene.setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.15)));
+        scene.geometries.add(
+                new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135), new Point(75, 75, -150))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+                new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(60)),
+                new Sphere(30d, new Point(60, 50, -50)).setEmission(new Color(BLUE))
+                        .setMaterial(new Material().setKd(0.2).setKs(0.2).setShininess(30).setKt(0.6)));
+        scene.lights.add(new SpotLight(new Color(700, 400, 400), new Point(60, 50, 0), new Vector(0, 0, -1))
+                .setKl(4E-5).setKq(2E-7));
+        return new BenchmarkScene(scene.name, scene,
+                () -> new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setViewPlaneSize(200, 200).setViewPlaneDistance(1000));
+    }
+
+    /**
+     * ShadowTests.sphereTriangleInitial
+     */
+    static BenchmarkScene sphereTriangle() {
+        Scene scene = new Scene("sphereTriangle");
+        Material material = new Material().setKd(0.5).setKs(0.5).setShininess(30);
+        scene.geometries.add(
+                new Sphere(60d, new Point(0, 0, -200)).setEmission(new Color(BLUE)).setMaterial(material),
+                new Triangle(new Point(-70, -40, 0), new Point(-40, -70, 0), new Point(-68, -68, -4))
+                        .setEmission(new Color(BLUE)).setMaterial(material));
+        scene.lights.add(new SpotLight(new Color(400, 240, 0), new Point(-100, -100, 200), new Vector(1, 1, -3))
+                .setKl(1E-5).setKq(1.5E-7));
+        return new BenchmarkScene(scene.name, scene,
+                () -> new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setViewPlaneSize(200, 200).setViewPlaneDistance(1000));
+    }
+
+    /**
+     * LightsTests.trianglesMultiLights
+     */
+    static BenchmarkScene trianglesMultiLights() {
+        Scene scene = new Scene("trianglesMultiLights")
+                .setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.15)));
+        Material material = new Material().setKd(new Double3(0.2, 0.6, 0.4)).setKs(new Double3(0.2, 0.4, 0.3))
+                .setShininess(301);
+        Point[] vertices = {new Point(-110, -110, -150), new Point(95, 100, -150),
+                new Point(110, -110, -150), new Point(-75, 78, 100)};
+        scene.geometries.add(new Triangle(vertices[0], vertices[1], vertices[2]).setMaterial(material),
+                new Triangle(vertices[0], vertices[1], vertices[3]).setMaterial(material));
+        Color trianglesLightColor = new Color(800, 500, 250);
+        scene.lights.add(new PointLight(trianglesLightColor, new Point(30, 10, -100)).setKl(0.001).setKq(0.0002));
+        scene.lights.add(new DirectionalLight(new Color(RED), new Vector(5, 5, 5)));
+        scene.lights.add(new PointLight(new Color(YELLOW), new Point(30, 10, -100)));
+        scene.lights.add(new SpotLight(new Color(RED), new Point(0, 1, 4), new Vector(0, 1, -0.5))
+                .setKl(0.000000003).setKq(0.000000003));
+        return new BenchmarkScene(scene.name, scene,
+                () -> new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setViewPlaneSize(200, 200).setViewPlaneDistance(1000));
+    }
+
+    /**
+     * picturesTest.beautifulPictureScene and picturesTest.test_image - the final picture of the project
+     */
+    static BenchmarkScene picture() {
+        Scene scene = new Scene("picture");
+        //the clouds, the stones and the leaves are placed by a seeded generator, so every run renders the same scene
+        Random random = new Random(PICTURE_SEED);
+        scene.setBackground(new Color(135, 206, 235)); // Sky blue background
+
+        // Ambient light
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)));
+
+        // Ground
+        Geometry ground = new Plane(
+                new Point(0, -200, 0), new Vector(0, 1, 0))
+                .setEmission(new Color(50, 205, 50)) // Green ground
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(100));
+        scene.geometries.add(ground);
+
+        // Sun
+        Geometry sun = new Sphere(150, new Point(400, 500, -800))
+                .setEmission(new Color(255, 255, 0)) // Yellow sun ray
+                .setMaterial(new Material().setKd(0).setKs(0).setShininess(100));
+        scene.geometries.add(sun);
+
+
+        // Sun rays
+        int numRays = 16;
+        double rayLength = 400;
+
+        for (int i = 0; i < numRays; i++) {
+            double angle = (2 * Math.PI * i) / numRays;
+
+            Geometry ray = new Polygon(
+                    new Point(400, 500, -800),
+                    new Point(400 + rayLength * Math.cos(angle), 500 + rayLength * Math.sin(angle), -800),
+                    new Point(400 + rayLength * Math.cos(angle + Math.PI / 16), 500 + rayLength * Math.sin(angle + Math.PI / 16), -800))
+                    .setEmission(new Color(255, 255, 0)) // Yellow sun ray
+                    .setMaterial(new Material().setKd(0).setKs(0).setShininess(100));
+            scene.geometries.add(ray);
+        }
+
+        // Chimney for the house
+        scene.geometries.add(new Polygon(
+                new Point(100, 100, -600),
+                new Point(100, 200, -600),
+                new Point(100, 200, -500),
+                new Point(100, 100, -500))
+                .setEmission(new Color(128, 0, 0)) // Maroon chimney
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(100)));
+
+
+        // Spotlight from the sun
+
+        scene.lights.add(new PointLight(new Color(white), new Point(200, 350, -700)).setKl(0.00001).setKq(0.000003));
+        scene.lights.add(new DirectionalLight(new Color(0, 0, 0), new Vector(1, 1, -0.5)));
+        scene.lights.add(new SpotLight(new Color(0, 0, 0), new Vector(1, 1, -0.5), new Vector(1, 1, -0.5))
+                .setKl(0.001).setKq(0.0001));
+        scene.lights.add(new DirectionalLight(new Color(GREEN), new Vector(0, 1, 5)));
+
+
+        // Clouds
+        int numClouds = 20;
+        int cloudRadius = 80;
+        int cloudSpread = 200;
+
+        for (int j = 0; j < numClouds; j++) {
+            double x = -500 + (random.nextDouble() * cloudSpread);
+            double y = 250 + (random.nextDouble() * cloudSpread);
+            double z = -600 + (random.nextDouble() * cloudSpread);
+
+            Geometry cloud = new Sphere(cloudRadius, new Point(x, y, z))
+                    .setEmission(new Color(255, 255, 255)) // White clouds
+                    .setMaterial(new Material().setKd(0).setKs(0).setShininess(300));
+            scene.geometries.add(cloud);
+        }
+
+        // House
+        scene.geometries.add(new Polygon(
+                new Point(-200, -200, -400),
+                new Point(200, -200, -400),
+                new Point(200, 200, -400),
+                new Point(-200, 200, -400))
+                .setEmission(new Color(181, 101, 29)) // light brown house
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(300)));
+
+        // Back wall
+        scene.geometries.add(new Polygon(
+                new Point(-200, -200, -800),
+                new Point(200, -200, -800),
+                new Point(200, 200, -800),
+                new Point(-200, 200, -800))
+                .setEmission(new Color(181, 101, 29)) // light brown house
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(300)));
+
+        // Left wall
+        scene.geometries.add(new Polygon(
+                new Point(-200, -200, -400),
+                new Point(-200, -200, -800),
+                new Point(-200, 200, -800),
+                new Point(-200, 200, -400))
+                .setEmission(new Color(181, 101, 29)) // light brown house
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(300)));
+
+        // Right wall
+        scene.geometries.add(new Polygon(
+                new Point(200, -200, -400),
+                new Point(200, -200, -800),
+                new Point(200, 200, -800),
+                new Point(200, 200, -400))
+                .setEmission(new Color(181, 101, 29)) // light brown house
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(300)));
+
+        // Add door to the house
+        Geometry door = new Polygon(
+                new Point(-50, -200, -399),
+                new Point(50, -200, -399),
+                new Point(50, 0, -399),
+                new Point(-50, 0, -399))
+                .setEmission(new Color(100, 100, 100)) // Brown door
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(100));
+        scene.geometries.add(door);
+
+        // Add door handle for the door
+        Geometry doorHandle = new Sphere(7, new Point(-20, -100, -398))
+                .setEmission(new Color(0, 0, 0)) // Black door handle
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(100));
+        scene.geometries.add(doorHandle);
+
+
+        // Add window to the house
+        Geometry window = new Polygon(
+                new Point(-150, 50, -399),
+                new Point(-50, 50, -399),
+                new Point(-50, 150, -399),
+                new Point(-150, 150, -399))
+                .setEmission(new Color(135, 206, 250)) // Light blue window
+                .setMaterial(new Material().setKd(0.8).setKs(0.8).setShininess(30));
+        scene.geometries.add(window);
+
+        // Roof
+        scene.geometries.add(new Triangle(
+                new Point(-250, 180, -350),
+                new Point(250, 180, -350),
+                new Point(0, 430, -550))
+                .setEmission(new Color(128, 0, 0)) // Gray roof
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(300)));
+
+        scene.geometries.add(new Triangle(
+                new Point(-250, 180, -350),
+                new Point(0, 430, -550),
+                new Point(-250, 180, -850))
+                .setEmission(new Color(128, 0, 0)) // Gray roof
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(300)));
+
+        scene.geometries.add(new Triangle(
+                new Point(250, 180, -350),
+                new Point(250, 180, -850),
+                new Point(0, 430, -550))
+                .setEmission(new Color(128, 0, 0)) // Gray roof
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(300)));
+
+        scene.geometries.add(new Triangle(
+                new Point(0, 430, -550),
+                new Point(-250, 180, -850),
+                new Point(250, 180, -850))
+                .setEmission(new Color(128, 0, 0)) // Gray roof
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(300)));
+
+        // Fence
+        int fenceHeight = 160;
+        int fenceWidth = 20;
+        int fenceSpacing = 50;
+        int numFencePosts = 20;
+
+        // Create horizontal fence rails
+        for (int i = 0; i < numFencePosts; i++) {
+            double x = -200 + (fenceSpacing * i);
+            double railZ = -400 - (fenceWidth / 2); // Adjust the Z-coordinate of the rails
+
+            Point rail1Center = new Point(x + (fenceWidth / 2), -300 + (fenceHeight / 2), railZ);
+            Vector rail1Dir = new Vector(0, 1, 0); // Direction along the length of the rail
+            Ray rail1AxisRay = new Ray(rail1Center, rail1Dir);
+            Geometry rail1 = new Cylinder(rail1AxisRay, fenceHeight, fenceWidth / 2)
+                    .setEmission(new Color(139, 69, 19)) // Brown fence rail
+                    .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(100));
+            scene.geometries.add(rail1);
+
+            Point rail2Center = new Point(-(x + (fenceWidth / 2)), -300 + (fenceHeight / 2), railZ);
+            Vector rail2Dir = new Vector(0, 1, 0); // Direction along the length of the rail
+            Ray rail2AxisRay = new Ray(rail2Center, rail2Dir);
+            Geometry rail2 = new Cylinder(rail2AxisRay, fenceHeight, fenceWidth / 2)
+                    .setEmission(new Color(139, 69, 19)) // Brown fence rail
+                    .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(100));
+            scene.geometries.add(rail2);
+        }
+
+        // Path
+        int pathWidth = 200;
+        int pathLength = 800;
+        int numStones = 3000;
+        int stoneRadius = 5;
+
+        // Create path geometry
+        Geometry path = new Polygon(
+                new Point(-pathWidth / 2, -199, -pathLength / 2),
+                new Point(-pathWidth / 2, -199, pathLength / 2),
+                new Point(pathWidth / 2, -199, pathLength / 2),
+                new Point(pathWidth / 2, -199, -pathLength / 2))
+                .setEmission(new Color(139, 69, 19)) // Ground brown path
+                .setMaterial(new Material().setKd(0.8).setKs(0.8).setShininess(30));
+        scene.geometries.add(path);
+
+        // Create stone spheres along the sides of the path
+        for (int i = 0; i < numStones; i++) {
+            double t = (double) i / (numStones - 1); // Parameter to interpolate between path points
+
+            double x = -pathWidth / 2 + (t * pathWidth);
+            double z = -pathLength / 2 + (random.nextDouble() * pathLength);
+
+            // Add stones only on the sides of the path
+            if (x <= -pathWidth / 2 + stoneRadius || x >= pathWidth / 2 - stoneRadius) {
+                Geometry stone = new Sphere(stoneRadius, new Point(x, -199 + stoneRadius, z))
+                        .setEmission(new Color(105, 105, 105)) // Dark gray stone
+                        .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(100));
+                scene.geometries.add(stone);
+            }
+        }
+
+        // Tree trunk
+        Geometry trunk = new Cylinder(new Ray(new Point(500, -200, -600), new Vector(0, 1, 0)),
+                300, 40)
+                .setEmission(new Color(139, 69, 19)) // Brown trunk
+                .setMaterial(new Material().setKd(0.6).setKs(0.4).setShininess(100));
+        scene.geometries.add(trunk);
+
+        // Tree leaves
+        int numLeaves = 50;
+        int leafRadius = 50;
+
+        for (int k = 0; k < numLeaves; k++) {
+            double x = 400 + (random.nextDouble() * 200);
+            double y = 0 + (random.nextDouble() * 200);
+            double z = -600 + (random.nextDouble() * 200);
+
+            Geometry leaf = new Sphere(leafRadius, new Point(x, y, z))
+                    .setEmission(new Color(34, 139, 34)) // Green leaves
+                    .setMaterial(new Material().setKd(0).setKs(0).setShininess(300));
+            scene.geometries.add(leaf);
+        }
+        return new BenchmarkScene(scene.name, scene, () -> {
+            Camera camera = new Camera(new Point(0, 0, 800), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setViewPlaneSize(1000, 1000)
+                    .setViewPlaneDistance(800);
+            double radius = camera.getP0().subtract(Point.ZERO).length();
+            camera.rotate(0, 36, 0);
+            camera.setP0(Math.sin(2 * Math.PI / 5) * radius, 0, Math.cos(2 * Math.PI / 5) * radius);
+            return camera;
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import org.openjdk.jmh.annotations.*;
+import primitives.*;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the scaling of the multi-threaded render: the same scene of spheres over a plane is rendered
+ * with different amounts of threads, without writing the image. The speedup of an amount of threads is
+ * the score of a single thread divided by its score.
+ * Every invocation renders the whole image, the amounts of threads are set by the parameter
+ * (for example {@code -p threads=1,2,4,8,16} to go up to more cores).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScalingBenchmark {
+    /**
+     * Width and height of the image in pixels
+     */
+    private static final int SIZE = 300;
+
+    /**
+     * Amount of threads of the render
+     */
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Camera camera;
+
+    /**
+     * Builds the scene of 5 x 5 transparent spheres over a plane, and the camera looking at it from above
+     */
+    @Setup
+    public void setup() {
+        Scene scene = new Scene("Scaling scene").setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)));
+        scene.geometries.add(new Plane(new Point(0, 0, -100), new Vector(0, 0, 1))
+                .setEmission(new Color(40, 40, 40)).setMaterial(new Material().setKd(0.5).setKs(0.3)));
+        for (int i = 0; i < 5; ++i)
+            for (int j = 0; j < 5; ++j)
+                scene.geometries.add(new Sphere(12, new Point(-100 + 50 * i, -100 + 50 * j, -80))
+                        .setEmission(new Color(20 * i, 20 * j, 100))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30).setKt(0.2)));
+        scene.lights.add(new PointLight(new Color(500, 400, 300), new Point(100, 100, 200)).setKl(1e-5).setKq(1e-6));
+        camera = new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(300, 300).setViewPlaneDistance(1000)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(new ImageWriter("multithreadingScaling", SIZE, SIZE))
+                .setProgressListener(null)
+                .setMultithreading(threads);
+    }
+
+    /**
+     * @return the camera, after rendering the image
+     */
+    @Benchmark
+    public Camera render() {
+        return camera.renderImage();
+    }
+}
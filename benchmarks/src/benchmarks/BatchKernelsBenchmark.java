@@ -0,0 +1,129 @@
+package benchmarks;
+
+import geometries.*;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of intersecting a ray with many spheres or many triangles: one geometry object at a time
+ * (the current implementation), and with the batch kernels over the flat arrays - scalar and vector.
+ * The forked JVM runs with the vector module, so the vector kernels are available.
+ * Every invocation intersects the next ray of a fixed set of random rays through the geometries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BatchKernelsBenchmark {
+    /**
+     * Amount of rays in the set of rays
+     */
+    private static final int RAYS = 1024;
+
+    /**
+     * The geometries to intersect
+     */
+    @Param({"SPHERE", "TRIANGLE"})
+    public String geometry;
+
+    /**
+     * Amount of geometries
+     */
+    @Param({"16", "256"})
+    public int size;
+
+    private List<Intersectable> objects;
+    private double[] data;
+    private Ray[] rays;
+    private int next = 0;
+    private final double[] t = new double[1];
+
+    /**
+     * Builds the geometries, their arrays and the rays
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        List<Sphere> spheres = new ArrayList<>();
+        List<Triangle> triangles = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            Point p = new Point(random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20,
+                    random.nextDouble() * 40 - 20);
+            spheres.add(new Sphere(1 + random.nextDouble() * 2, p));
+            triangles.add(new Triangle(p, p.add(new Vector(3, 0, 1)), p.add(new Vector(0, 3, 2))));
+        }
+        objects = new ArrayList<>(geometry.equals("SPHERE") ? spheres : triangles);
+        data = geometry.equals("SPHERE") ? BatchKernels.packSpheres(spheres) : BatchKernels.packTriangles(triangles);
+
+        rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; ++i)
+            rays[i] = new Ray(new Point(0, 0, 50), new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+    }
+
+    /**
+     * @return the next ray of the set
+     */
+    private Ray nextRay() {
+        Ray ray = rays[next];
+        next = (next + 1) % RAYS;
+        return ray;
+    }
+
+    /**
+     * @return the closest intersection, intersecting the geometry objects one at a time
+     */
+    @Benchmark
+    public Intersectable.GeoPoint objects() {
+        Ray ray = nextRay();
+        Intersectable.GeoPoint closest = null;
+        double maxDistance = Double.POSITIVE_INFINITY;
+        for (Intersectable item : objects) {
+            Intersectable.GeoPoint gp = item.findClosestGeoIntersection(ray, maxDistance);
+            if (gp != null && (closest == null || gp.t < closest.t)) {
+                closest = gp;
+                maxDistance = gp.t;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * @return index of the closest geometry, found by the scalar kernels
+     */
+    @Benchmark
+    public int scalarKernels() {
+        return closest(BatchKernels.scalar());
+    }
+
+    /**
+     * @return index of the closest geometry, found by the vector kernels (the scalar ones if not available)
+     */
+    @Benchmark
+    public int vectorKernels() {
+        return closest(BatchKernels.get());
+    }
+
+    /**
+     * @param kernels the kernels
+     * @return index of the closest geometry to the next ray
+     */
+    private int closest(BatchKernels kernels) {
+        Ray ray = nextRay();
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        return geometry.equals("SPHERE")
+                ? kernels.closestSphere(data, size, 0, size, p0.getX(), p0.getY(), p0.getZ(),
+                v.getX(), v.getY(), v.getZ(), Double.POSITIVE_INFINITY, t)
+                : kernels.closestTriangle(data, size, 0, size, p0.getX(), p0.getY(), p0.getZ(),
+                v.getX(), v.getY(), v.getZ(), Double.POSITIVE_INFINITY, t);
+    }
+}
@@ -0,0 +1,26 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler, so every benchmark reports both its time per
+ * operation (ns/op) and the bytes it allocates per operation (gc.alloc.rate.norm).
+ * <p>
+ * Usage: {@code BenchmarkRunner [regex]} - runs the benchmarks whose names match the regular expression,
+ * or all of them if it is not given (for example {@code BenchmarkRunner IntersectionBenchmark}).
+ */
+public class BenchmarkRunner {
+    /**
+     * @param args optional regular expression of the benchmarks to run
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "benchmarks\\..*")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
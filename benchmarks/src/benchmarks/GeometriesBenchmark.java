@@ -0,0 +1,96 @@
+package benchmarks;
+
+import geometries.*;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the intersection of rays with collections of random spheres and triangles,
+ * with and without a bounding volume hierarchy.
+ * Every invocation intersects the next ray of a fixed set of random rays through the scene.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometriesBenchmark {
+    /**
+     * Amount of rays in the set of rays
+     */
+    private static final int RAYS = 1024;
+
+    /**
+     * Amount of geometries in the collection
+     */
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    /**
+     * Whether to build a bounding volume hierarchy over the collection
+     */
+    @Param({"false", "true"})
+    public boolean bvh;
+
+    private Geometries geometries;
+    private Ray[] rays;
+    private int next = 0;
+
+    /**
+     * Builds the collection and the rays, the geometries are spread in a cube so they have about
+     * the same density for all the sizes
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        double side = 10 * Math.cbrt(size);
+        geometries = new Geometries();
+        for (int i = 0; i < size; ++i) {
+            Point p = new Point((random.nextDouble() - 0.5) * side, (random.nextDouble() - 0.5) * side,
+                    (random.nextDouble() - 0.5) * side);
+            if (i % 2 == 0)
+                geometries.add(new Sphere(1 + random.nextDouble() * 2, p));
+            else
+                geometries.add(new Triangle(p, p.add(new Vector(3, 0, 1)), p.add(new Vector(0, 3, 2))));
+        }
+        if (bvh)
+            geometries.buildBVH();
+
+        rays = new Ray[RAYS];
+        Point origin = new Point(0, 0, side);
+        for (int i = 0; i < RAYS; ++i)
+            rays[i] = new Ray(origin, new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+    }
+
+    /**
+     * @return the next ray of the set
+     */
+    private Ray nextRay() {
+        Ray ray = rays[next];
+        next = (next + 1) % RAYS;
+        return ray;
+    }
+
+    /**
+     * @return all the intersections of the next ray with the collection
+     */
+    @Benchmark
+    public List<Intersectable.GeoPoint> findGeoIntersections() {
+        return geometries.findGeoIntersections(nextRay());
+    }
+
+    /**
+     * @return the closest intersection of the next ray with the collection
+     */
+    @Benchmark
+    public Intersectable.GeoPoint findClosestGeoIntersection() {
+        return geometries.findClosestGeoIntersection(nextRay());
+    }
+}
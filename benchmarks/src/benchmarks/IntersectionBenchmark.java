@@ -0,0 +1,86 @@
+package benchmarks;
+
+import geometries.*;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the intersection of a single ray with each one of the geometries,
+ * for a ray which hits the geometry, a ray which misses it and a ray which grazes its boundary.
+ * All the geometries are around the origin, and the rays come along the x axis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntersectionBenchmark {
+    /**
+     * The geometry to intersect
+     */
+    @Param({"SPHERE", "PLANE", "TRIANGLE", "POLYGON", "TUBE", "CYLINDER"})
+    public String geometry;
+
+    /**
+     * The kind of ray
+     */
+    @Param({"HIT", "MISS", "GRAZING"})
+    public String ray;
+
+    private Intersectable intersectable;
+    private Ray testRay;
+
+    /**
+     * Builds the geometry and the ray of the benchmark
+     */
+    @Setup
+    public void setup() {
+        Vector axis = new Vector(0, 0, 1);
+        intersectable = switch (geometry) {
+            case "SPHERE" -> new Sphere(1, new Point(0, 0, 0));
+            case "PLANE" -> new Plane(new Point(0, 0, 0), new Vector(1, 0, 0));
+            case "TRIANGLE" -> new Triangle(new Point(0, -1, -1), new Point(0, 1, -1), new Point(0, 0, 1));
+            case "POLYGON" -> new Polygon(new Point(0, -1, -1), new Point(0, 1, -1),
+                    new Point(0, 1, 1), new Point(0, -1, 1));
+            case "TUBE" -> new Tube(new Ray(new Point(0, 0, -1), axis), 1);
+            case "CYLINDER" -> new Cylinder(new Ray(new Point(0, 0, -1), axis), 2, 1);
+            default -> throw new IllegalArgumentException("Unknown geometry " + geometry);
+        };
+
+        //the y coordinate in which the ray passes the geometry, the edge of the triangle is at 0.5
+        double edge = geometry.equals("TRIANGLE") ? 0.5 : 1;
+        Vector dir = new Vector(1, 0, 0);
+        testRay = switch (ray) {
+            case "HIT" -> new Ray(new Point(-10, 0, 0), dir);
+            case "GRAZING" -> geometry.equals("PLANE")
+                    ? new Ray(new Point(-10, 0, 0), new Vector(1e-3, 1, 0)) //almost parallel to the plane
+                    : new Ray(new Point(-10, edge - 1e-6, 0), dir);
+            case "MISS" -> geometry.equals("PLANE")
+                    ? new Ray(new Point(-10, 0, 0), new Vector(-1, 0, 0)) //pointing away from the plane
+                    : new Ray(new Point(-10, 2, 0), dir);
+            default -> throw new IllegalArgumentException("Unknown ray " + ray);
+        };
+    }
+
+    /**
+     * @return all the intersections of the ray with the geometry
+     */
+    @Benchmark
+    public List<Intersectable.GeoPoint> findGeoIntersections() {
+        return intersectable.findGeoIntersections(testRay);
+    }
+
+    /**
+     * @return the closest intersection of the ray with the geometry
+     */
+    @Benchmark
+    public Intersectable.GeoPoint findClosestGeoIntersection() {
+        return intersectable.findClosestGeoIntersection(testRay);
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import geometries.Intersectable.GeoPoint;
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of finding the closest point of a list of intersections to the head of a ray
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RayBenchmark {
+    /**
+     * Amount of intersections in the list
+     */
+    @Param({"2", "10", "100"})
+    public int size;
+
+    private Ray ray;
+    private List<GeoPoint> points;
+
+    /**
+     * Builds the ray and random intersections along it
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        ray = new Ray(new Point(0, 0, 0), new Vector(1, 1, 1));
+        points = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i)
+            points.add(new GeoPoint(null, ray.getPoint(1 + random.nextDouble() * 100)));
+    }
+
+    /**
+     * @return the closest intersection
+     */
+    @Benchmark
+    public GeoPoint findClosestGeoPoint() {
+        return ray.findClosestGeoPoint(points);
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.CameraView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of generating the primary rays of an image: through the centers of the pixels by the camera
+ * (calculating the view plane for every ray) and by the precomputed view of the camera, and through the cells
+ * of the anti-aliasing grid by the view. The score is rays per second.
+ * Every invocation constructs the ray of the next pixel (or cell) of the image, row after row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RayGenerationBenchmark {
+    /**
+     * Width and height of the image in pixels
+     */
+    private static final int SIZE = 500;
+    /**
+     * Amount of rows and columns of the anti-aliasing grid
+     */
+    private static final int GRID_SIZE = 4;
+
+    private Camera camera;
+    private CameraView view;
+    private int pixel = 0;
+    private int cell = 0;
+
+    /**
+     * Builds the camera, looking from the side and above like the cameras of the pictures, and its view
+     */
+    @Setup
+    public void setup() {
+        camera = new Camera(new Point(0, -1000, 300), new Vector(0, 1000, -300), new Vector(0, 300, 1000))
+                .setViewPlaneSize(200, 200).setViewPlaneDistance(1000).setNumOfAARays(GRID_SIZE);
+        view = camera.getView(SIZE, SIZE);
+    }
+
+    /**
+     * @return the index of the next pixel of the image
+     */
+    private int nextPixel() {
+        int current = pixel;
+        pixel = (pixel + 1) % (SIZE * SIZE);
+        return current;
+    }
+
+    /**
+     * @return the ray through the center of the next pixel, by the camera
+     */
+    @Benchmark
+    public Ray cameraRay() {
+        int current = nextPixel();
+        return camera.constructRay(SIZE, SIZE, current % SIZE, current / SIZE);
+    }
+
+    /**
+     * @return the ray through the center of the next pixel, by the view
+     */
+    @Benchmark
+    public Ray viewRay() {
+        int current = nextPixel();
+        return view.constructRay(current % SIZE, current / SIZE);
+    }
+
+    /**
+     * @return the ray through the center of the next cell of the anti-aliasing grid, by the view
+     */
+    @Benchmark
+    public Ray viewCellRay() {
+        int current = pixel;
+        int grid = cell;
+        cell = (cell + 1) % (GRID_SIZE * GRID_SIZE);
+        if (cell == 0)
+            nextPixel();
+        return view.constructRay(current % SIZE, current / SIZE, grid / GRID_SIZE, grid % GRID_SIZE);
+    }
+}
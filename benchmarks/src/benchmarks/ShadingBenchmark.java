@@ -0,0 +1,81 @@
+package benchmarks;
+
+import geometries.Geometries;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.openjdk.jmh.annotations.*;
+import primitives.*;
+import renderer.Camera;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of tracing the primary rays of an image through the ray tracer: finding the closest intersection,
+ * shading it by the light sources (with their shadow rays) and adding the ambient light.
+ * The scene is the sphere and the triangles of the lights tests, lit by a directional, a point and a spot light.
+ * Every invocation traces the ray of the next pixel of the image, row after row, so together with the allocation
+ * profiler of {@link BenchmarkRunner} the score is the time and the bytes of a single primary ray.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShadingBenchmark {
+    /**
+     * Width and height of the image in pixels
+     */
+    private static final int SIZE = 100;
+
+    private RayTracerBasic tracer;
+    private Ray[] rays;
+    private int pixel = 0;
+
+    /**
+     * Builds the scene, its ray tracer and the primary rays of the image
+     */
+    @Setup
+    public void setup() {
+        Material material = new Material().setKd(new Double3(0.2, 0.6, 0.4))
+                .setKs(new Double3(0.2, 0.4, 0.3)).setShininess(301);
+        Scene scene = new Scene("shading")
+                .setAmbientLight(new AmbientLight(new Color(java.awt.Color.WHITE), new Double3(0.15)));
+        scene.setGeometries(new Geometries(
+                new Sphere(50d, new Point(0, 0, -50)).setEmission(new Color(java.awt.Color.BLUE).reduce(2))
+                        .setMaterial(material),
+                new Triangle(new Point(-110, -110, -150), new Point(95, 100, -150), new Point(110, -110, -150))
+                        .setMaterial(material),
+                new Triangle(new Point(-110, -110, -150), new Point(-75, 78, 100), new Point(95, 100, -150))
+                        .setMaterial(material)));
+        scene.lights.add(new DirectionalLight(new Color(300, 150, 150), new Vector(-1, -1, -1)));
+        scene.lights.add(new PointLight(new Color(500, 250, 250), new Point(-50, -50, 25))
+                .setKl(0.001).setKq(0.0002));
+        scene.lights.add(new SpotLight(new Color(500, 250, 250), new Point(30, 10, -100), new Vector(-2, -2, -2))
+                .setKl(0.0001).setKq(0.000005));
+        tracer = new RayTracerBasic(scene);
+
+        Camera camera = new Camera(new Point(0, 0, 1000), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setViewPlaneDistance(1000);
+        rays = new Ray[SIZE * SIZE];
+        for (int i = 0; i < SIZE; ++i)
+            for (int j = 0; j < SIZE; ++j)
+                rays[i * SIZE + j] = camera.constructRay(SIZE, SIZE, j, i);
+    }
+
+    /**
+     * @return the color of the next pixel of the image
+     */
+    @Benchmark
+    public Color traceRay() {
+        Ray ray = rays[pixel];
+        pixel = (pixel + 1) % rays.length;
+        return tracer.traceRay(ray);
+    }
+}
@@ -0,0 +1,299 @@
+package geometries;
+
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Kernels intersecting a single ray with many spheres or many triangles in one call.
+ * The geometries are stored in flat arrays of doubles, field after field (structure of arrays):
+ * field f of geometry i is at index {@code f * capacity + i}, where capacity is the amount of geometries
+ * the array holds. Spheres have the fields center x, y, z and radius, and triangles have the fields
+ * of the normal of their plane x, y, z followed by the coordinates of their three vertices.
+ * <p>
+ * The kernels calculate exactly what {@link Sphere} and {@link Triangle} calculate for a single ray.
+ * When the vector kernels are on the class path and the JVM runs with the incubating vector module
+ * ({@code --add-modules jdk.incubator.vector}), {@link #get()} returns kernels which test several geometries
+ * at once in the SIMD registers of the processor, otherwise it returns the scalar kernels.
+ * The vector kernels are in a module of their own (the {@code vector} source root), the only one compiled
+ * with the incubating module, so the rest of the project compiles without it.
+ */
+public abstract class BatchKernels {
+    /**
+     * Amount of fields of a sphere in the arrays
+     */
+    static final int SPHERE_FIELDS = 4;
+    /**
+     * Amount of fields of a triangle in the arrays
+     */
+    static final int TRIANGLE_FIELDS = 12;
+
+    /**
+     * Kernels testing one geometry at a time
+     */
+    private static final BatchKernels SCALAR = new ScalarBatchKernels();
+    /**
+     * The fastest kernels available in this JVM
+     */
+    private static final BatchKernels AVAILABLE = loadVectorKernels();
+    /**
+     * The kernels in use
+     */
+    private static BatchKernels kernels = AVAILABLE;
+
+    /**
+     * Loads the vector kernels, which need the incubating vector module
+     *
+     * @return the vector kernels, or the scalar kernels if the module is not available
+     */
+    private static BatchKernels loadVectorKernels() {
+        try {
+            return (BatchKernels) Class.forName("geometries.VectorBatchKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Turn the vector kernels on/off.
+     * They are on by default if the vector module is available, and cannot be turned on if it is not.
+     *
+     * @param flag false for off, true for on
+     */
+    public static void useVectorKernels(boolean flag) {
+        kernels = flag ? AVAILABLE : SCALAR;
+    }
+
+    /**
+     * @return the kernels in use
+     */
+    public static BatchKernels get() {
+        return kernels;
+    }
+
+    /**
+     * @return the kernels testing one geometry at a time
+     */
+    public static BatchKernels scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * @return true if the vector kernels are available in this JVM
+     */
+    public static boolean isVectorAvailable() {
+        return AVAILABLE != SCALAR;
+    }
+
+    /**
+     * @return the name of the kernels
+     */
+    public abstract String getName();
+
+    /**
+     * Finds the closest sphere a ray intersects, among the spheres in a range of an array
+     *
+     * @param spheres     the spheres
+     * @param capacity    the amount of spheres the array holds
+     * @param from        index of the first sphere to test
+     * @param to          index after the last sphere to test
+     * @param ox          ray origin x
+     * @param oy          ray origin y
+     * @param oz          ray origin z
+     * @param dx          ray direction x
+     * @param dy          ray direction y
+     * @param dz          ray direction z
+     * @param maxDistance the maximum distance
+     * @param t           array in which the distance to the intersection is returned at index 0
+     * @return index of the sphere (the first one if several are intersected at the same distance), or -1 if none
+     */
+    public abstract int closestSphere(double[] spheres, int capacity, int from, int to,
+                                      double ox, double oy, double oz, double dx, double dy, double dz,
+                                      double maxDistance, double[] t);
+
+    /**
+     * Finds the closest triangle a ray intersects, among the triangles in a range of an array
+     *
+     * @param triangles   the triangles
+     * @param capacity    the amount of triangles the array holds
+     * @param from        index of the first triangle to test
+     * @param to          index after the last triangle to test
+     * @param ox          ray origin x
+     * @param oy          ray origin y
+     * @param oz          ray origin z
+     * @param dx          ray direction x
+     * @param dy          ray direction y
+     * @param dz          ray direction z
+     * @param maxDistance the maximum distance
+     * @param t           array in which the distance to the intersection is returned at index 0
+     * @return index of the triangle (the first one if several are intersected at the same distance), or -1 if none
+     */
+    public abstract int closestTriangle(double[] triangles, int capacity, int from, int to,
+                                        double ox, double oy, double oz, double dx, double dy, double dz,
+                                        double maxDistance, double[] t);
+
+    /**
+     * Stores spheres in an array for the kernels
+     *
+     * @param spheres the spheres
+     * @return the array
+     */
+    public static double[] packSpheres(List<Sphere> spheres) {
+        int capacity = spheres.size();
+        double[] data = new double[SPHERE_FIELDS * capacity];
+        for (int i = 0; i < capacity; ++i)
+            setSphere(data, capacity, i, spheres.get(i));
+        return data;
+    }
+
+    /**
+     * Stores triangles in an array for the kernels
+     *
+     * @param triangles the triangles
+     * @return the array
+     */
+    public static double[] packTriangles(List<Triangle> triangles) {
+        int capacity = triangles.size();
+        double[] data = new double[TRIANGLE_FIELDS * capacity];
+        for (int i = 0; i < capacity; ++i)
+            setTriangle(data, capacity, i, triangles.get(i));
+        return data;
+    }
+
+    /**
+     * Stores a sphere in an array for the kernels
+     */
+    static void setSphere(double[] data, int capacity, int i, Sphere sphere) {
+        data[i] = sphere.center.getX();
+        data[capacity + i] = sphere.center.getY();
+        data[2 * capacity + i] = sphere.center.getZ();
+        data[3 * capacity + i] = sphere.radius;
+    }
+
+    /**
+     * Stores a triangle in an array for the kernels
+     */
+    static void setTriangle(double[] data, int capacity, int i, Triangle triangle) {
+        double[] fields = {
+                triangle.plane.getNormal().getX(), triangle.plane.getNormal().getY(), triangle.plane.getNormal().getZ(),
+                triangle.vertices.get(0).getX(), triangle.vertices.get(0).getY(), triangle.vertices.get(0).getZ(),
+                triangle.vertices.get(1).getX(), triangle.vertices.get(1).getY(), triangle.vertices.get(1).getZ(),
+                triangle.vertices.get(2).getX(), triangle.vertices.get(2).getY(), triangle.vertices.get(2).getZ()};
+        for (int f = 0; f < TRIANGLE_FIELDS; ++f)
+            data[f * capacity + i] = fields[f];
+    }
+
+    /**
+     * Calculates the distance along a ray to its closest intersection with a sphere of an array,
+     * like {@link Sphere#findClosestGeoIntersectionHelper}
+     *
+     * @return the distance, or NaN if the ray does not intersect the sphere closer than max distance
+     */
+    static double sphereDistance(double[] s, int capacity, int i,
+                                 double ox, double oy, double oz, double dx, double dy, double dz,
+                                 double maxDistance) {
+        double radius = s[3 * capacity + i];
+        //u=center-p0
+        double ux = s[i] - ox;
+        double uy = s[capacity + i] - oy;
+        double uz = s[2 * capacity + i] - oz;
+
+        //if P0 is the center of the sphere, the intersection is at the radius
+        if (isZero(ux) && isZero(uy) && isZero(uz))
+            return alignZero(radius - maxDistance) <= 0 ? radius : Double.NaN;
+
+        double tm = alignZero(ux * dx + uy * dy + uz * dz); //tm=v*u
+        double d = alignZero(Math.sqrt(ux * ux + uy * uy + uz * uz - tm * tm)); //d=squrt(|u|^2-tm^2)
+        if (d >= radius)
+            return Double.NaN;
+
+        double th = alignZero(Math.sqrt(radius * radius - d * d));
+        //the closest positive one of t1=tm-th and t2=tm+th
+        double t = alignZero(tm - th);
+        if (t <= 0) {
+            t = alignZero(tm + th);
+            if (t <= 0)
+                return Double.NaN;
+        }
+        return alignZero(t - maxDistance) <= 0 ? t : Double.NaN;
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with a triangle of an array,
+     * like {@link Triangle#findClosestGeoIntersectionHelper}
+     *
+     * @return the distance, or NaN if the ray does not intersect the triangle closer than max distance
+     */
+    static double triangleDistance(double[] s, int capacity, int i,
+                                   double ox, double oy, double oz, double dx, double dy, double dz,
+                                   double maxDistance) {
+        double nx = s[i], ny = s[capacity + i], nz = s[2 * capacity + i];
+        double nv = dx * nx + dy * ny + dz * nz; //nv=n*v
+        if (isZero(nv))
+            return Double.NaN;
+
+        //vectors from the ray start point to the vertices, the first one is also the point of the plane
+        double x1 = s[3 * capacity + i] - ox, y1 = s[4 * capacity + i] - oy, z1 = s[5 * capacity + i] - oz;
+        if (isZero(x1) && isZero(y1) && isZero(z1))
+            return Double.NaN;
+
+        double numerator = x1 * nx + y1 * ny + z1 * nz; //numerator=n*Q0_P0
+        if (isZero(numerator))
+            return Double.NaN;
+        double t = alignZero(numerator / nv);
+        if (!(t > 0 && alignZero(t - maxDistance) <= 0))
+            return Double.NaN;
+
+        double x2 = s[6 * capacity + i] - ox, y2 = s[7 * capacity + i] - oy, z2 = s[8 * capacity + i] - oz;
+        double x3 = s[9 * capacity + i] - ox, y3 = s[10 * capacity + i] - oy, z3 = s[11 * capacity + i] - oz;
+        double s1 = Polygon.tripleProduct(dx, dy, dz, x1, y1, z1, x2, y2, z2); //s1 = v * (v1 X v2)
+        double s2 = Polygon.tripleProduct(dx, dy, dz, x2, y2, z2, x3, y3, z3); //s2 = v * (v2 X v3)
+        double s3 = Polygon.tripleProduct(dx, dy, dz, x3, y3, z3, x1, y1, z1); //s3 = v * (v3 X v1)
+        if (isZero(s1) || isZero(s2) || isZero(s3))
+            return Double.NaN;
+        return (s1 > 0 && s2 > 0 && s3 > 0) || (s1 < 0 && s2 < 0 && s3 < 0) ? t : Double.NaN;
+    }
+
+    /**
+     * Kernels testing one geometry at a time
+     */
+    private static class ScalarBatchKernels extends BatchKernels {
+        @Override
+        public String getName() {
+            return "scalar";
+        }
+
+        @Override
+        public int closestSphere(double[] spheres, int capacity, int from, int to,
+                                 double ox, double oy, double oz, double dx, double dy, double dz,
+                                 double maxDistance, double[] t) {
+            int closest = -1;
+            for (int i = from; i < to; ++i) {
+                double d = sphereDistance(spheres, capacity, i, ox, oy, oz, dx, dy, dz, maxDistance);
+                if (d < maxDistance || (closest < 0 && !Double.isNaN(d))) {
+                    closest = i;
+                    maxDistance = d;
+                }
+            }
+            t[0] = maxDistance;
+            return closest;
+        }
+
+        @Override
+        public int closestTriangle(double[] triangles, int capacity, int from, int to,
+                                   double ox, double oy, double oz, double dx, double dy, double dz,
+                                   double maxDistance, double[] t) {
+            int closest = -1;
+            for (int i = from; i < to; ++i) {
+                double d = triangleDistance(triangles, capacity, i, ox, oy, oz, dx, dy, dz, maxDistance);
+                if (d < maxDistance || (closest < 0 && !Double.isNaN(d))) {
+                    closest = i;
+                    maxDistance = d;
+                }
+            }
+            t[0] = maxDistance;
+            return closest;
+        }
+    }
+}
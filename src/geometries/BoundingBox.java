@@ -0,0 +1,219 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static primitives.Util.isZero;
+
+/**
+ * BoundingBox class represents an axis-aligned box in Cartesian 3D coordinate system,
+ * used for bounding the extent of finite geometries.
+ */
+public class BoundingBox {
+
+    /**
+     * Relative tolerance of the slab test, so flat boxes of planar geometries are not missed
+     */
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Lower corner coordinates of the box
+     */
+    final double minX, minY, minZ;
+
+    /**
+     * Upper corner coordinates of the box
+     */
+    final double maxX, maxY, maxZ;
+
+    /**
+     * Constructs a box from its lower and upper corner coordinates.
+     *
+     * @param minX lower x coordinate
+     * @param minY lower y coordinate
+     * @param minZ lower z coordinate
+     * @param maxX upper x coordinate
+     * @param maxY upper y coordinate
+     * @param maxZ upper z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructs the smallest box containing all the given points.
+     *
+     * @param points the points to bound
+     * @return the bounding box of the points
+     */
+    public static BoundingBox of(Point... points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Returns the smallest box containing both this box and another one.
+     *
+     * @param other the other box
+     * @return the union of the two boxes
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Returns the surface area of the box, used by the surface area heuristic.
+     *
+     * @return the surface area
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX;
+        double dy = maxY - minY;
+        double dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Returns the center of the box along one of the axes.
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the center coordinate along the axis
+     */
+    public double getCenter(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Returns the lower corner of the box.
+     *
+     * @return the lower corner
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * Returns the upper corner of the box.
+     *
+     * @return the upper corner
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Checks whether a ray passes through the box closer than max distance (slab test).
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance
+     * @return true if the ray enters the box within the distance
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        return entryDistance(p0.getX(), p0.getY(), p0.getZ(),
+                inverse(v.getX()), inverse(v.getY()), inverse(v.getZ()), maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the distance along a ray at which it enters the box (slab test).
+     * The direction is given by its inverse per axis (see {@link #inverse(double)}),
+     * so it can be computed once per ray and reused for many boxes.
+     *
+     * @param ox          ray origin x
+     * @param oy          ray origin y
+     * @param oz          ray origin z
+     * @param ix          inverse of the ray direction x
+     * @param iy          inverse of the ray direction y
+     * @param iz          inverse of the ray direction z
+     * @param maxDistance the maximum distance
+     * @return the entry distance (0 if the origin is inside), or positive infinity if the ray misses the box
+     */
+    double entryDistance(double ox, double oy, double oz, double ix, double iy, double iz, double maxDistance) {
+        return slab(minX, minY, minZ, maxX, maxY, maxZ, ox, oy, oz, ix, iy, iz, maxDistance);
+    }
+
+    /**
+     * Slab test of a ray against box bounds given as raw coordinates.
+     * Axes the ray is parallel to (infinite inverse) only check that the origin is between the slabs.
+     *
+     * @return the entry distance, or positive infinity if the ray misses the box
+     */
+    static double slab(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                       double ox, double oy, double oz, double ix, double iy, double iz, double maxDistance) {
+        double tNear = 0;
+        double tFar = maxDistance;
+
+        if (Double.isInfinite(ix)) {
+            if (ox < minX || ox > maxX) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minX - ox) * ix;
+            double t2 = (maxX - ox) * ix;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+        }
+
+        if (Double.isInfinite(iy)) {
+            if (oy < minY || oy > maxY) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minY - oy) * iy;
+            double t2 = (maxY - oy) * iy;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+        }
+
+        if (Double.isInfinite(iz)) {
+            if (oz < minZ || oz > maxZ) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minZ - oz) * iz;
+            double t2 = (maxZ - oz) * iz;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+        }
+
+        //the ray leaves one of the slabs before it enters another one
+        if (tNear - tFar > EPSILON * (1 + Math.abs(tFar)))
+            return Double.POSITIVE_INFINITY;
+        return tNear;
+    }
+
+    /**
+     * Returns the inverse of a ray direction component for the slab test,
+     * with (almost) zero components mapped to infinity.
+     *
+     * @param d the direction component
+     * @return 1/d, or positive infinity if d is zero
+     */
+    static double inverse(double d) {
+        return isZero(d) ? Double.POSITIVE_INFINITY : 1 / d;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+}
@@ -0,0 +1,651 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import geometries.Intersectable.GeoPoint;
+
+/**
+ * BoundingVolumeHierarchy is an acceleration structure over a collection of intersectable geometries.
+ * The finite geometries are arranged in a binary tree of axis-aligned bounding boxes, built with the
+ * binned surface area heuristic (SAH) by {@link HierarchyBuilder}, so a ray only tests the geometries whose
+ * boxes it passes through.
+ * Infinite geometries (such as planes and tubes) have no bounding box, and are kept in a side list
+ * which is tested for every ray.
+ * <p>
+ * The tree is stored flattened in arrays: the left child of an inner node is the node right after it,
+ * and the geometries of every leaf are a contiguous range of the ordered geometries array.
+ * The work done by the traversals is counted in the {@link IntersectionStatistics} of renders which collect
+ * statistics, so the efficiency of the hierarchy on a scene can be measured - otherwise it is not counted.
+ */
+public class BoundingVolumeHierarchy {
+    /**
+     * The bounded geometries, ordered so the geometries of each leaf are contiguous
+     */
+    private final Intersectable[] primitives;
+    /**
+     * The geometries without a bounding box, tested for every ray
+     */
+    private final Intersectable[] unbounded;
+
+    /**
+     * Bounds of the nodes, 6 values (min x,y,z and max x,y,z) per node
+     */
+    private double[] bounds;
+    /**
+     * For a leaf - index of its first geometry, for an inner node - index of its right child
+     */
+    private int[] offsets;
+    /**
+     * For a leaf - amount of its geometries, for an inner node - 0
+     */
+    private int[] counts;
+
+    /**
+     * For a leaf - amount of its first geometries which are spheres, and of the triangles after them,
+     * which are intersected by the batch kernels
+     */
+    private int[] sphereCounts;
+    private int[] triangleCounts;
+    /**
+     * The spheres and the triangles of the leaves in arrays for the batch kernels,
+     * at the indices of the geometries in the ordered geometries array
+     */
+    private double[] sphereData;
+    private double[] triangleData;
+
+    private int nodeCount = 0;
+    private int leafCount = 0;
+    private int depth = 0;
+    private final long buildTime;
+
+    /**
+     * Builds the hierarchy over the given geometries
+     *
+     * @param intersectables the geometries to arrange
+     */
+    BoundingVolumeHierarchy(List<Intersectable> intersectables) {
+        long start = System.nanoTime();
+
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> infinite = new ArrayList<>();
+        List<BoundingBox> boundingBoxes = new ArrayList<>();
+        for (Intersectable item : intersectables) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null) {
+                infinite.add(item);
+            } else {
+                bounded.add(item);
+                boundingBoxes.add(box);
+            }
+        }
+        unbounded = infinite.toArray(new Intersectable[0]);
+
+        int n = bounded.size();
+        double[] boxes = new double[6 * n];
+        for (int i = 0; i < n; ++i) {
+            BoundingBox box = boundingBoxes.get(i);
+            boxes[6 * i] = box.minX;
+            boxes[6 * i + 1] = box.minY;
+            boxes[6 * i + 2] = box.minZ;
+            boxes[6 * i + 3] = box.maxX;
+            boxes[6 * i + 4] = box.maxY;
+            boxes[6 * i + 5] = box.maxZ;
+        }
+
+        HierarchyBuilder tree = new HierarchyBuilder(boxes);
+        int[] order = tree.getOrder();
+        primitives = new Intersectable[n];
+        for (int i = 0; i < n; ++i)
+            primitives[i] = bounded.get(order[i]);
+        bounds = tree.getBounds();
+        offsets = tree.getOffsets();
+        counts = tree.getCounts();
+        nodeCount = counts.length;
+        leafCount = tree.getLeafCount();
+        depth = tree.getDepth();
+        packBatches();
+
+        buildTime = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Constructs a hierarchy which was already built, from its arrays
+     */
+    private BoundingVolumeHierarchy(Intersectable[] primitives, Intersectable[] unbounded, double[] bounds,
+                                    int[] offsets, int[] counts, int[] sphereCounts, int[] triangleCounts,
+                                    int leafCount, int depth) {
+        long start = System.nanoTime();
+        this.primitives = primitives;
+        this.unbounded = unbounded;
+        this.bounds = bounds;
+        this.offsets = offsets;
+        this.counts = counts;
+        this.sphereCounts = sphereCounts;
+        this.triangleCounts = triangleCounts;
+        this.nodeCount = counts.length;
+        this.leafCount = leafCount;
+        this.depth = depth;
+        packData();
+        buildTime = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * @return the amount of bytes {@link #write(ByteBuffer, Map)} writes
+     */
+    long serializedSize() {
+        return GeometrySerializer.arraySize(new int[primitives.length])
+                + GeometrySerializer.arraySize(new int[unbounded.length])
+                + GeometrySerializer.arraySize(bounds) + GeometrySerializer.arraySize(offsets)
+                + GeometrySerializer.arraySize(counts) + GeometrySerializer.arraySize(sphereCounts)
+                + GeometrySerializer.arraySize(triangleCounts) + 2 * Integer.BYTES;
+    }
+
+    /**
+     * Writes the hierarchy - the geometries are written as their indices in the collection
+     *
+     * @param buffer  the buffer
+     * @param indices the indices of the geometries in the collection
+     */
+    void write(ByteBuffer buffer, Map<Intersectable, Integer> indices) {
+        GeometrySerializer.writeArray(indicesOf(primitives, indices), buffer);
+        GeometrySerializer.writeArray(indicesOf(unbounded, indices), buffer);
+        GeometrySerializer.writeArray(bounds, buffer);
+        GeometrySerializer.writeArray(offsets, buffer);
+        GeometrySerializer.writeArray(counts, buffer);
+        GeometrySerializer.writeArray(sphereCounts, buffer);
+        GeometrySerializer.writeArray(triangleCounts, buffer);
+        buffer.putInt(leafCount);
+        buffer.putInt(depth);
+    }
+
+    /**
+     * @return the indices of geometries in the collection
+     */
+    private static int[] indicesOf(Intersectable[] items, Map<Intersectable, Integer> indices) {
+        int[] result = new int[items.length];
+        for (int i = 0; i < items.length; ++i) {
+            Integer index = indices.get(items[i]);
+            if (index == null)
+                throw new IllegalArgumentException("The hierarchy holds a geometry which is not in the collection");
+            result[i] = index;
+        }
+        return result;
+    }
+
+    /**
+     * Reads a hierarchy written by {@link #write(ByteBuffer, Map)}, without building it again
+     *
+     * @param buffer the buffer
+     * @param items  the geometries of the collection
+     * @return the hierarchy
+     */
+    static BoundingVolumeHierarchy read(ByteBuffer buffer, Intersectable[] items) {
+        int[] primitiveIndices = GeometrySerializer.readInts(buffer);
+        int[] unboundedIndices = GeometrySerializer.readInts(buffer);
+        Intersectable[] primitives = new Intersectable[primitiveIndices.length];
+        for (int i = 0; i < primitives.length; ++i)
+            primitives[i] = items[primitiveIndices[i]];
+        Intersectable[] unbounded = new Intersectable[unboundedIndices.length];
+        for (int i = 0; i < unbounded.length; ++i)
+            unbounded[i] = items[unboundedIndices[i]];
+        return new BoundingVolumeHierarchy(primitives, unbounded, GeometrySerializer.readDoubles(buffer),
+                GeometrySerializer.readInts(buffer), GeometrySerializer.readInts(buffer),
+                GeometrySerializer.readInts(buffer), GeometrySerializer.readInts(buffer),
+                buffer.getInt(), buffer.getInt());
+    }
+
+    /**
+     * Orders the geometries of every leaf so the spheres are first and the triangles are after them,
+     * and stores them in the arrays of the batch kernels
+     */
+    private void packBatches() {
+        sphereCounts = new int[nodeCount];
+        triangleCounts = new int[nodeCount];
+        for (int node = 0; node < nodeCount; ++node) {
+            int first = offsets[node];
+            int count = counts[node];
+            if (count == 0)
+                continue;
+
+            Intersectable[] leaf = Arrays.copyOfRange(primitives, first, first + count);
+            int k = first;
+            for (Intersectable item : leaf)
+                if (item.getClass() == Sphere.class)
+                    primitives[k++] = item;
+            sphereCounts[node] = k - first;
+            for (Intersectable item : leaf)
+                if (item.getClass() == Triangle.class)
+                    primitives[k++] = item;
+            triangleCounts[node] = k - first - sphereCounts[node];
+            for (Intersectable item : leaf)
+                if (item.getClass() != Sphere.class && item.getClass() != Triangle.class)
+                    primitives[k++] = item;
+        }
+        packData();
+    }
+
+    /**
+     * Stores the spheres and the triangles in the arrays of the batch kernels
+     */
+    private void packData() {
+        int n = primitives.length;
+        for (int i = 0; i < n; ++i) {
+            if (primitives[i].getClass() == Sphere.class) {
+                if (sphereData == null)
+                    sphereData = new double[BatchKernels.SPHERE_FIELDS * n];
+                BatchKernels.setSphere(sphereData, n, i, (Sphere) primitives[i]);
+            } else if (primitives[i].getClass() == Triangle.class) {
+                if (triangleData == null)
+                    triangleData = new double[BatchKernels.TRIANGLE_FIELDS * n];
+                BatchKernels.setTriangle(triangleData, n, i, (Triangle) primitives[i]);
+            }
+        }
+    }
+
+    /**
+     * Finds the intersections of a ray with the geometries that are closer than max distance.
+     * Only the geometries in the leaves whose boxes the ray passes through are tested.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance
+     * @return list of the intersections, or null if there are none
+     */
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded)
+            result = addAll(result, item.findGeoIntersections(ray, maxDistance));
+
+        if (nodeCount == 0)
+            return result;
+
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double ix = BoundingBox.inverse(v.getX());
+        double iy = BoundingBox.inverse(v.getY());
+        double iz = BoundingBox.inverse(v.getZ());
+
+        long visits = 0;
+        long tests = 0;
+        int[] stack = new int[depth + 2];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            ++visits;
+            int b = 6 * node;
+            if (BoundingBox.slab(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+                    ox, oy, oz, ix, iy, iz, maxDistance) == Double.POSITIVE_INFINITY)
+                continue;
+
+            int count = counts[node];
+            if (count > 0) {
+                int first = offsets[node];
+                for (int i = first; i < first + count; ++i) {
+                    ++tests;
+                    result = addAll(result, primitives[i].findGeoIntersections(ray, maxDistance));
+                }
+            } else {
+                stack[top++] = offsets[node];
+                stack[top++] = node + 1;
+            }
+        }
+
+        countTraversals(1, visits, tests);
+        return result;
+    }
+
+    /**
+     * Finds the closest intersection of a ray with the geometries of the hierarchy.
+     * The closer child of every node is visited first, and nodes which the ray enters
+     * farther than the closest intersection found so far are skipped.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance
+     * @return the closest intersection with its distance, or null if there is none
+     */
+    GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+        for (Intersectable item : unbounded) {
+            GeoPoint gp = item.findClosestGeoIntersection(ray, maxDistance);
+            if (gp != null && (closest == null || gp.t < closest.t)) {
+                closest = gp;
+                maxDistance = gp.t;
+            }
+        }
+
+        if (nodeCount == 0)
+            return closest;
+
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+        double ix = BoundingBox.inverse(dx);
+        double iy = BoundingBox.inverse(dy);
+        double iz = BoundingBox.inverse(dz);
+        BatchKernels kernels = BatchKernels.get();
+        double[] t = new double[1];
+
+        long visits = 0;
+        long tests = 0;
+        //nodes waiting to be visited, with the distances in which the ray enters them
+        int[] stack = new int[depth + 2];
+        double[] entries = new double[depth + 2];
+        int top = 0;
+        int b = 0;
+        double entry = BoundingBox.slab(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4],
+                bounds[b + 5], ox, oy, oz, ix, iy, iz, maxDistance);
+        //the boxes of the children are tested when their parent is visited, and counted as visits there
+        ++visits;
+        if (entry != Double.POSITIVE_INFINITY) {
+            stack[top] = 0;
+            entries[top++] = entry;
+        }
+        while (top > 0) {
+            int node = stack[--top];
+            //an intersection closer than the node was found after it was pushed
+            if (entries[top] > maxDistance)
+                continue;
+
+            int count = counts[node];
+            if (count > 0) {
+                int first = offsets[node];
+                int spheres = sphereCounts[node];
+                int triangles = triangleCounts[node];
+                //the spheres and the triangles of the leaf are intersected together by the kernels,
+                //and only the closest one is intersected on its own to get its intersection point
+                int hit = spheres == 0 ? -1 : kernels.closestSphere(sphereData, primitives.length,
+                        first, first + spheres, ox, oy, oz, dx, dy, dz, maxDistance, t);
+                if (hit >= 0) {
+                    GeoPoint gp = primitives[hit].findClosestGeoIntersectionHelper(ray, maxDistance);
+                    if (gp != null && (closest == null || gp.t < closest.t)) {
+                        closest = gp;
+                        maxDistance = gp.t;
+                    }
+                }
+                hit = triangles == 0 ? -1 : kernels.closestTriangle(triangleData, primitives.length,
+                        first + spheres, first + spheres + triangles, ox, oy, oz, dx, dy, dz, maxDistance, t);
+                if (hit >= 0) {
+                    GeoPoint gp = primitives[hit].findClosestGeoIntersectionHelper(ray, maxDistance);
+                    if (gp != null && (closest == null || gp.t < closest.t)) {
+                        closest = gp;
+                        maxDistance = gp.t;
+                    }
+                }
+                tests += spheres + triangles;
+                IntersectionStatistics statistics = IntersectionStatistics.current();
+                if (statistics != null) {
+                    for (int i = first; i < first + spheres + triangles; ++i)
+                        statistics.count(primitives[i]);
+                }
+
+                for (int i = first + spheres + triangles; i < first + count; ++i) {
+                    ++tests;
+                    GeoPoint gp = primitives[i].findClosestGeoIntersection(ray, maxDistance);
+                    if (gp != null && (closest == null || gp.t < closest.t)) {
+                        closest = gp;
+                        maxDistance = gp.t;
+                    }
+                }
+            } else {
+                int left = node + 1;
+                int right = offsets[node];
+                b = 6 * left;
+                double leftEntry = BoundingBox.slab(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3],
+                        bounds[b + 4], bounds[b + 5], ox, oy, oz, ix, iy, iz, maxDistance);
+                b = 6 * right;
+                double rightEntry = BoundingBox.slab(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3],
+                        bounds[b + 4], bounds[b + 5], ox, oy, oz, ix, iy, iz, maxDistance);
+                visits += 2;
+                //push the farther child first, so the closer one is visited first
+                if (leftEntry > rightEntry) {
+                    int node2 = left;
+                    left = right;
+                    right = node2;
+                    double entry2 = leftEntry;
+                    leftEntry = rightEntry;
+                    rightEntry = entry2;
+                }
+                if (rightEntry != Double.POSITIVE_INFINITY) {
+                    stack[top] = right;
+                    entries[top++] = rightEntry;
+                }
+                if (leftEntry != Double.POSITIVE_INFINITY) {
+                    stack[top] = left;
+                    entries[top++] = leftEntry;
+                }
+            }
+        }
+
+        countTraversals(1, visits, tests);
+        return closest;
+    }
+
+    /**
+     * Finds the closest intersections of a packet of rays with the geometries of the hierarchy.
+     * The whole packet traverses the tree together: a node is visited if any of the rays enters its box,
+     * the child which the packet enters first is visited first, and nodes which all the rays enter
+     * farther than their closest intersections found so far are skipped.
+     *
+     * @param packet the rays
+     */
+    void findClosestGeoIntersections(RayPacket packet) {
+        for (Intersectable item : unbounded)
+            item.findClosestGeoIntersections(packet);
+
+        if (nodeCount == 0)
+            return;
+
+        long visits = 0;
+        long tests = 0;
+        //nodes waiting to be visited, with the closest distances in which the rays enter them
+        int[] stack = new int[depth + 2];
+        double[] entries = new double[depth + 2];
+        int top = 0;
+        double entry = packetEntry(packet, 0);
+        ++visits;
+        if (entry != Double.POSITIVE_INFINITY) {
+            stack[top] = 0;
+            entries[top++] = entry;
+        }
+        while (top > 0) {
+            int node = stack[--top];
+            //intersections closer than the node were found for all the rays after it was pushed
+            if (entries[top] > packet.maxDistance())
+                continue;
+
+            int count = counts[node];
+            if (count > 0) {
+                int first = offsets[node];
+                for (int i = first; i < first + count; ++i) {
+                    ++tests;
+                    primitives[i].findClosestGeoIntersections(packet);
+                }
+            } else {
+                int left = node + 1;
+                int right = offsets[node];
+                double leftEntry = packetEntry(packet, left);
+                double rightEntry = packetEntry(packet, right);
+                visits += 2;
+                //push the farther child first, so the closer one is visited first
+                if (leftEntry > rightEntry) {
+                    int node2 = left;
+                    left = right;
+                    right = node2;
+                    double entry2 = leftEntry;
+                    leftEntry = rightEntry;
+                    rightEntry = entry2;
+                }
+                if (rightEntry != Double.POSITIVE_INFINITY) {
+                    stack[top] = right;
+                    entries[top++] = rightEntry;
+                }
+                if (leftEntry != Double.POSITIVE_INFINITY) {
+                    stack[top] = left;
+                    entries[top++] = leftEntry;
+                }
+            }
+        }
+
+        countTraversals(packet.size, visits, tests);
+    }
+
+    /**
+     * @param packet the rays
+     * @param node   index of a node
+     * @return the closest distance in which any ray of the packet enters the box of the node,
+     * or positive infinity if they all miss it
+     */
+    private double packetEntry(RayPacket packet, int node) {
+        int b = 6 * node;
+        return packet.entryDistance(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4],
+                bounds[b + 5]);
+    }
+
+    /**
+     * Finds the transparency along a ray through the geometries of the hierarchy,
+     * stopping the traversal as soon as the light is blocked.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance
+     * @param ktr         the transparency accumulated so far
+     * @param minK        the transparency level below which the light is considered blocked
+     * @return the accumulated transparency, or {@link Double3#ZERO} if it is lower than min k
+     */
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        for (Intersectable item : unbounded) {
+            ktr = item.findTransparency(ray, maxDistance, ktr, minK);
+            if (ktr == Double3.ZERO)
+                return ktr;
+        }
+
+        if (nodeCount == 0)
+            return ktr;
+
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double ix = BoundingBox.inverse(v.getX());
+        double iy = BoundingBox.inverse(v.getY());
+        double iz = BoundingBox.inverse(v.getZ());
+
+        long visits = 0;
+        long tests = 0;
+        int[] stack = new int[depth + 2];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0 && ktr != Double3.ZERO) {
+            int node = stack[--top];
+            ++visits;
+            int b = 6 * node;
+            if (BoundingBox.slab(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+                    ox, oy, oz, ix, iy, iz, maxDistance) == Double.POSITIVE_INFINITY)
+                continue;
+
+            int count = counts[node];
+            if (count > 0) {
+                int first = offsets[node];
+                for (int i = first; i < first + count && ktr != Double3.ZERO; ++i) {
+                    ++tests;
+                    ktr = primitives[i].findTransparency(ray, maxDistance, ktr, minK);
+                }
+            } else {
+                stack[top++] = offsets[node];
+                stack[top++] = node + 1;
+            }
+        }
+
+        countTraversals(1, visits, tests);
+        return ktr;
+    }
+
+    /**
+     * Counts traversals of the hierarchy in the intersection statistics of the current thread, if it counts
+     *
+     * @param rays   amount of rays traced through the hierarchy
+     * @param visits amount of nodes the rays visited
+     * @param tests  amount of geometries the rays were tested with
+     */
+    private static void countTraversals(int rays, long visits, long tests) {
+        IntersectionStatistics statistics = IntersectionStatistics.current();
+        if (statistics != null)
+            statistics.countTraversals(rays, visits, tests);
+    }
+
+    /**
+     * Adds intersections to a result list, creating it on the first intersections found
+     */
+    private static List<GeoPoint> addAll(List<GeoPoint> result, List<GeoPoint> items) {
+        if (items == null)
+            return result;
+        if (result == null)
+            result = new LinkedList<>();
+        result.addAll(items);
+        return result;
+    }
+
+    /**
+     * @return amount of nodes in the tree
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return amount of leaves in the tree
+     */
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * @return depth of the deepest leaf (the root is in depth 0)
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return amount of geometries in the tree
+     */
+    public int getBoundedCount() {
+        return primitives.length;
+    }
+
+    /**
+     * @return amount of infinite geometries, tested for every ray
+     */
+    public int getUnboundedCount() {
+        return unbounded.length;
+    }
+
+    /**
+     * @return time the build took, in milliseconds
+     */
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingVolumeHierarchy{" +
+                "geometries=" + getBoundedCount() +
+                ", unbounded=" + getUnboundedCount() +
+                ", nodes=" + nodeCount +
+                ", leaves=" + leafCount +
+                ", depth=" + depth +
+                ", buildTime=" + buildTime + "ms" +
+                '}';
+    }
+}
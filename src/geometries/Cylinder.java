@@ -96,6 +96,28 @@ public class Cylinder extends Tube {
         Point o = p0.add(v.scale(t));  // o = p0 + t * v
         return point.subtract(o).normalize();
     }
+    /**
+     * Calculates the box bounding the two caps of the cylinder.
+     * Along each axis a cap disc extends radius*sqrt(1-d^2) from its center, where d is
+     * the component of the axis direction along that axis.
+     *
+     * @return the bounding box of the cylinder
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        Vector v = axisRay.getDir();
+        Point p0 = axisRay.getP0();
+        Point p1 = axisRay.getPoint(height);
+
+        double ex = radius * Math.sqrt(Math.max(0, 1 - v.getX() * v.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - v.getY() * v.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - v.getZ() * v.getZ()));
+
+        return new BoundingBox(
+                Math.min(p0.getX(), p1.getX()) - ex, Math.min(p0.getY(), p1.getY()) - ey, Math.min(p0.getZ(), p1.getZ()) - ez,
+                Math.max(p0.getX(), p1.getX()) + ex, Math.max(p0.getY(), p1.getY()) + ey, Math.max(p0.getZ(), p1.getZ()) + ez);
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         Point p0 = axisRay.getP0();
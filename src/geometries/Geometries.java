@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
@@ -19,6 +20,16 @@ public class Geometries extends Intersectable {
      */
     protected List<Intersectable> intersectablesList;
 
+    /**
+     * Bounding volume hierarchy over the geometries, null until it is built
+     */
+    private BoundingVolumeHierarchy bvh = null;
+
+    /**
+     * The collections containing this collection, whose bounding boxes depend on its geometries
+     */
+    private final List<Geometries> parents = new LinkedList<>();
+
     /**
      * Constructs an empty collection of geometries.
      */
@@ -34,15 +45,94 @@ public class Geometries extends Intersectable {
     public Geometries(Intersectable... intersectables) {
         intersectablesList = new LinkedList<>();
         Collections.addAll(intersectablesList, intersectables);
+        addParent(intersectables);
     }
 
     /**
      * Adds one or more intersectables to this collection.
+     * If a bounding volume hierarchy was built, it is discarded and should be built again.
+     * The same goes for the collections containing this collection: their bounding boxes are calculated again,
+     * and their hierarchies are discarded.
      *
      * @param intersectables the intersectables to add to the collection
      */
     public void add(Intersectable... intersectables) {
         Collections.addAll(intersectablesList, intersectables);
+        addParent(intersectables);
+        invalidate();
+    }
+
+    /**
+     * Registers this collection as a parent of the collections among the given intersectables
+     *
+     * @param intersectables the intersectables added to the collection
+     */
+    private void addParent(Intersectable... intersectables) {
+        for (Intersectable item : intersectables) {
+            if (item instanceof Geometries child) {
+                child.parents.add(this);
+            }
+        }
+    }
+
+    /**
+     * Discards the bounding box and the hierarchy of this collection and of all the collections containing it
+     */
+    private void invalidate() {
+        resetBoundingBox();
+        bvh = null;
+        for (Geometries parent : parents) {
+            parent.invalidate();
+        }
+    }
+
+    /**
+     * Builds a bounding volume hierarchy over the geometries of the collection.
+     * From now on, rays are intersected only with the geometries whose bounding boxes they pass through,
+     * while infinite geometries (planes, tubes) are tested for every ray.
+     * Should be called after all the geometries were added.
+     *
+     * @return the current geometries
+     */
+    public Geometries buildBVH() {
+        bvh = new BoundingVolumeHierarchy(intersectablesList);
+        return this;
+    }
+
+    /**
+     * Sets a bounding volume hierarchy which was already built over the geometries of the collection
+     *
+     * @param bvh the hierarchy
+     */
+    void setBVH(BoundingVolumeHierarchy bvh) {
+        this.bvh = bvh;
+    }
+
+    /**
+     * Getter for the bounding volume hierarchy, which also holds its traversal statistics
+     *
+     * @return the hierarchy, or null if it was not built
+     */
+    public BoundingVolumeHierarchy getBVH() {
+        return bvh;
+    }
+
+    /**
+     * Calculates the box bounding all the geometries of the collection
+     *
+     * @return the bounding box, or null if the collection is empty or contains an infinite geometry
+     */
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        BoundingBox result = null;
+        for (Intersectable item : intersectablesList) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null) {
+                return null;
+            }
+            result = result == null ? box : result.union(box);
+        }
+        return result;
     }
 
     /**
@@ -54,6 +144,10 @@ public class Geometries extends Intersectable {
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        if (bvh != null) {
+            return bvh.findGeoIntersections(ray, maxDistance);
+        }
+
         List<GeoPoint> result = null;
 
         //iterate over the list of the geometries and find the intersections for each one
@@ -69,6 +163,68 @@ public class Geometries extends Intersectable {
         }
         return result;
     }
-}
 
+    /**
+     * Calculates the closest intersection between this collection of geometries and a given ray.
+     * Every intersection found shortens the distance in which the rest of the geometries are searched.
+     *
+     * @param ray the ray to intersect with the geometries
+     * @return the closest intersection, or null if no intersection exists
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        if (bvh != null) {
+            return bvh.findClosestGeoIntersection(ray, maxDistance);
+        }
+
+        GeoPoint closest = null;
+        for (Intersectable item : intersectablesList) {
+            GeoPoint gp = item.findClosestGeoIntersection(ray, maxDistance);
+            if (gp != null && (closest == null || gp.t < closest.t)) {
+                closest = gp;
+                maxDistance = gp.t;
+            }
+        }
+        return closest;
+    }
 
+    /**
+     * Calculates the closest intersections between this collection of geometries and a packet of rays.
+     * The whole packet is passed to every geometry, or to the bounding volume hierarchy if it was built.
+     *
+     * @param packet the rays to intersect with the geometries
+     */
+    @Override
+    protected void findClosestGeoIntersectionsHelper(RayPacket packet) {
+        if (bvh != null) {
+            bvh.findClosestGeoIntersections(packet);
+            return;
+        }
+
+        for (Intersectable item : intersectablesList) {
+            item.findClosestGeoIntersections(packet);
+        }
+    }
+
+    /**
+     * Calculates the transparency along a ray through the geometries of the collection.
+     * Stops as soon as the light is blocked, without checking the rest of the geometries.
+     *
+     * @param ray the ray to intersect with the geometries
+     * @return the accumulated transparency, or {@link Double3#ZERO} if it is lower than min k
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (bvh != null) {
+            return bvh.findTransparency(ray, maxDistance, ktr, minK);
+        }
+
+        for (Intersectable item : intersectablesList) {
+            ktr = item.findTransparency(ray, maxDistance, ktr, minK);
+            if (ktr == Double3.ZERO) {
+                return ktr;
+            }
+        }
+        return ktr;
+    }
+}
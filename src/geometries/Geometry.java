@@ -22,6 +22,17 @@ public abstract class Geometry extends Intersectable{
 
     public abstract Vector getNormal(Point point);
 
+    /**
+     * getter for the normal at an intersection point,
+     * geometries of many faces override it to use the face of the intersection
+     *
+     * @param gp the intersection
+     * @return the normal
+     */
+    public Vector getNormal(Intersectable.GeoPoint gp) {
+        return getNormal(gp.point);
+    }
+
     /**
      * getter for the emission
      *
@@ -0,0 +1,287 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import primitives.Color;
+
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary serialization of geometries into byte buffers (usually memory-mapped files), for caching scenes.
+ * Every geometry is written as a tag of its type, its emission and material, and the fields of its type.
+ * A collection of geometries is written with all its geometries, followed by its bounding volume hierarchy
+ * if it was built, and meshes are written with the hierarchy of their faces, so nothing is rebuilt when read.
+ * The size of a geometry is calculated before writing, so the file can be mapped at its exact size.
+ * <p>
+ * Only the geometries of this package can be serialized - any other kind (and a uniform grid) is rejected.
+ */
+public final class GeometrySerializer {
+    // tags of the types of the geometries
+    private static final byte GEOMETRIES = 1;
+    private static final byte SPHERE = 2;
+    private static final byte PLANE = 3;
+    private static final byte TRIANGLE = 4;
+    private static final byte POLYGON = 5;
+    private static final byte TUBE = 6;
+    private static final byte CYLINDER = 7;
+    private static final byte MESH = 8;
+
+    /**
+     * Size of the emission and the material of a geometry - 16 doubles and the shininess
+     */
+    private static final int GEOMETRY_SIZE = 16 * Double.BYTES + Integer.BYTES;
+
+    private GeometrySerializer() {
+    }
+
+    /**
+     * Calculates the amount of bytes a geometry takes
+     *
+     * @param item the geometry
+     * @return the size in bytes
+     * @throws IllegalArgumentException if the geometry cannot be serialized
+     */
+    public static long size(Intersectable item) {
+        if (item.getClass() == Geometries.class) {
+            Geometries geometries = (Geometries) item;
+            long size = 1 + Integer.BYTES + 1;
+            for (Intersectable child : geometries.intersectablesList)
+                size += size(child);
+            BoundingVolumeHierarchy bvh = geometries.getBVH();
+            return bvh == null ? size : size + bvh.serializedSize();
+        }
+        long size = 1 + GEOMETRY_SIZE;
+        Class<?> type = item.getClass();
+        if (type == Sphere.class)
+            return size + 4 * Double.BYTES;
+        if (type == Plane.class)
+            return size + 6 * Double.BYTES;
+        if (type == Triangle.class)
+            return size + 9 * Double.BYTES;
+        if (type == Polygon.class)
+            return size + Integer.BYTES + 3L * Double.BYTES * ((Polygon) item).vertices.size();
+        if (type == Tube.class)
+            return size + 7 * Double.BYTES;
+        if (type == Cylinder.class)
+            return size + 8 * Double.BYTES;
+        if (type == Mesh.class)
+            return size + ((Mesh) item).serializedSize();
+        throw new IllegalArgumentException("A geometry of type " + type.getSimpleName() + " cannot be serialized");
+    }
+
+    /**
+     * Writes a geometry
+     *
+     * @param item   the geometry
+     * @param buffer the buffer, with at least {@link #size(Intersectable)} bytes remaining
+     * @throws IllegalArgumentException if the geometry cannot be serialized
+     */
+    public static void write(Intersectable item, ByteBuffer buffer) {
+        if (item.getClass() == Geometries.class) {
+            Geometries geometries = (Geometries) item;
+            buffer.put(GEOMETRIES);
+            buffer.putInt(geometries.intersectablesList.size());
+            Map<Intersectable, Integer> indices = new IdentityHashMap<>();
+            // a child which is held twice is numbered by its first place in the list
+            int index = 0;
+            for (Intersectable child : geometries.intersectablesList) {
+                indices.putIfAbsent(child, index++);
+                write(child, buffer);
+            }
+            BoundingVolumeHierarchy bvh = geometries.getBVH();
+            buffer.put((byte) (bvh == null ? 0 : 1));
+            if (bvh != null)
+                bvh.write(buffer, indices);
+            return;
+        }
+
+        Geometry geometry = (Geometry) item;
+        Class<?> type = item.getClass();
+        if (type == Sphere.class) {
+            buffer.put(SPHERE);
+            writeGeometry(geometry, buffer);
+            buffer.putDouble(((Sphere) item).radius);
+            writePoint(((Sphere) item).center, buffer);
+        } else if (type == Plane.class) {
+            buffer.put(PLANE);
+            writeGeometry(geometry, buffer);
+            writePoint(((Plane) item).q0, buffer);
+            writePoint(((Plane) item).normal, buffer);
+        } else if (type == Triangle.class || type == Polygon.class) {
+            List<Point> vertices = ((Polygon) item).vertices;
+            buffer.put(type == Triangle.class ? TRIANGLE : POLYGON);
+            writeGeometry(geometry, buffer);
+            if (type == Polygon.class)
+                buffer.putInt(vertices.size());
+            for (Point vertex : vertices)
+                writePoint(vertex, buffer);
+        } else if (type == Tube.class || type == Cylinder.class) {
+            Ray axis = ((Tube) item).axisRay;
+            buffer.put(type == Tube.class ? TUBE : CYLINDER);
+            writeGeometry(geometry, buffer);
+            writePoint(axis.getP0(), buffer);
+            writePoint(axis.getDir(), buffer);
+            buffer.putDouble(((Tube) item).radius);
+            if (type == Cylinder.class)
+                buffer.putDouble(((Cylinder) item).height);
+        } else if (type == Mesh.class) {
+            buffer.put(MESH);
+            writeGeometry(geometry, buffer);
+            ((Mesh) item).write(buffer);
+        } else {
+            throw new IllegalArgumentException("A geometry of type " + type.getSimpleName() + " cannot be serialized");
+        }
+    }
+
+    /**
+     * Reads a geometry
+     *
+     * @param buffer the buffer, at the start of the geometry
+     * @return the geometry
+     * @throws IllegalArgumentException if the buffer does not hold a geometry
+     */
+    public static Intersectable read(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        if (tag == GEOMETRIES) {
+            int count = buffer.getInt();
+            Intersectable[] items = new Intersectable[count];
+            for (int i = 0; i < count; ++i)
+                items[i] = read(buffer);
+            Geometries geometries = new Geometries(items);
+            if (buffer.get() != 0)
+                geometries.setBVH(BoundingVolumeHierarchy.read(buffer, items));
+            return geometries;
+        }
+
+        Color emission = new Color(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+        Material material = new Material().setKd(readDouble3(buffer)).setKs(readDouble3(buffer))
+                .setShininess(buffer.getInt()).setKt(readDouble3(buffer)).setKr(readDouble3(buffer))
+                .setKg(buffer.getDouble());
+        Geometry geometry = switch (tag) {
+            case SPHERE -> new Sphere(buffer.getDouble(), readPoint(buffer));
+            case PLANE -> new Plane(readPoint(buffer), readVector(buffer));
+            case TRIANGLE -> new Triangle(readPoint(buffer), readPoint(buffer), readPoint(buffer));
+            case POLYGON -> {
+                Point[] vertices = new Point[buffer.getInt()];
+                for (int i = 0; i < vertices.length; ++i)
+                    vertices[i] = readPoint(buffer);
+                yield new Polygon(vertices);
+            }
+            case TUBE -> new Tube(new Ray(readPoint(buffer), readVector(buffer)), buffer.getDouble());
+            case CYLINDER -> {
+                Ray axis = new Ray(readPoint(buffer), readVector(buffer));
+                double radius = buffer.getDouble();
+                yield new Cylinder(axis, buffer.getDouble(), radius);
+            }
+            case MESH -> Mesh.read(buffer);
+            default -> throw new IllegalArgumentException("Unknown geometry type " + tag);
+        };
+        return geometry.setEmission(emission).setMaterial(material);
+    }
+
+    /**
+     * Writes the emission and the material of a geometry
+     */
+    private static void writeGeometry(Geometry geometry, ByteBuffer buffer) {
+        writeDouble3(geometry.getEmission().getRgb(), buffer);
+        Material material = geometry.getMaterial();
+        writeDouble3(material.kD, buffer);
+        writeDouble3(material.kS, buffer);
+        buffer.putInt(material.nShininess);
+        writeDouble3(material.kT, buffer);
+        writeDouble3(material.kR, buffer);
+        buffer.putDouble(material.kG);
+    }
+
+    private static void writeDouble3(Double3 value, ByteBuffer buffer) {
+        buffer.putDouble(value.getD1()).putDouble(value.getD2()).putDouble(value.getD3());
+    }
+
+    private static Double3 readDouble3(ByteBuffer buffer) {
+        return new Double3(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static void writePoint(Point point, ByteBuffer buffer) {
+        buffer.putDouble(point.getX()).putDouble(point.getY()).putDouble(point.getZ());
+    }
+
+    private static Point readPoint(ByteBuffer buffer) {
+        return new Point(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static Vector readVector(ByteBuffer buffer) {
+        return new Vector(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    /**
+     * @return the amount of bytes an array takes
+     */
+    static long arraySize(double[] array) {
+        return Integer.BYTES + (array == null ? 0 : (long) Double.BYTES * array.length);
+    }
+
+    /**
+     * @return the amount of bytes an array takes
+     */
+    static long arraySize(int[] array) {
+        return Integer.BYTES + (array == null ? 0 : (long) Integer.BYTES * array.length);
+    }
+
+    /**
+     * Writes an array - its length (-1 for null) and its values
+     */
+    static void writeArray(double[] array, ByteBuffer buffer) {
+        buffer.putInt(array == null ? -1 : array.length);
+        if (array != null) {
+            buffer.asDoubleBuffer().put(array);
+            buffer.position(buffer.position() + Double.BYTES * array.length);
+        }
+    }
+
+    /**
+     * Writes an array - its length (-1 for null) and its values
+     */
+    static void writeArray(int[] array, ByteBuffer buffer) {
+        buffer.putInt(array == null ? -1 : array.length);
+        if (array != null) {
+            buffer.asIntBuffer().put(array);
+            buffer.position(buffer.position() + Integer.BYTES * array.length);
+        }
+    }
+
+    /**
+     * Reads an array written by {@link #writeArray(double[], ByteBuffer)}
+     *
+     * @return the array, or null
+     */
+    static double[] readDoubles(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0)
+            return null;
+        double[] array = new double[length];
+        buffer.asDoubleBuffer().get(array);
+        buffer.position(buffer.position() + Double.BYTES * length);
+        return array;
+    }
+
+    /**
+     * Reads an array written by {@link #writeArray(int[], ByteBuffer)}
+     *
+     * @return the array, or null
+     */
+    static int[] readInts(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0)
+            return null;
+        int[] array = new int[length];
+        buffer.asIntBuffer().get(array);
+        buffer.position(buffer.position() + Integer.BYTES * length);
+        return array;
+    }
+}
@@ -0,0 +1,290 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * HierarchyBuilder builds the tree of a bounding volume hierarchy over items given by their axis-aligned boxes,
+ * with the binned surface area heuristic (SAH). It builds the tree of {@link BoundingVolumeHierarchy}
+ * over geometries and the tree of {@link Mesh} over the faces of the mesh.
+ * <p>
+ * The tree is flattened in arrays: the left child of an inner node is the node right after it,
+ * and the items of every leaf are a contiguous range of the items in the order of {@link #getOrder()}.
+ */
+final class HierarchyBuilder {
+    /**
+     * Number of bins the centroids are divided into when looking for the best split
+     */
+    private static final int BINS = 12;
+    /**
+     * Nodes with this amount of items or fewer are always leaves
+     */
+    private static final int MIN_SPLIT_SIZE = 2;
+    /**
+     * Nodes with more geometries than this are always split
+     */
+    private static final int MAX_LEAF_SIZE = 16;
+    /**
+     * The cost of traversing a node relative to the cost of intersecting an item
+     */
+    private static final double TRAVERSAL_COST = 1;
+
+    /**
+     * Box with no extent, the start value for growing boxes
+     */
+    private static final double[] EMPTY = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+    // the boxes and the centroids of the items, and the items in the order of the leaves
+    private final double[] boxes;
+    private final double[] centroids;
+    private final int[] indices;
+
+    /**
+     * Bounds of the nodes, 6 values (min x,y,z and max x,y,z) per node
+     */
+    private double[] bounds;
+    /**
+     * For a leaf - index of its first item in the order, for an inner node - index of its right child
+     */
+    private int[] offsets;
+    /**
+     * For a leaf - amount of its items, for an inner node - 0
+     */
+    private int[] counts;
+    private int nodeCount = 0;
+    private int leafCount = 0;
+    private int depth = 0;
+
+    /**
+     * Builds the tree over items
+     *
+     * @param boxes the boxes of the items, 6 values (min x,y,z and max x,y,z) per item
+     */
+    HierarchyBuilder(double[] boxes) {
+        int n = boxes.length / 6;
+        this.boxes = boxes;
+        centroids = new double[3 * n];
+        indices = new int[n];
+        for (int i = 0; i < n; ++i) {
+            for (int axis = 0; axis < 3; ++axis)
+                centroids[3 * i + axis] = (boxes[6 * i + axis] + boxes[6 * i + axis + 3]) / 2;
+            indices[i] = i;
+        }
+
+        int maxNodes = Math.max(1, 2 * n - 1);
+        bounds = new double[6 * maxNodes];
+        offsets = new int[maxNodes];
+        counts = new int[maxNodes];
+        if (n > 0)
+            build(0, n, 0);
+
+        // trim the node arrays
+        bounds = Arrays.copyOf(bounds, 6 * nodeCount);
+        offsets = Arrays.copyOf(offsets, nodeCount);
+        counts = Arrays.copyOf(counts, nodeCount);
+    }
+
+    /**
+     * @return the indices of the items in the order of the leaves
+     */
+    int[] getOrder() {
+        return indices;
+    }
+
+    /**
+     * @return bounds of the nodes, 6 values (min x,y,z and max x,y,z) per node
+     */
+    double[] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * @return for a leaf - index of its first item in the order, for an inner node - index of its right child
+     */
+    int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return for a leaf - amount of its items, for an inner node - 0
+     */
+    int[] getCounts() {
+        return counts;
+    }
+
+    /**
+     * @return amount of leaves of the tree
+     */
+    int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * @return depth of the deepest leaf (the root is in depth 0)
+     */
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Recursively builds the node of the items in the given range of the indices array
+     *
+     * @param start first index of the range
+     * @param end   index after the last one of the range
+     * @param level depth of the node in the tree
+     * @return index of the node
+     */
+    private int build(int start, int end, int level) {
+        int node = nodeCount++;
+        depth = Math.max(depth, level);
+
+        // bounds of the node and bounds of the centroids of its items
+        double[] box = EMPTY.clone();
+        double[] centroidBox = EMPTY.clone();
+        for (int i = start; i < end; ++i) {
+            int p = indices[i];
+            grow(box, boxes, 6 * p);
+            for (int axis = 0; axis < 3; ++axis) {
+                double c = centroids[3 * p + axis];
+                centroidBox[axis] = Math.min(centroidBox[axis], c);
+                centroidBox[axis + 3] = Math.max(centroidBox[axis + 3], c);
+            }
+        }
+        System.arraycopy(box, 0, bounds, 6 * node, 6);
+
+        int count = end - start;
+        if (count <= MIN_SPLIT_SIZE)
+            return makeLeaf(node, start, count);
+
+        // find the split with the lowest surface area heuristic cost
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        int bestBin = -1;
+        for (int axis = 0; axis < 3; ++axis) {
+            double min = centroidBox[axis];
+            double extent = centroidBox[axis + 3] - min;
+            if (extent <= 0)
+                continue;
+
+            int[] binCounts = new int[BINS];
+            double[] binBoxes = new double[6 * BINS];
+            for (int b = 0; b < BINS; ++b)
+                System.arraycopy(EMPTY, 0, binBoxes, 6 * b, 6);
+            for (int i = start; i < end; ++i) {
+                int p = indices[i];
+                int b = binOf(centroids[3 * p + axis], min, extent);
+                ++binCounts[b];
+                grow(binBoxes, 6 * b, boxes, 6 * p);
+            }
+
+            // areas and counts of the right sides, for splits after each bin
+            double[] rightAreas = new double[BINS];
+            int[] rightCounts = new int[BINS];
+            double[] accumulated = EMPTY.clone();
+            int accumulatedCount = 0;
+            for (int b = BINS - 1; b > 0; --b) {
+                grow(accumulated, binBoxes, 6 * b);
+                accumulatedCount += binCounts[b];
+                rightAreas[b - 1] = area(accumulated);
+                rightCounts[b - 1] = accumulatedCount;
+            }
+
+            accumulated = EMPTY.clone();
+            accumulatedCount = 0;
+            for (int b = 0; b < BINS - 1; ++b) {
+                grow(accumulated, binBoxes, 6 * b);
+                accumulatedCount += binCounts[b];
+                if (accumulatedCount == 0 || rightCounts[b] == 0)
+                    continue;
+                double cost = area(accumulated) * accumulatedCount + rightAreas[b] * rightCounts[b];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = b;
+                }
+            }
+        }
+
+        int mid;
+        if (bestAxis < 0) {
+            // all the centroids are in the same place - no split separates them
+            if (count <= MAX_LEAF_SIZE)
+                return makeLeaf(node, start, count);
+            mid = (start + end) / 2;
+        } else {
+            // costs are compared relative to the area of the node
+            double area = area(box);
+            if (count <= MAX_LEAF_SIZE && TRAVERSAL_COST * area + bestCost >= count * area)
+                return makeLeaf(node, start, count);
+
+            double min = centroidBox[bestAxis];
+            double extent = centroidBox[bestAxis + 3] - min;
+            int i = start;
+            int j = end - 1;
+            while (i <= j) {
+                if (binOf(centroids[3 * indices[i] + bestAxis], min, extent) <= bestBin) {
+                    ++i;
+                } else {
+                    int tmp = indices[i];
+                    indices[i] = indices[j];
+                    indices[j--] = tmp;
+                }
+            }
+            mid = i == start || i == end ? (start + end) / 2 : i;
+        }
+
+        build(start, mid, level + 1); // the left child is the next node
+        offsets[node] = build(mid, end, level + 1);
+        counts[node] = 0;
+        return node;
+    }
+
+    /**
+     * Marks a node as a leaf of the items in the given range
+     *
+     * @return index of the node
+     */
+    private int makeLeaf(int node, int start, int count) {
+        offsets[node] = start;
+        counts[node] = count;
+        ++leafCount;
+        return node;
+    }
+
+    /**
+     * Returns the bin of a centroid coordinate
+     */
+    private static int binOf(double c, double min, double extent) {
+        int b = (int) (BINS * ((c - min) / extent));
+        return b >= BINS ? BINS - 1 : b;
+    }
+
+    /**
+     * Grows a box (at the start of an array) to contain another box from an array
+     */
+    private static void grow(double[] box, double[] other, int offset) {
+        grow(box, 0, other, offset);
+    }
+
+    /**
+     * Grows a box to contain another box, both boxes in arrays
+     */
+    private static void grow(double[] box, int offset, double[] other, int otherOffset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            box[offset + axis] = Math.min(box[offset + axis], other[otherOffset + axis]);
+            box[offset + axis + 3] = Math.max(box[offset + axis + 3], other[otherOffset + axis + 3]);
+        }
+    }
+
+    /**
+     * Surface area of a box in an array, 0 for an empty box
+     */
+    private static double area(double[] box) {
+        double dx = box[3] - box[0];
+        double dy = box[4] - box[1];
+        double dz = box[5] - box[2];
+        if (dx < 0 || dy < 0 || dz < 0)
+            return 0;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
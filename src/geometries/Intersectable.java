@@ -9,6 +9,59 @@ import java.util.Objects;
  * abstract class for intersectable geomotries to implement
  */
 public abstract class Intersectable {
+    /**
+     * Switch for checking the bounding box before intersecting a geometry
+     */
+    private static boolean isBoundingBoxCheck = true;
+
+    /**
+     * Marks the bounding box of an infinite geometry as calculated
+     */
+    private static final BoundingBox INFINITE = new BoundingBox(
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    /**
+     * The box bounding the geometry, null until it is calculated on first use
+     */
+    private BoundingBox boundingBox = null;
+
+    /**
+     * Turn the bounding box check on/off.
+     * When on, a ray that misses the bounding box of a geometry is rejected before
+     * calculating its intersections with the geometry itself.
+     *
+     * @param flag false for off, true for on
+     */
+    public static void useBoundingBoxes(boolean flag) {
+        isBoundingBoxCheck = flag;
+    }
+
+    /**
+     * Getter for the box bounding the geometry.
+     * The box is calculated once, on the first call.
+     *
+     * @return the bounding box, or null if the geometry is infinite
+     */
+    public BoundingBox getBoundingBox() {
+        BoundingBox box = boundingBox;
+        if (box == null) {
+            box = calcBoundingBox();
+            if (box == null) {
+                box = INFINITE;
+            }
+            boundingBox = box;
+        }
+        return box == INFINITE ? null : box;
+    }
+
+    /**
+     * Discards the calculated bounding box, for geometries whose extent has changed
+     */
+    protected void resetBoundingBox() {
+        boundingBox = null;
+    }
+
     /**
      * @param ray the ray {@link Ray} that intersect with the graphic object
      * @return immutable List of all those points {}
@@ -31,15 +84,123 @@ public abstract class Intersectable {
 
     /**
      * returns all intersection that are closer to the ray than max distance
+     * if the bounding box check is on, a ray that misses the bounding box has no intersections
      *
      * @param ray         the ray that intersects
      * @param maxDistance the maximum distance
      * @return list of GeoPoint
      */
     public final List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        if (missesBoundingBox(ray, maxDistance)) {
+            return null;
+        }
+        IntersectionStatistics statistics = IntersectionStatistics.current();
+        if (statistics != null) {
+            statistics.count(this);
+        }
         return findGeoIntersectionsHelper(ray, maxDistance);
     }
 
+    /**
+     * find the closest intersection of ray with the geometry
+     *
+     * @param ray the ray that intersects
+     * @return the closest GeoPoint, or null if there is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * returns the closest intersection that is closer to the ray than max distance,
+     * with its distance along the ray in {@link GeoPoint#t}
+     *
+     * @param ray         the ray that intersects
+     * @param maxDistance the maximum distance
+     * @return the closest GeoPoint, or null if there is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        if (missesBoundingBox(ray, maxDistance)) {
+            return null;
+        }
+        IntersectionStatistics statistics = IntersectionStatistics.current();
+        if (statistics != null) {
+            statistics.count(this);
+        }
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * finds the closest intersections of a packet of rays with the geometry,
+     * recording them in the packet where they are closer than the intersections found so far.
+     * If the bounding box check is on, the geometry is skipped when none of the rays enters its bounding box
+     *
+     * @param packet the rays that intersect
+     */
+    public final void findClosestGeoIntersections(RayPacket packet) {
+        if (isBoundingBoxCheck) {
+            BoundingBox box = getBoundingBox();
+            if (box != null && !packet.intersects(box)) {
+                return;
+            }
+        }
+        IntersectionStatistics statistics = IntersectionStatistics.current();
+        if (statistics != null) {
+            statistics.count(this);
+        }
+        findClosestGeoIntersectionsHelper(packet);
+    }
+
+    /**
+     * finds how much light passes along a ray through the geometry up to max distance,
+     * the product of the transparency coefficients (kT) of all the intersections.
+     * The search stops at the first opaque intersection, or as soon as the product falls below min k
+     *
+     * @param ray         the ray that intersects
+     * @param maxDistance the maximum distance
+     * @param minK        the transparency level below which the light is considered blocked
+     * @return the transparency along the ray, or {@link Double3#ZERO} if it is lower than min k
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, double minK) {
+        return findTransparency(ray, maxDistance, Double3.ONE, minK);
+    }
+
+    /**
+     * finds the transparency along a ray, continuing the product of transparency
+     * coefficients that was accumulated by other geometries
+     *
+     * @param ray         the ray that intersects
+     * @param maxDistance the maximum distance
+     * @param ktr         the transparency accumulated so far
+     * @param minK        the transparency level below which the light is considered blocked
+     * @return the accumulated transparency, or {@link Double3#ZERO} if it is lower than min k
+     */
+    final Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (missesBoundingBox(ray, maxDistance)) {
+            return ktr;
+        }
+        IntersectionStatistics statistics = IntersectionStatistics.current();
+        if (statistics != null) {
+            statistics.count(this);
+        }
+        return findTransparencyHelper(ray, maxDistance, ktr, minK);
+    }
+
+    /**
+     * checks whether the ray misses the bounding box, if the bounding box check is on
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance
+     * @return true if the ray surely has no intersections closer than max distance
+     */
+    private boolean missesBoundingBox(Ray ray, double maxDistance) {
+        if (!isBoundingBoxCheck) {
+            return false;
+        }
+        BoundingBox box = getBoundingBox();
+        return box != null && !box.intersects(ray, maxDistance);
+    }
+
     /**
      * helper function for finding intersections
      *
@@ -50,6 +211,84 @@ public abstract class Intersectable {
     protected abstract List<GeoPoint>
     findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * helper function for finding the closest intersection
+     * geometries should override it to find the closest intersection without building
+     * the list of all of them, by default it picks the closest one of the list
+     *
+     * @param ray         the ray that intersects
+     * @param maxDistance the maximum distance
+     * @return the closest GeoPoint with its distance, or null if there is no intersection
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) {
+            return null;
+        }
+
+        Point p0 = ray.getP0();
+        GeoPoint result = null;
+        double distance = Double.POSITIVE_INFINITY;
+        for (GeoPoint gp : intersections) {
+            double d = gp.point.distance(p0);
+            if (d < distance) {
+                distance = d;
+                result = gp;
+            }
+        }
+        if (result != null) {
+            result.t = distance;
+        }
+        return result;
+    }
+
+    /**
+     * helper function for finding the closest intersections of a packet of rays
+     * geometries should override it to intersect all the rays of the packet together,
+     * by default it finds the closest intersection of every ray on its own
+     *
+     * @param packet the rays that intersect
+     */
+    protected void findClosestGeoIntersectionsHelper(RayPacket packet) {
+        for (int i = 0; i < packet.size; ++i) {
+            packet.hit(i, findClosestGeoIntersectionHelper(packet.rays[i], packet.tMax[i]));
+        }
+    }
+
+    /**
+     * helper function for finding the transparency along a ray
+     * by default it multiplies the transparency coefficients of all the intersections
+     *
+     * @param ray         the ray that intersects
+     * @param maxDistance the maximum distance
+     * @param ktr         the transparency accumulated so far
+     * @param minK        the transparency level below which the light is considered blocked
+     * @return the accumulated transparency, or {@link Double3#ZERO} if it is lower than min k
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) {
+            return ktr;
+        }
+
+        for (GeoPoint gp : intersections) {
+            ktr = ktr.product(gp.geometry.getMaterial().kT);
+            if (ktr.lowerThan(minK)) {
+                return Double3.ZERO;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * calculates the axis-aligned box bounding the geometry
+     *
+     * @return the bounding box, or null if the geometry is infinite
+     */
+    protected BoundingBox calcBoundingBox() {
+        return null;
+    }
+
     /**
      * Inner class that represents a point that intersect with geometries
      */
@@ -58,6 +297,10 @@ public abstract class Intersectable {
         public Geometry geometry;
         // Field represents the intersected point
         public Point point;
+        // Field represents the distance of the point along the ray (NaN if it was not calculated)
+        public double t = Double.NaN;
+        // Field represents the index of the intersected face, for geometries of many faces (-1 otherwise)
+        public int face = -1;
 
         /**
          * Constructor for inner class GeoPoint
@@ -69,6 +312,18 @@ public abstract class Intersectable {
             this.point = point;
         }
 
+        /**
+         * Constructor for inner class GeoPoint with the distance along the ray
+         * @param geometry parameter for field geometry
+         * @param point parameter for field point
+         * @param t parameter for field t
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
+            this.geometry = geometry;
+            this.point = point;
+            this.t = t;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
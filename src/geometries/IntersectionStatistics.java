@@ -0,0 +1,145 @@
+package geometries;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counters of the intersection tests of a single thread of a render: the tests of the geometries,
+ * by the class of the geometry, and the traversals of bounding volume hierarchies.
+ * A render thread binds its counters to itself while it renders, and the geometries count
+ * in the counters bound to the current thread - so concurrent renders count apart, and the threads
+ * of a render do not contend on shared counters. The renders merge the counters of their threads when they end.
+ * <p>
+ * While no render counts, the geometries only check a single counter of the counting renders.
+ * A test is counted whenever a geometry calculates its intersections with a ray
+ * (a ray which misses the bounding box of the geometry is not counted), including the tests
+ * geometries make with other geometries, such as a triangle with its plane, and the tests of collections.
+ */
+public final class IntersectionStatistics {
+    /**
+     * Amount of renders which count intersection tests
+     */
+    private static final AtomicInteger countingRenders = new AtomicInteger();
+
+    /**
+     * The counters bound to the current thread, null if the thread does not count
+     */
+    private static final ThreadLocal<IntersectionStatistics> current = new ThreadLocal<>();
+
+    private final Map<Class<?>, long[]> tests = new HashMap<>();
+    // traversals of bounding volume hierarchies
+    private long traversals = 0;
+    private long nodeVisits = 0;
+    private long primitiveTests = 0;
+
+    /**
+     * Counts a render which binds counters to its threads, so the geometries check for counters.
+     * Every call should be followed by a call of {@link #stopCounting()} when the render ends.
+     */
+    public static void startCounting() {
+        countingRenders.incrementAndGet();
+    }
+
+    /**
+     * Uncounts a render which ended, see {@link #startCounting()}
+     */
+    public static void stopCounting() {
+        countingRenders.decrementAndGet();
+    }
+
+    /**
+     * @return the counters bound to the current thread, null if it does not count
+     */
+    static IntersectionStatistics current() {
+        return countingRenders.get() == 0 ? null : current.get();
+    }
+
+    /**
+     * Binds the counters to the current thread, so the intersection tests of the thread are counted in them
+     *
+     * @return the counters which were bound to the thread before, to be restored by {@link #unbind}
+     */
+    public IntersectionStatistics bind() {
+        IntersectionStatistics previous = current.get();
+        current.set(this);
+        return previous;
+    }
+
+    /**
+     * Restores the counters which were bound to the current thread before {@link #bind()}
+     *
+     * @param previous the counters returned by {@link #bind()}, may be null
+     */
+    public static void unbind(IntersectionStatistics previous) {
+        if (previous == null)
+            current.remove();
+        else
+            current.set(previous);
+    }
+
+    /**
+     * Counts an intersection test of a geometry
+     *
+     * @param geometry the tested geometry
+     */
+    void count(Intersectable geometry) {
+        tests.computeIfAbsent(geometry.getClass(), c -> new long[1])[0]++;
+    }
+
+    /**
+     * Counts traversals of a bounding volume hierarchy
+     *
+     * @param rays   amount of rays traced through the hierarchy
+     * @param visits amount of nodes the rays visited
+     * @param tested amount of geometries the rays were tested with
+     */
+    void countTraversals(int rays, long visits, long tested) {
+        traversals += rays;
+        nodeVisits += visits;
+        primitiveTests += tested;
+    }
+
+    /**
+     * Adds the counts of other counters to these counters
+     *
+     * @param other the other counters
+     */
+    public void add(IntersectionStatistics other) {
+        other.tests.forEach((type, count) -> tests.computeIfAbsent(type, c -> new long[1])[0] += count[0]);
+        traversals += other.traversals;
+        nodeVisits += other.nodeVisits;
+        primitiveTests += other.primitiveTests;
+    }
+
+    /**
+     * @return the amount of tests by the simple name of the class of the geometry, sorted by name
+     */
+    public Map<String, Long> getTests() {
+        Map<String, Long> result = new TreeMap<>();
+        tests.forEach((type, count) -> result.merge(type.getSimpleName(), count[0], Long::sum));
+        return result;
+    }
+
+    /**
+     * @return amount of rays traced through bounding volume hierarchies
+     */
+    public long getTraversals() {
+        return traversals;
+    }
+
+    /**
+     * @return amount of nodes of bounding volume hierarchies visited by the rays
+     */
+    public long getNodeVisits() {
+        return nodeVisits;
+    }
+
+    /**
+     * @return amount of geometries of bounding volume hierarchies tested by the rays (not including the infinite ones)
+     */
+    public long getPrimitiveTests() {
+        return primitiveTests;
+    }
+}
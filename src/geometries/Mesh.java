@@ -0,0 +1,558 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Mesh class represents a triangle mesh - many triangles sharing their vertices, such as a model loaded from a file.
+ * Unlike a collection of {@link Triangle}s, the mesh keeps no object per triangle: the coordinates of the vertices
+ * are stored in a single array of doubles (x, y, z of every vertex), and every face is three indices of vertices
+ * in a single array of ints. The faces are intersected with the Moller-Trumbore algorithm, and the mesh carries
+ * its own bounding volume hierarchy over its faces, built by {@link HierarchyBuilder} like the hierarchy of
+ * {@link BoundingVolumeHierarchy} and stored flattened in arrays the same way.
+ * The mesh copies the arrays it is given, so changing them afterwards does not change the mesh.
+ * <p>
+ * The normal of a face is calculated only when a point on it is shaded. With smooth normals, the normal is
+ * interpolated from the normals of the vertices of the face, given or calculated as the area weighted
+ * average of the normals of the faces around every vertex.
+ */
+public class Mesh extends Geometry {
+    /**
+     * Coordinates of the vertices, 3 values (x, y, z) per vertex
+     */
+    private final double[] vertices;
+    /**
+     * Indices of the vertices of the faces, 3 per face, ordered so the faces of each leaf are contiguous
+     */
+    private final int[] faces;
+    /**
+     * Normals of the vertices, 3 values per vertex, or null if the faces are flat
+     */
+    private double[] normals = null;
+    /**
+     * Switch for interpolating the normals of the vertices
+     */
+    private boolean isSmooth = false;
+
+    /**
+     * Bounds of the nodes, 6 values (min x,y,z and max x,y,z) per node
+     */
+    private double[] bounds;
+    /**
+     * For a leaf - index of its first face, for an inner node - index of its right child
+     */
+    private int[] offsets;
+    /**
+     * For a leaf - amount of its faces, for an inner node - 0
+     */
+    private int[] counts;
+    private int nodeCount = 0;
+    private int depth = 0;
+
+    /**
+     * Constructs a mesh of copies of vertices and faces
+     *
+     * @param vertices coordinates of the vertices, 3 values (x, y, z) per vertex
+     * @param faces    indices of the vertices of the faces, 3 per face
+     * @throws IllegalArgumentException if the arrays are not of whole vertices and faces,
+     *                                  there are no faces, or a face has a vertex which does not exist
+     */
+    public Mesh(double[] vertices, int[] faces) {
+        this(vertices, wholeCount(vertices.length), faces, wholeCount(faces.length));
+    }
+
+    /**
+     * Constructs a mesh of copies of the first vertices and faces of arrays, such as arrays which grow
+     * while a model is read, without copying the arrays to their exact lengths first
+     *
+     * @param vertices    coordinates of the vertices, 3 values (x, y, z) per vertex
+     * @param vertexCount amount of vertices of the mesh, from the start of the array of the vertices
+     * @param faces       indices of the vertices of the faces, 3 per face
+     * @param faceCount   amount of faces of the mesh, from the start of the array of the faces
+     * @throws IllegalArgumentException if the arrays are shorter than the amounts, there are no faces,
+     *                                  or a face has a vertex which does not exist
+     */
+    public Mesh(double[] vertices, int vertexCount, int[] faces, int faceCount) {
+        if (vertexCount < 0 || 3L * vertexCount > vertices.length || faceCount < 0 || 3L * faceCount > faces.length)
+            throw new IllegalArgumentException("A mesh must have 3 coordinates per vertex and 3 vertices per face");
+        if (faceCount == 0)
+            throw new IllegalArgumentException("A mesh must have at least one face");
+        for (int k = 0; k < 3 * faceCount; ++k)
+            if (faces[k] < 0 || faces[k] >= vertexCount)
+                throw new IllegalArgumentException("A face of the mesh has a vertex which does not exist");
+
+        this.vertices = Arrays.copyOf(vertices, 3 * vertexCount);
+        this.faces = new int[3 * faceCount];
+        build(faces, faceCount);
+    }
+
+    /**
+     * Constructs a mesh of vertices, faces and the hierarchy of the faces which was already built
+     */
+    private Mesh(double[] vertices, int[] faces, double[] bounds, int[] offsets, int[] counts, int depth) {
+        this.vertices = vertices;
+        this.faces = faces;
+        this.bounds = bounds;
+        this.offsets = offsets;
+        this.counts = counts;
+        this.nodeCount = counts.length;
+        this.depth = depth;
+    }
+
+    /**
+     * Constructs a mesh of vertices and faces
+     *
+     * @param vertices the vertices
+     * @param faces    indices of the vertices of the faces in the list, 3 per face
+     */
+    public Mesh(List<Point> vertices, int[] faces) {
+        this(coordinates(vertices), faces);
+    }
+
+    /**
+     * @return the amount of whole vertices or faces of 3 values in an array of the given length
+     * @throws IllegalArgumentException if the length is not a multiple of 3
+     */
+    private static int wholeCount(int length) {
+        if (length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have 3 coordinates per vertex and 3 vertices per face");
+        return length / 3;
+    }
+
+    /**
+     * @return the coordinates of the points, 3 values per point
+     */
+    private static double[] coordinates(List<Point> points) {
+        double[] coordinates = new double[3 * points.size()];
+        int i = 0;
+        for (Point p : points) {
+            coordinates[i++] = p.getX();
+            coordinates[i++] = p.getY();
+            coordinates[i++] = p.getZ();
+        }
+        return coordinates;
+    }
+
+    /**
+     * Turn the smooth normals on/off.
+     * If the normals of the vertices were not set, they are calculated when turned on.
+     *
+     * @param flag false for off, true for on
+     * @return the mesh
+     */
+    public Mesh useSmoothNormals(boolean flag) {
+        isSmooth = flag;
+        if (flag && normals == null)
+            normals = vertexNormals();
+        return this;
+    }
+
+    /**
+     * Setter of the normals of the vertices, which are interpolated when the smooth normals are on.
+     * The normals are copied.
+     *
+     * @param normals the normals, 3 values (x, y, z) per vertex
+     * @return the mesh
+     * @throws IllegalArgumentException if there is not a normal for every vertex
+     */
+    public Mesh setVertexNormals(double[] normals) {
+        if (normals.length != vertices.length)
+            throw new IllegalArgumentException("A mesh must have a normal for every vertex");
+        this.normals = normals.clone();
+        return this;
+    }
+
+    /**
+     * @return amount of vertices of the mesh
+     */
+    public int getVertexCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * @return amount of faces of the mesh
+     */
+    public int getFaceCount() {
+        return faces.length / 3;
+    }
+
+    /**
+     * @return depth of the deepest leaf of the hierarchy of the faces (the root is in depth 0)
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the amount of bytes {@link #write(ByteBuffer)} writes
+     */
+    long serializedSize() {
+        return GeometrySerializer.arraySize(vertices) + GeometrySerializer.arraySize(faces)
+                + GeometrySerializer.arraySize(normals) + 1 + Integer.BYTES
+                + GeometrySerializer.arraySize(bounds) + GeometrySerializer.arraySize(offsets)
+                + GeometrySerializer.arraySize(counts);
+    }
+
+    /**
+     * Writes the vertices, the faces, the normals and the hierarchy of the faces of the mesh
+     *
+     * @param buffer the buffer
+     */
+    void write(ByteBuffer buffer) {
+        GeometrySerializer.writeArray(vertices, buffer);
+        GeometrySerializer.writeArray(faces, buffer);
+        GeometrySerializer.writeArray(normals, buffer);
+        buffer.put((byte) (isSmooth ? 1 : 0));
+        buffer.putInt(depth);
+        GeometrySerializer.writeArray(bounds, buffer);
+        GeometrySerializer.writeArray(offsets, buffer);
+        GeometrySerializer.writeArray(counts, buffer);
+    }
+
+    /**
+     * Reads a mesh written by {@link #write(ByteBuffer)}, without building the hierarchy of its faces again
+     *
+     * @param buffer the buffer
+     * @return the mesh
+     */
+    static Mesh read(ByteBuffer buffer) {
+        double[] vertices = GeometrySerializer.readDoubles(buffer);
+        int[] faces = GeometrySerializer.readInts(buffer);
+        double[] normals = GeometrySerializer.readDoubles(buffer);
+        boolean isSmooth = buffer.get() != 0;
+        int depth = buffer.getInt();
+        Mesh mesh = new Mesh(vertices, faces, GeometrySerializer.readDoubles(buffer),
+                GeometrySerializer.readInts(buffer), GeometrySerializer.readInts(buffer), depth);
+        mesh.normals = normals;
+        mesh.isSmooth = isSmooth;
+        return mesh;
+    }
+
+    /**
+     * Calculates the normals of the vertices, each the average of the normals of the faces around it
+     * weighted by their areas (the length of the cross product of the edges is twice the area)
+     *
+     * @return the normals, 3 values per vertex
+     */
+    private double[] vertexNormals() {
+        double[] result = new double[vertices.length];
+        for (int f = 0; f < faces.length; f += 3) {
+            int a = 3 * faces[f], b = 3 * faces[f + 1], c = 3 * faces[f + 2];
+            double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+            double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+            double nx = e1y * e2z - e1z * e2y;
+            double ny = e1z * e2x - e1x * e2z;
+            double nz = e1x * e2y - e1y * e2x;
+            for (int v : new int[]{a, b, c}) {
+                result[v] += nx;
+                result[v + 1] += ny;
+                result[v + 2] += nz;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the hierarchy of the faces over the boxes of the faces, and orders the faces by its leaves
+     *
+     * @param faces indices of the vertices of the faces, 3 per face, in the order they were given
+     * @param n     amount of the faces, from the start of the array
+     */
+    private void build(int[] faces, int n) {
+        double[] boxes = new double[6 * n];
+        for (int f = 0; f < n; ++f)
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = vertices[3 * faces[3 * f] + axis];
+                double b = vertices[3 * faces[3 * f + 1] + axis];
+                double c = vertices[3 * faces[3 * f + 2] + axis];
+                boxes[6 * f + axis] = Math.min(a, Math.min(b, c));
+                boxes[6 * f + axis + 3] = Math.max(a, Math.max(b, c));
+            }
+
+        HierarchyBuilder tree = new HierarchyBuilder(boxes);
+        int[] order = tree.getOrder();
+        for (int f = 0; f < n; ++f)
+            System.arraycopy(faces, 3 * order[f], this.faces, 3 * f, 3);
+        bounds = tree.getBounds();
+        offsets = tree.getOffsets();
+        counts = tree.getCounts();
+        nodeCount = counts.length;
+        depth = tree.getDepth();
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with a face (Moller-Trumbore).
+     * Like {@link Triangle}, a ray through an edge or a vertex of the face does not intersect it.
+     *
+     * @return the distance, or NaN if the ray does not intersect the face closer than max distance
+     */
+    private double distance(int face, double ox, double oy, double oz, double dx, double dy, double dz,
+                            double maxDistance) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+
+        //p=v X e2, the ray is parallel to the face if det=e1*p is zero
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det))
+            return Double.NaN;
+        double inverse = 1 / det;
+
+        //barycentric coordinates of the intersection, both positive and their sum below 1 inside the face
+        double sx = ox - ax, sy = oy - ay, sz = oz - az;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inverse);
+        if (u <= 0 || u >= 1)
+            return Double.NaN;
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inverse);
+        if (v <= 0 || alignZero(u + v - 1) >= 0)
+            return Double.NaN;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        return t > 0 && alignZero(t - maxDistance) <= 0 ? t : Double.NaN;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double ix = BoundingBox.inverse(dx), iy = BoundingBox.inverse(dy), iz = BoundingBox.inverse(dz);
+
+        List<GeoPoint> result = null;
+        int[] stack = new int[depth + 2];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int b = 6 * node;
+            if (BoundingBox.slab(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+                    ox, oy, oz, ix, iy, iz, maxDistance) == Double.POSITIVE_INFINITY)
+                continue;
+
+            int count = counts[node];
+            if (count > 0) {
+                int first = offsets[node];
+                for (int f = first; f < first + count; ++f) {
+                    double t = distance(f, ox, oy, oz, dx, dy, dz, maxDistance);
+                    if (!Double.isNaN(t)) {
+                        if (result == null)
+                            result = new LinkedList<>();
+                        result.add(hit(ray, f, t));
+                    }
+                }
+            } else {
+                stack[top++] = offsets[node];
+                stack[top++] = node + 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double ix = BoundingBox.inverse(dx), iy = BoundingBox.inverse(dy), iz = BoundingBox.inverse(dz);
+
+        int closest = -1;
+        //nodes waiting to be visited, with the distances in which the ray enters them
+        int[] stack = new int[depth + 2];
+        double[] entries = new double[depth + 2];
+        int top = 0;
+        double entry = BoundingBox.slab(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5],
+                ox, oy, oz, ix, iy, iz, maxDistance);
+        if (entry != Double.POSITIVE_INFINITY) {
+            stack[top] = 0;
+            entries[top++] = entry;
+        }
+        while (top > 0) {
+            int node = stack[--top];
+            //an intersection closer than the node was found after it was pushed
+            if (entries[top] > maxDistance)
+                continue;
+
+            int count = counts[node];
+            if (count > 0) {
+                int first = offsets[node];
+                for (int f = first; f < first + count; ++f) {
+                    double t = distance(f, ox, oy, oz, dx, dy, dz, maxDistance);
+                    if (!Double.isNaN(t) && (closest < 0 || t < maxDistance)) {
+                        closest = f;
+                        maxDistance = t;
+                    }
+                }
+            } else {
+                int left = node + 1;
+                int right = offsets[node];
+                int b = 6 * left;
+                double leftEntry = BoundingBox.slab(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3],
+                        bounds[b + 4], bounds[b + 5], ox, oy, oz, ix, iy, iz, maxDistance);
+                b = 6 * right;
+                double rightEntry = BoundingBox.slab(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3],
+                        bounds[b + 4], bounds[b + 5], ox, oy, oz, ix, iy, iz, maxDistance);
+                //push the farther child first, so the closer one is visited first
+                if (leftEntry > rightEntry) {
+                    int node2 = left;
+                    left = right;
+                    right = node2;
+                    double entry2 = leftEntry;
+                    leftEntry = rightEntry;
+                    rightEntry = entry2;
+                }
+                if (rightEntry != Double.POSITIVE_INFINITY) {
+                    stack[top] = right;
+                    entries[top++] = rightEntry;
+                }
+                if (leftEntry != Double.POSITIVE_INFINITY) {
+                    stack[top] = left;
+                    entries[top++] = leftEntry;
+                }
+            }
+        }
+        return closest < 0 ? null : hit(ray, closest, maxDistance);
+    }
+
+    /**
+     * @return the intersection of a ray with a face at a distance along the ray
+     */
+    private GeoPoint hit(Ray ray, int face, double t) {
+        GeoPoint gp = new GeoPoint(this, ray.getPoint(t), t);
+        gp.face = face;
+        return gp;
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * Returns the normal of the mesh at an intersection, calculated from the face of the intersection.
+     *
+     * @param gp the intersection
+     * @return the normal
+     */
+    @Override
+    public Vector getNormal(GeoPoint gp) {
+        return gp.face < 0 ? getNormal(gp.point) : getNormal(gp.face, gp.point);
+    }
+
+    /**
+     * Returns the normal of the mesh at a point on it.
+     * The face of the point is searched for in the leaves of the hierarchy whose bounds contain the point,
+     * so when the intersection is known {@link #getNormal(GeoPoint)} should be used instead.
+     *
+     * @param point a point on the mesh
+     * @return the normal
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        //the face closest to the point among the faces whose edges surround it, in the leaves around the point
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        int face = -1;
+        double distance = Double.POSITIVE_INFINITY;
+        int[] stack = new int[depth + 2];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int b = 6 * node;
+            if (alignZero(bounds[b] - x) > 0 || alignZero(bounds[b + 1] - y) > 0 || alignZero(bounds[b + 2] - z) > 0
+                    || alignZero(x - bounds[b + 3]) > 0 || alignZero(y - bounds[b + 4]) > 0
+                    || alignZero(z - bounds[b + 5]) > 0)
+                continue;
+
+            int count = counts[node];
+            if (count == 0) {
+                stack[top++] = offsets[node];
+                stack[top++] = node + 1;
+                continue;
+            }
+            for (int f = offsets[node]; f < offsets[node] + count; ++f) {
+                double[] w = barycentric(f, x, y, z);
+                if (w == null || alignZero(w[0]) < 0 || alignZero(w[1]) < 0 || alignZero(w[2]) < 0)
+                    continue;
+                double d = Math.abs(planeDistance(f, x, y, z));
+                if (d < distance) {
+                    face = f;
+                    distance = d;
+                }
+            }
+        }
+        if (face < 0)
+            throw new IllegalArgumentException("The point is not on the mesh");
+        return getNormal(face, point);
+    }
+
+    /**
+     * @return the signed distance of a point from the plane of a face
+     */
+    private double planeDistance(int face, double x, double y, double z) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return ((x - vertices[a]) * nx + (y - vertices[a + 1]) * ny + (z - vertices[a + 2]) * nz)
+                / Math.sqrt(nx * nx + ny * ny + nz * nz);
+    }
+
+    /**
+     * Calculates the normal of a face at a point on it
+     */
+    private Vector getNormal(int face, Point point) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        if (isSmooth && normals != null) {
+            double[] w = barycentric(face, point.getX(), point.getY(), point.getZ());
+            double nx = w[0] * normals[a] + w[1] * normals[b] + w[2] * normals[c];
+            double ny = w[0] * normals[a + 1] + w[1] * normals[b + 1] + w[2] * normals[c + 1];
+            double nz = w[0] * normals[a + 2] + w[1] * normals[b + 2] + w[2] * normals[c + 2];
+            //the normals of the vertices may cancel each other out, then the face is flat
+            if (!(isZero(nx) && isZero(ny) && isZero(nz)))
+                return new Vector(nx, ny, nz).normalize();
+        }
+        Vector e1 = new Vector(vertices[b] - vertices[a], vertices[b + 1] - vertices[a + 1], vertices[b + 2] - vertices[a + 2]);
+        Vector e2 = new Vector(vertices[c] - vertices[a], vertices[c + 1] - vertices[a + 1], vertices[c + 2] - vertices[a + 2]);
+        return e1.crossProduct(e2).normalize();
+    }
+
+    /**
+     * Calculates the barycentric coordinates of the projection of a point on the plane of a face,
+     * the projection is inside the face if all of them are positive
+     *
+     * @return the weights of the three vertices, or null if the face is degenerate
+     */
+    private double[] barycentric(int face, double x, double y, double z) {
+        int a = 3 * faces[3 * face], b = 3 * faces[3 * face + 1], c = 3 * faces[3 * face + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        double px = x - vertices[a], py = y - vertices[a + 1], pz = z - vertices[a + 2];
+
+        double d11 = e1x * e1x + e1y * e1y + e1z * e1z;
+        double d12 = e1x * e2x + e1y * e2y + e1z * e2z;
+        double d22 = e2x * e2x + e2y * e2y + e2z * e2z;
+        double dp1 = px * e1x + py * e1y + pz * e1z;
+        double dp2 = px * e2x + py * e2y + pz * e2z;
+        double denominator = d11 * d22 - d12 * d12;
+        if (isZero(denominator))
+            return null;
+        double u = (d22 * dp1 - d12 * dp2) / denominator;
+        double v = (d11 * dp2 - d12 * dp1) / denominator;
+        return new double[]{1 - u - v, u, v};
+    }
+}
@@ -83,24 +83,40 @@ public class Plane extends Geometry {
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        //a ray intersects a plane at most once
+        GeoPoint gp = findClosestGeoIntersectionHelper(ray, maxDistance);
+        return gp == null ? null : List.of(gp);
+    }
+
+    /**
+     * Computes the intersection between this plane and a given ray.
+     *
+     * @param ray the ray to intersect with this plane
+     * @return the intersection with its distance, or null if no intersection exists
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
         Point P0 = ray.getP0();
         Vector v = ray.getDir();
-        Vector n = normal;
-        double nv = n.dotProduct((v)); //nv=n*v
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double nv = v.getX() * nx + v.getY() * ny + v.getZ() * nz; //nv=n*v
 
         // ray parallel to plane
         if (isZero(nv)) {
             return null;
         }
 
+        //Q0_P0=q0-p0, calculated in doubles so no vectors are created for every ray
+        double qx = q0.getX() - P0.getX();
+        double qy = q0.getY() - P0.getY();
+        double qz = q0.getZ() - P0.getZ();
+
         //  ray cannot start from the plane
-        if (q0.equals(P0)) {
+        if (isZero(qx) && isZero(qy) && isZero(qz)) {
             return null;
         }
 
-        Vector Q0_P0 = q0.subtract(P0);
-
-        double numerator = n.dotProduct(Q0_P0); //numerator=n*Q0_P0
+        double numerator = qx * nx + qy * ny + qz * nz; //numerator=n*Q0_P0
 
         //in this case P0 is on the plane, so return null
         if (isZero(numerator)) {
@@ -108,18 +124,59 @@ public class Plane extends Geometry {
         }
         double t = alignZero(numerator / nv); //t=numerator/nv
 
-        //if t>0 the ray does point toward the plane
-        if (t > 0) {
-            Point point = P0.add(v.scale(t));
-            double d = point.distance(P0);
-
-            //if the distance to the intersection is smaller than maxDistance
-            if (alignZero(d - maxDistance) <= 0) {
-                GeoPoint P = new GeoPoint(this, P0.add(v.scale(t))); //new GeoPoint{geometry=this, point=p0+tv}
-                return List.of(P);
-            }
+        //if t>0 the ray does point toward the plane, and the distance to the intersection is t
+        //return it if it is smaller than maxDistance
+        if (t > 0 && alignZero(t - maxDistance) <= 0) {
+            return new GeoPoint(this, ray.getPoint(t), t); //new GeoPoint{geometry=this, point=p0+tv}
         }
         //otherwise it doesn't point toward the plane, so return null
         return null;
     }
+
+    /**
+     * Computes the closest intersections between this plane and a packet of rays, all the rays in a single loop.
+     *
+     * @param packet the rays to intersect with this plane
+     */
+    @Override
+    protected void findClosestGeoIntersectionsHelper(RayPacket packet) {
+        for (int i = 0; i < packet.size; ++i) {
+            double t = distance(packet, i);
+            if (!Double.isNaN(t))
+                packet.hit(i, new GeoPoint(this, packet.rays[i].getPoint(t), t));
+        }
+    }
+
+    /**
+     * Computes the distance along a ray of a packet to its intersection with this plane,
+     * in the same way as {@link #findClosestGeoIntersectionHelper(Ray, double)}
+     *
+     * @param packet the rays
+     * @param i      index of the ray in the packet
+     * @return the distance, or NaN if the ray does not intersect the plane closer than the distance it searches
+     */
+    double distance(RayPacket packet, int i) {
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double nv = packet.dx[i] * nx + packet.dy[i] * ny + packet.dz[i] * nz; //nv=n*v
+
+        // ray parallel to plane
+        if (isZero(nv))
+            return Double.NaN;
+
+        //Q0_P0=q0-p0
+        double qx = q0.getX() - packet.ox[i];
+        double qy = q0.getY() - packet.oy[i];
+        double qz = q0.getZ() - packet.oz[i];
+
+        //  ray cannot start from the plane
+        if (isZero(qx) && isZero(qy) && isZero(qz))
+            return Double.NaN;
+
+        double numerator = qx * nx + qy * ny + qz * nz; //numerator=n*Q0_P0
+        if (isZero(numerator))
+            return Double.NaN;
+
+        double t = alignZero(numerator / nv); //t=numerator/nv
+        return t > 0 && alignZero(t - packet.tMax[i]) <= 0 ? t : Double.NaN;
+    }
 }
@@ -83,6 +83,9 @@ public class Polygon extends Geometry {
    @Override
    public Vector getNormal(Point point) { return plane.getNormal(); }
 
+   @Override
+   protected BoundingBox calcBoundingBox() { return BoundingBox.of(vertices.toArray(new Point[size])); }
+
 
    /**
 
@@ -95,8 +98,20 @@ public class Polygon extends Geometry {
     */
    @Override
    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-      //first, find the intersections for the plane in which the polygon is
-      List<GeoPoint> result = plane.findGeoIntersections(ray, maxDistance);
+      //a ray intersects a polygon at most once
+      GeoPoint gp = findClosestGeoIntersectionHelper(ray, maxDistance);
+      return gp == null ? null : List.of(gp);
+   }
+
+   /**
+    * Finds the intersection point between a given ray and this polygon, with its distance.
+    * @param ray the ray to intersect with the polygon
+    * @return the intersection point, or null if the ray doesn't intersect with the polygon
+    */
+   @Override
+   protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+      //first, find the intersection for the plane in which the polygon is
+      GeoPoint result = plane.findClosestGeoIntersection(ray, maxDistance);
 
       if (result == null) { //if the intersections with the plane returned null so return null
          return null;
@@ -104,16 +119,19 @@ public class Polygon extends Geometry {
 
       Point P0 = ray.getP0();
       Vector v = ray.getDir();
+      double px = P0.getX(), py = P0.getY(), pz = P0.getZ();
+      double vx = v.getX(), vy = v.getY(), vz = v.getZ();
 
       //get the first and second vertices
       Point P1 = vertices.get(1);
       Point P2 = vertices.get(0);
 
-      Vector v1 = P1.subtract(P0); //v1=p1-p0
-      Vector v2 = P2.subtract(P0); //v2=p2-p0
+      //v1=p1-p0, v2=p2-p0, calculated in doubles so no vectors are created for every ray
+      double x1 = P1.getX() - px, y1 = P1.getY() - py, z1 = P1.getZ() - pz;
+      double x2 = P2.getX() - px, y2 = P2.getY() - py, z2 = P2.getZ() - pz;
 
       //check the sign of the vectors
-      double sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
+      double sign = alignZero(tripleProduct(vx, vy, vz, x1, y1, z1, x2, y2, z2));
 
       if (isZero(sign)) { //if it was 0 so return null
          return null;
@@ -124,10 +142,15 @@ public class Polygon extends Geometry {
       //iterate through all vertices of the polygon
       for (int i = vertices.size() - 1; i > 0; --i) {
          //now check for the rest if the vertices
-         v1 = v2;
-         v2 = vertices.get(i).subtract(P0);
+         x1 = x2;
+         y1 = y2;
+         z1 = z2;
+         Point Pi = vertices.get(i);
+         x2 = Pi.getX() - px;
+         y2 = Pi.getY() - py;
+         z2 = Pi.getZ() - pz;
 
-         sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
+         sign = alignZero(tripleProduct(vx, vy, vz, x1, y1, z1, x2, y2, z2));
 
          //if one of them is 0, return null
          if (isZero(sign)) {
@@ -141,11 +164,19 @@ public class Polygon extends Geometry {
       }
 
       //update the geometry
-      for (GeoPoint gp : result) {
-         gp.geometry = this;
-      }
+      result.geometry = this;
 
       return result;
    }
 
+   /**
+    * Calculates the triple product v*(a X b) of three vectors given by their coordinates
+    * @return the triple product
+    */
+   static double tripleProduct(double vx, double vy, double vz,
+                               double ax, double ay, double az,
+                               double bx, double by, double bz) {
+      return (ay * bz - az * by) * vx + (az * bx - ax * bz) * vy + (ax * by - ay * bx) * vz;
+   }
+
 }
@@ -0,0 +1,166 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+/**
+ * A packet (bundle) of coherent rays, such as the rays through a single pixel,
+ * which are intersected together with every geometry and every node of a bounding volume hierarchy.
+ * The origins and directions of the rays are kept in separate arrays of doubles (structure of arrays),
+ * so the geometries calculate the intersections of all the rays in simple loops, and a bounding box
+ * which none of the rays enters is rejected once for the whole packet.
+ * <p>
+ * Like {@link Intersectable#findClosestGeoIntersection(Ray, double)}, the packet keeps for every ray
+ * its closest intersection found so far, and the distance up to which the search continues.
+ */
+public class RayPacket {
+    /**
+     * The rays of the packet
+     */
+    final Ray[] rays;
+    /**
+     * Amount of rays in the packet
+     */
+    final int size;
+
+    // origins of the rays
+    final double[] ox, oy, oz;
+    // directions of the rays
+    final double[] dx, dy, dz;
+    // inverse directions of the rays, for the slab tests of the bounding boxes
+    final double[] ix, iy, iz;
+    /**
+     * For every ray - the distance up to which intersections are searched,
+     * shortened whenever a closer intersection is found
+     */
+    final double[] tMax;
+    /**
+     * For every ray - the closest intersection found so far, or null
+     */
+    final GeoPoint[] hits;
+
+    /**
+     * Constructs a packet of a range of rays of a list
+     *
+     * @param rays        the rays
+     * @param from        index of the first ray of the packet in the list
+     * @param to          index after the last ray of the packet in the list
+     * @param maxDistance the maximum distance of the intersections
+     */
+    public RayPacket(List<Ray> rays, int from, int to, double maxDistance) {
+        if (from < 0 || to > rays.size() || from >= to)
+            throw new IllegalArgumentException("A packet must contain at least one ray of the list");
+
+        size = to - from;
+        this.rays = new Ray[size];
+        ox = new double[size];
+        oy = new double[size];
+        oz = new double[size];
+        dx = new double[size];
+        dy = new double[size];
+        dz = new double[size];
+        ix = new double[size];
+        iy = new double[size];
+        iz = new double[size];
+        tMax = new double[size];
+        hits = new GeoPoint[size];
+
+        for (int i = 0; i < size; ++i) {
+            Ray ray = rays.get(from + i);
+            this.rays[i] = ray;
+            Point p0 = ray.getP0();
+            Vector v = ray.getDir();
+            ox[i] = p0.getX();
+            oy[i] = p0.getY();
+            oz[i] = p0.getZ();
+            dx[i] = v.getX();
+            dy[i] = v.getY();
+            dz[i] = v.getZ();
+            ix[i] = BoundingBox.inverse(dx[i]);
+            iy[i] = BoundingBox.inverse(dy[i]);
+            iz[i] = BoundingBox.inverse(dz[i]);
+            tMax[i] = maxDistance;
+        }
+    }
+
+    /**
+     * Constructs a packet of all the rays of a list, with no maximum distance
+     *
+     * @param rays the rays
+     */
+    public RayPacket(List<Ray> rays) {
+        this(rays, 0, rays.size(), Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @return the amount of rays in the packet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i index of the ray in the packet
+     * @return the ray
+     */
+    public Ray getRay(int i) {
+        return rays[i];
+    }
+
+    /**
+     * @param i index of the ray in the packet
+     * @return the closest intersection of the ray, with its distance in {@link GeoPoint#t}, or null if there is none
+     */
+    public GeoPoint getHit(int i) {
+        return hits[i];
+    }
+
+    /**
+     * Records an intersection of a ray if it is closer than its closest intersection found so far
+     *
+     * @param i  index of the ray in the packet
+     * @param gp the intersection with its distance, or null
+     */
+    void hit(int i, GeoPoint gp) {
+        if (gp != null && (hits[i] == null || gp.t < hits[i].t)) {
+            hits[i] = gp;
+            tMax[i] = gp.t;
+        }
+    }
+
+    /**
+     * Finds the closest distance in which any ray of the packet enters a box (slab test),
+     * closer than the distance up to which the ray searches
+     *
+     * @return the closest entry distance, or positive infinity if all the rays miss the box
+     */
+    double entryDistance(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double entry = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; ++i)
+            entry = Math.min(entry, BoundingBox.slab(minX, minY, minZ, maxX, maxY, maxZ,
+                    ox[i], oy[i], oz[i], ix[i], iy[i], iz[i], tMax[i]));
+        return entry;
+    }
+
+    /**
+     * @param box a bounding box
+     * @return true if any ray of the packet enters the box closer than the distance up to which it searches
+     */
+    boolean intersects(BoundingBox box) {
+        return entryDistance(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the farthest distance up to which any ray of the packet searches
+     */
+    double maxDistance() {
+        double max = 0;
+        for (int i = 0; i < size; ++i)
+            max = Math.max(max, tMax[i]);
+        return max;
+    }
+}
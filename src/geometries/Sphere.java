@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Objects;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Sphere class represents a 3D sphere in Cartesian 3D coordinate system
@@ -44,6 +45,13 @@ public class Sphere extends RadialGeometry {
         return V.normalize();
     }
 
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        return new BoundingBox(
+                center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
     /**
      * calculates number of intersections of ray with a sphere
      * @param ray pointing towards the graphic object
@@ -54,20 +62,22 @@ public class Sphere extends RadialGeometry {
         Point P0 = ray.getP0();
         Vector v = ray.getDir();
 
+        //u=center-p0, calculated in doubles so no vectors are created for every ray
+        double ux = center.getX() - P0.getX();
+        double uy = center.getY() - P0.getY();
+        double uz = center.getZ() - P0.getZ();
+
         //if P0 is the center of the sphere, return the radius to there
-        if (P0.equals(center)) {
+        if (isZero(ux) && isZero(uy) && isZero(uz)) {
             //center+(radius*v)
-            Point point = center.add(v.scale(radius));
-            double dis = point.distance(ray.getP0());
-            if (alignZero(dis - maxDistance) <= 0) //if the distance is less than the maximum
-                return List.of(new GeoPoint(this, point));
+            if (alignZero(radius - maxDistance) <= 0) //if the distance is less than the maximum
+                return List.of(new GeoPoint(this, center.add(v.scale(radius)), radius));
+            return null;
         }
 
-        Vector U = center.subtract(P0); //u=center-p0
-
-        double tm = alignZero(v.dotProduct(U)); //tm=v*u
+        double tm = alignZero(ux * v.getX() + uy * v.getY() + uz * v.getZ()); //tm=v*u
         //d is the distance from the center to the ray
-        double d = alignZero(Math.sqrt(U.lengthSquared() - tm * tm)); //d=squrt(|u|^2-tm^2)
+        double d = alignZero(Math.sqrt(ux * ux + uy * uy + uz * uz - tm * tm)); //d=squrt(|u|^2-tm^2)
 
         //if d is larger are equals radius, then there are no intersections
         if (d >= radius) {
@@ -79,45 +89,109 @@ public class Sphere extends RadialGeometry {
         double t1 = alignZero(tm - th); //t1=tm-th
         double t2 = alignZero(tm + th); //t2=tm+th
 
-        if (t1 > 0 && t2 > 0) { //if they are both positive then there are 2 intersections
-            Point P1 = ray.getP0(t1); //p1=p0+t1*v
-            Point P2 = ray.getP0(t2); //p2=p0+t2*v
+        //the direction is normalized, so t is the distance to the intersection
+        boolean has1 = t1 > 0 && alignZero(t1 - maxDistance) <= 0;
+        boolean has2 = t2 > 0 && alignZero(t2 - maxDistance) <= 0;
 
-            List<GeoPoint> list = null;
+        if (has1 && has2) { //if they are both in range then there are 2 intersections
+            List<GeoPoint> list = new LinkedList<>();
+            list.add(new GeoPoint(this, ray.getPoint(t1), t1)); //p1=p0+t1*v
+            list.add(new GeoPoint(this, ray.getPoint(t2), t2)); //p2=p0+t2*v
+            return list;
+        }
+        //otherwise if only one is in range so there is one intersection
+        if (has1) {
+            return List.of(new GeoPoint(this, ray.getPoint(t1), t1)); //p1=p0+t1*v
+        }
+        if (has2) {
+            return List.of(new GeoPoint(this, ray.getPoint(t2), t2)); //p2=p0+t2*v
+        }
 
-            double dis = P1.distance(ray.getP0());
-            if (alignZero(dis - maxDistance) <= 0) { //if the distance is less than the maximum
-                list = new LinkedList<>();
-                list.add(new GeoPoint(this, P1));
-            }
+        //if they are both negative or too far then there are no intersections
+        return null;
+    }
 
-            dis = P2.distance(ray.getP0());
-            if (alignZero(dis - maxDistance) <= 0) { //if the distance is less than the maximum
-                if (list == null) list = new LinkedList<>();
-                list.add(new GeoPoint(this, P2));
+    /**
+     * calculates the closest intersection of ray with a sphere
+     * @param ray pointing towards the graphic object
+     * @return the closest intersection with its distance, or null
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Point P0 = ray.getP0();
+        Vector v = ray.getDir();
 
-            }
+        //u=center-p0
+        double ux = center.getX() - P0.getX();
+        double uy = center.getY() - P0.getY();
+        double uz = center.getZ() - P0.getZ();
 
-            return list;
+        //if P0 is the center of the sphere, the intersection is at the radius
+        if (isZero(ux) && isZero(uy) && isZero(uz)) {
+            return alignZero(radius - maxDistance) <= 0 //if the distance is less than the maximum
+                    ? new GeoPoint(this, center.add(v.scale(radius)), radius) : null;
         }
-        //otherwise if only one is positive so there is one intersection
-        if (t1 > 0) {
-            Point P1 = ray.getPoint(t1); //p1=p0+t1*v
-            double dis = P1.distance(ray.getP0());
-            if (alignZero(dis - maxDistance) <= 0) { //if the distance is less than the maximum
-                return List.of(new GeoPoint(this, P1));
-            }
+
+        double tm = alignZero(ux * v.getX() + uy * v.getY() + uz * v.getZ()); //tm=v*u
+        //d is the distance from the center to the ray
+        double d = alignZero(Math.sqrt(ux * ux + uy * uy + uz * uz - tm * tm)); //d=squrt(|u|^2-tm^2)
+
+        //if d is larger are equals radius, then there are no intersections
+        if (d >= radius) {
+            return null;
         }
-        if (t2 > 0) {
-            Point P2 = ray.getPoint(t2); //p2=p0+t2*v
-            double dis = P2.distance(ray.getP0());
-            if (alignZero(dis - maxDistance) <= 0) { //if the distance is less than the maximum
-                return List.of(new GeoPoint(this, P2));
+
+        double th = alignZero(Math.sqrt(radius * radius - d * d));
+        //the closest positive one of t1=tm-th and t2=tm+th
+        double t = alignZero(tm - th);
+        if (t <= 0) {
+            t = alignZero(tm + th);
+            if (t <= 0) { //if they are both negative then there are no intersections
+                return null;
             }
         }
 
-        //if they are both negative then there are no intersections
-        return null;
+        //the direction is normalized, so t is the distance to the intersection
+        return alignZero(t - maxDistance) <= 0 ? new GeoPoint(this, ray.getPoint(t), t) : null;
+    }
+
+    /**
+     * calculates the closest intersections of a packet of rays with a sphere, all the rays in a single loop
+     * @param packet the rays pointing towards the graphic object
+     */
+    @Override
+    protected void findClosestGeoIntersectionsHelper(RayPacket packet) {
+        double cx = center.getX(), cy = center.getY(), cz = center.getZ();
+        double r2 = radius * radius;
+        for (int i = 0; i < packet.size; ++i) {
+            //u=center-p0
+            double ux = cx - packet.ox[i];
+            double uy = cy - packet.oy[i];
+            double uz = cz - packet.oz[i];
+
+            //a ray from the center is rare, intersect it on its own
+            if (isZero(ux) && isZero(uy) && isZero(uz)) {
+                packet.hit(i, findClosestGeoIntersectionHelper(packet.rays[i], packet.tMax[i]));
+                continue;
+            }
+
+            double tm = alignZero(ux * packet.dx[i] + uy * packet.dy[i] + uz * packet.dz[i]); //tm=v*u
+            double d = alignZero(Math.sqrt(ux * ux + uy * uy + uz * uz - tm * tm)); //d=squrt(|u|^2-tm^2)
+            if (d >= radius)
+                continue;
+
+            double th = alignZero(Math.sqrt(r2 - d * d));
+            //the closest positive one of t1=tm-th and t2=tm+th
+            double t = alignZero(tm - th);
+            if (t <= 0) {
+                t = alignZero(tm + th);
+                if (t <= 0)
+                    continue;
+            }
+
+            if (alignZero(t - packet.tMax[i]) <= 0)
+                packet.hit(i, new GeoPoint(this, packet.rays[i].getPoint(t), t));
+        }
     }
 
     @Override
@@ -13,39 +13,79 @@ public class Triangle extends Polygon {
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        //first find the intersections with the plane in which the triangle lays
-        List<GeoPoint> intersections = plane.findGeoIntersections(ray, maxDistance);
+        //a ray intersects a triangle at most once
+        GeoPoint gp = findClosestGeoIntersectionHelper(ray, maxDistance);
+        return gp == null ? null : List.of(gp);
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        //first find the intersection with the plane in which the triangle lays
+        GeoPoint intersection = plane.findClosestGeoIntersection(ray, maxDistance);
 
         //if the plane has no intersections so there are no intersections, so return null
-        if (intersections == null)
+        if (intersection == null)
             return null;//there are no intersection points
 
         Point p0 = ray.getP0();//the start ray point
         Vector v = ray.getDir();
+        double px = p0.getX(), py = p0.getY(), pz = p0.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
 
-        Vector v1 = vertices.get(0).subtract(p0);//vector from the ray start point to the polygon vertices
-        Vector v2 = vertices.get(1).subtract(p0);//vector from the ray start point to the polygon vertices
-        Vector v3 = vertices.get(2).subtract(p0);//vector from the ray start point to the polygon vertices
+        //vectors from the ray start point to the triangle vertices, calculated in doubles
+        Point a = vertices.get(0), b = vertices.get(1), c = vertices.get(2);
+        double x1 = a.getX() - px, y1 = a.getY() - py, z1 = a.getZ() - pz;
+        double x2 = b.getX() - px, y2 = b.getY() - py, z2 = b.getZ() - pz;
+        double x3 = c.getX() - px, y3 = c.getY() - py, z3 = c.getZ() - pz;
 
-        double s1 = v.dotProduct(v1.crossProduct(v2)); //s1 = v * (v1 X v2)
+        double s1 = tripleProduct(vx, vy, vz, x1, y1, z1, x2, y2, z2); //s1 = v * (v1 X v2)
         if (isZero(s1))
             return null;//the point is out of triangle
 
-        double s2 = v.dotProduct(v2.crossProduct(v3)); //s2 = v * (v2 X v3)
+        double s2 = tripleProduct(vx, vy, vz, x2, y2, z2, x3, y3, z3); //s2 = v * (v2 X v3)
         if (isZero(s2))
             return null;//the point is out of triangle
 
-        double s3 = v.dotProduct(v3.crossProduct(v1)); //s3 = v * (v3 X v1)
+        double s3 = tripleProduct(vx, vy, vz, x3, y3, z3, x1, y1, z1); //s3 = v * (v3 X v1)
         if (isZero(s3))
             return null;//the point is out of triangle
 
+        //if they don't all have the same sign then there is no intersection
+        if (!((s1 > 0 && s2 > 0 && s3 > 0) || (s1 < 0 && s2 < 0 && s3 < 0)))
+            return null;
+
         //update the geometry
-        for (GeoPoint gp : intersections) {
-            gp.geometry = this;
-        }
+        intersection.geometry = this;
+        return intersection;
+    }
 
-        //if they all have the same sign then return the intersections , otherwise return null
-        return ((s1 > 0 && s2 > 0 && s3 > 0) || (s1 < 0 && s2 < 0 && s3 < 0)) ? intersections : null;
+    @Override
+    protected void findClosestGeoIntersectionsHelper(RayPacket packet) {
+        Point a = vertices.get(0), b = vertices.get(1), c = vertices.get(2);
+        for (int i = 0; i < packet.size; ++i) {
+            //first find the distance to the plane in which the triangle lays
+            double t = plane.distance(packet, i);
+            if (Double.isNaN(t))
+                continue;
+
+            double px = packet.ox[i], py = packet.oy[i], pz = packet.oz[i];
+            double vx = packet.dx[i], vy = packet.dy[i], vz = packet.dz[i];
+
+            //vectors from the ray start point to the triangle vertices
+            double x1 = a.getX() - px, y1 = a.getY() - py, z1 = a.getZ() - pz;
+            double x2 = b.getX() - px, y2 = b.getY() - py, z2 = b.getZ() - pz;
+            double x3 = c.getX() - px, y3 = c.getY() - py, z3 = c.getZ() - pz;
+
+            double s1 = tripleProduct(vx, vy, vz, x1, y1, z1, x2, y2, z2); //s1 = v * (v1 X v2)
+            double s2 = tripleProduct(vx, vy, vz, x2, y2, z2, x3, y3, z3); //s2 = v * (v2 X v3)
+            double s3 = tripleProduct(vx, vy, vz, x3, y3, z3, x1, y1, z1); //s3 = v * (v3 X v1)
+            if (isZero(s1) || isZero(s2) || isZero(s3))
+                continue;//the point is on the edge of the triangle
+
+            //the ray hits the triangle if they all have the same sign
+            if ((s1 > 0 && s2 > 0 && s3 > 0) || (s1 < 0 && s2 < 0 && s3 < 0))
+                packet.hit(i, new GeoPoint(this, packet.rays[i].getPoint(t), t));
+        }
     }
 
 }
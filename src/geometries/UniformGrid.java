@@ -0,0 +1,415 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.isZero;
+
+/**
+ * The UniformGrid class represents a collection of intersectable geometries, arranged in a
+ * uniform grid of voxels (cells) as an alternative to the bounding volume hierarchy of {@link Geometries}.
+ * Every finite geometry is registered in the cells its bounding box overlaps, and a ray walks the
+ * cells it passes through from front to back (3D-DDA), testing only the geometries registered in them.
+ * Infinite geometries (planes, tubes) are kept in a side list which is tested for every ray.
+ * The grid is built once, when it is constructed.
+ */
+public class UniformGrid extends Intersectable {
+    /**
+     * Desired average amount of cells per geometry
+     */
+    private static final double CELLS_PER_GEOMETRY = 4;
+    /**
+     * Maximum resolution along each axis
+     */
+    private static final int MAX_RESOLUTION = 256;
+
+    /**
+     * The geometries without a bounding box, tested for every ray
+     */
+    private final Intersectable[] unbounded;
+    /**
+     * The geometries registered in the cells
+     */
+    private final Intersectable[] bounded;
+
+    // bounds of the grid
+    private final double minX, minY, minZ;
+    private final double maxX, maxY, maxZ;
+    // size of a cell along each axis
+    private final double cellX, cellY, cellZ;
+    // amount of cells along each axis
+    private final int nX, nY, nZ;
+
+    /**
+     * Index of the first item of each cell in the items array (with one more entry for the end)
+     */
+    private final int[] cellStarts;
+    /**
+     * Indices of the geometries registered in the cells, cell after cell
+     */
+    private final int[] cellItems;
+
+    /**
+     * Constructs a grid of the given intersectables
+     *
+     * @param intersectables the intersectables to arrange in the grid
+     */
+    public UniformGrid(Intersectable... intersectables) {
+        this(List.of(intersectables));
+    }
+
+    /**
+     * Constructs a grid of the given intersectables.
+     * The resolution is chosen according to the amount of geometries, so that the cells are
+     * about cubes and there are about {@value CELLS_PER_GEOMETRY} cells per geometry.
+     * An axis along which the geometries are thinner than a cell has a single cell.
+     *
+     * @param intersectables the intersectables to arrange in the grid
+     */
+    public UniformGrid(List<Intersectable> intersectables) {
+        List<Intersectable> finite = new ArrayList<>();
+        List<Intersectable> infinite = new ArrayList<>();
+        List<BoundingBox> boxes = new ArrayList<>();
+        BoundingBox bounds = null;
+        for (Intersectable item : intersectables) {
+            BoundingBox box = item.getBoundingBox();
+            if (box == null) {
+                infinite.add(item);
+            } else {
+                finite.add(item);
+                boxes.add(box);
+                bounds = bounds == null ? box : bounds.union(box);
+            }
+        }
+        unbounded = infinite.toArray(new Intersectable[0]);
+        bounded = finite.toArray(new Intersectable[0]);
+
+        int n = bounded.length;
+        if (n == 0) {
+            bounds = new BoundingBox(0, 0, 0, 0, 0, 0);
+        }
+
+        // pad flat dimensions so every cell has a volume
+        double dx = bounds.maxX - bounds.minX;
+        double dy = bounds.maxY - bounds.minY;
+        double dz = bounds.maxZ - bounds.minZ;
+        double pad = Math.max(1e-6, 1e-6 * Math.max(dx, Math.max(dy, dz)));
+        minX = bounds.minX - pad;
+        minY = bounds.minY - pad;
+        minZ = bounds.minZ - pad;
+        maxX = bounds.maxX + pad;
+        maxY = bounds.maxY + pad;
+        maxZ = bounds.maxZ + pad;
+        dx = maxX - minX;
+        dy = maxY - minY;
+        dz = maxZ - minZ;
+
+        // cells per unit of length, so the amount of cells is about CELLS_PER_GEOMETRY * n.
+        // An axis thinner than a cell (such as the thickness of coplanar floors) gets a single cell,
+        // and the density is taken from the other axes only
+        double[] sizes = {dx, dy, dz};
+        boolean[] flat = new boolean[3];
+        double density;
+        boolean changed;
+        do {
+            double volume = 1;
+            int dimensions = 0;
+            for (int axis = 0; axis < 3; ++axis)
+                if (!flat[axis]) {
+                    volume *= sizes[axis];
+                    ++dimensions;
+                }
+            density = Math.pow(CELLS_PER_GEOMETRY * Math.max(1, n) / volume, 1d / dimensions);
+            changed = false;
+            for (int axis = 0; axis < 3; ++axis)
+                if (!flat[axis] && sizes[axis] * density < 1) {
+                    flat[axis] = true;
+                    changed = true;
+                }
+        } while (changed);
+        nX = flat[0] ? 1 : resolution(dx * density);
+        nY = flat[1] ? 1 : resolution(dy * density);
+        nZ = flat[2] ? 1 : resolution(dz * density);
+        cellX = dx / nX;
+        cellY = dy / nY;
+        cellZ = dz / nZ;
+
+        // count the geometries of each cell, then fill the cells
+        int cells = nX * nY * nZ;
+        cellStarts = new int[cells + 1];
+        int[][] ranges = new int[n][];
+        for (int i = 0; i < n; ++i) {
+            int[] range = cellRange(boxes.get(i));
+            ranges[i] = range;
+            for (int z = range[2]; z <= range[5]; ++z)
+                for (int y = range[1]; y <= range[4]; ++y)
+                    for (int x = range[0]; x <= range[3]; ++x)
+                        ++cellStarts[cellIndex(x, y, z) + 1];
+        }
+        for (int c = 0; c < cells; ++c)
+            cellStarts[c + 1] += cellStarts[c];
+
+        cellItems = new int[cellStarts[cells]];
+        int[] filled = new int[cells];
+        for (int i = 0; i < n; ++i) {
+            int[] range = ranges[i];
+            for (int z = range[2]; z <= range[5]; ++z)
+                for (int y = range[1]; y <= range[4]; ++y)
+                    for (int x = range[0]; x <= range[3]; ++x) {
+                        int c = cellIndex(x, y, z);
+                        cellItems[cellStarts[c] + filled[c]++] = i;
+                    }
+        }
+    }
+
+    /**
+     * Returns the resolution along an axis, between 1 and {@value MAX_RESOLUTION}
+     */
+    private static int resolution(double cells) {
+        return (int) Math.max(1, Math.min(MAX_RESOLUTION, Math.round(cells)));
+    }
+
+    /**
+     * Returns the index of a cell in the cells arrays
+     */
+    private int cellIndex(int x, int y, int z) {
+        return (z * nY + y) * nX + x;
+    }
+
+    /**
+     * Returns the range of cells a box overlaps, slightly enlarged so geometries touching
+     * a cell boundary are registered in both cells
+     *
+     * @param box the box
+     * @return the range - first x,y,z cell and last x,y,z cell
+     */
+    private int[] cellRange(BoundingBox box) {
+        double eps = 1e-9 * (cellX + cellY + cellZ);
+        return new int[]{
+                clamp((int) ((box.minX - eps - minX) / cellX), nX),
+                clamp((int) ((box.minY - eps - minY) / cellY), nY),
+                clamp((int) ((box.minZ - eps - minZ) / cellZ), nZ),
+                clamp((int) ((box.maxX + eps - minX) / cellX), nX),
+                clamp((int) ((box.maxY + eps - minY) / cellY), nY),
+                clamp((int) ((box.maxZ + eps - minZ) / cellZ), nZ)};
+    }
+
+    /**
+     * Clamps a cell index into the range [0, n-1]
+     */
+    private static int clamp(int index, int n) {
+        return index < 0 ? 0 : Math.min(index, n - 1);
+    }
+
+    /**
+     * Returns the resolution of the grid
+     *
+     * @return amount of cells along the x, y and z axes
+     */
+    public int[] getResolution() {
+        return new int[]{nX, nY, nZ};
+    }
+
+    @Override
+    protected BoundingBox calcBoundingBox() {
+        if (unbounded.length > 0 || bounded.length == 0) {
+            return null;
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Calculates the intersections of a ray with the geometries of the grid.
+     * A geometry registered in several cells is tested in each of them, and only the intersections
+     * inside the part of the ray which passes through the current cell are taken, so no intersection
+     * is found twice.
+     *
+     * @param ray         the ray to intersect with the geometries
+     * @param maxDistance the maximum distance
+     * @return a list of the intersections, or null if no intersection exists
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded) {
+            List<GeoPoint> items = item.findGeoIntersections(ray, maxDistance);
+            if (items != null) {
+                if (result == null) result = new LinkedList<>();
+                result.addAll(items);
+            }
+        }
+
+        Walk walk = new Walk(ray, maxDistance);
+        while (walk.next()) {
+            for (int i = cellStarts[walk.cell]; i < cellStarts[walk.cell + 1]; ++i) {
+                List<GeoPoint> items = bounded[cellItems[i]].findGeoIntersections(ray, maxDistance);
+                if (items == null) continue;
+                for (GeoPoint gp : items) {
+                    if (walk.contains(gp.point.distance(ray.getP0()))) {
+                        if (result == null) result = new LinkedList<>();
+                        result.add(gp);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the closest intersection of a ray with the geometries of the grid.
+     * The cells are walked from front to back, and the walk stops as soon as the closest
+     * intersection found is inside the current cell, since the following cells are all farther.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance
+     * @return the closest intersection, or null if there is none
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+
+        for (Intersectable item : unbounded) {
+            GeoPoint gp = item.findClosestGeoIntersection(ray, maxDistance);
+            if (gp != null && (closest == null || gp.t < closest.t)) {
+                closest = gp;
+                maxDistance = gp.t;
+            }
+        }
+
+        Walk walk = new Walk(ray, maxDistance);
+        while (walk.next()) {
+            for (int i = cellStarts[walk.cell]; i < cellStarts[walk.cell + 1]; ++i) {
+                GeoPoint gp = bounded[cellItems[i]].findClosestGeoIntersection(ray, maxDistance);
+                if (gp != null && (closest == null || gp.t < closest.t)) {
+                    closest = gp;
+                    maxDistance = gp.t;
+                }
+            }
+            // the closest intersection is in the current cell - the rest of the cells are farther
+            if (closest != null && closest.t < walk.exit) {
+                break;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Walk of a ray through the cells of the grid (3D-DDA).
+     * Each call to {@link #next()} moves to the next cell along the ray, and updates the range of
+     * distances along the ray which is inside the cell.
+     */
+    private class Walk {
+        /**
+         * Index of the current cell
+         */
+        int cell = -1;
+        /**
+         * Distance along the ray where it enters the current cell
+         */
+        double enter;
+        /**
+         * Distance along the ray where it leaves the current cell
+         */
+        double exit;
+
+        private final double maxDistance;
+        private int x, y, z;
+        private int stepX, stepY, stepZ;
+        private double nextX, nextY, nextZ;
+        private double deltaX, deltaY, deltaZ;
+        private boolean done;
+
+        /**
+         * Starts the walk at the cell where the ray enters the grid
+         *
+         * @param ray         the ray
+         * @param maxDistance the distance to stop at
+         */
+        Walk(Ray ray, double maxDistance) {
+            this.maxDistance = maxDistance;
+            Point p0 = ray.getP0();
+            Vector v = ray.getDir();
+            double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+            double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+
+            double t = bounded.length == 0 ? Double.POSITIVE_INFINITY
+                    : BoundingBox.slab(minX, minY, minZ, maxX, maxY, maxZ, ox, oy, oz,
+                    BoundingBox.inverse(dx), BoundingBox.inverse(dy), BoundingBox.inverse(dz), maxDistance);
+            done = t == Double.POSITIVE_INFINITY;
+            if (done) return;
+
+            x = clamp((int) ((ox + dx * t - minX) / cellX), nX);
+            y = clamp((int) ((oy + dy * t - minY) / cellY), nY);
+            z = clamp((int) ((oz + dz * t - minZ) / cellZ), nZ);
+
+            stepX = isZero(dx) ? 0 : dx > 0 ? 1 : -1;
+            stepY = isZero(dy) ? 0 : dy > 0 ? 1 : -1;
+            stepZ = isZero(dz) ? 0 : dz > 0 ? 1 : -1;
+
+            nextX = stepX == 0 ? Double.POSITIVE_INFINITY : (minX + (x + (stepX > 0 ? 1 : 0)) * cellX - ox) / dx;
+            nextY = stepY == 0 ? Double.POSITIVE_INFINITY : (minY + (y + (stepY > 0 ? 1 : 0)) * cellY - oy) / dy;
+            nextZ = stepZ == 0 ? Double.POSITIVE_INFINITY : (minZ + (z + (stepZ > 0 ? 1 : 0)) * cellZ - oz) / dz;
+
+            deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : cellX / Math.abs(dx);
+            deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : cellY / Math.abs(dy);
+            deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : cellZ / Math.abs(dz);
+
+            exit = Double.NEGATIVE_INFINITY;
+        }
+
+        /**
+         * Moves to the next cell along the ray.
+         * The first cell starts at the ray head, and the last one (before leaving the grid or
+         * passing the max distance) extends to infinity, so intersections near the borders of
+         * the grid are not lost.
+         *
+         * @return false if the walk is over
+         */
+        boolean next() {
+            if (done) return false;
+
+            if (cell >= 0) {
+                // step to the neighbour cell across the nearest boundary
+                if (nextX <= nextY && nextX <= nextZ) {
+                    x += stepX;
+                    nextX += deltaX;
+                } else if (nextY <= nextZ) {
+                    y += stepY;
+                    nextY += deltaY;
+                } else {
+                    z += stepZ;
+                    nextZ += deltaZ;
+                }
+            }
+            cell = cellIndex(x, y, z);
+            enter = exit;
+
+            // check whether this is the last cell of the walk
+            double boundary = Math.min(nextX, Math.min(nextY, nextZ));
+            boolean last = boundary > maxDistance;
+            if (!last) {
+                if (nextX == boundary) last = x + stepX < 0 || x + stepX >= nX;
+                else if (nextY == boundary) last = y + stepY < 0 || y + stepY >= nY;
+                else last = z + stepZ < 0 || z + stepZ >= nZ;
+            }
+            exit = last ? Double.POSITIVE_INFINITY : boundary;
+            done = last;
+            return true;
+        }
+
+        /**
+         * Checks whether a distance along the ray is inside the current cell
+         *
+         * @param t the distance
+         * @return true if the distance is in the range [enter, exit)
+         */
+        boolean contains(double t) {
+            return t >= enter && t < exit;
+        }
+    }
+}
@@ -11,7 +11,7 @@ import java.util.List;
  * Extends abstract class Light and implements interface LightSource
  */
 public class DirectionalLight extends Light implements LightSource {
-    // Field represents the direction of the light
+    // Field represents the direction of the light, normalized once for all the points
     private Vector direction;
 
     /**
@@ -21,7 +21,16 @@ public class DirectionalLight extends Light implements LightSource {
      */
     public DirectionalLight(Color intensity, Vector direction) {
         super(intensity);
-        this.direction = direction;
+        this.direction = direction.normalize();
+    }
+
+    /**
+     * Getter for field direction
+     *
+     * @return the direction of the light
+     */
+    public Vector getDirection() {
+        return direction;
     }
 
     @Override
@@ -32,7 +41,7 @@ public class DirectionalLight extends Light implements LightSource {
 
     @Override
     public Vector getL(Point p) {
-        return direction.normalize();
+        return direction;
     }
 
 
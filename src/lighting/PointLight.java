@@ -41,6 +41,42 @@ public class PointLight extends Light implements LightSource {
         this.kQ = kQ;
     }
 
+    /**
+     * Getter for field position
+     *
+     * @return the position of the light
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    /**
+     * Getter for field kC
+     *
+     * @return the constant attenuation factor
+     */
+    public double getKc() {
+        return kC;
+    }
+
+    /**
+     * Getter for field kL
+     *
+     * @return the linear attenuation factor
+     */
+    public double getKl() {
+        return kL;
+    }
+
+    /**
+     * Getter for field kQ
+     *
+     * @return the quadratic attenuation factor
+     */
+    public double getKq() {
+        return kQ;
+    }
+
     /**
      * Builder pattern setter for field kC
      *
@@ -25,6 +25,15 @@ public class SpotLight extends PointLight {
         this.direction = direction.normalize();
     }
 
+    /**
+     * Getter for field direction
+     *
+     * @return the direction of the light
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
     @Override
     public Color getIntensity(Point p) {
         double proj = direction.dotProduct(getL(p)); //direction*(psition-p) , projection of light on point
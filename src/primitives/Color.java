@@ -53,6 +53,10 @@ public class Color {
       return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
    }
 
+   /** Getter for the RGB components of the color, without the limit of 255
+    * @return triad of Red/Green/Blue components */
+   public Double3 getRgb() { return rgb; }
+
    /** Operation of adding this and one or more other colors (by component)
     * @param  colors one or more other colors to add
     * @return        new Color object which is a result of the operation */
@@ -102,23 +106,6 @@ public class Color {
       return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
    }
 
-   /**
-    * @author kayla nayman and naama holzer
-    * This function compares colors and returns a boolean variable whether they are equal or not
-    * @param color the color to compare
-    * @return true if the colors equals, otherwise false
-    */
-   public boolean isColorsEqual(Color color) {
-      //thanks to kayla neyman
-      Point p1 = new Point(rgb);
-      Point p2 = new Point(color.rgb);
-      double c1 = Math.sqrt((this.rgb.d1) * (this.rgb.d1) + (this.rgb.d2) * (this.rgb.d2) + (this.rgb.d3) * (this.rgb.d3));
-      double c2 = Math.sqrt((color.rgb.d1) * (color.rgb.d1) + (color.rgb.d2) * (color.rgb.d2) + (color.rgb.d3) * (color.rgb.d3));
-      double avg = (c1 + c2) / 2d;
-      return !(p1.distance(p2) > 0.25 * avg);
-   }
-
-
    @Override
    public String toString() { return "rgb:" + rgb; }
 }
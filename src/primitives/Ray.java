@@ -62,7 +62,7 @@ public class Ray {
     }
 
     public Point getP0(double d) {
-        return p0.add(dir.scale(d));
+        return new Point(p0.xyz.d1 + dir.xyz.d1 * d, p0.xyz.d2 + dir.xyz.d2 * d, p0.xyz.d3 + dir.xyz.d3 * d);
     }
 
     /**
@@ -99,7 +99,9 @@ public class Ray {
         if (isZero(delta)) {
             return p0;
         }
-        return p0.add(dir.scale(delta));
+        //p0+delta*dir, without creating the scaled vector
+        return new Point(p0.xyz.d1 + dir.xyz.d1 * delta, p0.xyz.d2 + dir.xyz.d2 * delta,
+                p0.xyz.d3 + dir.xyz.d3 * delta);
     }
 
 
@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * The Vector class represents a mathematical vector in 3D space.
  * A vector consists of three components: x, y, and z, which are
@@ -23,7 +25,7 @@ public class Vector extends Point {
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if (xyz.equals(Double3.ZERO)) {
+        if (isZero(x) && isZero(y) && isZero(z)) {
             throw new IllegalArgumentException("Vector zero");
         }
     }
@@ -34,12 +36,25 @@ public class Vector extends Point {
      * @param xyz the Double3 object containing the x, y, and z components of the vector.
      */
     public Vector(Double3 xyz) {
-        super(xyz.d1, xyz.d2, xyz.d3);
-        if (xyz.equals(Double3.ZERO)) {
+        super(xyz);
+        if (isZero(xyz.d1) && isZero(xyz.d2) && isZero(xyz.d3)) {
             throw new IllegalArgumentException("Vector zero");
         }
     }
 
+    /**
+     * Constructs a Vector object without checking it is not zero,
+     * for results of calculations which cannot be zero.
+     *
+     * @param x the x component of the vector.
+     * @param y the y component of the vector.
+     * @param z the z component of the vector.
+     * @param unchecked marks the constructor that skips the check
+     */
+    private Vector(double x, double y, double z, boolean unchecked) {
+        super(x, y, z);
+    }
+
     /**
      * Returns true if this vector is equal to the specified object.
      *
@@ -157,8 +172,9 @@ public class Vector extends Point {
      @return the normalized version of this vector
      */
     public Vector normalize() {
-        //TODO: to check later maybe replace
-        return new Vector(xyz.reduce(length()));
+        //a vector is never zero, so its normalized vector is not zero as well
+        double length = length();
+        return new Vector(xyz.d1 / length, xyz.d2 / length, xyz.d3 / length, true);
     }
 
     /**
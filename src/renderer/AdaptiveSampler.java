@@ -0,0 +1,206 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+
+/**
+ * AdaptiveSampler is a helper class for adaptive super-sampling.
+ * The samples are taken on a lattice over the whole view plane, of S x S cells per pixel (S a power of 2).
+ * A pixel is sampled at its 4 corners and its center; if the luminance contrast of the 5 samples is high,
+ * it is divided into 4 quadrants which are sampled the same way, down to quadrants of 2 x 2 cells.
+ * The color of a quadrant which is not divided is the average of its 5 samples, and the color of the pixel
+ * is the average of its quadrants by their areas.
+ * <p>
+ * Rays are traced only when a lattice point is first needed, and the colors of the traced points are
+ * remembered in a small direct-mapped cache, so the corners and the edges shared by neighbouring quadrants
+ * and by neighbouring pixels (rendered one after the other) are traced once.
+ * A sampler is used by a single thread.
+ */
+class AdaptiveSampler {
+    /**
+     * Luminance contrast of the samples of a quadrant above which it is divided
+     */
+    static final double CONTRAST_THRESHOLD = 0.1;
+    /**
+     * Number of lattice points the cache remembers (a power of 2)
+     */
+    private static final int CACHE_SIZE = 1 << 13;
+
+    private final RayTracerBase rayTracer;
+    private final Point p0;
+    /**
+     * Size of a pixel in cells of the lattice
+     */
+    private final int size;
+    // the top left corner of the view plane
+    private final double cornerX;
+    private final double cornerY;
+    private final double cornerZ;
+    // the step of a cell of the lattice to the right
+    private final double rightX;
+    private final double rightY;
+    private final double rightZ;
+    // the step of a cell of the lattice downwards
+    private final double downX;
+    private final double downY;
+    private final double downZ;
+
+    // the cache of the colors of traced lattice points, by their keys
+    private final long[] keys = new long[CACHE_SIZE];
+    private final Color[] colors = new Color[CACHE_SIZE];
+
+    // the sums of the colors of the quadrants of the current pixel, weighted by their areas
+    private double red;
+    private double green;
+    private double blue;
+
+    // amounts of lattice points which were traced and which were needed
+    private long traced = 0;
+    private long needed = 0;
+
+    /**
+     * Constructs a sampler of a view plane
+     *
+     * @param rayTracer the ray tracer
+     * @param p0        the camera eye
+     * @param corner    the top left corner of the view plane
+     * @param right     the vector from the left edge of a pixel to its right edge
+     * @param down      the vector from the top edge of a pixel to its bottom edge
+     * @param levels    the amount of times a pixel may be divided into quadrants
+     */
+    AdaptiveSampler(RayTracerBase rayTracer, Point p0, Point corner, Vector right, Vector down, int levels) {
+        this.rayTracer = rayTracer;
+        this.p0 = p0;
+        this.size = 2 << levels;
+        this.cornerX = corner.getX();
+        this.cornerY = corner.getY();
+        this.cornerZ = corner.getZ();
+        this.rightX = right.getX() / size;
+        this.rightY = right.getY() / size;
+        this.rightZ = right.getZ() / size;
+        this.downX = down.getX() / size;
+        this.downY = down.getY() / size;
+        this.downZ = down.getZ() / size;
+        Arrays.fill(keys, -1);
+    }
+
+    /**
+     * Calculates the color of a pixel
+     *
+     * @param j column of the pixel
+     * @param i row of the pixel
+     * @return the color
+     */
+    Color sample(int j, int i) {
+        red = green = blue = 0;
+        refine((long) j * size, (long) i * size, size, 1);
+        return new Color(red, green, blue);
+    }
+
+    /**
+     * Samples a quadrant, and divides it if the contrast of its samples is high
+     *
+     * @param x      the column of the top left corner of the quadrant in the lattice
+     * @param y      the row of the top left corner of the quadrant in the lattice
+     * @param length the width and height of the quadrant in cells of the lattice
+     * @param weight the area of the quadrant as a part of the pixel
+     */
+    private void refine(long x, long y, int length, double weight) {
+        int half = length >> 1;
+        Color c00 = sample(x, y);
+        Color c10 = sample(x + length, y);
+        Color c01 = sample(x, y + length);
+        Color c11 = sample(x + length, y + length);
+        Color center = sample(x + half, y + half);
+
+        if (length > 2 && contrast(luminance(c00), luminance(c10), luminance(c01), luminance(c11),
+                luminance(center)) > CONTRAST_THRESHOLD) {
+            double quarter = weight / 4;
+            refine(x, y, half, quarter);
+            refine(x + half, y, half, quarter);
+            refine(x, y + half, half, quarter);
+            refine(x + half, y + half, half, quarter);
+            return;
+        }
+
+        double fifth = weight / 5;
+        add(c00, fifth);
+        add(c10, fifth);
+        add(c01, fifth);
+        add(c11, fifth);
+        add(center, fifth);
+    }
+
+    /**
+     * Adds a weighted color to the color of the pixel
+     */
+    private void add(Color color, double weight) {
+        Double3 rgb = color.getRgb();
+        red += weight * rgb.getD1();
+        green += weight * rgb.getD2();
+        blue += weight * rgb.getD3();
+    }
+
+    /**
+     * @return the luminance of a color (Rec. 709)
+     */
+    private static double luminance(Color color) {
+        Double3 rgb = color.getRgb();
+        return 0.2126 * rgb.getD1() + 0.7152 * rgb.getD2() + 0.0722 * rgb.getD3();
+    }
+
+    /**
+     * Calculates the luminance contrast of 5 samples - the difference between the largest and the smallest
+     * luminance relative to their sum. One level of color (of 255) is added to the sum, so the small
+     * differences between dark colors are not a contrast.
+     *
+     * @return the contrast, between 0 and 1
+     */
+    private static double contrast(double l1, double l2, double l3, double l4, double l5) {
+        double min = Math.min(Math.min(Math.min(l1, l2), Math.min(l3, l4)), l5);
+        double max = Math.max(Math.max(Math.max(l1, l2), Math.max(l3, l4)), l5);
+        return (max - min) / (max + min + 1);
+    }
+
+    /**
+     * Returns the color of a lattice point, tracing its ray unless it is in the cache
+     *
+     * @param x the column of the point in the lattice
+     * @param y the row of the point in the lattice
+     * @return the color
+     */
+    private Color sample(long x, long y) {
+        ++needed;
+        long key = y << 32 | x;
+        int index = (int) (key * 0x9E3779B97F4A7C15L >>> (64 - Integer.numberOfTrailingZeros(CACHE_SIZE)));
+        if (keys[index] == key)
+            return colors[index];
+
+        ++traced;
+        Point point = new Point(cornerX + x * rightX + y * downX, cornerY + x * rightY + y * downY,
+                cornerZ + x * rightZ + y * downZ);
+        Color color = rayTracer.traceRay(new Ray(p0, point.subtract(p0)));
+        keys[index] = key;
+        colors[index] = color;
+        return color;
+    }
+
+    /**
+     * @return the amount of lattice points which were traced
+     */
+    long getTracedSamples() {
+        return traced;
+    }
+
+    /**
+     * @return the amount of lattice points which were needed, including the ones found in the cache
+     */
+    long getNeededSamples() {
+        return needed;
+    }
+}
@@ -5,6 +5,18 @@ import primitives.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static primitives.Util.isZero;
 
@@ -12,6 +24,10 @@ import static primitives.Util.isZero;
  * Camera producing rays through a view plane
  */
 public class Camera {
+    /**
+     * Row ranges with this amount of rows or fewer are not split further by the fork/join render
+     */
+    private static final int MIN_ROWS_PER_TASK = 2;
 
     private Point p0;          // camera eye
     private Vector vUp;        // vector pointing upwards : Y axis
@@ -41,12 +57,58 @@ public class Camera {
      * How many threads to use
      */
     private int numOfThreads = 1;
+    /**
+     * Width and height of the tiles the image is divided into for multithreading
+     */
+    private int tileSize = 16;
+    /**
+     * The order in which the tiles are rendered
+     */
+    private TileOrder tileOrder = TileOrder.HILBERT;
+    /**
+     * Turns rendering the tiles on virtual threads on/off
+     */
+    private boolean isVirtualThreads = false;
+    /**
+     * Listener to the progress of multi-threaded renders
+     */
+    private ProgressListener progressListener = ProgressListener.CONSOLE;
+    /**
+     * Time between progress reports in seconds
+     */
+    private double progressInterval = 5;
 
     /**
      * Turns adaptive super-sampling on/off
      */
     private boolean isAdaptive = false;
 
+    /**
+     * Turns progressive rendering on/off
+     */
+    private boolean isProgressive = false;
+    /**
+     * Listener to the passes of progressive renders
+     */
+    private PassListener passListener = null;
+    /**
+     * Wall-clock time budget of renders in seconds, 0 for no budget
+     */
+    private double timeBudget = 0;
+    /**
+     * Half width of the 95% confidence interval of the luminance of pixels which need no more samples
+     * in progressive renders, 0 for sampling all the pixels alike
+     */
+    private double convergenceThreshold = 0;
+    /**
+     * Turns collecting statistics of the renders on/off
+     */
+    private boolean isStatistics = false;
+    /**
+     * Statistics of the last render, null if they were not collected
+     */
+    private volatile RenderStatistics statistics = null;
+
     /**
      * @param p0  origin  point in 3D space
      * @param vUp vechu
@@ -67,6 +129,21 @@ public class Camera {
 
     }
 
+    /**
+     * Constructs a camera of vectors which were already calculated, as they are
+     *
+     * @param p0     origin point in 3D space
+     * @param vTo    the vector towards the scene
+     * @param vUp    the vector upwards
+     * @param vRight the vector towards the right
+     */
+    Camera(Point p0, Vector vTo, Vector vUp, Vector vRight) {
+        this.p0 = p0;
+        this.vTo = vTo;
+        this.vUp = vUp;
+        this.vRight = vRight;
+    }
+
     public Point getP0() {
         return this.p0;
     }
@@ -87,6 +164,14 @@ public class Camera {
         return this.distance;
     }
 
+    public double getWidth() {
+        return this.width;
+    }
+
+    public double getHeight() {
+        return this.height;
+    }
+
     // chaining methods
 
     /**
@@ -147,6 +232,19 @@ public class Camera {
         return new Ray(this.p0, Pij.subtract(this.p0));
     }
 
+    /**
+     * Freezes the camera into a view of an image resolution, which constructs the same rays as
+     * {@link #constructRay(int, int, int, int)} and the anti-aliasing grid of the camera, without calculating
+     * the view plane again for every ray. Renders take the view of the camera when they start.
+     *
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @return the view
+     */
+    public CameraView getView(int nX, int nY) {
+        return new CameraView(p0, vTo, vUp, vRight, distance, width, height, nX, nY, numOfAARays);
+    }
+
 
     /**
      * Setter of builder patterns
@@ -198,132 +296,560 @@ public class Camera {
     /**
      * function that get the color of each point in
      * the view plane and paint it .
+     * If statistics are turned on, they are collected during the render - see {@link #getRenderStatistics()}
+     * A failure of a render thread is rethrown by this method once the other threads stopped.
+     *
+     * @throws CancellationException if the thread is interrupted while waiting for the render threads -
+     *                               the render is aborted and the interrupt flag of the thread is kept
      */
     public Camera renderImage() {
-        // if one of the fields hasn't been initialized throw an exception
-        if (imageWriter == null) {
-            throw new MissingResourceException("missing resource", ImageWriter.class.getName(), "");
+        Render render = new Render(null);
+        render(render);
+        if (render.statistics != null)
+            statistics = render.statistics;
+        return this;
+    }
+
+    /**
+     * The state of a single render, frozen when the render starts: the image, the ray tracer, the view
+     * of the camera, the samplers of the threads, the threads and the tiles, the progress and the pass listeners,
+     * the passes and the statistics of the render.
+     * The render helpers take it as a parameter instead of keeping it in the camera, so renders of the camera
+     * which run together (and changes of the camera during a render) do not affect each other.
+     */
+    private final class Render {
+        private final int nX;
+        private final int nY;
+        private final ImageWriter imageWriter;
+        private final RayTracerBase rayTracer;
+        private final CameraView view;
+        private final boolean isAntiAliasing;
+        private final boolean isMultithreading;
+        private final int numOfThreads;
+        private final int tileSize;
+        private final TileOrder tileOrder;
+        private final boolean isVirtualThreads;
+        private final ProgressListener progressListener;
+        private final double progressInterval;
+        /**
+         * The adaptive samplers of the threads of the render, null when not sampling adaptively
+         */
+        private final ThreadLocal<AdaptiveSampler> adaptiveSamplers;
+        /**
+         * The passes of the render, null when not rendering progressively
+         */
+        private final ProgressivePasses passes;
+        /**
+         * Listener to the passes of the render, null to render all the passes
+         */
+        private final PassListener passListener;
+        /**
+         * The statistics of the render, null when they are not collected
+         */
+        private final RenderStatistics statistics;
+        /**
+         * The future of a render in the background, which cancels the render once it is done,
+         * null for a render on the calling thread
+         */
+        private final CompletableFuture<ImageWriter> result;
+
+        /**
+         * Freezes the settings of the camera for a render
+         *
+         * @param result the future of a render in the background, null for a render on the calling thread
+         */
+        Render(CompletableFuture<ImageWriter> result) {
+            // if one of the fields hasn't been initialized throw an exception
+            if (Camera.this.imageWriter == null) {
+                throw new MissingResourceException("missing resource", ImageWriter.class.getName(), "");
+            }
+            if (Camera.this.rayTracer == null) {
+                throw new MissingResourceException("missing resource", RayTracerBase.class.getName(), "");
+            }
+
+            this.imageWriter = Camera.this.imageWriter;
+            this.rayTracer = Camera.this.rayTracer;
+            this.nX = imageWriter.getNx();
+            this.nY = imageWriter.getNy();
+            this.view = getView(nX, nY);
+            this.isAntiAliasing = Camera.this.isAntiAliasing;
+            //The distance between the screen and the camera cannot be 0 when the cells of the pixels are sampled
+            //(a render with a time budget samples the anti-aliasing grid even if anti-aliasing is off)
+            if ((isAntiAliasing || timeBudget > 0) && isZero(distance)) {
+                throw new IllegalArgumentException("distance cannot be 0");
+            }
+            this.isMultithreading = Camera.this.isMultithreading;
+            this.numOfThreads = Camera.this.numOfThreads;
+            this.tileSize = Camera.this.tileSize;
+            this.tileOrder = Camera.this.tileOrder;
+            this.isVirtualThreads = Camera.this.isVirtualThreads;
+            this.progressListener = Camera.this.progressListener;
+            this.progressInterval = Camera.this.progressInterval;
+            this.adaptiveSamplers = isAntiAliasing && isAdaptive ? newAdaptiveSamplers(this) : null;
+
+            //a render with a time budget samples the anti-aliasing grid even if anti-aliasing is off
+            if (isProgressive || timeBudget > 0) {
+                long deadline = timeBudget == 0 ? Long.MAX_VALUE : System.nanoTime() + (long) (timeBudget * 1e9);
+                this.passes = new ProgressivePasses(nX, nY, isAntiAliasing || timeBudget > 0 ? numOfAARays : 0,
+                        deadline, convergenceThreshold);
+            } else
+                this.passes = null;
+            this.passListener = Camera.this.passListener;
+
+            this.statistics = isStatistics ? new RenderStatistics() : null;
+            this.result = result;
+        }
+
+        /**
+         * @return true if the render in the background was cancelled (or failed)
+         */
+        boolean isCancelled() {
+            return result != null && result.isDone();
+        }
+    }
+
+    /**
+     * Helper method for rendering image
+     * renders all the pixels at once, or in passes if progressive rendering is set,
+     * collecting the statistics of the render if they are turned on
+     *
+     * @param render the render
+     */
+    private void render(Render render) {
+        if (render.statistics == null) {
+            renderPasses(render);
+            return;
+        }
+
+        //the ray tracer and the geometries count in the counters the threads of this render bind to themselves
+        render.statistics.start();
+        try {
+            renderPasses(render);
+        } finally {
+            render.statistics.stop();
+        }
+    }
+
+    /**
+     * Helper method for rendering image
+     * renders all the pixels at once, or in passes if progressive rendering is set
+     *
+     * @param render the render
+     */
+    private void renderPasses(Render render) {
+        ProgressivePasses passes = render.passes;
+        if (passes == null) {
+            renderPixels(render);
+            return;
         }
-        if (rayTracer == null) {
-            throw new MissingResourceException("missing resource", RayTracerBase.class.getName(), "");
+
+        for (int pass = 0; passes.nextPass() && !render.isCancelled(); ++pass) {
+            renderPixels(render);
+            passes.writeTo(render.imageWriter);
+            if (render.passListener != null
+                    && !render.passListener.passDone(pass, passes.getPassSamples(), render.imageWriter))
+                break;
         }
+    }
 
-        int nX = imageWriter.getNx();
-        int nY = imageWriter.getNy();
+    /**
+     * Helper method for rendering image
+     * renders all the pixels, on the fork/join pool of a render in the background,
+     * or on multiple threads if multithreading is set
+     *
+     * @param render the render
+     */
+    private void renderPixels(Render render) {
+        int nX = render.nX;
+        int nY = render.nY;
+        if (render.result != null) {
+            new RenderRowsTask(render, 0, nY).invoke();
+        }
 
         //if multithreading is set, render image with multithreads
-        if (isMultithreading) {
-            Pixel.initialize(nX, nY, 5);
-
-            Pixel p = new Pixel();
-            //create thread foreach ray calculation
-            Thread[] threads = new Thread[numOfThreads];
-            for (int i = numOfThreads - 1; i >= 0; --i) {
-                threads[i] = new Thread(() -> {
-                    while (p.nextPixel()) {
-                        renderHelper(nX, nY, p.col, p.row);
-                        Pixel.pixelDone();
+        else if (render.isMultithreading) {
+            TileScheduler scheduler = new TileScheduler(nX, nY, render.tileSize, render.tileOrder);
+            Pixel pixel = new Pixel(nY, nX, render.progressListener, render.progressInterval);
+
+            if (render.isVirtualThreads) {
+                renderTilesOnVirtualThreads(render, scheduler, pixel);
+                return;
+            }
+
+            //create thread foreach worker, each one takes the next tile until there are no more tiles,
+            //or until a thread failed or the render was interrupted
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread[] threads = new Thread[render.numOfThreads];
+            for (int k = render.numOfThreads - 1; k >= 0; --k) {
+                threads[k] = new Thread(() -> {
+                    try {
+                        for (int tile = scheduler.nextTile(); tile >= 0 && failure.get() == null
+                                && !Thread.currentThread().isInterrupted(); tile = scheduler.nextTile()) {
+                            renderTile(render, scheduler, tile);
+                            pixel.pixelsDone(scheduler.pixelCount(tile));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
                     }
                 });
             }
             // Start threads
             for (Thread thread : threads) thread.start();
-            Pixel.waitToFinish();
             // Wait for all threads to finish
-            for (Thread thread : threads) {
-                try {
-                    thread.join();
-                } catch (Exception e) {
-                }
+            try {
+                pixel.waitToFinish(threads);
+            } catch (InterruptedException e) {
+                for (Thread thread : threads) thread.interrupt();
+                throw renderInterrupted(e);
             }
+            if (failure.get() != null)
+                throw renderFailed(failure.get());
         }
 
-        //if anti aliasing is not set, construct one ray per pixel
-        else if (!isAntiAliasing) {
-            //go over all the pixels
-            for (int i = 0; i < nX; i++) {
-                for (int j = 0; j < nY; j++) {
-                    // construct a ray through the current pixel
-                    Ray ray = this.constructRayThroughCenter(nX, nY, j, i);
-                    // get the  color of the point from trace ray
-                    Color color = rayTracer.traceRay(ray);
-                    // write the pixel color to the image
-                    imageWriter.writePixel(j, i, color);
-                }
-            }
+        //otherwise go over all the pixels, with one ray per pixel, anti-aliasing or adaptive super-sampling
+        else {
+            for (int i = 0; i < nY; i++)
+                for (int j = 0; j < nX; j++)
+                    renderHelper(render, j, i);
         }
+    }
 
-        //otherwise, do antialiasing without adaptive
-        else if (!isAdaptive) {
-            //go over all the pixels
-            for (int i = 0; i < nX; i++) {
-                for (int j = 0; j < nY; j++) {
-                    // construct a ray through the current pixel
-                    List<Ray> rays = this.constructAntiAliasingRays(nX, nY, j, i);
-                    // get the  color of the point from trace ray
-                    Color color = rayTracer.traceRays(rays);
-                    // write the pixel color to the image
-                    imageWriter.writePixel(j, i, color);
+    /**
+     * Renders every tile of the image as a task of its own on a virtual thread.
+     * At most the number of threads set by {@link #setMultithreading(int)} tiles are rendered at once -
+     * a task waits for a permit before rendering.
+     *
+     * @param render    the render
+     * @param scheduler the tiles of the image
+     * @param pixel     the progress of the render
+     */
+    private void renderTilesOnVirtualThreads(Render render, TileScheduler scheduler, Pixel pixel) {
+        Semaphore permits = new Semaphore(render.numOfThreads);
+
+        ExecutorService executor = newVirtualThreadExecutor(render.numOfThreads);
+        List<Future<?>> tiles = new ArrayList<>();
+        //once a tile failed, the tiles which did not start are skipped
+        AtomicBoolean failed = new AtomicBoolean();
+        for (int tile = scheduler.nextTile(); tile >= 0; tile = scheduler.nextTile()) {
+            final int t = tile;
+            tiles.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    if (!failed.get()) {
+                        renderTile(render, scheduler, t);
+                        pixel.pixelsDone(scheduler.pixelCount(t));
+                    }
+                } catch (Throwable e) {
+                    failed.set(true);
+                    throw e;
+                } finally {
+                    permits.release();
                 }
-            }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        // Wait for all tiles to finish, and rethrow the failure of the first tile which failed
+        try {
+            pixel.waitToFinish(executor);
+            for (Future<?> tile : tiles)
+                tile.get();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            throw renderInterrupted(e);
+        } catch (ExecutionException e) {
+            throw renderFailed(e.getCause());
         }
+    }
 
-        //otherwise use adaptive supersampling
-        else {
-            //go over all the pixels
-            for (int i = 0; i < nX; i++) {
-                for (int j = 0; j < nY; j++) {
-                    // construct a ray through the current pixel
-                    List<Ray> rays = this.constructAntiAliasingRays(nX, nY, j, i);
-                    // get the  color of the point from trace ray
-                    Color color = rayTracer.adaptiveTraceRays(rays);
-                    // write the pixel color to the image
-                    imageWriter.writePixel(j, i, color);
-                }
+    /**
+     * Aborts a render whose thread was interrupted while waiting for the render threads -
+     * the interrupt flag of the thread is restored
+     *
+     * @param e the interruption
+     * @return the exception to throw
+     */
+    private static CancellationException renderInterrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        CancellationException cancellation = new CancellationException("The render was interrupted");
+        cancellation.initCause(e);
+        return cancellation;
+    }
+
+    /**
+     * Returns the failure of a render thread to rethrow from the thread which started the render
+     *
+     * @param failure the failure of the render thread
+     * @return the failure if it is unchecked, otherwise an unchecked exception caused by it
+     * @throws Error if the failure is an error
+     */
+    private static RuntimeException renderFailed(Throwable failure) {
+        if (failure instanceof Error error)
+            throw error;
+        return failure instanceof RuntimeException runtime ? runtime
+                : new IllegalStateException("The render failed", failure);
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for each task.
+     * Virtual threads are available from Java 21 - on older versions it falls back to a fixed pool of threads.
+     *
+     * @param threads number of threads of the fallback pool
+     * @return the executor
+     */
+    private static ExecutorService newVirtualThreadExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Helper method for rendering image
+     * renders all the pixels of a tile
+     *
+     * @param render    the render
+     * @param scheduler the tiles of the image
+     * @param tile      the tile
+     */
+    private void renderTile(Render render, TileScheduler scheduler, int tile) {
+        for (int row = scheduler.firstRow(tile); row < scheduler.endRow(tile); ++row)
+            for (int col = scheduler.firstCol(tile); col < scheduler.endCol(tile); ++col)
+                renderHelper(render, col, row);
+    }
+
+    /**
+     * Renders the image in the background on the common fork/join pool
+     *
+     * @return future of the image writer, completed when all the pixels are rendered
+     * @see #renderImageAsync(ForkJoinPool)
+     */
+    public CompletableFuture<ImageWriter> renderImageAsync() {
+        return renderImageAsync(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Renders the image in the background on a fork/join pool.
+     * The rows of the image are split recursively into ranges, which are rendered by the threads of the pool.
+     * The render is the same as {@link #renderImage()}, including progressive rendering, the time budget
+     * and the statistics (available from {@link #getRenderStatistics()} once the future completes) -
+     * only the threads of the pool replace the threads of multithreading. The settings of the camera are taken
+     * when this method is called, so the camera may be changed and render again while the render runs.
+     * Cancelling the returned future stops the render - the ranges and the passes which were not started are skipped.
+     *
+     * @param pool the pool to render on
+     * @return future of the image writer, completed when all the pixels are rendered
+     */
+    public CompletableFuture<ImageWriter> renderImageAsync(ForkJoinPool pool) {
+        CompletableFuture<ImageWriter> result = new CompletableFuture<>();
+        Render render = new Render(result);
+        pool.execute(() -> {
+            try {
+                render(render);
+                if (render.statistics != null)
+                    statistics = render.statistics;
+                result.complete(render.imageWriter);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
             }
+        });
+        return result;
+    }
+
+    /**
+     * Fork/join task rendering a range of rows of the image, splitting it in halves between the threads
+     */
+    private class RenderRowsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Render render;
+        private final int first;
+        private final int end;
+
+        /**
+         * @param render the render, whose future is checked for cancellation
+         * @param first  first row of the range
+         * @param end    the row after the last row of the range
+         */
+        RenderRowsTask(Render render, int first, int end) {
+            this.render = render;
+            this.first = first;
+            this.end = end;
         }
 
-        return this;
+        @Override
+        protected void compute() {
+            if (end - first > MIN_ROWS_PER_TASK) {
+                int middle = (first + end) >>> 1;
+                invokeAll(new RenderRowsTask(render, first, middle), new RenderRowsTask(render, middle, end));
+                return;
+            }
+            //the render is cancelled once the future is done before the rows were rendered
+            for (int row = first; row < end && !render.isCancelled(); ++row)
+                for (int col = 0; col < render.nX; ++col)
+                    renderHelper(render, col, row);
+        }
     }
 
     /**
      * Helper method for rendering image
      * renders a given pixel
      *
-     * @param nX number of columns
-     * @param nY number of rows
-     * @param j  column of the pixel
-     * @param i  row of the pixel
+     * @param render the render
+     * @param j      column of the pixel
+     * @param i      row of the pixel
      */
-    private void renderHelper(int nX, int nY, int j, int i) {
+    private void renderHelper(Render render, int j, int i) {
+        if (render.statistics != null) {
+            //the pixel is counted in the counters of the thread in this render
+            RenderStatistics.Counters counters = render.statistics.counters();
+            RenderStatistics.Counters previous = counters.bind();
+            try {
+                if (render.passes != null)
+                    renderSamples(render, j, i, counters);
+                else
+                    measuredRenderHelper(render, j, i, counters);
+            } finally {
+                RenderStatistics.Counters.unbind(previous);
+            }
+            return;
+        }
+
+        if (render.passes != null) {
+            renderSamples(render, j, i, null);
+            return;
+        }
+
         //if anti aliasing is not set, construct one ray per pixel
-        if (!isAntiAliasing) {
+        if (!render.isAntiAliasing) {
             // construct a ray through the current pixel
-            Ray ray = this.constructRayThroughCenter(nX, nY, j, i);
+            Ray ray = render.view.constructRay(j, i);
             // get the  color of the point from trace ray
-            Color color = rayTracer.traceRay(ray);
+            Color color = render.rayTracer.traceRay(ray);
             // write the pixel color to the image
-            imageWriter.writePixel(j, i, color);
-        } else if (!isAdaptive) {
-            List<Ray> rays = this.constructAntiAliasingRays(nX, nY, j, i);
+            render.imageWriter.writePixel(j, i, color);
+        } else if (render.adaptiveSamplers == null) {
+            List<Ray> rays = this.constructAntiAliasingRays(render.view, j, i);
             // get the  color of the point from trace ray
-            Color color = rayTracer.traceRays(rays);
+            Color color = render.rayTracer.traceRays(rays);
             // construct a ray through the current pixel
             // write the pixel color to the image
-            imageWriter.writePixel(j, i, color);
+            render.imageWriter.writePixel(j, i, color);
         }
 
-        //otherwise, do antialiasing
+        //otherwise, do adaptive super-sampling
         else {
-            // construct a ray through the current pixel
-            List<Ray> rays = this.constructAntiAliasingRays(nX, nY, j, i);
-            // get the  color of the point from trace ray
-            Color color = rayTracer.adaptiveTraceRays(rays);
+            // sample the pixel with the sampler of the current thread
+            Color color = render.adaptiveSamplers.get().sample(j, i);
             // write the pixel color to the image
-            imageWriter.writePixel(j, i, color);
+            render.imageWriter.writePixel(j, i, color);
+        }
+    }
+
+    /**
+     * Creates the adaptive samplers of a render - a sampler for every thread, so the samples a thread
+     * traced are reused by the neighbouring pixels it renders.
+     * A pixel is divided into quadrants down to about the cells of the anti-aliasing grid.
+     *
+     * @param render the render, with its view and ray tracer
+     * @return the samplers
+     */
+    private ThreadLocal<AdaptiveSampler> newAdaptiveSamplers(Render render) {
+        CameraView view = render.view;
+        Point eye = view.getP0();
+        Point corner = view.getCorner();
+        Vector right = view.getPixelRight();
+        Vector down = view.getPixelDown();
+        //2^(levels+1) cells per pixel, at most the amount of rows of the grid
+        int levels = Math.max(1, 30 - Integer.numberOfLeadingZeros(view.getGridSize()));
+        RayTracerBase tracer = render.rayTracer;
+        return ThreadLocal.withInitial(() -> new AdaptiveSampler(tracer, eye, corner, right, down, levels));
+    }
+
+    /**
+     * Helper method for progressive rendering
+     * traces the samples of the current pass of a given pixel and adds them to its samples.
+     * Once the deadline of the render passes, only pixels without samples are sampled.
+     * With statistics, the time of constructing the rays, tracing them and adding their colors is measured
+     * like in {@link #measuredRenderHelper(Render, int, int, RenderStatistics.Counters)}.
+     *
+     * @param render   the render
+     * @param j        column of the pixel
+     * @param i        row of the pixel
+     * @param counters the statistics counters of the current thread, null without statistics
+     */
+    private void renderSamples(Render render, int j, int i, RenderStatistics.Counters counters) {
+        ProgressivePasses passes = render.passes;
+        CameraView view = render.view;
+        int target = passes.getTarget(j, i);
+        for (int sample = passes.getSamples(j, i); sample < target && (sample == 0 || !passes.isOutOfTime()); ++sample) {
+            long start = counters == null ? 0 : System.nanoTime();
+            Ray ray;
+            if (sample == 0)
+                ray = view.constructRay(j, i);
+            else {
+                //the same ray as the ray of the cell of the anti-aliasing grid
+                int gridSize = view.getGridSize();
+                int cell = passes.getCell(sample);
+                //a cell which was sampled before is sampled again at a random place in it
+                if (passes.isResample(sample)) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    ray = view.constructRay(j, i, cell / gridSize, cell % gridSize,
+                            random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+                } else
+                    ray = view.constructRay(j, i, cell / gridSize, cell % gridSize);
+            }
+            if (counters == null) {
+                passes.add(j, i, render.rayTracer.traceRay(ray));
+                continue;
+            }
+
+            long traced = System.nanoTime();
+            counters.addTime(RenderStatistics.Phase.RAY_GENERATION, traced - start);
+            Color color = render.rayTracer.traceRay(ray);
+            long written = System.nanoTime();
+            //the intersection and shadow times are subtracted from the tracing time when the statistics are merged
+            counters.addTime(RenderStatistics.Phase.SHADING, written - traced);
+            passes.add(j, i, color);
+            counters.addTime(RenderStatistics.Phase.WRITING, System.nanoTime() - written);
         }
     }
 
+    /**
+     * Helper method for rendering image
+     * renders a given pixel like {@link #renderHelper(Render, int, int)},
+     * measuring the time of constructing the rays, tracing them and writing the color
+     *
+     * @param render   the render
+     * @param j        column of the pixel
+     * @param i        row of the pixel
+     * @param counters the statistics counters of the current thread
+     */
+    private void measuredRenderHelper(Render render, int j, int i, RenderStatistics.Counters counters) {
+        long start = System.nanoTime();
+        Ray ray = null;
+        List<Ray> rays = null;
+        //the adaptive sampler constructs its rays while tracing them
+        if (!render.isAntiAliasing)
+            ray = render.view.constructRay(j, i);
+        else if (render.adaptiveSamplers == null)
+            rays = this.constructAntiAliasingRays(render.view, j, i);
+        long traced = System.nanoTime();
+        counters.addTime(RenderStatistics.Phase.RAY_GENERATION, traced - start);
+
+        RayTracerBase rayTracer = render.rayTracer;
+        Color color = !render.isAntiAliasing ? rayTracer.traceRay(ray)
+                : render.adaptiveSamplers == null ? rayTracer.traceRays(rays)
+                : render.adaptiveSamplers.get().sample(j, i);
+        long written = System.nanoTime();
+        //the intersection and shadow times are subtracted from the tracing time when the statistics are merged
+        counters.addTime(RenderStatistics.Phase.SHADING, written - traced);
+
+        render.imageWriter.writePixel(j, i, color);
+        counters.addTime(RenderStatistics.Phase.WRITING, System.nanoTime() - written);
+    }
+
     /**
      * Constructing a ray through the center of a pixel
      *
@@ -376,71 +902,23 @@ public class Camera {
     /**
      * Construct rays for antialiasing
      *
-     * @param nX amount of columns
-     * @param nY amount of rows
-     * @param j  index of column pixel
-     * @param i  index of row pixel
+     * @param view the view of the render
+     * @param j    index of column pixel
+     * @param i    index of row pixel
      * @return
      */
-    private List<Ray> constructAntiAliasingRays(int nX, int nY, int j, int i) {
-        //The distance between the screen and the camera cannot be 0
-        if (isZero(this.distance)) {
-            throw new IllegalArgumentException("distance cannot be 0");
-        }
-
+    private List<Ray> constructAntiAliasingRays(CameraView view, int j, int i) {
         List<Ray> sample_rays = new ArrayList<>();
 
-        double Ry = this.height / nY; //The number of pixels on the y axis
-        double Rx = this.width / nX;  //The number of pixels on the x axis
-
-        double yi = ((i - nY / 2d) * Ry); //distance of original pixel from (0,0) on Y axis
-        double xj = ((j - nX / 2d) * Rx); //distance of original pixel from (0,0) on x axis
-
-        double pixel_Ry = Ry / numOfAARays; //The height of each grid block we divided the parcel into
-        double pixel_Rx = Rx / numOfAARays; //The width of each grid block we divided the parcel into
-
-        for (int row = 0; row < numOfAARays; ++row) {//foreach place in the pixel grid
-            for (int column = 0; column < numOfAARays; ++column) {
-                sample_rays.add(constructAntiAliasingRay(pixel_Ry, pixel_Rx, yi, xj, row, column, distance));//add the ray
+        for (int row = 0; row < view.getGridSize(); ++row) {//foreach place in the pixel grid
+            for (int column = 0; column < view.getGridSize(); ++column) {
+                sample_rays.add(view.constructRay(j, i, row, column));//add the ray
             }
         }
-        sample_rays.add(constructRayThroughCenter(nX, nY, j, i));//add the center screen ray
+        sample_rays.add(view.constructRay(j, i));//add the center screen ray
         return sample_rays;
     }
 
-    /**
-     * Helper function for anti aliasing
-     * In this function we treat each pixel like a little screen of its own and divide it to smaller "pixels".
-     * Through each one we construct a ray. This function is similar to ConstructRayThroughPixel.
-     *
-     * @param Ry       height of each grid block we divided the pixel into
-     * @param Rx       width of each grid block we divided the pixel into
-     * @param yi       distance of original pixel from (0,0) on Y axis
-     * @param xj       distance of original pixel from (0,0) on X axis
-     * @param j        j coordinate of small "pixel"
-     * @param i        i coordinate of small "pixel"
-     * @param distance distance of screen from camera
-     * @return beam of rays through pixel
-     */
-    private Ray constructAntiAliasingRay(double Ry, double Rx, double yi, double xj, int j, int i, double distance) {
-        Point Pc = p0.add(vTo.scale(distance)); //the center of the screen point
-
-        double y_sample_i = (i * Ry + Ry / 2d); //The pixel starting point on the y axis
-        double x_sample_j = (j * Rx + Rx / 2d); //The pixel starting point on the x axis
-
-        Point Pij = Pc; //The point at the pixel through which a beam is fired
-        //Moving the point through which a beam is fired on the x axis
-        if (!Util.isZero(x_sample_j + xj)) {
-            Pij = Pij.add(vRight.scale(x_sample_j + xj));
-        }
-        //Moving the point through which a beam is fired on the y axis
-        if (!Util.isZero(y_sample_i + yi)) {
-            Pij = Pij.add(vUp.scale(-y_sample_i - yi));
-        }
-        Vector Vij = Pij.subtract(p0);
-        return new Ray(p0, Vij);//create the ray throw the point we calculate here
-    }
-
 
     /**
      * function that create the grid
@@ -501,7 +979,10 @@ public class Camera {
     }
 
     /**
-     * Turn adaptive on/off
+     * Turn adaptive on/off.
+     * With anti-aliasing, every pixel is sampled at its corners and center, and divided into quadrants
+     * which are sampled the same way only where the luminance contrast of the samples is high - see
+     * {@link AdaptiveSampler}. Samples shared by neighbouring quadrants and pixels are traced once.
      *
      * @param flag false for off, true for on
      * @return Camera object
@@ -537,6 +1018,162 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Setter of builder patters
+     * sets the width and height of the tiles the image is divided into for multithreading
+     *
+     * @param size size of a tile in pixels
+     * @return the current render
+     * @throws IllegalArgumentException when size is not positive
+     */
+    public Camera setTileSize(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Tile size must be positive");
+        tileSize = size;
+        return this;
+    }
+
+    /**
+     * Setter of builder patters
+     * sets the order in which the tiles are rendered when multithreading
+     *
+     * @param order the order of the tiles
+     * @return the current render
+     */
+    public Camera setTileOrder(TileOrder order) {
+        tileOrder = order;
+        return this;
+    }
+
+    /**
+     * Turn rendering on virtual threads on/off.
+     * When multithreading is set, every tile is rendered by a task on a virtual thread of its own,
+     * and the number of threads bounds how many tiles are rendered at once, so many renders can run together
+     * without creating platform threads for each one. Before Java 21 a fixed pool of threads is used instead.
+     *
+     * @param flag false for off, true for on
+     * @return Camera object
+     */
+    public Camera useVirtualThreads(boolean flag) {
+        isVirtualThreads = flag;
+        return this;
+    }
+
+    /**
+     * Setter of builder patterns
+     * sets the listener to the progress of multi-threaded renders
+     *
+     * @param listener the listener, null for no progress reports
+     * @return Camera object
+     */
+    public Camera setProgressListener(ProgressListener listener) {
+        progressListener = listener;
+        return this;
+    }
+
+    /**
+     * Setter of builder patterns
+     * sets the time between progress reports
+     *
+     * @param seconds time in seconds, 0 for no progress reports
+     * @return Camera object
+     * @throws IllegalArgumentException when the time is negative
+     */
+    public Camera setProgressInterval(double seconds) {
+        if (seconds < 0)
+            throw new IllegalArgumentException("Progress interval cannot be negative");
+        progressInterval = seconds;
+        return this;
+    }
+
+    /**
+     * Turn progressive rendering on/off.
+     * When on, {@link #renderImage()} renders the image in passes: the first pass traces the ray through
+     * the center of every pixel, and every following pass doubles the samples of every pixel with cells of
+     * the anti-aliasing grid, spread over the pixel, until all the samples of anti-aliasing are traced
+     * (with anti-aliasing off there is a single pass). Pixels which converged get no more samples - see
+     * {@link #setConvergenceThreshold(double)}. After every pass the image writer holds the average
+     * of the samples so far, and the listener set by {@link #setPassListener(PassListener)} may stop the render.
+     *
+     * @param flag false for off, true for on
+     * @return Camera object
+     */
+    public Camera useProgressive(boolean flag) {
+        isProgressive = flag;
+        return this;
+    }
+
+    /**
+     * Setter of builder patterns
+     * sets a wall-clock time budget of renders.
+     * With a budget, {@link #renderImage()} renders progressively (see {@link #useProgressive(boolean)}),
+     * sampling the anti-aliasing grid of every pixel and then random places in its cells, until the budget
+     * is spent or all the pixels converged (see {@link #setConvergenceThreshold(double)}).
+     * Every pixel is sampled at least once, even if that takes longer than the budget.
+     *
+     * @param seconds the budget in seconds, 0 for no budget
+     * @return Camera object
+     * @throws IllegalArgumentException when the budget is negative
+     */
+    public Camera setTimeBudget(double seconds) {
+        if (seconds < 0)
+            throw new IllegalArgumentException("Time budget cannot be negative");
+        timeBudget = seconds;
+        return this;
+    }
+
+    /**
+     * Setter of builder patterns
+     * sets the convergence threshold of progressive renders. A pixel which has the 95% confidence interval
+     * of the mean luminance of its samples narrower than the threshold gets no more samples,
+     * and the other pixels get more samples the noisier they are.
+     *
+     * @param threshold half width of the interval in color units (of 255), 0 to sample all the pixels alike
+     * @return Camera object
+     * @throws IllegalArgumentException when the threshold is negative
+     */
+    public Camera setConvergenceThreshold(double threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("Convergence threshold cannot be negative");
+        convergenceThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Setter of builder patterns
+     * sets the listener to the passes of progressive renders
+     *
+     * @param listener the listener, null to render all the passes
+     * @return Camera object
+     */
+    public Camera setPassListener(PassListener listener) {
+        passListener = listener;
+        return this;
+    }
+
+    /**
+     * Turn collecting statistics of the renders on/off.
+     * When on, {@link #renderImage()} counts the rays by their kind and the intersection tests by the class
+     * of the geometry, and measures the time of the phases of the render.
+     * Every render counts in counters of its own, so renders with statistics may run together.
+     *
+     * @param flag false for off, true for on
+     * @return Camera object
+     */
+    public Camera useStatistics(boolean flag) {
+        isStatistics = flag;
+        return this;
+    }
+
+    /**
+     * Getter for the statistics of the last render
+     *
+     * @return the statistics, or null if no render collected statistics
+     */
+    public RenderStatistics getRenderStatistics() {
+        return statistics;
+    }
+
     //**************Camera rotation bonus*************//
 
     /**
@@ -0,0 +1,229 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static primitives.Util.isZero;
+
+/**
+ * CameraView is an immutable view of a camera on an image resolution, frozen when a render starts.
+ * The center of the view plane, the directions of the camera and the sizes of the pixels and of the cells of the
+ * anti-aliasing grid are calculated once, as plain doubles, so constructing the ray of a pixel or of a cell
+ * is a few multiplications and additions, without the temporary points and vectors of calculating
+ * them for every ray.
+ * <p>
+ * The offsets from the center are multiplied and added in the same order as {@link Camera#constructRay}
+ * does, so the rays are exactly the same as the camera's rays.
+ */
+public final class CameraView {
+    // the camera eye
+    private final Point p0;
+    private final double p0X;
+    private final double p0Y;
+    private final double p0Z;
+    // the center of the view plane
+    private final double centerX;
+    private final double centerY;
+    private final double centerZ;
+    // the top left corner of the view plane
+    private final Point corner;
+    // the up and right directions of the camera
+    private final double upX;
+    private final double upY;
+    private final double upZ;
+    private final double rightX;
+    private final double rightY;
+    private final double rightZ;
+
+    private final int nX;
+    private final int nY;
+    /**
+     * Height of a pixel
+     */
+    private final double ry;
+    /**
+     * Width of a pixel
+     */
+    private final double rx;
+    /**
+     * Amount of rows and columns of the anti-aliasing grid of a pixel
+     */
+    private final int gridSize;
+    /**
+     * Height of a cell of the anti-aliasing grid
+     */
+    private final double cellRy;
+    /**
+     * Width of a cell of the anti-aliasing grid
+     */
+    private final double cellRx;
+
+    /**
+     * Constructs the view of a camera
+     *
+     * @param p0       the camera eye
+     * @param vTo      the direction the camera looks at
+     * @param vUp      the up direction of the camera
+     * @param vRight   the right direction of the camera
+     * @param distance distance of the view plane from the camera
+     * @param width    width of the view plane
+     * @param height   height of the view plane
+     * @param nX       amount of columns
+     * @param nY       amount of rows
+     * @param gridSize amount of rows and columns of the anti-aliasing grid of a pixel
+     */
+    CameraView(Point p0, Vector vTo, Vector vUp, Vector vRight, double distance, double width, double height,
+               int nX, int nY, int gridSize) {
+        this.p0 = p0;
+        this.p0X = p0.getX();
+        this.p0Y = p0.getY();
+        this.p0Z = p0.getZ();
+        Point center = p0.add(vTo.scale(distance));
+        this.centerX = center.getX();
+        this.centerY = center.getY();
+        this.centerZ = center.getZ();
+        this.corner = center.add(vRight.scale(-width / 2)).add(vUp.scale(height / 2));
+        this.upX = vUp.getX();
+        this.upY = vUp.getY();
+        this.upZ = vUp.getZ();
+        this.rightX = vRight.getX();
+        this.rightY = vRight.getY();
+        this.rightZ = vRight.getZ();
+        this.nX = nX;
+        this.nY = nY;
+        this.ry = height / nY;
+        this.rx = width / nX;
+        this.gridSize = gridSize;
+        this.cellRy = ry / gridSize;
+        this.cellRx = rx / gridSize;
+    }
+
+    /**
+     * @return amount of columns
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * @return amount of rows
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * @return amount of rows and columns of the anti-aliasing grid of a pixel
+     */
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * Constructs the ray through the center of a pixel
+     *
+     * @param j column of the pixel
+     * @param i row of the pixel
+     * @return the ray
+     */
+    public Ray constructRay(int j, int i) {
+        double yi = -((double) i - (double) (nY - 1) / 2.0D) * ry;
+        double xj = ((double) j - (double) (nX - 1) / 2.0D) * rx;
+        //the offsets are added up first and right second, like in the camera
+        double x = centerX;
+        double y = centerY;
+        double z = centerZ;
+        if (!isZero(yi)) {
+            x += upX * yi;
+            y += upY * yi;
+            z += upZ * yi;
+        }
+        if (!isZero(xj)) {
+            x += rightX * xj;
+            y += rightY * xj;
+            z += rightZ * xj;
+        }
+        return new Ray(p0, new Vector(x - p0X, y - p0Y, z - p0Z));
+    }
+
+    /**
+     * Constructs the ray through the center of a cell of the anti-aliasing grid of a pixel
+     *
+     * @param j      column of the pixel
+     * @param i      row of the pixel
+     * @param row    row of the cell in the grid
+     * @param column column of the cell in the grid
+     * @return the ray
+     */
+    public Ray constructRay(int j, int i, int row, int column) {
+        return constructRay(j, i, row, column, 0, 0);
+    }
+
+    /**
+     * Constructs the ray through a place in a cell of the anti-aliasing grid of a pixel
+     *
+     * @param j       column of the pixel
+     * @param i       row of the pixel
+     * @param row     row of the cell in the grid
+     * @param column  column of the cell in the grid
+     * @param offsetX offset of the place from the center of the cell to the right, in widths of a cell
+     * @param offsetY offset of the place from the center of the cell downwards, in heights of a cell
+     * @return the ray
+     */
+    public Ray constructRay(int j, int i, int row, int column, double offsetX, double offsetY) {
+        double yi = (i - nY / 2d) * ry;
+        double xj = (j - nX / 2d) * rx;
+        if (offsetY != 0)
+            yi += offsetY * cellRy;
+        if (offsetX != 0)
+            xj += offsetX * cellRx;
+        double ySample = row * cellRy + cellRy / 2d;
+        double xSample = column * cellRx + cellRx / 2d;
+        //the offsets are added right first and up second, like in the camera
+        double x = centerX;
+        double y = centerY;
+        double z = centerZ;
+        if (!isZero(xSample + xj)) {
+            double scale = xSample + xj;
+            x += rightX * scale;
+            y += rightY * scale;
+            z += rightZ * scale;
+        }
+        if (!isZero(ySample + yi)) {
+            double scale = -ySample - yi;
+            x += upX * scale;
+            y += upY * scale;
+            z += upZ * scale;
+        }
+        return new Ray(p0, new Vector(x - p0X, y - p0Y, z - p0Z));
+    }
+
+    /**
+     * @return the camera eye
+     */
+    Point getP0() {
+        return p0;
+    }
+
+    /**
+     * @return the top left corner of the view plane
+     */
+    Point getCorner() {
+        return corner;
+    }
+
+    /**
+     * @return the vector from the left edge of a pixel to its right edge
+     */
+    Vector getPixelRight() {
+        return new Vector(rightX * rx, rightY * rx, rightZ * rx);
+    }
+
+    /**
+     * @return the vector from the top edge of a pixel to its bottom edge
+     */
+    Vector getPixelDown() {
+        return new Vector(upX * -ry, upY * -ry, upZ * -ry);
+    }
+}
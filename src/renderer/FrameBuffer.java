@@ -0,0 +1,171 @@
+package renderer;
+
+import primitives.Double3;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * FrameBuffer holds the colors of the pixels of an image as floats, without the limit of 255,
+ * row after row and three floats (red, green, blue) per pixel.
+ * The rows are kept in chunks of up to 1GB, either on the heap or in a memory-mapped file,
+ * so images larger than the heap (and larger than a single mapping) can be rendered.
+ * <p>
+ * Every pixel is written with absolute puts into its own place, so the render threads
+ * write their pixels concurrently without locks.
+ * A mapped file is little endian, so it can be read by other programs as raw floats.
+ */
+class FrameBuffer {
+    /**
+     * The largest size of a chunk of rows in bytes
+     */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private final int nX;
+    private final int nY;
+    /**
+     * Amount of rows in a chunk
+     */
+    private final int rowsPerChunk;
+    /**
+     * The chunks of rows
+     */
+    private final FloatBuffer[] chunks;
+    /**
+     * The mapped chunks of rows, or null if the rows are on the heap
+     */
+    private final MappedByteBuffer[] mapped;
+
+    /**
+     * Constructs a frame buffer on the heap, with black pixels
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     */
+    FrameBuffer(int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        this.rowsPerChunk = rowsPerChunk(nX);
+        this.chunks = new FloatBuffer[(nY + rowsPerChunk - 1) / rowsPerChunk];
+        this.mapped = null;
+        for (int i = 0; i < chunks.length; ++i)
+            chunks[i] = FloatBuffer.wrap(new float[3 * nX * rowsInChunk(i)]);
+    }
+
+    /**
+     * Constructs a frame buffer in a memory-mapped file. The file is created, or used as it is
+     * (keeping the pixels it holds) if it exists.
+     *
+     * @param nX   amount of pixels by width
+     * @param nY   amount of pixels by height
+     * @param file the file
+     * @throws IllegalStateException if the file cannot be mapped
+     */
+    FrameBuffer(int nX, int nY, Path file) {
+        this.nX = nX;
+        this.nY = nY;
+        this.rowsPerChunk = rowsPerChunk(nX);
+        this.chunks = new FloatBuffer[(nY + rowsPerChunk - 1) / rowsPerChunk];
+        this.mapped = new MappedByteBuffer[chunks.length];
+        long rowSize = 3L * Float.BYTES * nX;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            //the mappings stay valid after the channel is closed
+            for (int i = 0; i < chunks.length; ++i) {
+                mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * rowsPerChunk * rowSize,
+                        rowsInChunk(i) * rowSize);
+                chunks[i] = mapped[i].order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - cannot map the frame buffer " + file, e);
+        }
+    }
+
+    /**
+     * @return the amount of rows in a chunk of up to {@link #MAX_CHUNK_SIZE} bytes
+     */
+    private static int rowsPerChunk(int nX) {
+        return (int) Math.max(1, MAX_CHUNK_SIZE / (3L * Float.BYTES * nX));
+    }
+
+    /**
+     * @return the amount of rows in a chunk
+     */
+    private int rowsInChunk(int chunk) {
+        return Math.min(rowsPerChunk, nY - chunk * rowsPerChunk);
+    }
+
+    /**
+     * @return amount of pixels by width
+     */
+    int getNx() {
+        return nX;
+    }
+
+    /**
+     * @return amount of pixels by height
+     */
+    int getNy() {
+        return nY;
+    }
+
+    /**
+     * Writes the color of a pixel
+     *
+     * @param x   the column of the pixel
+     * @param y   the row of the pixel
+     * @param rgb the red, green and blue components of the color
+     */
+    void set(int x, int y, Double3 rgb) {
+        FloatBuffer chunk = chunks[y / rowsPerChunk];
+        int index = 3 * ((y % rowsPerChunk) * nX + x);
+        chunk.put(index, toFloat(rgb.getD1()));
+        chunk.put(index + 1, toFloat(rgb.getD2()));
+        chunk.put(index + 2, toFloat(rgb.getD3()));
+    }
+
+    /**
+     * Converts a component to the closest float which is cut to the same integer,
+     * so the 8 bit image is the same as of the double color
+     */
+    private static float toFloat(double value) {
+        float result = (float) value;
+        return result > value && (int) result != (int) value ? Math.nextDown(result) : result;
+    }
+
+    /**
+     * Reads a component of the color of a pixel
+     *
+     * @param x       the column of the pixel
+     * @param y       the row of the pixel
+     * @param channel the component - 0 for red, 1 for green and 2 for blue
+     * @return the component
+     */
+    float get(int x, int y, int channel) {
+        return chunks[y / rowsPerChunk].get(3 * ((y % rowsPerChunk) * nX + x) + channel);
+    }
+
+    /**
+     * Copies the colors of a row of pixels
+     *
+     * @param y   the row
+     * @param row an array of 3 * nX floats for the red, green and blue components of the pixels of the row
+     */
+    void getRow(int y, float[] row) {
+        chunks[y / rowsPerChunk].get(3 * (y % rowsPerChunk) * nX, row, 0, 3 * nX);
+    }
+
+    /**
+     * Writes the pixels of a mapped frame buffer to its file
+     */
+    void force() {
+        if (mapped != null)
+            for (MappedByteBuffer chunk : mapped)
+                chunk.force();
+    }
+}
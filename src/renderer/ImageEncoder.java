@@ -0,0 +1,229 @@
+package renderer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * ImageEncoder writes frame buffers into image files - PNG (8 bits per component) and PFM (floats, for HDR).
+ * The rows are encoded one at a time and streamed into the file, so only a row of the image is held
+ * besides the frame buffer, whatever the size of the image.
+ */
+final class ImageEncoder {
+    /**
+     * The signature every PNG file starts with
+     */
+    private static final byte[] PNG_SIGNATURE = {(byte) 137, 'P', 'N', 'G', '\r', '\n', 26, '\n'};
+    /**
+     * The largest size of the data of an IDAT chunk
+     */
+    private static final int IDAT_SIZE = 1 << 16;
+    /**
+     * Bytes per pixel of a PNG image of 8 bits red, green and blue
+     */
+    private static final int BPP = 3;
+
+    private ImageEncoder() {
+    }
+
+    /**
+     * Writes a frame buffer into a PNG file. The components of the colors are cut to 0..255
+     * and every row is filtered with the filter which gives the smallest sum of differences.
+     *
+     * @param frame the frame buffer
+     * @param file  the file
+     * @throws IOException if the file cannot be written
+     */
+    static void writePng(FrameBuffer frame, Path file) throws IOException {
+        int nX = frame.getNx();
+        int nY = frame.getNy();
+        int rowSize = BPP * nX;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), IDAT_SIZE)) {
+            out.write(PNG_SIGNATURE);
+            ByteBuffer header = ByteBuffer.allocate(13).putInt(nX).putInt(nY)
+                    .put((byte) 8) // bit depth
+                    .put((byte) 2) // color type - RGB
+                    .put((byte) 0).put((byte) 0).put((byte) 0); // compression, filter and interlace methods
+            writeChunk(out, "IHDR", header.array(), 13);
+
+            float[] row = new float[rowSize];
+            byte[] current = new byte[rowSize];
+            byte[] previous = new byte[rowSize];
+            byte[][] filtered = new byte[5][rowSize + 1];
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            try (DeflaterOutputStream data = new DeflaterOutputStream(new IdatStream(out), deflater, IDAT_SIZE)) {
+                for (int y = 0; y < nY; ++y) {
+                    frame.getRow(y, row);
+                    for (int i = 0; i < rowSize; ++i) {
+                        int value = (int) row[i];
+                        current[i] = (byte) (value > 255 ? 255 : value < 0 ? 0 : value);
+                    }
+                    data.write(filterRow(current, previous, filtered));
+                    byte[] swap = previous;
+                    previous = current;
+                    current = swap;
+                }
+            } finally {
+                deflater.end();
+            }
+            writeChunk(out, "IEND", new byte[0], 0);
+        }
+    }
+
+    /**
+     * Filters a row with each of the five filters of PNG and chooses the one with the smallest sum
+     * of absolute (signed) values
+     *
+     * @param current  the row
+     * @param previous the row above it (zeros for the first row)
+     * @param filtered five arrays for the filtered row, each starting with the type of its filter
+     * @return the filtered row with the smallest sum
+     */
+    private static byte[] filterRow(byte[] current, byte[] previous, byte[][] filtered) {
+        byte[] best = null;
+        long bestSum = Long.MAX_VALUE;
+        for (int type = 0; type < 5; ++type) {
+            byte[] out = filtered[type];
+            out[0] = (byte) type;
+            long sum = 0;
+            for (int i = 0; i < current.length; ++i) {
+                int x = current[i] & 0xff;
+                int a = i < BPP ? 0 : current[i - BPP] & 0xff;
+                int b = previous[i] & 0xff;
+                int c = i < BPP ? 0 : previous[i - BPP] & 0xff;
+                int predictor = switch (type) {
+                    case 0 -> 0;
+                    case 1 -> a;
+                    case 2 -> b;
+                    case 3 -> (a + b) >> 1;
+                    default -> paeth(a, b, c);
+                };
+                byte value = (byte) (x - predictor);
+                out[i + 1] = value;
+                sum += Math.abs(value);
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                best = out;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the predictor of the Paeth filter - the neighbour closest to a + b - c
+     */
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        return pa <= pb && pa <= pc ? a : pb <= pc ? b : c;
+    }
+
+    /**
+     * Writes a chunk of a PNG file - its length, type, data and CRC
+     */
+    private static void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(data, 0, length);
+        out.write(ByteBuffer.allocate(4).putInt(length).array());
+        out.write(name);
+        out.write(data, 0, length);
+        out.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+
+    /**
+     * Stream of the compressed data of a PNG file, which writes it in IDAT chunks
+     */
+    private static class IdatStream extends OutputStream {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[IDAT_SIZE];
+        private int size = 0;
+
+        IdatStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (size == buffer.length)
+                flushChunk();
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (size == buffer.length)
+                    flushChunk();
+                int n = Math.min(length, buffer.length - size);
+                System.arraycopy(bytes, offset, buffer, size, n);
+                size += n;
+                offset += n;
+                length -= n;
+            }
+        }
+
+        private void flushChunk() throws IOException {
+            writeChunk(out, "IDAT", buffer, size);
+            size = 0;
+        }
+
+        /**
+         * Writes the last chunk - the file stream stays open for the end of the file
+         */
+        @Override
+        public void close() throws IOException {
+            if (size > 0)
+                flushChunk();
+        }
+    }
+
+    /**
+     * Writes a frame buffer into a PFM file of little endian floats, where 1 is a component of 255.
+     * The values are not cut, so the file keeps the high dynamic range of the image.
+     *
+     * @param frame the frame buffer
+     * @param file  the file
+     * @throws IOException if the file cannot be written
+     */
+    static void writePfm(FrameBuffer frame, Path file) throws IOException {
+        int nX = frame.getNx();
+        int nY = frame.getNy();
+        float[] row = new float[3 * nX];
+        ByteBuffer buffer = ByteBuffer.allocate(Float.BYTES * row.length).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // a negative scale means little endian
+            writeFully(channel, ByteBuffer.wrap(("PF\n" + nX + " " + nY + "\n-1.0\n")
+                    .getBytes(StandardCharsets.US_ASCII)));
+            // the rows of a PFM file are from the bottom to the top
+            for (int y = nY - 1; y >= 0; --y) {
+                frame.getRow(y, row);
+                buffer.clear();
+                for (float value : row)
+                    buffer.putFloat(value / 255);
+                buffer.flip();
+                writeFully(channel, buffer);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+}
@@ -2,19 +2,20 @@ package renderer;
 
 import primitives.Color;
 
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.imageio.*;
-
 /**
  * Image writer class combines accumulation of pixel color matrix and finally
- * producing a non-optimized jpeg image from this matrix. The class although is
+ * producing a png (or pfm) image from this matrix. The class although is
  * responsible of holding image related parameters of View Plane - pixel matrix
  * size and resolution
+ * <p>
+ * The pixel color matrix is a {@link FrameBuffer} of floats, which keeps colors brighter than 255,
+ * on the heap or in a memory-mapped file for images larger than the heap. Pixels are written
+ * without locks by any number of render threads, and the image files are encoded row by row.
  *
  * @author Dan
  */
@@ -24,7 +25,7 @@ public class ImageWriter {
 
 	private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
 
-	private BufferedImage image;
+	private final FrameBuffer frameBuffer;
 	private String imageName;
 
 	private Logger logger = Logger.getLogger("ImageWriter");
@@ -41,7 +42,23 @@ public class ImageWriter {
 		this.nX = nX;
 		this.nY = nY;
 
-		image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+		frameBuffer = new FrameBuffer(nX, nY);
+	}
+
+	/**
+	 * Image Writer constructor with a pixel color matrix in a memory-mapped file,
+	 * for images larger than the heap. An existing file is used with the pixels it holds.
+	 * @param imageName       the name of png file
+	 * @param nX              amount of pixels by Width
+	 * @param nY              amount of pixels by height
+	 * @param frameBufferFile the name of the file of the pixel color matrix
+	 */
+	public ImageWriter(String imageName, int nX, int nY, String frameBufferFile) {
+		this.imageName = imageName;
+		this.nX = nX;
+		this.nY = nY;
+
+		frameBuffer = new FrameBuffer(nX, nY, Path.of(frameBufferFile));
 	}
 
 	// ***************** Getters/Setters ********************** //
@@ -66,13 +83,27 @@ public class ImageWriter {
 	// ***************** Operations ******************** //
 
 	/**
-	 * Function writeToImage produces unoptimized png file of the image according to
+	 * Function writeToImage produces png file of the image according to
 	 * pixel color matrix in the directory of the project
 	 */
 	public void writeToImage() {
 		try {
-			File file = new File(FOLDER_PATH + '/' + imageName + ".png");
-			ImageIO.write(image, "png", file);
+			frameBuffer.force();
+			ImageEncoder.writePng(frameBuffer, Path.of(FOLDER_PATH, imageName + ".png"));
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, "I/O error", e);
+			throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+		}
+	}
+
+	/**
+	 * Function writeToHdrImage produces pfm file of the image according to pixel color
+	 * matrix in the directory of the project, keeping the colors brighter than 255
+	 */
+	public void writeToHdrImage() {
+		try {
+			frameBuffer.force();
+			ImageEncoder.writePfm(frameBuffer, Path.of(FOLDER_PATH, imageName + ".pfm"));
 		} catch (IOException e) {
 			logger.log(Level.SEVERE, "I/O error", e);
 			throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
@@ -88,7 +119,19 @@ public class ImageWriter {
 	 * @param color  final color of the pixel
 	 */
 	public void writePixel(int xIndex, int yIndex, Color color) {
-		image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+		frameBuffer.set(xIndex, yIndex, color.getRgb());
+	}
+
+	/**
+	 * The function getPixel reads the color of a specific pixel from the pixel color matrix
+	 *
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @return the color of the pixel, without the limit of 255
+	 */
+	public Color getPixel(int xIndex, int yIndex) {
+		return new Color(frameBuffer.get(xIndex, yIndex, 0), frameBuffer.get(xIndex, yIndex, 1),
+				frameBuffer.get(xIndex, yIndex, 2));
 	}
 
 	public void printGrid(int interval, Color color) {
@@ -0,0 +1,744 @@
+package renderer;
+
+import geometries.Mesh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Loader of triangle meshes from Wavefront OBJ files and PLY files (binary or ascii) into {@link Mesh}es.
+ * The file is streamed through a single NIO buffer, and the vertices and the faces are parsed straight into
+ * growing arrays of doubles and ints - no object is created per vertex, per face or per line,
+ * so files of millions of triangles are loaded quickly and in little memory.
+ * Polygons of more than three vertices are split into triangles around their first vertex.
+ * <p>
+ * The loader measures its last load, so the throughput (triangles per second) can be reported.
+ */
+public class MeshLoader {
+    /**
+     * Size of the buffer the file is read through
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+    /**
+     * Exact powers of ten, for converting decimal numbers of up to 15 digits exactly
+     */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    // the file being read
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    // the mesh being loaded
+    private double[] vertices;
+    private int vertexCount;
+    private int[] faces;
+    private int faceCount;
+    private double[] normals;
+    // the text of the number being read
+    private byte[] text = new byte[32];
+
+    // statistics of the last load
+    private long loadTime = 0;
+    private long fileSize = 0;
+    private int loadedVertices = 0;
+    private int loadedFaces = 0;
+
+    /**
+     * Loads a mesh from a file, by its extension - .obj or .ply
+     *
+     * @param fileName path of the file
+     * @return the mesh
+     * @throws IllegalArgumentException if the file is not of a supported format or is malformed
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public Mesh load(String fileName) {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".obj"))
+            return loadObj(fileName);
+        if (name.endsWith(".ply"))
+            return loadPly(fileName);
+        throw new IllegalArgumentException("Unsupported mesh file format: " + fileName);
+    }
+
+    /**
+     * Loads a mesh from a Wavefront OBJ file.
+     * Only the vertices (v), the normals (vn) and the faces (f) are read, any other line is ignored.
+     * A normal is given to a vertex by the first face that uses them together.
+     *
+     * @param fileName path of the file
+     * @return the mesh
+     * @throws IllegalArgumentException if the file is malformed
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public Mesh loadObj(String fileName) {
+        long start = System.nanoTime();
+        open(fileName);
+        try {
+            double[] objNormals = new double[0];
+            int objNormalCount = 0;
+            int[] polygon = new int[16];
+            int[] polygonNormals = new int[16];
+            int c = skipSpaces();
+            while (c >= 0) {
+                if (c == 'v') {
+                    c = read();
+                    if (c == ' ' || c == '\t') {
+                        ensureVertices(vertexCount + 1);
+                        for (int k = 0; k < 3; ++k)
+                            vertices[3 * vertexCount + k] = readDouble();
+                        ++vertexCount;
+                    } else if (c == 'n') {
+                        if (3 * objNormalCount + 3 > objNormals.length)
+                            objNormals = Arrays.copyOf(objNormals, Math.max(48, 2 * objNormals.length));
+                        for (int k = 0; k < 3; ++k)
+                            objNormals[3 * objNormalCount + k] = readDouble();
+                        ++objNormalCount;
+                    }
+                } else if (c == 'f') {
+                    // the vertices of the polygon - vertex, vertex/texture, vertex//normal or vertex/texture/normal
+                    int size = 0;
+                    for (c = skipSpaces(); c >= 0 && c != '\n' && c != '\r'; c = skipSpaces()) {
+                        if (size == polygon.length) {
+                            polygon = Arrays.copyOf(polygon, 2 * size);
+                            polygonNormals = Arrays.copyOf(polygonNormals, 2 * size);
+                        }
+                        polygon[size] = objIndex(readInt(c), vertexCount);
+                        polygonNormals[size] = -1;
+                        c = peek();
+                        if (c == '/') {
+                            read();
+                            c = peek();
+                            if (c != '/' && c > ' ')
+                                readInt(read()); // texture coordinates are ignored
+                            if (peek() == '/') {
+                                read();
+                                polygonNormals[size] = objIndex(readInt(read()), objNormalCount);
+                            }
+                        }
+                        ++size;
+                    }
+                    if (size < 3)
+                        throw new IllegalArgumentException("A face of less than three vertices in " + fileName);
+                    for (int k = 0; k < size; ++k)
+                        if (polygonNormals[k] >= 0)
+                            setObjNormal(polygon[k], objNormals, polygonNormals[k]);
+                    for (int k = 1; k + 1 < size; ++k)
+                        addFace(polygon[0], polygon[k], polygon[k + 1]);
+                    continue;
+                }
+                c = skipLine(c);
+            }
+            return finish(fileName, start);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * @param index an index of an OBJ file - 1 based, or negative relative to the last element read
+     * @param count the amount of elements read
+     * @return the 0 based index
+     */
+    private static int objIndex(int index, int count) {
+        int result = index < 0 ? count + index : index - 1;
+        if (result < 0 || result >= count)
+            throw new IllegalArgumentException("Index " + index + " refers to an element which was not defined");
+        return result;
+    }
+
+    /**
+     * Gives a normal to a vertex, unless it already has one
+     */
+    private void setObjNormal(int vertex, double[] objNormals, int normal) {
+        if (normals == null) {
+            normals = new double[vertices.length];
+            Arrays.fill(normals, Double.NaN);
+        } else if (normals.length < vertices.length) {
+            int length = normals.length;
+            normals = Arrays.copyOf(normals, vertices.length);
+            Arrays.fill(normals, length, normals.length, Double.NaN);
+        }
+        if (Double.isNaN(normals[3 * vertex]))
+            System.arraycopy(objNormals, 3 * normal, normals, 3 * vertex, 3);
+    }
+
+    /**
+     * Loads a mesh from a PLY file, in binary (little or big endian) or ascii format.
+     * The coordinates (x, y, z) and the normals (nx, ny, nz) of the vertices, and the vertex indices of the faces
+     * are read, any other element or property is skipped.
+     *
+     * @param fileName path of the file
+     * @return the mesh
+     * @throws IllegalArgumentException if the file is malformed
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public Mesh loadPly(String fileName) {
+        long start = System.nanoTime();
+        open(fileName);
+        try {
+            List<PlyElement> elements = readPlyHeader(fileName);
+            for (PlyElement element : elements) {
+                if (element.name.equals("vertex")) {
+                    ensureVertices(element.count);
+                    boolean hasNormals = element.indexOf("nx") >= 0 && element.indexOf("ny") >= 0
+                            && element.indexOf("nz") >= 0;
+                    if (hasNormals)
+                        normals = new double[3 * element.count];
+                    int[] targets = new int[element.properties.size()];
+                    String[] names = {"x", "y", "z", "nx", "ny", "nz"};
+                    Arrays.fill(targets, -1);
+                    for (int k = 0; k < names.length; ++k)
+                        if (element.indexOf(names[k]) >= 0)
+                            targets[element.indexOf(names[k])] = k;
+                    if (element.indexOf("x") < 0 || element.indexOf("y") < 0 || element.indexOf("z") < 0)
+                        throw new IllegalArgumentException("The vertices have no coordinates in " + fileName);
+
+                    for (int v = 0; v < element.count; ++v) {
+                        for (int p = 0; p < targets.length; ++p) {
+                            PlyProperty property = element.properties.get(p);
+                            if (property.isList()) {
+                                skipPlyList(property);
+                                continue;
+                            }
+                            double value = readPlyValue(property.type);
+                            int target = targets[p];
+                            if (target >= 3 && hasNormals)
+                                normals[3 * v + target - 3] = value;
+                            else if (target >= 0 && target < 3)
+                                vertices[3 * v + target] = value;
+                        }
+                    }
+                    vertexCount = element.count;
+                } else if (element.name.equals("face")) {
+                    int list = element.indexOf("vertex_indices");
+                    if (list < 0)
+                        list = element.indexOf("vertex_index");
+                    if (list < 0 || !element.properties.get(list).isList())
+                        throw new IllegalArgumentException("The faces have no vertex indices in " + fileName);
+                    ensureFaces(element.count);
+                    for (int f = 0; f < element.count; ++f) {
+                        for (int p = 0; p < element.properties.size(); ++p) {
+                            PlyProperty property = element.properties.get(p);
+                            if (p != list) {
+                                if (property.isList())
+                                    skipPlyList(property);
+                                else
+                                    readPlyValue(property.type);
+                                continue;
+                            }
+                            int size = (int) readPlyValue(property.countType);
+                            if (size < 3)
+                                throw new IllegalArgumentException("A face of less than three vertices in " + fileName);
+                            int first = plyIndex(property.type);
+                            int previous = plyIndex(property.type);
+                            for (int k = 2; k < size; ++k) {
+                                int next = plyIndex(property.type);
+                                addFace(first, previous, next);
+                                previous = next;
+                            }
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < element.count; ++i)
+                        for (PlyProperty property : element.properties)
+                            if (property.isList())
+                                skipPlyList(property);
+                            else
+                                readPlyValue(property.type);
+                }
+            }
+            return finish(fileName, start);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Element of a PLY file - its name, amount and properties
+     */
+    private static class PlyElement {
+        final String name;
+        final int count;
+        final List<PlyProperty> properties = new ArrayList<>();
+
+        PlyElement(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        int indexOf(String property) {
+            for (int i = 0; i < properties.size(); ++i)
+                if (properties.get(i).name.equals(property))
+                    return i;
+            return -1;
+        }
+    }
+
+    /**
+     * Property of an element of a PLY file - its name, type, and the type of the amount of values for a list
+     */
+    private record PlyProperty(String name, PlyType type, PlyType countType) {
+        boolean isList() {
+            return countType != null;
+        }
+    }
+
+    /**
+     * Types of the values of a PLY file
+     */
+    private enum PlyType {
+        CHAR, UCHAR, SHORT, USHORT, INT, UINT, FLOAT, DOUBLE;
+
+        /**
+         * @param name the name of the type in the file
+         * @return the type
+         * @throws IllegalArgumentException if there is no such type
+         */
+        static PlyType of(String name) {
+            return switch (name) {
+                case "char", "int8" -> CHAR;
+                case "uchar", "uint8" -> UCHAR;
+                case "short", "int16" -> SHORT;
+                case "ushort", "uint16" -> USHORT;
+                case "int", "int32" -> INT;
+                case "uint", "uint32" -> UINT;
+                case "float", "float32" -> FLOAT;
+                case "double", "float64" -> DOUBLE;
+                default -> throw new IllegalArgumentException("Unknown PLY type " + name);
+            };
+        }
+    }
+
+    /**
+     * Whether the body of the PLY file being read is ascii
+     */
+    private boolean isAscii;
+
+    /**
+     * Reads the header of a PLY file, and sets the byte order of its body
+     *
+     * @return the elements of the file, in their order in the body
+     */
+    private List<PlyElement> readPlyHeader(String fileName) {
+        if (!readLine().equals("ply"))
+            throw new IllegalArgumentException("Not a PLY file: " + fileName);
+
+        List<PlyElement> elements = new ArrayList<>();
+        String format = null;
+        for (String line = readLine(); !line.equals("end_header"); line = readLine()) {
+            String[] words = line.trim().split("\\s+");
+            switch (words[0]) {
+                case "format" -> format = words[1];
+                case "element" -> elements.add(new PlyElement(words[1], Integer.parseInt(words[2])));
+                case "property" -> {
+                    if (elements.isEmpty())
+                        throw new IllegalArgumentException("A property before any element in " + fileName);
+                    elements.get(elements.size() - 1).properties.add(words[1].equals("list")
+                            ? new PlyProperty(words[4], PlyType.of(words[3]), PlyType.of(words[2]))
+                            : new PlyProperty(words[2], PlyType.of(words[1]), null));
+                }
+                default -> {
+                    // comments and other information are ignored
+                }
+            }
+        }
+
+        if (format == null)
+            throw new IllegalArgumentException("No format in " + fileName);
+        switch (format) {
+            case "binary_little_endian" -> buffer.order(ByteOrder.LITTLE_ENDIAN);
+            case "binary_big_endian" -> buffer.order(ByteOrder.BIG_ENDIAN);
+            case "ascii" -> isAscii = true;
+            default -> throw new IllegalArgumentException("Unknown PLY format " + format + " in " + fileName);
+        }
+        return elements;
+    }
+
+    /**
+     * Reads a value of a PLY property
+     *
+     * @param type the type of the property
+     * @return the value
+     */
+    private double readPlyValue(PlyType type) {
+        if (isAscii)
+            return readDouble();
+        return switch (type) {
+            case CHAR -> ensure(1).get();
+            case UCHAR -> ensure(1).get() & 0xFF;
+            case SHORT -> ensure(2).getShort();
+            case USHORT -> ensure(2).getShort() & 0xFFFF;
+            case INT -> ensure(4).getInt();
+            case UINT -> ensure(4).getInt() & 0xFFFFFFFFL;
+            case FLOAT -> ensure(4).getFloat();
+            case DOUBLE -> ensure(8).getDouble();
+        };
+    }
+
+    /**
+     * Reads a vertex index of a face of a PLY file
+     */
+    private int plyIndex(PlyType type) {
+        double index = readPlyValue(type);
+        if (index < 0 || index >= vertexCount)
+            throw new IllegalArgumentException("Index " + (long) index + " refers to a vertex which was not defined");
+        return (int) index;
+    }
+
+    /**
+     * Skips a list property of a PLY file
+     */
+    private void skipPlyList(PlyProperty property) {
+        int size = (int) readPlyValue(property.countType);
+        for (int k = 0; k < size; ++k)
+            readPlyValue(property.type);
+    }
+
+    /**
+     * Adds a face to the mesh being loaded
+     */
+    private void addFace(int a, int b, int c) {
+        ensureFaces(faceCount + 1);
+        faces[3 * faceCount] = a;
+        faces[3 * faceCount + 1] = b;
+        faces[3 * faceCount + 2] = c;
+        ++faceCount;
+    }
+
+    /**
+     * Grows the array of the vertices, if needed, to hold the given amount of vertices
+     */
+    private void ensureVertices(int count) {
+        if (3 * count > vertices.length)
+            vertices = Arrays.copyOf(vertices, Math.max(3 * count, 2 * vertices.length));
+    }
+
+    /**
+     * Grows the array of the faces, if needed, to hold the given amount of faces
+     */
+    private void ensureFaces(int count) {
+        if (3 * count > faces.length)
+            faces = Arrays.copyOf(faces, Math.max(3 * count, 2 * faces.length));
+    }
+
+    /**
+     * Creates the loaded mesh, and records the statistics of the load
+     */
+    private Mesh finish(String fileName, long start) {
+        if (faceCount == 0)
+            throw new IllegalArgumentException("No faces in " + fileName);
+        Mesh mesh = new Mesh(vertices, vertexCount, faces, faceCount);
+        if (normals != null) {
+            // the vertices read after the last vertex which was given a normal have none
+            int length = normals.length;
+            if (length != 3 * vertexCount) {
+                normals = Arrays.copyOf(normals, 3 * vertexCount);
+                if (length < normals.length)
+                    Arrays.fill(normals, length, normals.length, Double.NaN);
+            }
+            // normals given to some of the vertices of the faces only are ignored
+            boolean complete = true;
+            for (int k = 0; k < 3 * faceCount && complete; ++k)
+                complete = !Double.isNaN(normals[3 * faces[k]]);
+            if (complete) {
+                // a vertex of no face is never shaded
+                for (int k = 0; k < normals.length; ++k)
+                    if (Double.isNaN(normals[k]))
+                        normals[k] = 0;
+                mesh.setVertexNormals(normals).useSmoothNormals(true);
+            }
+        }
+
+        loadedVertices = vertexCount;
+        loadedFaces = faceCount;
+        loadTime = System.nanoTime() - start;
+        return mesh;
+    }
+
+    /**
+     * Opens a file for reading, and prepares the arrays of a new mesh
+     */
+    private void open(String fileName) {
+        try {
+            channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+            fileSize = channel.size();
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - cannot read " + fileName, e);
+        }
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).flip();
+        isAscii = false;
+        vertices = new double[3 * 1024];
+        vertexCount = 0;
+        faces = new int[3 * 1024];
+        faceCount = 0;
+        normals = null;
+    }
+
+    /**
+     * Closes the file, and releases the arrays of the mesh
+     */
+    private void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the file was only read, there is nothing to lose
+        }
+        channel = null;
+        buffer = null;
+        vertices = null;
+        faces = null;
+        normals = null;
+    }
+
+    /**
+     * Makes sure the buffer holds at least the given amount of bytes, reading more of the file if needed
+     *
+     * @param bytes the amount of bytes
+     * @return the buffer
+     * @throws IllegalArgumentException if the file ends before
+     */
+    private ByteBuffer ensure(int bytes) {
+        if (buffer.remaining() >= bytes)
+            return buffer;
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    buffer.flip();
+                    throw new IllegalArgumentException("Unexpected end of the file");
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error while reading a mesh", e);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * @return the next byte of the file, or -1 at its end
+     */
+    private int read() {
+        int c = peek();
+        if (c >= 0)
+            buffer.get();
+        return c;
+    }
+
+    /**
+     * @return the next byte of the file without reading it, or -1 at its end
+     */
+    private int peek() {
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            try {
+                int n;
+                do {
+                    n = channel.read(buffer);
+                } while (n == 0);
+                buffer.flip();
+                if (n < 0)
+                    return -1;
+            } catch (IOException e) {
+                throw new IllegalStateException("I/O error while reading a mesh", e);
+            }
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    /**
+     * Skips spaces and tabs (but not line ends)
+     *
+     * @return the next byte after them, which is read, or -1 at the end of the file
+     */
+    private int skipSpaces() {
+        int c = read();
+        while (c == ' ' || c == '\t')
+            c = read();
+        return c;
+    }
+
+    /**
+     * Skips the rest of a line, and the spaces at the start of the next one
+     *
+     * @param c the last byte read
+     * @return the first byte of the next line after its spaces, or -1 at the end of the file
+     */
+    private int skipLine(int c) {
+        while (c >= 0 && c != '\n')
+            c = read();
+        while (c == '\n' || c == '\r' || c == ' ' || c == '\t')
+            c = read();
+        return c;
+    }
+
+    /**
+     * Reads a line of text (of a header)
+     *
+     * @return the line without its end
+     * @throws IllegalArgumentException if the file ends before
+     */
+    private String readLine() {
+        byte[] line = new byte[80];
+        int length = 0;
+        for (int c = read(); c != '\n'; c = read()) {
+            if (c < 0)
+                throw new IllegalArgumentException("Unexpected end of the file");
+            if (c == '\r')
+                continue;
+            if (length == line.length)
+                line = Arrays.copyOf(line, 2 * length);
+            line[length++] = (byte) c;
+        }
+        return new String(line, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads an integer
+     *
+     * @param c the first byte of the integer, which was already read
+     * @return the integer
+     */
+    private int readInt(int c) {
+        boolean negative = c == '-';
+        if (negative || c == '+')
+            c = read();
+        if (c < '0' || c > '9')
+            throw new IllegalArgumentException("A number was expected");
+        long value = 0;
+        while (true) {
+            value = 10 * value + c - '0';
+            if (value > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("A number which is too large");
+            c = peek();
+            if (c < '0' || c > '9')
+                break;
+            read();
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Reads a decimal number after spaces (and line ends).
+     * Numbers of up to 15 significant digits with small exponents are converted exactly
+     * without creating objects, and any other number through {@link Double#parseDouble(String)}.
+     *
+     * @return the number
+     */
+    private double readDouble() {
+        int c = read();
+        while (c == ' ' || c == '\t' || c == '\n' || c == '\r')
+            c = read();
+
+        int length = 0;
+        while (c > ' ') {
+            if (length == text.length)
+                text = Arrays.copyOf(text, 2 * length);
+            text[length++] = (byte) c;
+            c = peek();
+            if (c <= ' ')
+                break;
+            read();
+        }
+        if (length == 0)
+            throw new IllegalArgumentException("A number was expected");
+
+        int i = 0;
+        boolean negative = text[0] == '-';
+        if (negative || text[0] == '+')
+            ++i;
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean point = false;
+        boolean hasDigits = false;
+        for (; i < length; ++i) {
+            byte b = text[i];
+            if (b >= '0' && b <= '9') {
+                hasDigits = true;
+                if (digits > 0 || b != '0')
+                    ++digits;
+                mantissa = 10 * mantissa + b - '0';
+                if (point)
+                    --exponent;
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        // a sign or a point without digits is not a number
+        if (!hasDigits)
+            throw new IllegalArgumentException("Not a number: " + new String(text, 0, length, StandardCharsets.US_ASCII));
+        if (i < length && (text[i] == 'e' || text[i] == 'E')) {
+            int j = i + 1;
+            boolean negativeExponent = j < length && text[j] == '-';
+            if (j < length && (text[j] == '-' || text[j] == '+'))
+                ++j;
+            int first = j;
+            int e = 0;
+            for (; j < length && text[j] >= '0' && text[j] <= '9' && e < 10000; ++j)
+                e = 10 * e + text[j] - '0';
+            if (j == length && j > first) {
+                exponent += negativeExponent ? -e : e;
+                i = length;
+            }
+        }
+        if (i == length && digits <= 15 && Math.abs(exponent) < POWERS_OF_TEN.length) {
+            double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(text, 0, length, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + new String(text, 0, length, StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * @return time the last load took, in nanoseconds
+     */
+    public long getLoadTime() {
+        return loadTime;
+    }
+
+    /**
+     * @return amount of vertices of the last loaded mesh
+     */
+    public int getVertexCount() {
+        return loadedVertices;
+    }
+
+    /**
+     * @return amount of triangles of the last loaded mesh
+     */
+    public int getFaceCount() {
+        return loadedFaces;
+    }
+
+    /**
+     * @return triangles loaded per second in the last load (including building the hierarchy of the mesh)
+     */
+    public double getTrianglesPerSecond() {
+        return loadTime == 0 ? 0 : loadedFaces * 1e9 / loadTime;
+    }
+
+    @Override
+    public String toString() {
+        return "MeshLoader{" +
+                "fileSize=" + fileSize +
+                ", vertices=" + loadedVertices +
+                ", triangles=" + loadedFaces +
+                ", loadTime=" + loadTime / 1_000_000 + "ms" +
+                ", trianglesPerSecond=" + (long) getTrianglesPerSecond() +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package renderer;
+
+/**
+ * Listener to the passes of a progressive render.
+ * It is called from the thread which started the render, after every pass, when the image holds
+ * the average of all the samples so far.
+ */
+@FunctionalInterface
+public interface PassListener {
+    /**
+     * Reports the end of a pass of the render
+     *
+     * @param pass    number of the pass, from 0
+     * @param samples amount of samples per pixel so far
+     * @param image   the image writer holding the image of the samples so far
+     * @return true to render the next pass, false to stop the render with this image
+     */
+    boolean passDone(int pass, int samples, ImageWriter image);
+}
@@ -1,122 +1,108 @@
 package renderer;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
- * Pixel is a helper class. It is used for multi-threading in the renderer and
- * for follow up its progress.<br/>
- * There is a main follow up object and several secondary objects - one in each
- * thread.
+ * Pixel is a helper class. It is used for multi-threading in the renderer for
+ * follow up its progress.<br/>
+ * The pixels are handed to the threads by the {@link TileScheduler}, and every thread
+ * adds the pixels it has done to a {@link LongAdder}, so no locks are taken while rendering.
+ * The thread which started the render reports the progress to a {@link ProgressListener} while
+ * waiting for them.<br/>
+ * Each render has its own Pixel object, so several renders can run at the same time.
  *
  * @author Dan
  */
 class Pixel {
-    private static int maxRows = 0;
-    private static int maxCols = 0;
-    private static long totalPixels = 0l;
-
-    private static volatile int cRow = 0;
-    private static volatile int cCol = -1;
-    private static volatile long pixels = 0l;
-    private static volatile long last = -1l;
-    private static volatile int lastPrinted = -1;
+    private final long totalPixels;
+    private final LongAdder pixels = new LongAdder();
+    private final long start = System.nanoTime();
 
-    private static boolean print = false;
-    private static long printInterval = 100l;
-    private static final String PRINT_FORMAT = "%5.1f%%\r";
-    private static Object mutexNext = new Object();
-    private static Object mutexPixels = new Object();
+    private long last = -1l;
 
-    int row;
-    int col;
+    private final ProgressListener listener;
+    private final long printInterval;
 
     /**
-     * Initialize pixel data for multi-threading
+     * Initialize progress data of a multi-threaded render
      *
      * @param maxRows  the amount of pixel rows
      * @param maxCols  the amount of pixel columns
-     * @param interval print time interval in seconds, 0 if printing is not required
+     * @param listener the listener to report the progress to, null if reporting is not required
+     * @param interval report time interval in seconds, 0 if reporting is not required
      */
-    static void initialize(int maxRows, int maxCols, double interval) {
-        Pixel.maxRows = maxRows;
-        Pixel.maxCols = maxCols;
-        Pixel.totalPixels = (long) maxRows * maxCols;
-        cRow = 0;
-        cCol = -1;
-        pixels = 0;
-        printInterval = (int) (interval * 1000);
-        print = printInterval != 0;
+    Pixel(int maxRows, int maxCols, ProgressListener listener, double interval) {
+        this.totalPixels = (long) maxRows * maxCols;
+        this.printInterval = (long) (interval * 1000);
+        this.listener = printInterval == 0 ? null : listener;
     }
 
     /**
-     * Function for thread-safe manipulating of main follow up Pixel object - this
-     * function is critical section for all the threads, and static data is the
-     * shared data of this critical section.<br/>
-     * The function provides next available pixel number each call.
+     * Finish pixels processing - safe to call from all the threads
      *
-     * @return true if next pixel is allocated, false if there are no more pixels
+     * @param amount the amount of pixels done
      */
-    public boolean nextPixel() {
-        synchronized (mutexNext) {
-            if (cRow == maxRows)
-                return false;
-            ++cCol;
-            if (cCol < maxCols) {
-                row = cRow;
-                col = cCol;
-                return true;
-            }
-            cCol = 0;
-            ++cRow;
-            if (cRow < maxRows) {
-                row = cRow;
-                col = cCol;
-                return true;
-            }
-            return false;
-        }
+    void pixelsDone(long amount) {
+        pixels.add(amount);
     }
 
     /**
-     * Finish pixel processing
+     * @return the amount of pixels done so far
      */
-    static void pixelDone() {
-        synchronized (mutexPixels) {
-            ++pixels;
-        }
+    long getPixelsDone() {
+        return pixels.sum();
     }
 
     /**
-     * Wait for all pixels to be done and print the progress percentage - must be
-     * run from the main thread
+     * Wait for all the render threads to finish and report the progress - must be
+     * run from the thread which started the render
+     *
+     * @param threads the render threads
+     * @throws InterruptedException if the waiting thread is interrupted
      */
-    public static void waitToFinish() {
-        if (print)
-            System.out.printf(PRINT_FORMAT, 0d);
-
-        while (last < totalPixels) {
-            printPixel();
-            try {
-                Thread.sleep(printInterval);
-            } catch (InterruptedException ignore) {
-                if (print)
-                    System.out.print("");
+    void waitToFinish(Thread[] threads) throws InterruptedException {
+        printPixel();
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                //wake up for reporting, or as soon as the thread finishes
+                thread.join(listener == null ? 0 : printInterval);
+                printPixel();
             }
         }
-        if (print)
-            System.out.println("100.0%");
+        printPixel();
     }
 
     /**
-     * Print pixel progress percentage
+     * Wait for all the render tasks of an executor to finish and report the progress -
+     * the executor must be shut down already, so it terminates when the last task is done
+     *
+     * @param executor the executor running the render tasks
+     * @throws InterruptedException if the waiting thread is interrupted
      */
-    public static void printPixel() {
-        long current = pixels;
-        if (print && last != current) {
-            int percentage = (int) (1000l * current / totalPixels);
-            if (lastPrinted != percentage) {
-                last = current;
-                lastPrinted = percentage;
-                System.out.println(percentage / 10 + "%");
-            }
+    void waitToFinish(ExecutorService executor) throws InterruptedException {
+        printPixel();
+        long timeout = listener == null ? Long.MAX_VALUE : printInterval;
+        boolean done = false;
+        while (!done) {
+            done = executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+            printPixel();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Report the pixel progress to the listener, if any pixel was done since the last report
+     */
+    private void printPixel() {
+        long current = pixels.sum();
+        if (listener == null || last == current)
+            return;
+        last = current;
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double pixelsPerSecond = seconds == 0 ? 0 : current / seconds;
+        double eta = current == 0 ? Double.POSITIVE_INFINITY : (totalPixels - current) / pixelsPerSecond;
+        listener.progress(100d * current / totalPixels, pixelsPerSecond, eta);
+    }
+}
@@ -0,0 +1,23 @@
+package renderer;
+
+/**
+ * Listener to the progress of a multi-threaded render.
+ * It is called periodically from the thread which started the render, while the render threads work.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * Listener printing the progress to the console
+     */
+    ProgressListener CONSOLE = (percent, pixelsPerSecond, eta) ->
+            System.out.printf("%5.1f%% %10.0f pixels/s, %6.1f seconds left%n", percent, pixelsPerSecond, eta);
+
+    /**
+     * Reports the progress of the render
+     *
+     * @param percent         percentage of the pixels done
+     * @param pixelsPerSecond the average amount of pixels done per second since the render started
+     * @param eta             estimated time until the render ends, in seconds (infinity if no pixel is done yet)
+     */
+    void progress(double percent, double pixelsPerSecond, double eta);
+}
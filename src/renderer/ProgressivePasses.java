@@ -0,0 +1,275 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Double3;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * ProgressivePasses is a helper class for progressive rendering.
+ * The samples of a pixel are the ray through its center, followed by the cells of the anti-aliasing grid
+ * in a stratified order - every pass spreads its samples over the whole pixel, so the image is a fair
+ * average after every pass. The first pass traces one sample per pixel, and every following pass
+ * at most doubles the samples of every pixel, until all the samples of the grid are traced.
+ * <p>
+ * Every pixel keeps the amount of its samples, their mean color and the variance of their luminance
+ * (by Welford's online algorithm), so the passes can stop sampling the pixels which converged -
+ * pixels whose 95% confidence interval of the luminance is narrower than a threshold - and give the
+ * noisier pixels more samples. A render with a time budget has a deadline: it keeps sampling past the grid
+ * (at random places in its cells) until the deadline or until all the pixels converged.
+ */
+class ProgressivePasses {
+    /**
+     * Samples a pixel needs before its variance is trusted for convergence
+     */
+    static final int MIN_SAMPLES = 4;
+    /**
+     * Z-score of a 95% confidence interval
+     */
+    private static final double Z_95 = 1.96;
+
+    private final int nX;
+    private final int nY;
+    /**
+     * Amount of rows and columns of the anti-aliasing grid
+     */
+    private final int gridSize;
+    /**
+     * The cells of the grid (row * gridSize + column) in the order they are sampled
+     */
+    private final int[] cells;
+    /**
+     * The most samples of a pixel
+     */
+    private final int maxSamples;
+    /**
+     * The time the render ends, in {@link System#nanoTime()}, or Long.MAX_VALUE if there is no time budget
+     */
+    private final long deadline;
+    /**
+     * Half width of the confidence interval of the luminance of converged pixels, 0 for no convergence
+     */
+    private final double threshold;
+
+    /**
+     * The mean colors of the samples of the pixels
+     */
+    private final FrameBuffer means;
+    /**
+     * The amounts of samples of the pixels
+     */
+    private final int[] counts;
+    /**
+     * The sums of squared differences from the mean of the luminance of the samples of the pixels
+     */
+    private final float[] m2;
+
+    /**
+     * The most samples of a pixel at the end of the current pass
+     */
+    private int passSamples = 0;
+
+    /**
+     * Prepare the passes of a render
+     *
+     * @param nX        amount of columns
+     * @param nY        amount of rows
+     * @param gridSize  amount of rows and columns of the anti-aliasing grid, 0 for the center samples only
+     * @param deadline  the time the render ends in {@link System#nanoTime()}, Long.MAX_VALUE for no time budget
+     * @param threshold half width of the confidence interval of converged pixels, 0 for no convergence
+     */
+    ProgressivePasses(int nX, int nY, int gridSize, long deadline, double threshold) {
+        this.nX = nX;
+        this.nY = nY;
+        this.gridSize = gridSize;
+        this.cells = stratifiedOrder(gridSize);
+        this.deadline = deadline;
+        this.threshold = threshold;
+        //with a time budget, the cells are sampled again until the deadline
+        this.maxSamples = deadline == Long.MAX_VALUE || cells.length == 0 ? cells.length + 1 : Integer.MAX_VALUE;
+        this.means = new FrameBuffer(nX, nY);
+        this.counts = new int[nX * nY];
+        this.m2 = new float[nX * nY];
+    }
+
+    /**
+     * Orders the cells of a grid so every prefix of the order is spread over the grid - the cells are sorted
+     * by the reversed bits of their Morton (Z-order) index in the smallest grid of a power of 2 holding the grid,
+     * so the first cells are in different quadrants, the next ones in different quadrants of them, and so on
+     *
+     * @param gridSize amount of rows and columns of the grid
+     * @return the cells (row * gridSize + column) in their order
+     */
+    static int[] stratifiedOrder(int gridSize) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(gridSize - 1, 0));
+        Integer[] order = new Integer[gridSize * gridSize];
+        long[] keys = new long[order.length];
+        for (int row = 0; row < gridSize; ++row)
+            for (int column = 0; column < gridSize; ++column) {
+                int cell = row * gridSize + column;
+                long morton = 0;
+                for (int bit = 0; bit < bits; ++bit)
+                    morton |= ((long) (row >> bit & 1) << (2 * bit + 1)) | ((long) (column >> bit & 1) << (2 * bit));
+                keys[cell] = Long.reverse(morton) >>> (64 - 2 * bits);
+                order[cell] = cell;
+            }
+        if (bits > 0)
+            Arrays.sort(order, Comparator.comparingLong(cell -> keys[cell]));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Moves to the next pass
+     *
+     * @return false if the deadline passed, or no pixel needs more samples
+     */
+    boolean nextPass() {
+        if (passSamples > 0 && isOutOfTime())
+            return false;
+        boolean more = false;
+        int most = 0;
+        for (int i = 0; i < nY; ++i)
+            for (int j = 0; j < nX; ++j) {
+                int target = getTarget(j, i);
+                more |= target > counts[i * nX + j];
+                most = Math.max(most, target);
+            }
+        passSamples = most;
+        return more;
+    }
+
+    /**
+     * @return the most samples of a pixel at the end of the current pass
+     */
+    int getPassSamples() {
+        return passSamples;
+    }
+
+    /**
+     * @return whether the deadline of the render passed
+     */
+    boolean isOutOfTime() {
+        return System.nanoTime() >= deadline;
+    }
+
+    /**
+     * @return amount of rows and columns of the anti-aliasing grid
+     */
+    int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * Returns the cell of the grid of a sample
+     *
+     * @param sample the sample, from 1 (sample 0 is the center of the pixel)
+     * @return the cell - row * grid size + column
+     */
+    int getCell(int sample) {
+        return cells[(sample - 1) % cells.length];
+    }
+
+    /**
+     * Returns whether a sample is a second (or later) sample of its cell, which is taken at a random place
+     * in the cell rather than at its center
+     *
+     * @param sample the sample, from 1
+     * @return true if the cell was sampled before
+     */
+    boolean isResample(int sample) {
+        return sample > cells.length;
+    }
+
+    /**
+     * @param j column of the pixel
+     * @param i row of the pixel
+     * @return amount of samples of a pixel
+     */
+    int getSamples(int j, int i) {
+        return counts[i * nX + j];
+    }
+
+    /**
+     * Returns the amount of samples a pixel should have at the end of the pass - the samples are doubled
+     * while the pixel is not converged, and for converged pixels no samples are added. With a threshold,
+     * a pixel gets the samples expected to narrow its confidence interval to the threshold, up to doubling.
+     *
+     * @param j column of the pixel
+     * @param i row of the pixel
+     * @return the amount of samples
+     */
+    int getTarget(int j, int i) {
+        int n = counts[i * nX + j];
+        if (n == 0)
+            return 1;
+        if (n >= maxSamples)
+            return n;
+        int extra = n;
+        if (threshold > 0 && n >= MIN_SAMPLES) {
+            double interval = getInterval(j, i);
+            if (interval <= threshold)
+                return n;
+            //the interval narrows as the square root of the samples
+            double ratio = interval / threshold;
+            extra = (int) Math.min(n, Math.ceil(n * (ratio * ratio - 1)));
+        }
+        return (int) Math.min(maxSamples, (long) n + extra);
+    }
+
+    /**
+     * Returns the half width of the 95% confidence interval of the mean luminance of the samples of a pixel
+     *
+     * @param j column of the pixel
+     * @param i row of the pixel
+     * @return the half width, infinity for fewer than 2 samples
+     */
+    double getInterval(int j, int i) {
+        int index = i * nX + j;
+        int n = counts[index];
+        if (n < 2)
+            return Double.POSITIVE_INFINITY;
+        return Z_95 * Math.sqrt(m2[index] / (n - 1d) / n);
+    }
+
+    /**
+     * Adds the color of a sample of a pixel. The samples of a pixel are added by a single thread.
+     *
+     * @param j     column of the pixel
+     * @param i     row of the pixel
+     * @param color the color of the sample
+     */
+    void add(int j, int i, Color color) {
+        int index = i * nX + j;
+        int n = ++counts[index];
+        Double3 rgb = color.getRgb();
+        double r = means.get(j, i, 0);
+        double g = means.get(j, i, 1);
+        double b = means.get(j, i, 2);
+        double oldLuminance = luminance(r, g, b);
+        r += (rgb.getD1() - r) / n;
+        g += (rgb.getD2() - g) / n;
+        b += (rgb.getD3() - b) / n;
+        means.set(j, i, new Double3(r, g, b));
+        double luminance = luminance(rgb.getD1(), rgb.getD2(), rgb.getD3());
+        m2[index] += (float) ((luminance - oldLuminance) * (luminance - luminance(r, g, b)));
+    }
+
+    /**
+     * @return the luminance of a color (Rec. 709)
+     */
+    private static double luminance(double r, double g, double b) {
+        return 0.2126 * r + 0.7152 * g + 0.0722 * b;
+    }
+
+    /**
+     * Writes the mean colors of the samples so far into the image
+     *
+     * @param imageWriter the image writer
+     */
+    void writeTo(ImageWriter imageWriter) {
+        for (int i = 0; i < nY; ++i)
+            for (int j = 0; j < nX; ++j)
+                imageWriter.writePixel(j, i, new Color(means.get(j, i, 0), means.get(j, i, 1), means.get(j, i, 2)));
+    }
+}
@@ -39,11 +39,4 @@ public abstract class RayTracerBase {
      * @return Average color of all rays at the pixel
      */
     public abstract Color traceRays(List<Ray> rays);
-
-    /**
-     * Declaration of abstract function
-     * @param rays rays to check the color
-     * @return Average color of some rays at the pixel, using adaptive super-sampling
-     */
-    public abstract Color adaptiveTraceRays(List<Ray> rays);
 }
@@ -4,6 +4,7 @@ import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
 import geometries.Intersectable.GeoPoint;
+import geometries.RayPacket;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -44,6 +45,15 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private int numOfGlossinessRays = 100;
 
+    /**
+     * Declares whether the rays of a pixel are traced in packets
+     */
+    private boolean isPacketTracing = false;
+    /**
+     * The number of rays in a packet
+     */
+    private int packetSize = 8;
+
     /**
      * constructor that called the constructor of RayTracerBase
      *
@@ -120,6 +130,34 @@ public class RayTracerBasic extends RayTracerBase {
         return this;
     }
 
+    /**
+     * Sets the packet tracing used
+     * When on, the rays of a pixel are intersected with the scene in packets of coherent rays,
+     * which pass the bounding boxes and the geometries together
+     *
+     * @param flag true or false
+     * @return RayTracerBasic object
+     */
+    public RayTracerBasic usePacketTracing(boolean flag) {
+        this.isPacketTracing = flag;
+        return this;
+    }
+
+    /**
+     * Sets the number of rays in a packet, such as 4, 8 or 16
+     *
+     * @param size number of rays
+     * @return RayTracerBasic object
+     */
+    public RayTracerBasic setPacketSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Number of rays in a packet must be greater than 0");
+        }
+
+        this.packetSize = size;
+        return this;
+    }
+
     /**
      * Returns the color of the closest point which the ray hits
      *
@@ -128,6 +166,8 @@ public class RayTracerBasic extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray) {
+        countRays(RenderStatistics.RayKind.PRIMARY, 1);
+
         //get the closest intersection of the ray with the scene
         GeoPoint intersection = findClosestIntersection(ray);
 
@@ -146,6 +186,10 @@ public class RayTracerBasic extends RayTracerBase {
      * @return The average color
      */
     public Color traceRays(List<Ray> rays) {
+        if (isPacketTracing) {
+            return tracePackets(rays);
+        }
+
         Color avgColor = Color.BLACK;
 
         //for each ray in the list
@@ -159,84 +203,29 @@ public class RayTracerBasic extends RayTracerBase {
     }
 
     /**
-     * Returns the color of the point the ray hits using adaptive super sampling
+     * Returns the average of colors of all the points the rays hit,
+     * finding the closest intersections of every packet of rays together
      *
      * @param rays rays to check the color
-     * @return the color
-     */
-    public Color adaptiveTraceRays(List<Ray> rays) {
-        int numOfSampleRays = (int)sqrt(rays.size());
-        int ray1Index = (numOfSampleRays - 1) * numOfSampleRays + (numOfSampleRays - 1); //the index of the up and right ray
-        int ray2Index = (numOfSampleRays - 1) * numOfSampleRays;  //the index of the up and left ray
-        int ray3Index = 0;  //the index of the button and left ray
-        int ray4Index = (numOfSampleRays - 1);  // the index of the button and right ray
-
-        Color color = adaptiveSuperSampling(rays, 3, ray1Index, ray2Index, ray3Index, ray4Index, numOfSampleRays); //calculate the color for the pixel
-        return color;
-    }
-
-    /**
-     * Helper method for adaptive super sampling
-     * recursively checks if the corners around a center point are the same and if yes doesn't check the rest of the rays and just pick the color if the center
-     * @param rays all the rays that were shot
-     * @param level_of_adaptive declares how many levels of adaptiveness to go
-     * @param ray1Index the index of top right corner ray
-     * @param ray2Index the index of top left corner ray
-     * @param ray3Index the index of bottom right corner ray
-     * @param ray4Index the index of bottom left corner ray
-     * @param numOfSampleRays number of rays to sample
-     * @return the color
+     * @return The average color
      */
-    private Color adaptiveSuperSampling(List<Ray> rays, int level_of_adaptive, int ray1Index, int ray2Index, int ray3Index, int ray4Index, int numOfSampleRays) {
-        int numOfAdaptiveRays = 5;
-
-        Ray centerRay = rays.get(rays.size() - 1); //get the center screen ray
-        Color centerColor = traceRay(centerRay); //get the color of the center
-        Ray ray1 = rays.get(ray1Index);  //get the up and right screen ray
-        Color color1 = traceRay(ray1); //get the color of the up and right
-        Ray ray2 = rays.get(ray2Index); //get the up and left ray
-        Color color2 = traceRay(ray2);//get the color of the up and left
-        Ray ray3 = rays.get(ray3Index);//get the bottom and left ray
-        Color color3 = traceRay(ray3);//get the color of the bottom and left
-        Ray ray4 = rays.get(ray4Index);//get the bottom and right ray
-        Color color4 = traceRay(ray4);//get the color of the bottom and right
-
-        if (level_of_adaptive == 0) {
-            //Calculate the average color of the corners and the center
-            centerColor = centerColor.add(color1, color2, color3, color4);
-            return centerColor.reduce(numOfAdaptiveRays);
-        }
+    private Color tracePackets(List<Ray> rays) {
+        Color avgColor = Color.BLACK;
 
-        //If the corner color is the same as the center color, returns the center color
-        if (color1.isColorsEqual(centerColor) && color2.isColorsEqual(centerColor) && color3.isColorsEqual(centerColor) && color4.isColorsEqual(centerColor)) {
-            return centerColor;
-        }
+        for (int from = 0; from < rays.size(); from += packetSize) {
+            RayPacket packet = new RayPacket(rays, from, Math.min(from + packetSize, rays.size()),
+                    Double.POSITIVE_INFINITY);
+            findClosestIntersections(packet);
 
-        //Otherwise, for each color that is different from the center, the recursion goes down to the depth of the pixel and sums up
-        // the colors until it gets the same color as the center color,
-        else {
-            if (!color1.isColorsEqual(centerColor)) {
-                color1 = color1.add(adaptiveSuperSampling(rays, level_of_adaptive - 1, ray1Index - (numOfSampleRays + 1), ray2Index, ray3Index, ray4Index, numOfSampleRays));
-                color1 = color1.reduce(2);
+            //the colors are added in the order of the rays, like in traceRays
+            for (int i = 0; i < packet.size(); ++i) {
+                GeoPoint intersection = packet.getHit(i);
+                avgColor = avgColor.add(intersection == null ? scene.background
+                        : calcColor(intersection, packet.getRay(i)));
             }
-            if (!color2.isColorsEqual(centerColor)) {
-                ;
-                color2 = color2.add(adaptiveSuperSampling(rays, level_of_adaptive - 1, ray1Index, ray2Index - (numOfSampleRays - 1), ray3Index, ray4Index, numOfSampleRays));
-                color2 = color2.reduce(2);
-            }
-            if (!color3.isColorsEqual(centerColor)) {
-                color3 = color3.add(adaptiveSuperSampling(rays, level_of_adaptive - 1, ray1Index, ray2Index, ray3Index + (numOfSampleRays + 1), ray4Index, numOfSampleRays));
-                color3 = color3.reduce(2);
-            }
-            if (!color4.isColorsEqual(centerColor)) {
-                color4 = color4.add(adaptiveSuperSampling(rays, level_of_adaptive - 1, ray1Index, ray2Index, ray3Index, ray4Index + (numOfSampleRays - 1), numOfSampleRays));
-                color4 = color4.reduce(2);
-            }
-            //Calculate and return the average color
-            centerColor = centerColor.add(color1, color2, color3, color4);
-
-            return centerColor.reduce(numOfAdaptiveRays);
         }
+
+        return avgColor.reduce(rays.size()); //reduce by number of rays, in order to get average color
     }
 
     /**
@@ -263,29 +252,35 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Color calcColor(GeoPoint intersection, Ray ray, int level, Double3 k) {
         // Calculating the color at a point according to Phong Reflection Model
+        RenderStatistics.Counters counters = RenderStatistics.current();
+        if (counters != null) {
+            counters.countDepth(MAX_CALC_COLOR_LEVEL - level + 1);
+        }
+
+        //the normal is calculated once for both the local and the global effects
+        Vector n = intersection.geometry.getNormal(intersection);
 
         //calculated light contribution from all light sources
-        Color color = calcLocalEffect(intersection, ray.getDir(), k);
+        Color color = calcLocalEffect(intersection, n, ray.getDir(), k);
 
         if (level == 1) {
             return color; //end recursion
         }
 
         //+calculated light contribution from global effect (kR*ir+kT*it recursively)
-        return color.add(calcGlobalEffects(intersection, ray.getDir(), level, k));
+        return color.add(calcGlobalEffects(intersection, n, ray.getDir(), level, k));
     }
 
     /**
      * Calculate the local effect of light sources on a point
      *
      * @param intersection the point
+     * @param n            normal to the point
      * @param v            the direction of the ray from the viewer
      * @param k            the kR or kT factor at this point
      * @return the color
      */
-    private Color calcLocalEffect(GeoPoint intersection, Vector v, Double3 k) {
-        Vector n = intersection.geometry.getNormal(intersection.point);
-
+    private Color calcLocalEffect(GeoPoint intersection, Vector n, Vector v, Double3 k) {
         double nv = alignZero(n.dotProduct(v)); //nv=n*v
         if (isZero(nv)) {
             return Color.BLACK;
@@ -295,7 +290,12 @@ public class RayTracerBasic extends RayTracerBase {
         Double3 kd = intersection.geometry.getMaterial().kD;
         Double3 ks = intersection.geometry.getMaterial().kS;
 
-        Color color = intersection.geometry.getEmission(); //base color
+        Color emission = intersection.geometry.getEmission(); //base color
+        //the contributions of the light sources are summed in doubles, in the order the colors were added,
+        //so no colors are created for every light
+        Double3 rgb = emission.getRgb();
+        double r = rgb.getD1(), g = rgb.getD2(), b = rgb.getD3();
+        boolean isLit = false;
 
         //for each light source in the scene
         for (LightSource lightSource : scene.lights) {
@@ -311,47 +311,59 @@ public class RayTracerBasic extends RayTracerBase {
                 } else { //otherwise get the transparency level according to soft shadow
                     ktr = transparencySS(intersection, lightSource, n);
                 }
-                if (!(ktr.product(k)).lowerThan(MIN_CALC_COLOR_K)) {
-                    Color lightIntensity = lightSource.getIntensity(intersection.point).scale(ktr);
-                    color = color.add(calcDiffusive(kd, l, n, lightIntensity),
-                            calcSpecular(ks, l, n, v, nShininess, lightIntensity));
+                //ktr*k < MIN_CALC_COLOR_K in all the components
+                if (!(ktr.getD1() * k.getD1() < MIN_CALC_COLOR_K && ktr.getD2() * k.getD2() < MIN_CALC_COLOR_K
+                        && ktr.getD3() * k.getD3() < MIN_CALC_COLOR_K)) {
+                    //Il scaled by the transparency
+                    Double3 il = lightSource.getIntensity(intersection.point).getRgb();
+                    double ilR = il.getD1() * ktr.getD1();
+                    double ilG = il.getD2() * ktr.getD2();
+                    double ilB = il.getD3() * ktr.getD3();
+                    double diffusive = calcDiffusive(l, n);
+                    double specular = calcSpecular(l, n, v, nShininess);
+                    r += ilR * (kd.getD1() * diffusive);
+                    r += ilR * (ks.getD1() * specular);
+                    g += ilG * (kd.getD2() * diffusive);
+                    g += ilG * (ks.getD2() * specular);
+                    b += ilB * (kd.getD3() * diffusive);
+                    b += ilB * (ks.getD3() * specular);
+                    isLit = true;
                 }
             }
         }
-        return color;
+        return isLit ? new Color(r, g, b) : emission;
     }
 
     /**
-     * Calculate the diffuse light effect on the point
+     * Calculate the diffuse factor of the light at the point, the color is Kd * factor * Il
      *
-     * @param kd             diffuse attenuation factor
-     * @param l              the direction of the light
-     * @param n              normal from the point
-     * @param lightIntensity the intensity of the light source at this point
-     * @return the color
+     * @param l the direction of the light
+     * @param n normal from the point
+     * @return the factor |l*n|
      */
-    private Color calcDiffusive(Double3 kd, Vector l, Vector n, Color lightIntensity) {
-        double ln = alignZero(abs(l.dotProduct(n))); //ln=|l*n|
-        return lightIntensity.scale(kd.scale(ln)); //Kd * |l * n| * Il
+    private double calcDiffusive(Vector l, Vector n) {
+        return alignZero(abs(l.dotProduct(n))); //ln=|l*n|
     }
 
     /**
-     * Calculate the specular light at this point
+     * Calculate the specular factor of the light at the point, the color is Ks * factor * Il
      *
-     * @param ks             specular attenuation factor
-     * @param l              the direction of the light
-     * @param n              normal from the point
-     * @param v              direction of the viewer
-     * @param nShininess     shininess factor of the material at the point
-     * @param lightIntensity the intensity of the light source at the point
-     * @return the color of the point
-     */
-    private Color calcSpecular(Double3 ks, Vector l, Vector n, Vector v, int nShininess, Color lightIntensity) {
+     * @param l          the direction of the light
+     * @param n          normal from the point
+     * @param v          direction of the viewer
+     * @param nShininess shininess factor of the material at the point
+     * @return the factor max(0, - v * r) ^ Nsh
+     */
+    private double calcSpecular(Vector l, Vector n, Vector v, int nShininess) {
         double ln = alignZero(l.dotProduct(n)); //ln=l*n
-        Vector r = l.subtract(n.scale(2 * ln)).normalize(); //r=l-2*(l*n)*n
-        double vr = alignZero(v.dotProduct(r)); //vr=v*r
-        double vrnsh = pow(max(0, -vr), nShininess); //vrnsh=max(0,-vr)^nshininess
-        return lightIntensity.scale(ks.scale(vrnsh)); //Ks * (max(0, - v * r) ^ Nsh) * Il
+        //r=l-2*(l*n)*n normalized, calculated in doubles so no vectors are created for every light
+        double ln2 = 2 * ln;
+        double rx = l.getX() - n.getX() * ln2;
+        double ry = l.getY() - n.getY() * ln2;
+        double rz = l.getZ() - n.getZ() * ln2;
+        double rLength = Math.sqrt(rx * rx + ry * ry + rz * rz);
+        double vr = alignZero(rx / rLength * v.getX() + ry / rLength * v.getY() + rz / rLength * v.getZ()); //vr=v*r
+        return pow(max(0, -vr), nShininess); //vrnsh=max(0,-vr)^nshininess
     }
 
     /**
@@ -371,23 +383,9 @@ public class RayTracerBasic extends RayTracerBase {
         Ray lightRay = new Ray(p, lightDirection);
 
         double lightDistance = ls.getDistance(gp.point);
-        //finding only points that are closer to the point than the light
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay, lightDistance);
-
-        //if there are no intersections return true (there is no shadow)
-        if (intersections == null) {
-            return true;
-        }
-
-        //for each intersection
-        for (GeoPoint intersection : intersections) {
-            //if the material is not transparent return false
-            if (intersection.geometry.getMaterial().kT == Double3.ZERO) {
-                return false;
-            }
-
-        }
-        return true;
+        //checking only points that are closer to the point than the light,
+        //the search stops at the first geometry that blocks the light
+        return scene.geometries.findTransparency(lightRay, lightDistance, MIN_CALC_COLOR_K) != Double3.ZERO;
     }
 
     /**
@@ -407,23 +405,17 @@ public class RayTracerBasic extends RayTracerBase {
         lightRay = new Ray(gp.point, lightDirection, n);
 
         double lightDistance = ls.getDistance(gp.point);
-        //finding only points that are closer to the point than the light
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay, lightDistance);
-
-        if (intersections == null) {
-            return Double3.ONE;
-        }
-
-        Double3 ktr = Double3.ONE;
-        //for each intersection
-        for (GeoPoint intersection : intersections) {
-            ktr = ktr.product(intersection.geometry.getMaterial().kT);
-
-            if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                return Double3.ZERO; //end recursion
-            }
+        //multiplying kT of the points that are closer to the point than the light,
+        //the search stops as soon as the light is blocked
+        RenderStatistics.Counters counters = RenderStatistics.current();
+        if (counters == null) {
+            return scene.geometries.findTransparency(lightRay, lightDistance, MIN_CALC_COLOR_K);
         }
 
+        counters.countRays(RenderStatistics.RayKind.SHADOW, 1);
+        long start = System.nanoTime();
+        Double3 ktr = scene.geometries.findTransparency(lightRay, lightDistance, MIN_CALC_COLOR_K);
+        counters.addTime(RenderStatistics.Phase.SHADOWS, System.nanoTime() - start);
         return ktr;
     }
 
@@ -453,14 +445,14 @@ public class RayTracerBasic extends RayTracerBase {
      * recursive function calculates the global effects of objects on a certain point
      *
      * @param intersection the point
+     * @param n            normal to the point
      * @param inRay        direction of ray from the camera to point
      * @param level        level of recursion
      * @param k            the level of light
      * @return the color
      */
-    private Color calcGlobalEffects(GeoPoint intersection, Vector inRay, int level, Double3 k) {
+    private Color calcGlobalEffects(GeoPoint intersection, Vector n, Vector inRay, int level, Double3 k) {
         Color color = Color.BLACK; //base color
-        Vector n = intersection.geometry.getNormal(intersection.point); //normal
 
         Material material = intersection.geometry.getMaterial();
 
@@ -473,12 +465,14 @@ public class RayTracerBasic extends RayTracerBase {
             //construct a reflection  ray from the point
             if (!isGlossy) { //if its not set to glossy construct just one reflected ray
                 Ray reflectedRay = constructReflectedRay(n, inRay, intersection.point);
+                countRays(RenderStatistics.RayKind.REFLECTION, 1);
 
                 //add this color to the point by recursively calling calcGlobalEffect
                 color = color.add(calcGlobalEffect(reflectedRay, level, kr, kkr));
 
             } else { //otherwise construct multiple glossy rays
                 List<Ray> reflectedRays = constructReflectedRays(n, inRay, intersection.point, material.kG);
+                countRays(RenderStatistics.RayKind.GLOSSY, reflectedRays.size());
 
                 //for each reflected glossy ray, calc color
                 for (Ray reflectedRay : reflectedRays) {
@@ -496,12 +490,14 @@ public class RayTracerBasic extends RayTracerBase {
             if (!isGlossy) { //if its not set to glossy construct just one refracted ray
                 //construct a refracted ray from the point
                 Ray refractedRay = constructRefractedRay(n, inRay, intersection.point);
+                countRays(RenderStatistics.RayKind.REFRACTION, 1);
 
                 //add to the color to the point by recursively calling calcGlobalEffect
                 color = color.add(calcGlobalEffect(refractedRay, level, kt, kkt));
             } else { //otherwise construct multiple refracted rays
                 //get list of refracted rays
                 List<Ray> refractedRays = constructRefractedRays(n, inRay, intersection.point, material.kG);
+                countRays(RenderStatistics.RayKind.GLOSSY, refractedRays.size());
 
                 //for each refeacted ray, calc the color
                 for (Ray refractedRay : refractedRays) {
@@ -696,15 +692,46 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the closest intersection
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        //get the intersections of the ray with the scene
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-        if (intersections == null) {
-            return null;
+        //the geometries find the closest intersection without collecting all the intersections
+        RenderStatistics.Counters counters = RenderStatistics.current();
+        if (counters == null) {
+            return scene.geometries.findClosestGeoIntersection(ray);
         }
 
-        //find the closest GeoPoint among the intersections
-        GeoPoint result = ray.findClosestGeoPoint(intersections);
+        long start = System.nanoTime();
+        GeoPoint gp = scene.geometries.findClosestGeoIntersection(ray);
+        counters.addTime(RenderStatistics.Phase.INTERSECTION, System.nanoTime() - start);
+        return gp;
+    }
 
-        return result;
+    /**
+     * Finds the closest intersections in the scene to a packet of rays
+     *
+     * @param packet the rays, which keep their closest intersections
+     */
+    private void findClosestIntersections(RayPacket packet) {
+        RenderStatistics.Counters counters = RenderStatistics.current();
+        if (counters == null) {
+            scene.geometries.findClosestGeoIntersections(packet);
+            return;
+        }
+
+        counters.countRays(RenderStatistics.RayKind.PRIMARY, packet.size());
+        long start = System.nanoTime();
+        scene.geometries.findClosestGeoIntersections(packet);
+        counters.addTime(RenderStatistics.Phase.INTERSECTION, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts traced rays in the statistics of the render, if they are collected
+     *
+     * @param kind   the kind of the rays
+     * @param amount the amount of rays
+     */
+    private void countRays(RenderStatistics.RayKind kind, int amount) {
+        RenderStatistics.Counters counters = RenderStatistics.current();
+        if (counters != null) {
+            counters.countRays(kind, amount);
+        }
     }
 }
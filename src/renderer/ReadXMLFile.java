@@ -1,195 +1,309 @@
-//package renderer;
-//
-//import javax.xml.parsers.DocumentBuilderFactory;
-//import javax.xml.parsers.DocumentBuilder;
-//import javax.xml.parsers.ParserConfigurationException;
-//import geometries.*;
-//import lighting.AmbientLight;
-//import org.w3c.dom.Document;
-//import org.w3c.dom.NodeList;
-//import org.w3c.dom.Node;
-//import org.w3c.dom.Element;
-//import org.xml.sax.SAXException;
-//import primitives.Color;
-//import primitives.Double3;
-//import primitives.Point;
-//import primitives.Vector;
-//import scene.Scene;
-//import java.io.File;
-//import java.io.IOException;
-//import java.util.regex.Matcher;
-//import java.util.regex.Pattern;
-//
-//
-///**
-// * Helper class to create an image from an xml file
-// */
-//public class ReadXMLFile {
-//    /**
-//     * Create a scene using the data in the given xml file
-//     * @param scene_Name the name of the scene to creat
-//     * @param file_name the name of the file
-//     * @return the scene
-//     */
-//    public static Scene ReadFile(String scene_Name, String file_name) {
-//        Scene scene = new Scene.SceneBuilder(scene_Name).build();
-//        File xmlFile = new File(file_name);
-//
-//        DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-//        DocumentBuilder dBuilder;
-//        try {
-//            dBuilder = dbFactory.newDocumentBuilder();
-//            Document doc = dBuilder.parse(xmlFile);
-//            doc.getDocumentElement().normalize();
-//            Element node = doc.getDocumentElement();
-//
-//            //get the background color and set in the scene
-//            Point backColor = getP(node.getAttribute("background-color"));
-//            Color Cb = new Color(backColor.getX(), backColor.getY(), backColor.getZ());
-//            scene.getBackground().add(Cb);
-//
-//            //get the ambient light color and set in the scene
-//            Point ambientColor = getP(((Element) doc.getElementsByTagName("ambient-light").item(0)).getAttribute("color"));
-//            Color Ca = new Color(ambientColor.getX(), ambientColor.getY(), ambientColor.getZ());
-//            scene.setAmbientLight(new AmbientLight(Ca, Double3.ONE));
-//
-//            //new geometries for the scene
-//            Geometries geoList = new Geometries();
-//
-//            //get all the triangle
-//            NodeList nodeList = doc.getElementsByTagName("triangle");
-//            for (int i = 0; i < nodeList.getLength(); i++) {
-//                geoList.add(getTriangle(nodeList.item(i)));
-//            }
-//            //get all the Polygon
-//            nodeList = doc.getElementsByTagName("polygon");
-//            for (int i = 0; i < nodeList.getLength(); i++) {
-//                geoList.add(getPolygon(nodeList.item(i)));
-//            }
-//
-//            //get all the sphere
-//            nodeList = doc.getElementsByTagName("sphere");
-//            for (int i = 0; i < nodeList.getLength(); i++) {
-//                geoList.add(getSphere(nodeList.item(i)));
-//            }
-//            //get all the plane
-//            nodeList = doc.getElementsByTagName("plane");
-//            for (int i = 0; i < nodeList.getLength(); i++) {
-//                geoList.add(getPlane(nodeList.item(i)));
-//            }
-//
-//            //set the geometries in the scene
-//            scene.getGeometries().add(geoList);
-//
-//        }
-//        catch (SAXException | ParserConfigurationException | IOException e1) {
-//            e1.printStackTrace();
-//        }
-//
-//        return scene;
-//    }
-//
-//    /**
-//     * Create a triangle with information from an xml node
-//     * @param node the node
-//     * @return the triangle
-//     */
-//    private static Triangle getTriangle(Node node) {
-//
-//        Triangle geo = null;
-//        if (node.getNodeType() == Node.ELEMENT_NODE) {
-//            Element element = (Element) node;
-//            Point p0 = getP(((Element) node).getAttribute("p0"));
-//            Point p1 = getP(((Element) node).getAttribute("p1"));
-//            Point p2 = getP(((Element) node).getAttribute("p2"));
-//            geo = new Triangle(p0, p1, p2);
-//        }
-//        return geo;
-//    }
-//
-//
-//    /**
-//     * Create a sphere with information from an xml node
-//     * @param node the node
-//     * @return the sphere
-//     */
-//    private static Sphere getSphere(Node node) {
-//
-//        Sphere geo=null;
-//        if (node.getNodeType() == Node.ELEMENT_NODE) {
-//
-//            Element element = (Element) node;
-//            Point p0 = getP(((Element) node).getAttribute("center"));
-//            int r= Integer.parseInt( ((Element) node).getAttribute("radius"));
-//            geo=new Sphere(r, p0);
-//        }
-//        return geo;
-//    }
-//
-//    /**
-//     * Create a plane with information from an xml node
-//     * @param node the node
-//     * @return the plane
-//     */
-//    private static Plane getPlane(Node node) {
-//
-//        Plane geo=null;
-//        if (node.getNodeType() == Node.ELEMENT_NODE) {
-//
-//            Element element = (Element) node;
-//            Point p0 = getP(((Element) node).getAttribute("p0"));
-//            Point v0 = getP(((Element) node).getAttribute("vector"));
-//            Vector v=new Vector(v0.getX(),v0.getY(),v0.getZ());
-//            geo=new Plane(p0,v);
-//        }
-//        return geo;
-//    }
-//
-//    /**
-//     * Create a polygon with information from an xml node
-//     * @param node the node
-//     * @return the polygon
-//     */
-//    private static Polygon getPolygon(Node node) {
-//
-//        Polygon geo=null;
-//        Point[] arr=null;
-//        if (node.getNodeType() == Node.ELEMENT_NODE) {
-//            Element element = (Element) node;
-//            int len=node.getAttributes().getLength();
-//            arr=new Point[len];
-//            //  var points=node.getAttributes();
-//            for (int i=0;i<len;i++)
-//            {
-//                Point p0 = getP(((Element) node).getAttribute("p"+i));
-//                arr[i]=p0;
-//            }
-//            geo=new Polygon(arr);
-//        }
-//        return geo;
-//    }
-//
-//    private static String getTagValue(String tag, Element element) {
-//        NodeList nodeList = element.getElementsByTagName(tag).item(0).getChildNodes();
-//        Node node = (Node) nodeList.item(0);
-//        return node.getNodeValue();
-//    }
-//
-//    /**
-//     * Create a point from informtion in the string
-//     * @param s the string
-//     * @return the point
-//     */
-//    public static Point getP(String s) {
-//
-//        Pattern p = Pattern.compile("-?\\d+");
-//        Matcher m = p.matcher(s);
-//        int[] arr = new int[3];
-//        int i = 0;
-//
-//        while (m.find()) {
-//            arr[i++] = Integer.parseInt(m.group());
-//        }
-//        return new Point(arr[0], arr[1], arr[2]);
-//    }
-//}
\ No newline at end of file
+package renderer;
+
+import geometries.*;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Helper class to create a scene from an xml file.
+ * The file is read with a streaming (StAX) parser: every element is turned into a geometry or a light
+ * and added to the scene as soon as it ends, so the document is never held in memory, and files of
+ * hundreds of MB are read in memory bounded by the scene itself.
+ * <p>
+ * The format of the file:
+ * <pre>{@code
+ * <scene background-color="75 127 90">
+ *     <ambient-light color="255 191 191" ka="1 1 1"/>
+ *     <geometries>
+ *         <sphere center="0 0 -100" radius="50" emission="0 0 100">
+ *             <material kd="0.5" ks="0.5" shininess="100" kt="0" kr="0" kg="1"/>
+ *         </sphere>
+ *         <triangle p0="-100 0 -100" p1="0 100 -100" p2="-100 100 -100"/>
+ *         <polygon p0="..." p1="..." p2="..." p3="..."/>
+ *         <plane p0="0 0 -200" vector="0 0 1"/>
+ *     </geometries>
+ *     <lights>
+ *         <directional-light color="..." direction="..."/>
+ *         <point-light color="..." position="..." kc="1" kl="0" kq="0"/>
+ *         <spot-light color="..." position="..." direction="..." kc="1" kl="0" kq="0"/>
+ *     </lights>
+ * </scene>
+ * }</pre>
+ * Colors, points and vectors are three numbers separated by spaces, and the coefficients of a material
+ * are a single number or three numbers. Every attribute except the ones of the shapes is optional.
+ */
+public class ReadXMLFile {
+    /**
+     * Create a scene using the data in the given xml file
+     *
+     * @param scene_Name the name of the scene to create
+     * @param file_name  the name of the file
+     * @return the scene
+     * @throws IllegalArgumentException if the file is not a valid scene
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public static Scene ReadFile(String scene_Name, String file_name) {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file_name), 1 << 16)) {
+            return read(scene_Name, in);
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - cannot read " + file_name, e);
+        }
+    }
+
+    /**
+     * Create a scene using the data in an xml stream
+     *
+     * @param scene_Name the name of the scene to create
+     * @param in         the stream
+     * @return the scene
+     * @throws IllegalArgumentException if the stream is not a valid scene
+     */
+    public static Scene read(String scene_Name, InputStream in) {
+        Scene scene = new Scene(scene_Name);
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        //scene files need no document type definitions or external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        XMLStreamReader reader = null;
+        try {
+            reader = factory.createXMLStreamReader(in);
+            Geometry geometry = null; //the geometry whose element is open, for its material
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (geometry != null && reader.getLocalName().equals(geometryElement(geometry))) {
+                        scene.geometries.add(geometry);
+                        geometry = null;
+                    }
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT)
+                    continue;
+
+                switch (reader.getLocalName()) {
+                    case "scene" -> {
+                        String background = attribute(reader, "background-color", false);
+                        if (background != null)
+                            scene.setBackground(getColor(background));
+                    }
+                    case "ambient-light" -> {
+                        String ka = attribute(reader, "ka", false);
+                        scene.setAmbientLight(new AmbientLight(getColor(attribute(reader, "color", true)),
+                                ka == null ? Double3.ONE : getDouble3(ka)));
+                    }
+                    case "sphere" -> geometry = new Sphere(getDouble(attribute(reader, "radius", true)),
+                            getP(attribute(reader, "center", true)));
+                    case "triangle" -> geometry = new Triangle(getP(attribute(reader, "p0", true)),
+                            getP(attribute(reader, "p1", true)), getP(attribute(reader, "p2", true)));
+                    case "plane" -> geometry = new Plane(getP(attribute(reader, "p0", true)),
+                            getVector(attribute(reader, "vector", true)));
+                    case "polygon" -> {
+                        List<Point> vertices = new ArrayList<>();
+                        for (String p = attribute(reader, "p0", true); p != null;
+                             p = attribute(reader, "p" + vertices.size(), false))
+                            vertices.add(getP(p));
+                        geometry = new Polygon(vertices.toArray(new Point[0]));
+                    }
+                    case "material" -> {
+                        if (geometry == null)
+                            throw new IllegalArgumentException("A material out of a geometry");
+                        geometry.setMaterial(getMaterial(reader));
+                    }
+                    case "directional-light" -> scene.lights.add(new DirectionalLight(
+                            getColor(attribute(reader, "color", true)), getVector(attribute(reader, "direction", true))));
+                    case "point-light" -> scene.lights.add(setAttenuation(reader, new PointLight(
+                            getColor(attribute(reader, "color", true)), getP(attribute(reader, "position", true)))));
+                    case "spot-light" -> scene.lights.add(setAttenuation(reader, new SpotLight(
+                            getColor(attribute(reader, "color", true)), getP(attribute(reader, "position", true)),
+                            getVector(attribute(reader, "direction", true)))));
+                    default -> {
+                        //grouping elements (geometries, lights) and unknown elements are skipped
+                    }
+                }
+
+                if (geometry != null && reader.getLocalName().equals(geometryElement(geometry))) {
+                    String emission = attribute(reader, "emission", false);
+                    if (emission != null)
+                        geometry.setEmission(getColor(emission));
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid scene file: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    //the stream is closed by its owner
+                }
+            }
+        }
+        return scene;
+    }
+
+    /**
+     * @return the name of the element of a geometry
+     */
+    private static String geometryElement(Geometry geometry) {
+        return geometry.getClass().getSimpleName().toLowerCase();
+    }
+
+    /**
+     * Returns the value of an attribute of the current element
+     *
+     * @param reader   the reader, at the start of the element
+     * @param name     the name of the attribute
+     * @param required whether the element must have the attribute
+     * @return the value, or null if there is no such attribute
+     * @throws IllegalArgumentException if a required attribute is missing
+     */
+    private static String attribute(XMLStreamReader reader, String name, boolean required) {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null && required)
+            throw new IllegalArgumentException("Missing attribute " + name + " of " + reader.getLocalName()
+                    + " at line " + reader.getLocation().getLineNumber());
+        return value;
+    }
+
+    /**
+     * Create a material from the attributes of a material element
+     */
+    private static Material getMaterial(XMLStreamReader reader) {
+        Material material = new Material();
+        String value;
+        if ((value = attribute(reader, "kd", false)) != null)
+            material.setKd(getDouble3(value));
+        if ((value = attribute(reader, "ks", false)) != null)
+            material.setKs(getDouble3(value));
+        if ((value = attribute(reader, "shininess", false)) != null)
+            material.setShininess((int) getDouble(value));
+        if ((value = attribute(reader, "kt", false)) != null)
+            material.setKt(getDouble3(value));
+        if ((value = attribute(reader, "kr", false)) != null)
+            material.setKr(getDouble3(value));
+        if ((value = attribute(reader, "kg", false)) != null)
+            material.setKg(getDouble(value));
+        return material;
+    }
+
+    /**
+     * Sets the attenuation factors of a light from the attributes of its element
+     *
+     * @return the light
+     */
+    private static PointLight setAttenuation(XMLStreamReader reader, PointLight light) {
+        String value;
+        if ((value = attribute(reader, "kc", false)) != null)
+            light.setKc(getDouble(value));
+        if ((value = attribute(reader, "kl", false)) != null)
+            light.setKl(getDouble(value));
+        if ((value = attribute(reader, "kq", false)) != null)
+            light.setKq(getDouble(value));
+        return light;
+    }
+
+    /**
+     * Create a point from information in the string
+     *
+     * @param s the string - three numbers separated by spaces
+     * @return the point
+     */
+    public static Point getP(String s) {
+        double[] xyz = getDoubles(s, 3);
+        return new Point(xyz[0], xyz[1], xyz[2]);
+    }
+
+    /**
+     * Create a vector from information in the string
+     */
+    private static Vector getVector(String s) {
+        double[] xyz = getDoubles(s, 3);
+        return new Vector(xyz[0], xyz[1], xyz[2]);
+    }
+
+    /**
+     * Create a color from information in the string
+     */
+    private static Color getColor(String s) {
+        double[] rgb = getDoubles(s, 3);
+        return new Color(rgb[0], rgb[1], rgb[2]);
+    }
+
+    /**
+     * Create a triad of coefficients from information in the string - one number for all three, or three numbers
+     */
+    private static Double3 getDouble3(String s) {
+        double[] values = getDoubles(s, -1);
+        if (values.length == 1)
+            return new Double3(values[0], values[0], values[0]);
+        if (values.length == 3)
+            return new Double3(values[0], values[1], values[2]);
+        throw new IllegalArgumentException("One or three numbers were expected: " + s);
+    }
+
+    /**
+     * Create a number from information in the string
+     */
+    private static double getDouble(String s) {
+        return getDoubles(s, 1)[0];
+    }
+
+    /**
+     * Splits a string of numbers separated by white space (or commas) and converts them
+     *
+     * @param s     the string
+     * @param count the amount of numbers expected, or -1 for any amount
+     * @return the numbers
+     * @throws IllegalArgumentException if there is a different amount of numbers, or something which is not a number
+     */
+    private static double[] getDoubles(String s, int count) {
+        double[] values = new double[count < 0 ? 3 : count];
+        int n = 0;
+        int length = s.length();
+        int i = 0;
+        while (true) {
+            while (i < length && (Character.isWhitespace(s.charAt(i)) || s.charAt(i) == ','))
+                ++i;
+            if (i == length)
+                break;
+            int start = i;
+            while (i < length && !Character.isWhitespace(s.charAt(i)) && s.charAt(i) != ',')
+                ++i;
+            if (n == values.length) {
+                if (count >= 0)
+                    throw new IllegalArgumentException(count + " numbers were expected: " + s);
+                values = Arrays.copyOf(values, 2 * n);
+            }
+            try {
+                values[n++] = Double.parseDouble(s.substring(start, i));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + s.substring(start, i));
+            }
+        }
+        if (count >= 0 ? n != count : n == 0)
+            throw new IllegalArgumentException((count < 0 ? "Numbers" : count + " numbers") + " were expected: " + s);
+        return count >= 0 ? values : Arrays.copyOf(values, n);
+    }
+}
@@ -0,0 +1,351 @@
+package renderer;
+
+import geometries.IntersectionStatistics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Statistics of a render: the rays traced by their kind, the intersection tests by the class of the geometry,
+ * the traversals of bounding volume hierarchies, the depth of the recursion of the color calculation
+ * and the time spent in every phase of the render.
+ * The render threads bind counters of their own to themselves while they render, and the ray tracer counts
+ * in the counters bound to the current thread - so concurrent renders count apart. The counters are merged
+ * when the render ends.
+ *
+ * @see Camera#useStatistics(boolean)
+ */
+public class RenderStatistics {
+    /**
+     * The kinds of rays traced by the ray tracer
+     */
+    public enum RayKind {
+        /**
+         * Rays from the camera through the pixels
+         */
+        PRIMARY,
+        /**
+         * Rays from the points to the light sources
+         */
+        SHADOW,
+        /**
+         * Reflected rays
+         */
+        REFLECTION,
+        /**
+         * Refracted rays
+         */
+        REFRACTION,
+        /**
+         * Reflected and refracted rays of glossy and blurry surfaces
+         */
+        GLOSSY
+    }
+
+    /**
+     * The phases of the render
+     */
+    public enum Phase {
+        /**
+         * Constructing the rays through the pixels
+         */
+        RAY_GENERATION,
+        /**
+         * Finding the closest intersections of primary, reflected and refracted rays
+         */
+        INTERSECTION,
+        /**
+         * Finding the transparency along shadow rays
+         */
+        SHADOWS,
+        /**
+         * The rest of the tracing - calculating the colors
+         */
+        SHADING,
+        /**
+         * Writing the colors of the pixels to the image
+         */
+        WRITING
+    }
+
+    /**
+     * Amount of renders which collect statistics
+     */
+    private static final AtomicInteger collectingRenders = new AtomicInteger();
+
+    /**
+     * The counters bound to the current thread, null if the thread does not collect statistics
+     */
+    private static final ThreadLocal<Counters> current = new ThreadLocal<>();
+
+    /**
+     * Counters of a single thread
+     */
+    static class Counters {
+        private final long[] rays = new long[RayKind.values().length];
+        private final long[] nanos = new long[Phase.values().length];
+        private long depthSum = 0;
+        private long depthCount = 0;
+        private int maxDepth = 0;
+        /**
+         * The intersection tests of the thread, bound to the thread while it renders
+         */
+        private final IntersectionStatistics intersections = new IntersectionStatistics();
+
+        /**
+         * @return the intersection tests of the thread
+         */
+        IntersectionStatistics intersections() {
+            return intersections;
+        }
+
+        /**
+         * Binds the counters (and their intersection tests) to the current thread,
+         * so the rays the thread traces are counted in them
+         *
+         * @return the counters which were bound to the thread before, to be restored by {@link #unbind}
+         */
+        Counters bind() {
+            Counters previous = current.get();
+            current.set(this);
+            intersections.bind();
+            return previous;
+        }
+
+        /**
+         * Restores the counters which were bound to the current thread before {@link #bind()}
+         *
+         * @param previous the counters returned by {@link #bind()}, may be null
+         */
+        static void unbind(Counters previous) {
+            if (previous == null) {
+                current.remove();
+                IntersectionStatistics.unbind(null);
+            } else
+                previous.bind();
+        }
+
+        /**
+         * Counts traced rays
+         *
+         * @param kind   the kind of the rays
+         * @param amount the amount of rays
+         */
+        void countRays(RayKind kind, int amount) {
+            rays[kind.ordinal()] += amount;
+        }
+
+        /**
+         * Counts a calculation of a color
+         *
+         * @param depth the depth of the recursion, 1 for the points hit by primary rays
+         */
+        void countDepth(int depth) {
+            depthSum += depth;
+            ++depthCount;
+            if (depth > maxDepth)
+                maxDepth = depth;
+        }
+
+        /**
+         * Adds time to a phase.
+         * The time of tracing the rays is added to {@link Phase#SHADING}, the intersection and shadow times
+         * it includes are subtracted from it when the counters are merged.
+         *
+         * @param phase the phase
+         * @param nanos the time in nanoseconds
+         */
+        void addTime(Phase phase, long nanos) {
+            this.nanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * The counters of all the threads of the render
+     */
+    private final Queue<Counters> threadsCounters = new ConcurrentLinkedQueue<>();
+    /**
+     * The counters of the current thread
+     */
+    private final ThreadLocal<Counters> counters = ThreadLocal.withInitial(() -> {
+        Counters c = new Counters();
+        threadsCounters.add(c);
+        return c;
+    });
+
+    private final long[] rays = new long[RayKind.values().length];
+    private final long[] nanos = new long[Phase.values().length];
+    private long depthSum = 0;
+    private long depthCount = 0;
+    private int maxDepth = 0;
+    private Map<String, Long> intersectionTests = Map.of();
+    private long traversals = 0;
+    private long nodeVisits = 0;
+    private long primitiveTests = 0;
+    private double renderTime = 0;
+    /**
+     * The time the render started, in {@link System#nanoTime()}
+     */
+    private long start = 0;
+
+    /**
+     * Package-private constructor, statistics are collected by the camera
+     */
+    RenderStatistics() {
+    }
+
+    /**
+     * @return the counters bound to the current thread, null if it does not collect statistics
+     */
+    static Counters current() {
+        return collectingRenders.get() == 0 ? null : current.get();
+    }
+
+    /**
+     * @return the counters of the current thread in this render, to be bound while the thread renders
+     */
+    Counters counters() {
+        return counters.get();
+    }
+
+    /**
+     * Starts collecting the statistics of a render, whose threads bind their counters while they render.
+     * Every call should be followed by a call of {@link #stop()} when the render ends.
+     */
+    void start() {
+        collectingRenders.incrementAndGet();
+        IntersectionStatistics.startCounting();
+        start = System.nanoTime();
+    }
+
+    /**
+     * Stops collecting the statistics of a render, and merges the counters of all its threads
+     */
+    void stop() {
+        long end = System.nanoTime();
+        IntersectionStatistics.stopCounting();
+        collectingRenders.decrementAndGet();
+        merge(end - start);
+    }
+
+    /**
+     * Merges the counters of all the threads, called when the render ends
+     *
+     * @param renderTime the time of the whole render in nanoseconds
+     */
+    private void merge(long renderTime) {
+        IntersectionStatistics intersections = new IntersectionStatistics();
+        for (Counters c : threadsCounters) {
+            intersections.add(c.intersections);
+            for (int i = 0; i < rays.length; ++i)
+                rays[i] += c.rays[i];
+            for (int i = 0; i < nanos.length; ++i)
+                nanos[i] += c.nanos[i];
+            depthSum += c.depthSum;
+            depthCount += c.depthCount;
+            maxDepth = Math.max(maxDepth, c.maxDepth);
+        }
+        threadsCounters.clear();
+        nanos[Phase.SHADING.ordinal()] -= nanos[Phase.INTERSECTION.ordinal()] + nanos[Phase.SHADOWS.ordinal()];
+        this.intersectionTests = Collections.unmodifiableMap(new TreeMap<>(intersections.getTests()));
+        this.traversals = intersections.getTraversals();
+        this.nodeVisits = intersections.getNodeVisits();
+        this.primitiveTests = intersections.getPrimitiveTests();
+        this.renderTime = renderTime / 1e9;
+    }
+
+    /**
+     * @param kind the kind of rays
+     * @return the amount of rays of that kind which were traced
+     */
+    public long getRays(RayKind kind) {
+        return rays[kind.ordinal()];
+    }
+
+    /**
+     * @return the amount of rays of all the kinds which were traced
+     */
+    public long getTotalRays() {
+        long total = 0;
+        for (long r : rays)
+            total += r;
+        return total;
+    }
+
+    /**
+     * @return the amount of intersection tests by the simple name of the class of the geometry, sorted by name
+     */
+    public Map<String, Long> getIntersectionTests() {
+        return intersectionTests;
+    }
+
+    /**
+     * @return amount of rays traced through bounding volume hierarchies
+     */
+    public long getTraversals() {
+        return traversals;
+    }
+
+    /**
+     * @return amount of nodes of bounding volume hierarchies visited by the rays
+     */
+    public long getNodeVisits() {
+        return nodeVisits;
+    }
+
+    /**
+     * @return amount of geometries of bounding volume hierarchies tested by the rays (not including the infinite ones)
+     */
+    public long getPrimitiveTests() {
+        return primitiveTests;
+    }
+
+    /**
+     * @return the average depth of the recursion of the color calculations, 1 for the points hit by primary rays
+     */
+    public double getAverageDepth() {
+        return depthCount == 0 ? 0 : (double) depthSum / depthCount;
+    }
+
+    /**
+     * @return the deepest level the recursion of the color calculations reached
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @param phase the phase
+     * @return the time spent in the phase in seconds, summed over all the threads of the render
+     */
+    public double getTime(Phase phase) {
+        return nanos[phase.ordinal()] / 1e9;
+    }
+
+    /**
+     * @return the wall time of the render in seconds
+     */
+    public double getRenderTime() {
+        return renderTime;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append(String.format("render time: %.3f s%n", renderTime));
+        for (RayKind kind : RayKind.values())
+            str.append(String.format("%-12s rays: %d%n", kind, getRays(kind)));
+        intersectionTests.forEach((type, count) -> str.append(String.format("%-12s tests: %d%n", type, count)));
+        if (traversals > 0)
+            str.append(String.format("BVH rays: %d, nodes per ray: %.2f, tests per ray: %.2f%n", traversals,
+                    (double) nodeVisits / traversals, (double) primitiveTests / traversals));
+        str.append(String.format("average depth: %.3f, max depth: %d%n", getAverageDepth(), maxDepth));
+        for (Phase phase : Phase.values())
+            str.append(String.format("%-14s %.3f s%n", phase, getTime(phase)));
+        return str.toString();
+    }
+}
@@ -0,0 +1,267 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.GeometrySerializer;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Cache of a scene (and its camera) in a compact binary file, for starting quickly.
+ * The file holds the background, the lights, the geometries with their materials, the bounding volume
+ * hierarchies which were built and the view of the camera, and it is written and read through
+ * memory-mapped file channels. Reading a cached scene only copies its numbers - nothing is parsed
+ * and no hierarchy is built again, so it is ready for rendering at once.
+ * <p>
+ * The file starts with a magic number and the version of the format, and a file of another version is rejected.
+ * The camera is read without its image writer and ray tracer, which are set before rendering.
+ */
+public class SceneCache {
+    /**
+     * Magic number of the files - "RTSC"
+     */
+    private static final int MAGIC = 0x52545343;
+    /**
+     * Version of the format, changed whenever the format changes
+     */
+    private static final int VERSION = 1;
+
+    // tags of the types of the lights
+    private static final byte DIRECTIONAL_LIGHT = 1;
+    private static final byte POINT_LIGHT = 2;
+    private static final byte SPOT_LIGHT = 3;
+
+    // the file of the cache
+    private final Path file;
+    // the camera which was read with the scene
+    private Camera camera;
+    // duration of the last reading or writing, in nanoseconds
+    private long time;
+
+    /**
+     * Constructs a cache in a file
+     *
+     * @param fileName the name of the file
+     */
+    public SceneCache(String fileName) {
+        this.file = Path.of(fileName);
+    }
+
+    /**
+     * @return whether the file of the cache exists
+     */
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * @return the camera which was read with the scene, or null if there was none
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * @return the duration of the last reading or writing, in nanoseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Writes a scene into the file of the cache, replacing it.
+     * The bounding volume hierarchies are written only if they were built.
+     *
+     * @param scene  the scene
+     * @param camera the camera, or null
+     * @return this cache
+     * @throws IllegalArgumentException if the scene holds a geometry or a light which cannot be written,
+     *                                  or it is larger than 2GB
+     * @throws IllegalStateException    if the file cannot be written
+     */
+    public SceneCache write(Scene scene, Camera camera) {
+        long start = System.nanoTime();
+        byte[] name = scene.name == null ? new byte[0] : scene.name.getBytes(StandardCharsets.UTF_8);
+        long size = 2 * Integer.BYTES + Integer.BYTES + name.length + 6 * Double.BYTES + Integer.BYTES
+                + GeometrySerializer.size(scene.geometries) + 1 + (camera == null ? 0 : 15 * Double.BYTES);
+        for (LightSource light : scene.lights)
+            size += lightSize(light);
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The scene is too large for a cache: " + size + " bytes");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            buffer.putInt(name.length).put(name);
+            writeDouble3(scene.background.getRgb(), buffer);
+            writeDouble3(scene.ambientLight.getIntensity().getRgb(), buffer);
+
+            buffer.putInt(scene.lights.size());
+            for (LightSource light : scene.lights)
+                writeLight(light, buffer);
+
+            GeometrySerializer.write(scene.geometries, buffer);
+
+            buffer.put((byte) (camera == null ? 0 : 1));
+            if (camera != null) {
+                writePoint(camera.getP0(), buffer);
+                writePoint(camera.getvTo(), buffer);
+                writePoint(camera.getvUp(), buffer);
+                writePoint(camera.getvRight(), buffer);
+                buffer.putDouble(camera.getDistance()).putDouble(camera.getWidth()).putDouble(camera.getHeight());
+            }
+            buffer.force();
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - cannot write " + file, e);
+        }
+        this.camera = camera;
+        time = System.nanoTime() - start;
+        return this;
+    }
+
+    /**
+     * Reads the scene in the file of the cache, and its camera (see {@link #getCamera()})
+     *
+     * @return the scene
+     * @throws IllegalArgumentException if the file is not a cache of this version
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public Scene read() {
+        long start = System.nanoTime();
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Not a scene cache: " + file);
+            //the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - cannot read " + file, e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.remaining() < 2 * Integer.BYTES || buffer.getInt() != MAGIC)
+            throw new IllegalArgumentException("Not a scene cache: " + file);
+        int version = buffer.getInt();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported version " + version + " of the scene cache " + file);
+
+        try {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            Scene scene = new Scene(new String(name, StandardCharsets.UTF_8));
+            scene.setBackground(readColor(buffer));
+            scene.setAmbientLight(new AmbientLight(readColor(buffer), Double3.ONE));
+
+            int lights = buffer.getInt();
+            for (int i = 0; i < lights; ++i)
+                scene.lights.add(readLight(buffer));
+
+            if (!(GeometrySerializer.read(buffer) instanceof Geometries geometries))
+                throw new IllegalArgumentException("Not a scene cache: " + file);
+            scene.setGeometries(geometries);
+
+            camera = buffer.get() == 0 ? null
+                    : new Camera(readPoint(buffer), readVector(buffer), readVector(buffer), readVector(buffer))
+                    .setViewPlaneDistance(buffer.getDouble())
+                    .setViewPlaneSize(buffer.getDouble(), buffer.getDouble());
+            time = System.nanoTime() - start;
+            return scene;
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException)
+                throw e;
+            //a cut file ends the buffer, and a damaged one holds wrong sizes
+            throw new IllegalArgumentException("Damaged scene cache: " + file, e);
+        }
+    }
+
+    /**
+     * @return the amount of bytes a light takes
+     * @throws IllegalArgumentException if the light cannot be written
+     */
+    private static long lightSize(LightSource light) {
+        if (light instanceof SpotLight)
+            return 1 + 15 * Double.BYTES;
+        if (light instanceof PointLight)
+            return 1 + 9 * Double.BYTES;
+        if (light instanceof DirectionalLight)
+            return 1 + 6 * Double.BYTES;
+        throw new IllegalArgumentException("A light of type " + light.getClass().getSimpleName()
+                + " cannot be written");
+    }
+
+    /**
+     * Writes a light - a tag of its type, its intensity and the fields of its type
+     */
+    private static void writeLight(LightSource light, MappedByteBuffer buffer) {
+        if (light instanceof PointLight point) {
+            buffer.put(light instanceof SpotLight ? SPOT_LIGHT : POINT_LIGHT);
+            writeDouble3(point.getIntensity().getRgb(), buffer);
+            writePoint(point.getPosition(), buffer);
+            buffer.putDouble(point.getKc()).putDouble(point.getKl()).putDouble(point.getKq());
+            if (light instanceof SpotLight spot)
+                writePoint(spot.getDirection(), buffer);
+        } else {
+            DirectionalLight directional = (DirectionalLight) light;
+            buffer.put(DIRECTIONAL_LIGHT);
+            writeDouble3(directional.getIntensity().getRgb(), buffer);
+            writePoint(directional.getDirection(), buffer);
+        }
+    }
+
+    /**
+     * Reads a light written by {@link #writeLight(LightSource, MappedByteBuffer)}
+     */
+    private static LightSource readLight(MappedByteBuffer buffer) {
+        byte tag = buffer.get();
+        Color intensity = readColor(buffer);
+        if (tag == DIRECTIONAL_LIGHT)
+            return new DirectionalLight(intensity, readVector(buffer));
+        if (tag != POINT_LIGHT && tag != SPOT_LIGHT)
+            throw new IllegalArgumentException("Unknown light type " + tag);
+        Point position = readPoint(buffer);
+        double kC = buffer.getDouble();
+        double kL = buffer.getDouble();
+        double kQ = buffer.getDouble();
+        PointLight light = tag == POINT_LIGHT ? new PointLight(intensity, position)
+                : new SpotLight(intensity, position, readVector(buffer));
+        return light.setKc(kC).setKl(kL).setKq(kQ);
+    }
+
+    private static void writeDouble3(Double3 value, MappedByteBuffer buffer) {
+        buffer.putDouble(value.getD1()).putDouble(value.getD2()).putDouble(value.getD3());
+    }
+
+    private static void writePoint(Point point, MappedByteBuffer buffer) {
+        buffer.putDouble(point.getX()).putDouble(point.getY()).putDouble(point.getZ());
+    }
+
+    private static Color readColor(MappedByteBuffer buffer) {
+        return new Color(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static Point readPoint(MappedByteBuffer buffer) {
+        return new Point(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static Vector readVector(MappedByteBuffer buffer) {
+        return new Vector(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+}
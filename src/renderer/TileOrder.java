@@ -0,0 +1,20 @@
+package renderer;
+
+/**
+ * The order in which the tiles of the image are handed to the render threads
+ */
+public enum TileOrder {
+    /**
+     * Row by row, from the top left tile to the bottom right one
+     */
+    ROWS,
+    /**
+     * A square spiral starting at the center of the image, so the middle of the image is rendered first
+     */
+    SPIRAL,
+    /**
+     * Along a Hilbert curve, so consecutive tiles are always neighbours and the threads work on
+     * close parts of the scene at the same time
+     */
+    HILBERT
+}
@@ -0,0 +1,170 @@
+package renderer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TileScheduler is a helper class for multi-threaded rendering.
+ * The image is divided into square tiles, which are handed to the render threads one at a time
+ * by an atomic counter over a precomputed tile order, so no locks are taken while rendering.
+ */
+class TileScheduler {
+    private final int nX;
+    private final int nY;
+    private final int tileSize;
+    private final int tilesX;
+
+    /**
+     * Tile indices (row of tiles * tiles in a row + column of tiles) in the order they are handed out
+     */
+    private final int[] tiles;
+    /**
+     * Position of the next tile to hand out in the tiles array
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Divide an image into tiles
+     *
+     * @param nX       the amount of pixel columns
+     * @param nY       the amount of pixel rows
+     * @param tileSize the width and height of a tile in pixels
+     * @param order    the order in which the tiles are handed out
+     */
+    TileScheduler(int nX, int nY, int tileSize, TileOrder order) {
+        this.nX = nX;
+        this.nY = nY;
+        this.tileSize = tileSize;
+        this.tilesX = (nX + tileSize - 1) / tileSize;
+        int tilesY = (nY + tileSize - 1) / tileSize;
+        this.tiles = switch (order) {
+            case ROWS -> rowsOrder(tilesX, tilesY);
+            case SPIRAL -> spiralOrder(tilesX, tilesY);
+            case HILBERT -> hilbertOrder(tilesX, tilesY);
+        };
+    }
+
+    /**
+     * Hands out the next tile to render, safe to call from all the threads
+     *
+     * @return the tile, or -1 if all the tiles were handed out
+     */
+    int nextTile() {
+        int position = next.getAndIncrement();
+        return position < tiles.length ? tiles[position] : -1;
+    }
+
+    /**
+     * @param tile the tile
+     * @return the first pixel row of the tile
+     */
+    int firstRow(int tile) {
+        return tile / tilesX * tileSize;
+    }
+
+    /**
+     * @param tile the tile
+     * @return the pixel row after the last row of the tile
+     */
+    int endRow(int tile) {
+        return Math.min(firstRow(tile) + tileSize, nY);
+    }
+
+    /**
+     * @param tile the tile
+     * @return the first pixel column of the tile
+     */
+    int firstCol(int tile) {
+        return tile % tilesX * tileSize;
+    }
+
+    /**
+     * @param tile the tile
+     * @return the pixel column after the last column of the tile
+     */
+    int endCol(int tile) {
+        return Math.min(firstCol(tile) + tileSize, nX);
+    }
+
+    /**
+     * @param tile the tile
+     * @return the amount of pixels in the tile
+     */
+    int pixelCount(int tile) {
+        return (endRow(tile) - firstRow(tile)) * (endCol(tile) - firstCol(tile));
+    }
+
+    /**
+     * @return the amount of tiles in the image
+     */
+    int getTileCount() {
+        return tiles.length;
+    }
+
+    /**
+     * Tiles row by row
+     */
+    private static int[] rowsOrder(int tilesX, int tilesY) {
+        int[] result = new int[tilesX * tilesY];
+        for (int i = 0; i < result.length; ++i)
+            result[i] = i;
+        return result;
+    }
+
+    /**
+     * Tiles along a square spiral around the center tile, skipping the positions outside the image
+     */
+    private static int[] spiralOrder(int tilesX, int tilesY) {
+        int[] result = new int[tilesX * tilesY];
+        int x = (tilesX - 1) / 2;
+        int y = (tilesY - 1) / 2;
+        int dx = 1, dy = 0;
+        int count = 0;
+        for (int length = 1; count < result.length; ++length) {
+            //every length is walked twice, turning after each walk
+            for (int turn = 0; turn < 2; ++turn) {
+                for (int step = 0; step < length; ++step) {
+                    if (x >= 0 && x < tilesX && y >= 0 && y < tilesY && count < result.length)
+                        result[count++] = y * tilesX + x;
+                    x += dx;
+                    y += dy;
+                }
+                int tmp = dx;
+                dx = -dy;
+                dy = tmp;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tiles along a Hilbert curve over the smallest power of two square containing all the tiles,
+     * skipping the positions outside the image
+     */
+    private static int[] hilbertOrder(int tilesX, int tilesY) {
+        int[] result = new int[tilesX * tilesY];
+        int n = Integer.highestOneBit(Math.max(1, Math.max(tilesX, tilesY) - 1)) << 1;
+        int count = 0;
+        for (int d = 0; d < n * n && count < result.length; ++d) {
+            //convert the distance along the curve into coordinates
+            int x = 0, y = 0;
+            for (int s = 1, t = d; s < n; s <<= 1, t >>= 2) {
+                int rx = 1 & (t >> 1);
+                int ry = 1 & (t ^ rx);
+                if (ry == 0) {
+                    if (rx == 1) {
+                        x = s - 1 - x;
+                        y = s - 1 - y;
+                    }
+                    int tmp = x;
+                    x = y;
+                    y = tmp;
+                }
+                x += s * rx;
+                y += s * ry;
+            }
+            if (x < tilesX && y < tilesY)
+                result[count++] = y * tilesX + x;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the batch intersection kernels - the kernels in use (the vector ones if the JVM runs with the
+ * vector module) and the scalar ones must find the same intersections as the geometries themselves
+ */
+class BatchKernelsTest {
+    /**
+     * Finds the closest of the geometries a ray intersects, one geometry at a time
+     *
+     * @return index of the closest geometry, or -1
+     */
+    private int expectedClosest(List<? extends Intersectable> geometries, Ray ray, double maxDistance) {
+        int closest = -1;
+        double distance = maxDistance;
+        for (int i = 0; i < geometries.size(); ++i) {
+            Intersectable.GeoPoint gp = geometries.get(i).findClosestGeoIntersection(ray, distance);
+            if (gp != null && (closest < 0 || gp.t < distance)) {
+                closest = i;
+                distance = gp.t;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Test method for {@link geometries.BatchKernels#closestSphere}.
+     */
+    @Test
+    void testClosestSphere() {
+        Random random = new Random(1);
+        // 37 spheres, so the vector kernels also test the spheres after the last full vector
+        List<Sphere> spheres = new ArrayList<>();
+        for (int i = 0; i < 37; ++i)
+            spheres.add(new Sphere(1 + random.nextDouble() * 4,
+                    new Point(random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20)));
+        double[] data = BatchKernels.packSpheres(spheres);
+        double[] t = new double[1];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the kernels find the closest sphere like the spheres themselves
+        for (BatchKernels kernels : List.of(BatchKernels.get(), BatchKernels.scalar())) {
+            Random rays = new Random(2);
+            for (int k = 0; k < 1000; ++k) {
+                Ray ray = new Ray(new Point(0, 0, 50),
+                        new Vector(rays.nextDouble() - 0.5, rays.nextDouble() - 0.5, -1));
+                int expected = expectedClosest(spheres, ray, Double.POSITIVE_INFINITY);
+                int result = kernels.closestSphere(data, spheres.size(), 0, spheres.size(),
+                        0, 0, 50, ray.getDir().getX(), ray.getDir().getY(), ray.getDir().getZ(),
+                        Double.POSITIVE_INFINITY, t);
+                assertEquals(expected, result, "Wrong closest sphere of " + kernels.getName() + " for " + ray);
+                if (expected >= 0)
+                    assertEquals(spheres.get(expected).findClosestGeoIntersection(ray).t, t[0], 0,
+                            "Wrong distance of " + kernels.getName() + " for " + ray);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the ray starts at the center of a sphere
+        List<Sphere> centered = List.of(new Sphere(2, new Point(0, 0, 0)), new Sphere(3, new Point(0, 0, 0)));
+        for (BatchKernels kernels : List.of(BatchKernels.get(), BatchKernels.scalar())) {
+            assertEquals(0, kernels.closestSphere(BatchKernels.packSpheres(centered), 2, 0, 2,
+                    0, 0, 0, 1, 0, 0, Double.POSITIVE_INFINITY, t), "Wrong sphere from the center");
+            assertEquals(2, t[0], 0, "Wrong distance from the center");
+        }
+
+        // TC12: nothing closer than max distance
+        for (BatchKernels kernels : List.of(BatchKernels.get(), BatchKernels.scalar()))
+            assertEquals(-1, kernels.closestSphere(data, spheres.size(), 0, spheres.size(),
+                    0, 0, 50, 0, 0, -1, 1, t), "Sphere farther than max distance");
+    }
+
+    /**
+     * Test method for {@link geometries.BatchKernels#closestTriangle}.
+     */
+    @Test
+    void testClosestTriangle() {
+        Random random = new Random(3);
+        List<Triangle> triangles = new ArrayList<>();
+        for (int i = 0; i < 37; ++i) {
+            Point p = new Point(random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20);
+            triangles.add(new Triangle(p, p.add(new Vector(6, 0, 1)), p.add(new Vector(0, 6, 2))));
+        }
+        double[] data = BatchKernels.packTriangles(triangles);
+        double[] t = new double[1];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the kernels find the closest triangle like the triangles themselves
+        for (BatchKernels kernels : List.of(BatchKernels.get(), BatchKernels.scalar())) {
+            Random rays = new Random(4);
+            for (int k = 0; k < 1000; ++k) {
+                Ray ray = new Ray(new Point(0, 0, 50),
+                        new Vector(rays.nextDouble() - 0.5, rays.nextDouble() - 0.5, -1));
+                int expected = expectedClosest(triangles, ray, Double.POSITIVE_INFINITY);
+                int result = kernels.closestTriangle(data, triangles.size(), 0, triangles.size(),
+                        0, 0, 50, ray.getDir().getX(), ray.getDir().getY(), ray.getDir().getZ(),
+                        Double.POSITIVE_INFINITY, t);
+                assertEquals(expected, result, "Wrong closest triangle of " + kernels.getName() + " for " + ray);
+                if (expected >= 0)
+                    assertEquals(triangles.get(expected).findClosestGeoIntersection(ray).t, t[0], 0,
+                            "Wrong distance of " + kernels.getName() + " for " + ray);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a ray through the edge of a triangle
+        Triangle triangle = new Triangle(new Point(-1, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0));
+        for (BatchKernels kernels : List.of(BatchKernels.get(), BatchKernels.scalar()))
+            assertEquals(-1, kernels.closestTriangle(BatchKernels.packTriangles(List.of(triangle)), 1, 0, 1,
+                    0, 0, 1, 0, 0, -1, Double.POSITIVE_INFINITY, t), "Intersection on the edge");
+    }
+}
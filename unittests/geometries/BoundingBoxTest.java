@@ -0,0 +1,102 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundingBoxTest {
+    private final BoundingBox box = new BoundingBox(0, 0, 0, 2, 2, 2);
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: sphere
+        BoundingBox sphereBox = new Sphere(1, new Point(1, 2, 3)).getBoundingBox();
+        assertEquals(new Point(0, 1, 2), sphereBox.getMin(), "Wrong sphere box");
+        assertEquals(new Point(2, 3, 4), sphereBox.getMax(), "Wrong sphere box");
+
+        // TC02: polygon
+        BoundingBox polygonBox = new Polygon(new Point(0, 0, 1), new Point(1, 0, 1),
+                new Point(1, 2, 1), new Point(0, 2, 1)).getBoundingBox();
+        assertEquals(new Point(0, 0, 1), polygonBox.getMin(), "Wrong polygon box");
+        assertEquals(new Point(1, 2, 1), polygonBox.getMax(), "Wrong polygon box");
+
+        // TC03: cylinder along the z axis
+        BoundingBox cylinderBox = new Cylinder(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 3, 1)
+                .getBoundingBox();
+        assertEquals(new Point(-1, -1, 0), cylinderBox.getMin(), "Wrong cylinder box");
+        assertEquals(new Point(1, 1, 3), cylinderBox.getMax(), "Wrong cylinder box");
+
+        // TC04: geometries
+        BoundingBox geometriesBox = new Geometries(new Sphere(1, new Point(1, 2, 3)),
+                new Sphere(1, new Point(-1, 0, 0))).getBoundingBox();
+        assertEquals(new Point(-2, -1, -1), geometriesBox.getMin(), "Wrong geometries box");
+        assertEquals(new Point(2, 3, 4), geometriesBox.getMax(), "Wrong geometries box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: infinite geometries have no box
+        assertNull(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).getBoundingBox(), "Plane has a box");
+        assertNull(new Tube(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1).getBoundingBox(), "Tube has a box");
+        assertNull(new Geometries(new Sphere(1, new Point(0, 0, 0)),
+                new Plane(new Point(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox(), "Infinite geometries have a box");
+    }
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(primitives.Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point(-1, -1, -1), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Ray crossing the box");
+        // TC02: ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-1, 3, -1), new Vector(1, 0, 1)), Double.POSITIVE_INFINITY),
+                "Ray missing the box");
+        // TC03: box is behind the ray
+        assertFalse(box.intersects(new Ray(new Point(3, 3, 3), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Box behind the ray");
+        // TC04: ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point(1, 1, 1), new Vector(1, 2, 3)), Double.POSITIVE_INFINITY),
+                "Ray from inside the box");
+        // TC05: box is farther than max distance
+        assertFalse(box.intersects(new Ray(new Point(-5, 1, 1), new Vector(1, 0, 0)), 4),
+                "Box farther than max distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray parallel to an axis inside the slab
+        assertTrue(box.intersects(new Ray(new Point(-1, 1, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Axis parallel ray inside the slabs");
+        // TC12: ray parallel to an axis outside the slab
+        assertFalse(box.intersects(new Ray(new Point(-1, 3, 1), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Axis parallel ray outside the slabs");
+        // TC13: ray through a flat box
+        assertTrue(new BoundingBox(0, 0, 1, 2, 2, 1).intersects(new Ray(new Point(1, 1, 5), new Vector(0, 0, -1)),
+                Double.POSITIVE_INFINITY), "Ray through a flat box");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#useBoundingBoxes(boolean)}.
+     */
+    @Test
+    void testUseBoundingBoxes() {
+        Polygon polygon = new Polygon(new Point(0, 0, 1), new Point(1, 0, 1), new Point(1, 2, 1), new Point(0, 2, 1));
+        Ray hit = new Ray(new Point(0.5, 0.5, 3), new Vector(0, 0, -1));
+        Ray miss = new Ray(new Point(5, 5, 3), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: same intersections with and without the check
+        Intersectable.useBoundingBoxes(false);
+        assertEquals(1, polygon.findIntersections(hit).size(), "Wrong intersections without the check");
+        assertNull(polygon.findIntersections(miss), "Wrong intersections without the check");
+        Intersectable.useBoundingBoxes(true);
+        assertEquals(1, polygon.findIntersections(hit).size(), "Wrong intersections with the check");
+        assertNull(polygon.findIntersections(miss), "Wrong intersections with the check");
+    }
+}
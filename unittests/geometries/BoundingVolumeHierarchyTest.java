@@ -0,0 +1,188 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundingVolumeHierarchyTest {
+
+    /**
+     * Creates a scene of random small spheres and triangles with a plane below them
+     *
+     * @param random the random generator
+     * @param amount amount of finite geometries
+     * @return the geometries
+     */
+    private Geometries randomGeometries(Random random, int amount) {
+        Geometries geometries = new Geometries(new Plane(new Point(0, 0, -60), new Vector(0, 0, 1)));
+        for (int i = 0; i < amount; ++i) {
+            Point p = new Point(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50);
+            if (i % 2 == 0) {
+                geometries.add(new Sphere(1 + random.nextDouble() * 3, p));
+            } else {
+                geometries.add(new Triangle(p, p.add(new Vector(4, 0, 1)), p.add(new Vector(0, 4, 2))));
+            }
+        }
+        return geometries;
+    }
+
+    /**
+     * Sorts the distances of the intersection points from the ray head
+     */
+    private double[] distances(Ray ray, List<Intersectable.GeoPoint> points) {
+        return points == null ? new double[0]
+                : points.stream().mapToDouble(gp -> gp.point.distance(ray.getP0())).sorted().toArray();
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildBVH()}.
+     */
+    @Test
+    void testBuildBVH() {
+        Geometries geometries = randomGeometries(new Random(1), 200);
+        geometries.add(new Tube(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 200));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: infinite geometries are kept out of the tree
+        BoundingVolumeHierarchy bvh = geometries.buildBVH().getBVH();
+        assertEquals(200, bvh.getBoundedCount(), "Wrong amount of geometries in the tree");
+        assertEquals(2, bvh.getUnboundedCount(), "Wrong amount of infinite geometries");
+        assertTrue(bvh.getLeafCount() > 1, "The tree was not split");
+
+        // TC02: adding a geometry discards the tree
+        geometries.add(new Sphere(1, new Point(0, 0, 0)));
+        assertNull(geometries.getBVH(), "The tree was not discarded");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: empty collection
+        assertNull(new Geometries().buildBVH()
+                        .findIntersections(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0))),
+                "Empty tree has intersections");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findIntersections(primitives.Ray)} with a hierarchy.
+     */
+    @Test
+    void testFindIntersections() {
+        Random random = new Random(2);
+        Geometries linear = randomGeometries(new Random(3), 500);
+        Geometries tree = randomGeometries(new Random(3), 500).buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the hierarchy finds the same intersections as testing all the geometries,
+        // and its traversals are counted in the statistics bound to the thread
+        IntersectionStatistics statistics = new IntersectionStatistics();
+        IntersectionStatistics.startCounting();
+        IntersectionStatistics previous = statistics.bind();
+        try {
+            for (int i = 0; i < 500; ++i) {
+                Ray ray = new Ray(new Point(0, 0, 100),
+                        new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+                assertArrayEquals(distances(ray, linear.findGeoIntersections(ray)),
+                        distances(ray, tree.findGeoIntersections(ray)), 1e-9, "Wrong intersections for " + ray);
+            }
+        } finally {
+            IntersectionStatistics.unbind(previous);
+            IntersectionStatistics.stopCounting();
+        }
+        assertEquals(500, statistics.getTraversals(), "Wrong amount of rays counted");
+        assertTrue(statistics.getPrimitiveTests() < 500L * 500, "The tree did not reduce the tests");
+
+        // TC02: the traversals are not counted when no statistics are bound
+        tree.findGeoIntersections(new Ray(new Point(0, 0, 100), new Vector(0, 0, -1)));
+        assertEquals(500, statistics.getTraversals(), "A traversal was counted without statistics");
+
+        // TC03: only intersections closer than max distance
+        for (int i = 0; i < 100; ++i) {
+            Ray ray = new Ray(new Point(0, 0, 100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            assertArrayEquals(distances(ray, linear.findGeoIntersections(ray, 120)),
+                    distances(ray, tree.findGeoIntersections(ray, 120)), 1e-9, "Wrong intersections for " + ray);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestGeoIntersection(primitives.Ray, double)} with a hierarchy.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Random random = new Random(4);
+        Geometries linear = randomGeometries(new Random(5), 500);
+        Geometries tree = randomGeometries(new Random(5), 500).buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the closest intersection is the closest one of all the intersections
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(0, 0, 100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            Intersectable.GeoPoint expected = ray.findClosestGeoPoint(linear.findGeoIntersections(ray));
+            Intersectable.GeoPoint closest = linear.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint result = tree.findClosestGeoIntersection(ray);
+            assertEquals(expected.point, closest.point, "Wrong closest intersection for " + ray);
+            assertEquals(expected.point, result.point, "Wrong closest intersection in the tree for " + ray);
+            assertEquals(expected.point.distance(ray.getP0()), result.t, 1e-9, "Wrong distance for " + ray);
+        }
+
+        // TC02: nothing closer than max distance
+        Ray ray = new Ray(new Point(0, 0, 100), new Vector(0, 0, -1));
+        assertNull(tree.findClosestGeoIntersection(ray, 1), "Intersection farther than max distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersections(geometries.RayPacket)}.
+     */
+    @Test
+    void testFindClosestGeoIntersections() {
+        Random random = new Random(6);
+        Geometries linear = randomGeometries(new Random(7), 500);
+        Geometries tree = randomGeometries(new Random(7), 500).buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: packets of coherent rays find the same intersections as the rays on their own
+        // TC02: packets of rays in random directions find the same intersections as the rays on their own
+        for (int k = 0; k < 200; ++k) {
+            double x = random.nextDouble() - 0.5, y = random.nextDouble() - 0.5;
+            double spread = k % 2 == 0 ? 0.01 : 1;
+            List<Ray> rays = new ArrayList<>();
+            for (int i = 0; i < 8; ++i)
+                rays.add(new Ray(new Point(0, 0, 100), new Vector(x + (random.nextDouble() - 0.5) * spread,
+                        y + (random.nextDouble() - 0.5) * spread, -1)));
+
+            RayPacket linearPacket = new RayPacket(rays);
+            linear.findClosestGeoIntersections(linearPacket);
+            RayPacket treePacket = new RayPacket(rays);
+            tree.findClosestGeoIntersections(treePacket);
+            for (int i = 0; i < rays.size(); ++i) {
+                Ray ray = rays.get(i);
+                Intersectable.GeoPoint expected = linear.findClosestGeoIntersection(ray);
+                assertEquals(expected.point, linearPacket.getHit(i).point, "Wrong closest intersection for " + ray);
+                assertEquals(expected.point, treePacket.getHit(i).point,
+                        "Wrong closest intersection in the tree for " + ray);
+                assertEquals(expected.t, treePacket.getHit(i).t, 1e-9, "Wrong distance for " + ray);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: nothing closer than max distance
+        RayPacket packet = new RayPacket(List.of(new Ray(new Point(0, 0, 100), new Vector(0, 0, -1))), 0, 1, 1);
+        tree.findClosestGeoIntersections(packet);
+        assertNull(packet.getHit(0), "Intersection farther than max distance");
+
+        // TC12: a packet of a single ray
+        Ray ray = new Ray(new Point(0, 0, 100), new Vector(0.1, 0.1, -1));
+        packet = new RayPacket(List.of(ray));
+        tree.findClosestGeoIntersections(packet);
+        assertEquals(linear.findClosestGeoIntersection(ray).point, packet.getHit(0).point, "Wrong single ray");
+
+        // TC13: an empty packet
+        assertThrows(IllegalArgumentException.class, () -> new RayPacket(List.of()), "Empty packet");
+    }
+}
@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -45,4 +47,57 @@ class GeometriesTest {
         assertEquals(2, geometries.findIntersections(new Ray(new Point(1.0, 0.0, -1.0), new Vector(0.0, 0.0, 1.0))).size());
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(primitives.Ray, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometry glass1 = new Plane(new Point(0, 0, 1), new Vector(0, 0, 1)).setMaterial(new Material().setKt(0.5));
+        Geometry glass2 = new Plane(new Point(0, 0, 2), new Vector(0, 0, 1)).setMaterial(new Material().setKt(0.5));
+        Geometry wall = new Plane(new Point(0, 0, 3), new Vector(0, 0, 1));
+        Geometries geometries = new Geometries(glass1, glass2, wall);
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the light passes through transparent geometries
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 2.5, 0.001), "Wrong transparency");
+        // TC02: an opaque geometry blocks the light
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 5, 0.001), "Opaque geometry does not block");
+        // TC03: the light is considered blocked when the transparency is lower than min k
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 2.5, 0.3), "Low transparency is not blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no geometries on the way
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 0.5, 0.001), "Empty way is not transparent");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#add(Intersectable...)}.
+     */
+    @Test
+    void testAdd() {
+        Geometries child = new Geometries(new Sphere(1, new Point(0, 0, 0)));
+        Geometries parent = new Geometries(child, new Sphere(1, new Point(10, 0, 0)));
+        Geometries root = new Geometries(parent).buildBVH();
+        Ray ray = new Ray(new Point(-5, 20, 0), new Vector(1, 0, 0));
+        // the bounding boxes of all the collections are calculated by the first query
+        assertNull(root.findIntersections(ray), "Found a geometry before it was added");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a geometry added to a nested collection is found through the collections containing it
+        child.add(new Sphere(1, new Point(0, 20, 0)));
+        assertEquals(new Point(11, 21, 1), root.getBoundingBox().getMax(), "Stale bounding box of the root");
+        assertEquals(2, parent.findIntersections(ray).size(), "Missed the added sphere through the parent");
+        assertEquals(2, root.findIntersections(ray).size(), "Missed the added sphere through the root");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a collection added to a collection after the first query is found as well
+        Geometries added = new Geometries();
+        parent.add(added);
+        root.findIntersections(ray);
+        added.add(new Sphere(1, new Point(0, 40, 0)));
+        assertEquals(2, root.findIntersections(new Ray(new Point(-5, 40, 0), new Vector(1, 0, 0))).size(),
+                "Missed the sphere added to the new collection");
+    }
+}
@@ -0,0 +1,180 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the mesh - it must intersect like the triangles of its faces
+ */
+class MeshTest {
+    /**
+     * A square pyramid without a base - 4 faces around the apex (0,0,1)
+     */
+    private final Mesh pyramid = new Mesh(
+            List.of(new Point(0, 0, 1), new Point(1, 1, 0), new Point(-1, 1, 0), new Point(-1, -1, 0), new Point(1, -1, 0)),
+            new int[]{0, 1, 2, 0, 2, 3, 0, 3, 4, 0, 4, 1});
+
+    /**
+     * Test method for {@link geometries.Mesh#Mesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a face with a vertex which does not exist
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "Constructed a mesh with a missing vertex");
+        // TC02: coordinates of a partial vertex
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1}, new int[]{0, 1, 2}),
+                "Constructed a mesh with a partial vertex");
+
+        // TC03: the mesh keeps copies of its vertices and faces
+        double[] vertices = {0, 0, 0, 1, 0, 0, 0, 1, 0};
+        int[] faces = {0, 1, 2};
+        Mesh mesh = new Mesh(vertices, faces);
+        vertices[0] = 5;
+        faces[0] = 1;
+        assertEquals(new Point(0.25, 0.25, 0), mesh.findIntersections(new Ray(new Point(0.25, 0.25, 1),
+                new Vector(0, 0, -1))).get(0), "The mesh changed with its arrays");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no faces
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0}, new int[0]),
+                "Constructed a mesh without faces");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#Mesh(double[], int, int[], int)}.
+     */
+    @Test
+    void testConstructorOfCounts() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the first vertices and faces of longer arrays
+        double[] vertices = {0, 0, 0, 1, 0, 0, 0, 1, 0, 9, 9, 9, 0, 0};
+        int[] faces = {0, 1, 2, 0, 1, 7};
+        Mesh mesh = new Mesh(vertices, 3, faces, 1);
+        assertEquals(3, mesh.getVertexCount(), "Wrong number of vertices");
+        assertEquals(1, mesh.getFaceCount(), "Wrong number of faces");
+        vertices[0] = 5;
+        assertEquals(new Point(0.25, 0.25, 0), mesh.findIntersections(new Ray(new Point(0.25, 0.25, 1),
+                new Vector(0, 0, -1))).get(0), "The mesh changed with its arrays");
+
+        // TC02: a face of the counted faces with a vertex which is not counted
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(vertices, 3, faces, 2),
+                "Constructed a mesh with a vertex which is not counted");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: more vertices or faces than the arrays hold
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(vertices, 5, faces, 1),
+                "Constructed a mesh with more vertices than the array");
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(vertices, 3, faces, 3),
+                "Constructed a mesh with more faces than the array");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findGeoIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the ray enters the pyramid through one face and leaves through the opposite one
+        List<Point> result = pyramid.findIntersections(new Ray(new Point(-2, 0, 0.25), new Vector(1, 0, 0)));
+        assertEquals(2, result.size(), "Wrong number of points");
+        assertTrue(result.contains(new Point(-0.75, 0, 0.25)) && result.contains(new Point(0.75, 0, 0.25)),
+                "Wrong points");
+
+        // TC02: the ray misses the pyramid
+        assertNull(pyramid.findIntersections(new Ray(new Point(-2, 0, 2), new Vector(1, 0, 0))), "Ray misses the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the ray passes through an edge between two faces
+        assertNull(pyramid.findIntersections(new Ray(new Point(0.5, 0.5, 2), new Vector(0, 0, -1))),
+                "Ray through an edge");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        // 500 random triangles, in a mesh and as triangles
+        Random random = new Random(5);
+        List<Point> vertices = new ArrayList<>();
+        List<Triangle> triangles = new ArrayList<>();
+        int[] faces = new int[3 * 500];
+        for (int i = 0; i < 500; ++i) {
+            Point p = new Point(random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20);
+            Point p2 = p.add(new Vector(3, 0, 1)), p3 = p.add(new Vector(0, 3, 2));
+            vertices.addAll(List.of(p, p2, p3));
+            triangles.add(new Triangle(p, p2, p3));
+            faces[3 * i] = 3 * i;
+            faces[3 * i + 1] = 3 * i + 1;
+            faces[3 * i + 2] = 3 * i + 2;
+        }
+        Mesh mesh = new Mesh(vertices, faces);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the mesh finds the closest intersection of the triangles
+        for (int k = 0; k < 1000; ++k) {
+            Ray ray = new Ray(new Point(0, 0, 50), new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            Intersectable.GeoPoint expected = null;
+            for (Triangle triangle : triangles) {
+                Intersectable.GeoPoint gp = triangle.findClosestGeoIntersection(ray);
+                if (gp != null && (expected == null || gp.t < expected.t))
+                    expected = gp;
+            }
+            Intersectable.GeoPoint result = mesh.findClosestGeoIntersection(ray);
+            if (expected == null) {
+                assertNull(result, "Mesh intersected where the triangles are not for " + ray);
+            } else {
+                assertNotNull(result, "Mesh not intersected where a triangle is for " + ray);
+                assertEquals(expected.t, result.t, 1e-9, "Wrong distance for " + ray);
+                assertEquals(((Triangle) expected.geometry).getNormal(expected.point), mesh.getNormal(result),
+                        "Wrong normal for " + ray);
+                assertEquals(((Triangle) expected.geometry).getNormal(expected.point), mesh.getNormal(result.point),
+                        "Wrong normal of the point for " + ray);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the intersection is farther than max distance
+        assertNull(pyramid.findClosestGeoIntersection(new Ray(new Point(-2, 0, 0.25), new Vector(1, 0, 0)), 1),
+                "Intersection farther than max distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#getNormal(Intersectable.GeoPoint)}.
+     */
+    @Test
+    void testGetNormal() {
+        Ray ray = new Ray(new Point(0.5, 0, 2), new Vector(0, 0, -1));
+        Vector flat = new Vector(1, 0, 1).normalize();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the normal of the face
+        Intersectable.GeoPoint gp = pyramid.findClosestGeoIntersection(ray);
+        assertEquals(flat, pyramid.getNormal(gp), "Wrong normal of the face");
+        assertEquals(flat, pyramid.getNormal(gp.point), "Wrong normal of a point");
+
+        // TC02: the smooth normal leans towards the normals of the faces around the vertices
+        pyramid.useSmoothNormals(true);
+        Vector smooth = pyramid.getNormal(gp);
+        assertEquals(1, smooth.length(), 1e-10, "Smooth normal is not normalized");
+        assertTrue(smooth.dotProduct(new Vector(0, 0, 1)) > flat.dotProduct(new Vector(0, 0, 1)),
+                "Smooth normal does not lean towards the apex normal");
+        pyramid.useSmoothNormals(false);
+        assertEquals(flat, pyramid.getNormal(gp), "Smooth normals not turned off");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a point which is not on the mesh
+        assertThrows(IllegalArgumentException.class, () -> pyramid.getNormal(new Point(0, 0, 5)),
+                "Normal of a point not on the mesh");
+    }
+}
@@ -117,4 +117,38 @@ class SphereTest {
         assertNull(sphere.findIntersections(new Ray(new Point(-1, 0, 0), new Vector(0, 0, 1))),
                 "Ray orthogonal to ray head -> O line");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Sphere sphere = new Sphere(1d, new Point(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the sphere, the closer point is returned with its distance
+        Intersectable.GeoPoint gp = sphere.findClosestGeoIntersection(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)));
+        assertEquals(new Point(0, 0, 0), gp.point, "Wrong closest point");
+        assertEquals(1, gp.t, 1e-10, "Wrong distance");
+        assertEquals(sphere, gp.geometry, "Wrong geometry");
+        // TC02: Ray starts inside the sphere
+        gp = sphere.findClosestGeoIntersection(new Ray(new Point(0.5, 0, 0), new Vector(1, 0, 0)));
+        assertEquals(new Point(2, 0, 0), gp.point, "Wrong closest point from inside");
+        assertEquals(1.5, gp.t, 1e-10, "Wrong distance from inside");
+        // TC03: Ray misses the sphere
+        assertNull(sphere.findClosestGeoIntersection(new Ray(new Point(-1, 2, 0), new Vector(1, 0, 0))),
+                "Ray outside sphere");
+        // TC04: The sphere is farther than max distance
+        assertNull(sphere.findClosestGeoIntersection(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 0.5),
+                "Sphere farther than max distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray starts at the center
+        gp = sphere.findClosestGeoIntersection(new Ray(new Point(1, 0, 0), new Vector(0, 1, 0)));
+        assertEquals(new Point(1, 1, 0), gp.point, "Ray from O");
+        assertEquals(1, gp.t, 1e-10, "Wrong distance from O");
+        // TC12: Ray starts at the sphere and goes outside
+        assertNull(sphere.findClosestGeoIntersection(new Ray(new Point(1, 1, 0), new Vector(0, 1, 0))),
+                "Ray from sphere outside");
+    }
+}
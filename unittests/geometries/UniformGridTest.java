@@ -0,0 +1,134 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniformGridTest {
+
+    /**
+     * Creates random small spheres and triangles, and a plane below them
+     *
+     * @param random the random generator
+     * @param amount amount of finite geometries
+     * @return the geometries
+     */
+    private List<Intersectable> randomGeometries(Random random, int amount) {
+        List<Intersectable> geometries = new ArrayList<>();
+        geometries.add(new Plane(new Point(0, 0, -60), new Vector(0, 0, 1)));
+        for (int i = 0; i < amount; ++i) {
+            Point p = new Point(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50);
+            if (i % 2 == 0) {
+                geometries.add(new Sphere(1 + random.nextDouble() * 6, p));
+            } else {
+                geometries.add(new Triangle(p, p.add(new Vector(8, 0, 1)), p.add(new Vector(0, 8, 2))));
+            }
+        }
+        return geometries;
+    }
+
+    /**
+     * Sorts the distances of the intersection points from the ray head
+     */
+    private double[] distances(Ray ray, List<GeoPoint> points) {
+        return points == null ? new double[0]
+                : points.stream().mapToDouble(gp -> gp.point.distance(ray.getP0())).sorted().toArray();
+    }
+
+    /**
+     * Test method for {@link geometries.UniformGrid#UniformGrid(java.util.List)}.
+     */
+    @Test
+    void testUniformGrid() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: resolution grows with the amount of geometries
+        int[] small = new UniformGrid(randomGeometries(new Random(1), 10)).getResolution();
+        int[] large = new UniformGrid(randomGeometries(new Random(1), 10000)).getResolution();
+        assertTrue(small[0] * small[1] * small[2] < large[0] * large[1] * large[2], "Resolution did not grow");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: empty grid
+        assertNull(new UniformGrid().findIntersections(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0))),
+                "Empty grid has intersections");
+        // TC12: flat grid of a single polygon
+        UniformGrid flat = new UniformGrid(new Polygon(new Point(0, 0, 1), new Point(1, 0, 1),
+                new Point(1, 2, 1), new Point(0, 2, 1)));
+        assertEquals(1, flat.findIntersections(new Ray(new Point(0.5, 0.5, 3), new Vector(0, 0, -1))).size(),
+                "Wrong intersections with a flat grid");
+        // TC13: coplanar quads get a single layer of about the cells of a grid of their amount
+        List<Intersectable> quads = new ArrayList<>();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                quads.add(new Polygon(new Point(10 * i, 10 * j, 0), new Point(10 * i + 10, 10 * j, 0),
+                        new Point(10 * i + 10, 10 * j + 10, 0), new Point(10 * i, 10 * j + 10, 0)));
+        int[] planar = new UniformGrid(quads).getResolution();
+        assertEquals(1, planar[2], "A flat axis has more than one cell");
+        assertTrue(planar[0] * planar[1] <= 2 * 4 * quads.size(), "Too many cells for coplanar geometries");
+        assertEquals(1, new UniformGrid(quads).findIntersections(new Ray(new Point(55, 45, 5), new Vector(0, 0, -1)))
+                .size(), "Wrong intersections with coplanar geometries");
+    }
+
+    /**
+     * Test method for {@link geometries.UniformGrid#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Random random = new Random(2);
+        Geometries linear = new Geometries(randomGeometries(new Random(3), 500).toArray(new Intersectable[0]));
+        UniformGrid grid = new UniformGrid(randomGeometries(new Random(3), 500));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the grid finds the same intersections as testing all the geometries, each of them once
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(0, 0, 100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            assertArrayEquals(distances(ray, linear.findGeoIntersections(ray)),
+                    distances(ray, grid.findGeoIntersections(ray)), 1e-9, "Wrong intersections for " + ray);
+        }
+
+        // TC02: ray starting inside the grid, within max distance
+        for (int i = 0; i < 100; ++i) {
+            Ray ray = new Ray(new Point(0, 0, 0),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, random.nextDouble() - 0.5));
+            assertArrayEquals(distances(ray, linear.findGeoIntersections(ray, 40)),
+                    distances(ray, grid.findGeoIntersections(ray, 40)), 1e-9, "Wrong intersections for " + ray);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.UniformGrid#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Random random = new Random(4);
+        Geometries linear = new Geometries(randomGeometries(new Random(5), 500).toArray(new Intersectable[0]));
+        UniformGrid grid = new UniformGrid(randomGeometries(new Random(5), 500));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the grid finds the same closest intersection as testing all the geometries
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(0, 0, 100),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -1));
+            GeoPoint expected = ray.findClosestGeoPoint(linear.findGeoIntersections(ray));
+            GeoPoint result = grid.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+            if (expected == null) {
+                assertNull(result, "Wrong closest intersection for " + ray);
+            } else {
+                assertEquals(expected.point, result.point, "Wrong closest intersection for " + ray);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray missing everything
+        assertNull(grid.findClosestGeoIntersection(new Ray(new Point(0, 0, 100), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY), "Ray away from the grid has an intersection");
+    }
+}
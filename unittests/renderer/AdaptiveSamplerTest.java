@@ -0,0 +1,75 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the adaptive sampler
+ */
+class AdaptiveSamplerTest {
+    /**
+     * A ray tracer of a white half plane (right of x = 0.1 on the view plane) over a black background,
+     * counting the traced rays
+     */
+    private static class EdgeRayTracer extends RayTracerBase {
+        private int rays = 0;
+
+        EdgeRayTracer() {
+            super(new Scene("Edge scene"));
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            ++rays;
+            Vector direction = ray.getDir();
+            //the view plane is at distance 1, so the direction is scaled to the plane
+            return direction.getX() / -direction.getZ() > 0.1 ? new Color(255, 255, 255) : Color.BLACK;
+        }
+
+        @Override
+        public Color traceRays(List<Ray> rays) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.AdaptiveSampler#sample(int, int)}.
+     */
+    @Test
+    void testSample() {
+        //pixels of 0.5 x 0.5 from the left top corner (-1, 1) of the view plane at distance 1
+        EdgeRayTracer rayTracer = new EdgeRayTracer();
+        AdaptiveSampler sampler = new AdaptiveSampler(rayTracer, Point.ZERO, new Point(-1, 1, -1),
+                new Vector(0.5, 0, 0), new Vector(0, -0.5, 0), 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a uniform pixel is sampled at its corners and its center only
+        assertEquals(Color.BLACK.toString(), sampler.sample(0, 0).toString(), "Wrong color of a uniform pixel");
+        assertEquals(5, rayTracer.rays, "Wrong amount of rays of a uniform pixel");
+
+        // TC02: the next pixel reuses the two corners it shares with the previous pixel
+        sampler.sample(1, 0);
+        assertEquals(8, rayTracer.rays, "The shared corners were traced again");
+        assertEquals(10, sampler.getNeededSamples(), "Wrong amount of needed samples");
+        assertEquals(8, sampler.getTracedSamples(), "Wrong amount of traced samples");
+
+        // TC03: a pixel on an edge is refined, and its color is close to the white part of its area (0.8)
+        Color edge = sampler.sample(2, 0);
+        assertTrue(rayTracer.rays - 8 > 5, "A pixel on an edge was not refined");
+        assertEquals(0.8 * 255, edge.getRgb().getD1(), 0.1 * 255, "Wrong color of a pixel on an edge");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a pixel sampled again is taken from the cache
+        int rays = rayTracer.rays;
+        assertEquals(edge.toString(), sampler.sample(2, 0).toString(), "Wrong color of a pixel sampled again");
+        assertEquals(rays, rayTracer.rays, "A pixel sampled again was traced again");
+    }
+}
@@ -57,4 +57,33 @@ class CameraTest {
 
 }
 
+	/**
+	 * Test method for
+	 * {@link renderer.Camera#getView(int, int)}.
+	 */
+	@Test
+	void testGetView() {
+		Camera camera = new Camera(new Point(1, 2, 3), new Vector(0, 0, -1), new Vector(0, 1, 0))
+				.setViewPlaneDistance(10).setViewPlaneSize(7, 5).setNumOfAARays(3);
+
+		// ============ Equivalence Partitions Tests ==============
+		// EP01: the rays of the view are exactly the rays of the camera, also for a resolution which is not square
+		CameraView view = camera.getView(7, 5);
+		for (int i = 0; i < 5; ++i)
+			for (int j = 0; j < 7; ++j)
+				assertEquals(camera.constructRay(7, 5, j, i).toString(), view.constructRay(j, i).toString(),
+						"Bad ray of pixel " + j + "," + i);
+
+		// EP02: the ray of a cell of the anti-aliasing grid goes through the center of the cell
+		assertEquals(new Ray(new Point(1, 2, 3), new Vector(-3.5 + 1 / 6d, 2.5 - 1 / 6d, -10)),
+				view.constructRay(0, 0, 0, 0), "Bad ray of a cell");
+		assertEquals(new Ray(new Point(1, 2, 3), new Vector(-3.5 + 5 / 6d, 2.5 - 5 / 6d, -10)),
+				view.constructRay(0, 0, 2, 2), "Bad ray of a cell");
+
+		// =============== Boundary Values Tests ==================
+		// BV01: an offset of half a cell moves the ray to the corner of the cell
+		assertEquals(new Ray(new Point(1, 2, 3), new Vector(-3.5, 2.5, -10)),
+				view.constructRay(0, 0, 0, 0, -0.5, -0.5), "Bad ray of the corner of a cell");
+	}
+
 }
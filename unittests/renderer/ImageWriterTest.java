@@ -1,8 +1,18 @@
 package renderer;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import primitives.Color;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ImageWriterTest {
@@ -34,4 +44,63 @@ class ImageWriterTest {
         }
         imageWriter.writeToImage();
     }
+
+    @TempDir
+    Path folder;
+
+    /**
+     * Test method for {@link ImageWriter#writePixel(int, int, Color)} with a frame buffer in a mapped file.
+     */
+    @Test
+    void testMappedFrameBuffer() throws IOException {
+        Path file = folder.resolve("frame.raw");
+        ImageWriter imageWriter = new ImageWriter("mappedFrameBuffer", 30, 20, file.toString());
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: colors brighter than 255 are kept, and written to the file as little endian floats
+        imageWriter.writePixel(4, 3, new Color(600, 127.5, 0.25));
+        assertEquals(new Color(600, 127.5, 0.25).toString(), imageWriter.getPixel(4, 3).toString(),
+                "Wrong HDR color");
+        imageWriter.writeToImage();
+        ByteBuffer pixels = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(30 * 20 * 3 * Float.BYTES, pixels.capacity(), "Wrong size of the frame buffer");
+        assertEquals(600, pixels.getFloat((3 * 30 + 4) * 3 * Float.BYTES), "Wrong pixel in the file");
+
+        // TC02: a frame buffer is read with the pixels in its file
+        assertEquals(new Color(600, 127.5, 0.25).toString(),
+                new ImageWriter("mappedFrameBuffer", 30, 20, file.toString()).getPixel(4, 3).toString(),
+                "Wrong pixel read from the file");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a component just below an integer is cut like the double color
+        imageWriter.writePixel(5, 3, new Color(127.999999999, 0, 0));
+        imageWriter.writeToImage();
+        BufferedImage image = ImageIO.read(Path.of(System.getProperty("user.dir"), "images", "mappedFrameBuffer.png").toFile());
+        assertEquals(new java.awt.Color(255, 127, 0).getRGB(), image.getRGB(4, 3), "Wrong png pixel");
+        assertEquals(new java.awt.Color(127, 0, 0).getRGB(), image.getRGB(5, 3), "Wrong cut of a component");
+    }
+
+    /**
+     * Test method for {@link ImageWriter#writeToHdrImage()}.
+     */
+    @Test
+    void testWriteToHdrImage() throws IOException {
+        ImageWriter imageWriter = new ImageWriter("hdrImage", 3, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the rows are written from the bottom, and 255 is written as 1
+        imageWriter.writePixel(0, 0, new Color(510, 255, 0));
+        imageWriter.writeToHdrImage();
+        byte[] bytes = Files.readAllBytes(Path.of(System.getProperty("user.dir"), "images", "hdrImage.pfm"));
+        byte[] header = "PF\n3 2\n-1.0\n".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(new String(header, StandardCharsets.US_ASCII),
+                new String(bytes, 0, header.length, StandardCharsets.US_ASCII), "Wrong header");
+        ByteBuffer pixels = ByteBuffer.wrap(bytes, header.length, bytes.length - header.length)
+                .slice().order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(2 * 3 * 3 * Float.BYTES, pixels.remaining(), "Wrong size");
+        // the top left pixel is the first pixel of the second row of the file
+        assertEquals(2, pixels.getFloat(3 * 3 * Float.BYTES), "Wrong red component");
+        assertEquals(1, pixels.getFloat(3 * 3 * Float.BYTES + Float.BYTES), "Wrong green component");
+        assertEquals(0, pixels.getFloat(0), "Wrong black pixel");
+    }
 }
\ No newline at end of file
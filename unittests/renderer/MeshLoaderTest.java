@@ -0,0 +1,149 @@
+package renderer;
+
+import geometries.Intersectable;
+import geometries.Mesh;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the loading of meshes from OBJ and PLY files
+ */
+class MeshLoaderTest {
+    @TempDir
+    Path folder;
+
+    /**
+     * Checks that a mesh is the unit square in the plane z=0, split into two triangles
+     */
+    private void assertUnitSquare(Mesh mesh) {
+        assertEquals(4, mesh.getVertexCount(), "Wrong number of vertices");
+        assertEquals(2, mesh.getFaceCount(), "Wrong number of triangles");
+        assertEquals(new Point(0.25, 0.75, 0),
+                mesh.findClosestGeoIntersection(new Ray(new Point(0.25, 0.75, 1), new Vector(0, 0, -1))).point,
+                "Wrong intersection");
+        assertNull(mesh.findClosestGeoIntersection(new Ray(new Point(1.5, 0.5, 1), new Vector(0, 0, -1))),
+                "Intersection out of the square");
+    }
+
+    /**
+     * Test method for {@link renderer.MeshLoader#loadObj(String)}.
+     */
+    @Test
+    void testLoadObj() throws IOException {
+        MeshLoader loader = new MeshLoader();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a quad of vertices with texture coordinates and normals, and comments and other lines
+        Path file = folder.resolve("square.obj");
+        Files.writeString(file, """
+                # unit square
+                o square
+                v 0 0 0
+                v 1.0 0 0
+                v 1 1e0 0
+                v 0.0 1 0.0
+                vt 0 0
+                vn 0 0 1
+                f 1/1/1 2/1/1 3/1/1 4/1/1
+                """);
+        Mesh mesh = loader.load(file.toString());
+        assertUnitSquare(mesh);
+        assertEquals(2, loader.getFaceCount(), "Wrong number of loaded triangles");
+        assertTrue(loader.getTrianglesPerSecond() > 0, "No throughput");
+
+        // TC02: triangles with negative indices, and windows line ends
+        file = folder.resolve("negative.obj");
+        Files.writeString(file, "v 0 0 0\r\nv 1 0 0\r\nv 1 1 0\r\nv 0 1 0\r\nf -4 -3 -2\r\nf 1 3 4\r\n");
+        assertUnitSquare(loader.load(file.toString()));
+
+        // TC03: normals of the faces, and a vertex of no face after them
+        file = folder.resolve("normals.obj");
+        Files.writeString(file, "v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\nvn 1 0 1\nf 1//1 2//1 3//1 4//1\nv 5 5 5\n");
+        mesh = loader.load(file.toString());
+        assertEquals(5, mesh.getVertexCount(), "Wrong number of vertices");
+        Intersectable.GeoPoint gp = mesh.findClosestGeoIntersection(new Ray(new Point(0.25, 0.75, 1), new Vector(0, 0, -1)));
+        assertEquals(1, mesh.getNormal(gp).dotProduct(new Vector(1, 0, 1).normalize()), 1e-10,
+                "The normals of the file were not used");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a face with a vertex which was not defined
+        Path missing = folder.resolve("missing.obj");
+        Files.writeString(missing, "v 0 0 0\nv 1 0 0\nv 1 1 0\nf 1 2 4\n");
+        assertThrows(IllegalArgumentException.class, () -> loader.load(missing.toString()), "Loaded a missing vertex");
+
+        // TC12: a sign, a point or an exponent without digits instead of a coordinate
+        for (String number : new String[]{"-", "+", ".", "-.", "1e", "1e-"}) {
+            Path bad = folder.resolve("bad.obj");
+            Files.writeString(bad, "v 0 0 0\nv 1 0 " + number + "\nv 1 1 0\nf 1 2 3\n");
+            assertThrows(IllegalArgumentException.class, () -> loader.load(bad.toString()), "Loaded the number " + number);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.MeshLoader#loadPly(String)}.
+     */
+    @Test
+    void testLoadPly() throws IOException {
+        MeshLoader loader = new MeshLoader();
+        String header = """
+                ply
+                format %s 1.0
+                comment unit square
+                element vertex 4
+                property float x
+                property float y
+                property float z
+                property uchar red
+                element face 1
+                property list uchar int vertex_indices
+                end_header
+                """;
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: binary little endian file with a quad and a property which is not read
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            byte[] text = header.formatted(order == ByteOrder.LITTLE_ENDIAN ? "binary_little_endian" : "binary_big_endian")
+                    .getBytes(StandardCharsets.US_ASCII);
+            ByteBuffer body = ByteBuffer.allocate(text.length + 4 * 13 + 1 + 16).order(order);
+            body.put(text);
+            float[][] vertices = {{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {0, 1, 0}};
+            for (float[] vertex : vertices) {
+                for (float coordinate : vertex)
+                    body.putFloat(coordinate);
+                body.put((byte) 255);
+            }
+            body.put((byte) 4).putInt(0).putInt(1).putInt(2).putInt(3);
+            Path file = folder.resolve("square_" + order + ".ply");
+            Files.write(file, body.array());
+            assertUnitSquare(loader.load(file.toString()));
+        }
+
+        // TC02: ascii file
+        Path file = folder.resolve("ascii.ply");
+        Files.writeString(file, header.formatted("ascii") + "0 0 0 1\n1 0 0 1\n1 1 0 1\n0 1 0 1\n4 0 1 2 3\n");
+        assertUnitSquare(loader.load(file.toString()));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: the file ends before all the vertices
+        Path cut = folder.resolve("cut.ply");
+        Files.writeString(cut, header.formatted("binary_little_endian") + "abc");
+        assertThrows(IllegalArgumentException.class, () -> loader.load(cut.toString()), "Loaded a cut file");
+
+        // TC12: a file which is not a PLY file
+        Path other = folder.resolve("other.ply");
+        Files.writeString(other, "solid square\n");
+        assertThrows(IllegalArgumentException.class, () -> loader.load(other.toString()), "Loaded a file of another format");
+    }
+}
@@ -0,0 +1,213 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.MissingResourceException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the tile scheduler, the fork/join render and the progress and the failures of the multi-threaded render
+ */
+public class MultithreadingTests {
+
+    /**
+     * Test method for {@link renderer.TileScheduler#nextTile()}.
+     */
+    @Test
+    void testNextTile() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every order hands out every tile exactly once, and the tiles cover the image
+        for (TileOrder order : TileOrder.values()) {
+            TileScheduler scheduler = new TileScheduler(100, 70, 16, order);
+            boolean[] covered = new boolean[100 * 70];
+            int count = 0;
+            long pixels = 0;
+            for (int tile = scheduler.nextTile(); tile >= 0; tile = scheduler.nextTile()) {
+                ++count;
+                for (int row = scheduler.firstRow(tile); row < scheduler.endRow(tile); ++row)
+                    for (int col = scheduler.firstCol(tile); col < scheduler.endCol(tile); ++col) {
+                        assertFalse(covered[row * 100 + col], "Pixel rendered twice in " + order);
+                        covered[row * 100 + col] = true;
+                    }
+                pixels += scheduler.pixelCount(tile);
+            }
+            assertEquals(7 * 5, count, "Wrong amount of tiles in " + order);
+            assertEquals(100 * 70, pixels, "Wrong amount of pixels in " + order);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a single tile bigger than the image
+        TileScheduler scheduler = new TileScheduler(10, 10, 16, TileOrder.HILBERT);
+        assertEquals(0, scheduler.nextTile(), "Wrong single tile");
+        assertEquals(-1, scheduler.nextTile(), "More than one tile");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setProgressListener(renderer.ProgressListener)}.
+     */
+    @Test
+    void testProgressListener() {
+        Scene scene = new Scene("Progress scene");
+        scene.geometries.add(new Sphere(50, new Point(0, 0, -100)).setEmission(new Color(0, 0, 255)));
+        List<Double> reports = new ArrayList<>();
+        Camera camera = new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setViewPlaneDistance(100)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(new ImageWriter("progressRender", 100, 100))
+                .setMultithreading(2).setProgressInterval(0.001)
+                .setProgressListener((percent, pixelsPerSecond, eta) -> {
+                    assertTrue(pixelsPerSecond >= 0, "Negative speed");
+                    assertTrue(eta >= 0, "Negative ETA");
+                    reports.add(percent);
+                });
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the progress grows up to 100%
+        camera.renderImage();
+        assertFalse(reports.isEmpty(), "No progress reported");
+        assertEquals(100, reports.get(reports.size() - 1), 1e-10, "Render did not end at 100%");
+        for (int i = 1; i < reports.size(); ++i)
+            assertTrue(reports.get(i - 1) < reports.get(i), "Progress went back");
+
+        // TC02: the same for the virtual threads render
+        reports.clear();
+        camera.useVirtualThreads(true).renderImage();
+        assertEquals(100, reports.get(reports.size() - 1), 1e-10, "Render did not end at 100%");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no reports without a listener
+        reports.clear();
+        camera.setProgressInterval(0).renderImage();
+        assertTrue(reports.isEmpty(), "Progress reported without an interval");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImageAsync(java.util.concurrent.ForkJoinPool)}.
+     */
+    @Test
+    void testRenderImageAsync() throws Exception {
+        Scene scene = new Scene("Async scene");
+        scene.geometries.add(new Sphere(50, new Point(0, 0, -100)).setEmission(new Color(0, 0, 255)));
+        ImageWriter imageWriter = new ImageWriter("asyncRender", 200, 200);
+        Camera camera = new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setViewPlaneDistance(100)
+                .setRayTracer(new RayTracerBasic(scene)).setImageWriter(imageWriter);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the future completes with the image writer
+        ForkJoinPool pool = new ForkJoinPool(2);
+        assertSame(imageWriter, camera.renderImageAsync(pool).get(), "Wrong image writer");
+        camera.writeToImage();
+
+        // TC02: a progressive render with statistics in the background has the pixels of the same render
+        // on the calling thread, even while the camera is changed and renders another image
+        ImageWriter expected = new ImageWriter("asyncExpected", 40, 30);
+        camera.setImageWriter(expected).useAntiAliasing(true).setNumOfAARays(2).useProgressive(true).renderImage();
+        ImageWriter background = new ImageWriter("asyncProgressive", 40, 30);
+        AtomicInteger passes = new AtomicInteger();
+        CompletableFuture<ImageWriter> progressive = camera.setImageWriter(background).useStatistics(true)
+                .setPassListener((pass, samples, writer) -> passes.incrementAndGet() > 0).renderImageAsync(pool);
+        camera.setImageWriter(new ImageWriter("asyncOther", 20, 20)).useAntiAliasing(false).useProgressive(false)
+                .useStatistics(false).setPassListener(null).renderImage();
+        assertSame(background, progressive.get(10, TimeUnit.SECONDS), "Wrong image writer");
+        for (int i = 0; i < 30; ++i)
+            for (int j = 0; j < 40; ++j)
+                assertEquals(expected.getPixel(j, i).toString(), background.getPixel(j, i).toString(),
+                        "Wrong pixel of the render in the background " + j + "," + i);
+        assertTrue(passes.get() > 1, "The render in the background was not progressive");
+        assertEquals(40 * 30 * (2 * 2 + 1), camera.getRenderStatistics().getRays(RenderStatistics.RayKind.PRIMARY),
+                "Wrong amount of primary rays in the statistics of the render in the background");
+        camera.setImageWriter(imageWriter);
+
+        // TC03: a cancelled render does not complete
+        CompletableFuture<ImageWriter> future = camera.renderImageAsync(pool);
+        future.cancel(true);
+        assertTrue(future.isCancelled(), "Render was not cancelled");
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS), "Cancelled render did not stop");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: missing ray tracer
+        assertThrows(MissingResourceException.class,
+                () -> new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setImageWriter(imageWriter).renderImageAsync(),
+                "Render without a ray tracer");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#useVirtualThreads(boolean)}.
+     */
+    @Test
+    void testVirtualThreads() throws Exception {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: several renders on virtual threads at the same time
+        CompletableFuture<?>[] renders = new CompletableFuture<?>[4];
+        ExecutorService callers = Executors.newFixedThreadPool(renders.length);
+        for (int i = 0; i < renders.length; ++i) {
+            Scene scene = new Scene("Thumbnail " + i);
+            scene.geometries.add(new Sphere(50, new Point(0, 0, -100)).setEmission(new Color(60 * i, 0, 255)));
+            Camera camera = new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setViewPlaneSize(200, 200).setViewPlaneDistance(100)
+                    .setRayTracer(new RayTracerBasic(scene))
+                    .setImageWriter(new ImageWriter("virtualThreads" + i, 100, 100))
+                    .setMultithreading(2).setTileSize(8).useVirtualThreads(true);
+            renders[i] = CompletableFuture.runAsync(() -> camera.renderImage().writeToImage(), callers);
+        }
+        CompletableFuture.allOf(renders).get(30, TimeUnit.SECONDS);
+        callers.shutdown();
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage()} with multithreading, when the render fails.
+     */
+    @Test
+    void testRenderFailure() {
+        Scene scene = new Scene("Failure scene");
+        scene.geometries.add(new Sphere(50, new Point(0, 0, -100)).setEmission(new Color(0, 0, 255)));
+        //the tracer fails on the rays through the bottom right corner of the image
+        RayTracerBase failing = new RayTracerBasic(scene) {
+            @Override
+            public Color traceRay(Ray ray) {
+                if (ray.getDir().getX() > 0.9 && ray.getDir().getY() < -0.3)
+                    throw new UnsupportedOperationException("Failing pixel");
+                return super.traceRay(ray);
+            }
+        };
+        Camera camera = new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setViewPlaneDistance(10)
+                .setRayTracer(failing)
+                .setImageWriter(new ImageWriter("failureRender", 50, 50))
+                .setMultithreading(2).setTileSize(8).setProgressListener(null);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the failure of a render thread is rethrown
+        assertThrows(UnsupportedOperationException.class, camera::renderImage, "The failure was not rethrown");
+
+        // TC02: the failure of a tile on a virtual thread is rethrown
+        assertThrows(UnsupportedOperationException.class, camera.useVirtualThreads(true)::renderImage,
+                "The failure of a virtual thread was not rethrown");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: an interrupted render is aborted, and the interrupt flag is kept
+        camera.setRayTracer(new RayTracerBasic(scene));
+        for (boolean virtual : new boolean[]{false, true}) {
+            camera.useVirtualThreads(virtual);
+            Thread.currentThread().interrupt();
+            assertThrows(CancellationException.class, camera::renderImage, "The interrupted render was not aborted");
+            assertTrue(Thread.interrupted(), "The interrupt flag was cleared");
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the progressive render
+ */
+class ProgressiveRenderTest {
+    /**
+     * @return a camera of a lit sphere, with anti-aliasing of a grid of 4x4
+     */
+    private Camera createCamera(String imageName) {
+        Scene scene = new Scene("Progressive scene").setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)));
+        scene.geometries.add(new Sphere(50, new Point(0, 0, -100)).setEmission(new Color(0, 0, 100))
+                .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, 50, 50)).setKl(0.00001));
+        return new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setViewPlaneDistance(100)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(new ImageWriter(imageName, 40, 40))
+                .useAntiAliasing(true).setNumOfAARays(4);
+    }
+
+    /**
+     * Test method for {@link renderer.ProgressivePasses#stratifiedOrder(int)}.
+     */
+    @Test
+    void testStratifiedOrder() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every cell is in the order once, and the first 4 cells are in different quadrants
+        for (int gridSize : new int[]{4, 9, 10}) {
+            int[] order = ProgressivePasses.stratifiedOrder(gridSize);
+            int[] sorted = order.clone();
+            Arrays.sort(sorted);
+            for (int cell = 0; cell < gridSize * gridSize; ++cell)
+                assertEquals(cell, sorted[cell], "Wrong cells of a grid of " + gridSize);
+            int half = (gridSize + 1) / 2;
+            boolean[] quadrants = new boolean[4];
+            for (int k = 0; k < 4; ++k) {
+                int quadrant = 2 * (order[k] / gridSize >= half ? 1 : 0) + (order[k] % gridSize >= half ? 1 : 0);
+                assertFalse(quadrants[quadrant], "Two of the first cells in a quadrant of a grid of " + gridSize);
+                quadrants[quadrant] = true;
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a grid of a single cell
+        assertArrayEquals(new int[]{0}, ProgressivePasses.stratifiedOrder(1), "Wrong order of a single cell");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#useProgressive(boolean)}.
+     */
+    @Test
+    void testProgressiveRender() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the samples double every pass, and the last pass is the anti-aliased image
+        List<Integer> samples = new ArrayList<>();
+        Camera camera = createCamera("progressiveRender").useProgressive(true)
+                .setPassListener((pass, count, image) -> {
+                    assertEquals(samples.size(), pass, "Wrong number of pass");
+                    samples.add(count);
+                    return true;
+                });
+        camera.renderImage();
+        assertEquals(List.of(1, 2, 4, 8, 16, 17), samples, "Wrong samples of the passes");
+
+        ImageWriter expected = new ImageWriter("antiAliasingRender", 40, 40);
+        createCamera("antiAliasingRender").setImageWriter(expected).renderImage();
+        ImageWriter actual = new ImageWriter("progressiveRender", 40, 40);
+        camera.setImageWriter(actual).setPassListener(null).setMultithreading(2).setProgressListener(null).renderImage();
+        for (int i = 0; i < 40; ++i)
+            for (int j = 0; j < 40; ++j) {
+                Double3 e = expected.getPixel(j, i).getRgb();
+                Double3 a = actual.getPixel(j, i).getRgb();
+                assertEquals(e.getD1(), a.getD1(), 0.001 * (1 + e.getD1()), "Wrong red of pixel " + j + "," + i);
+                assertEquals(e.getD2(), a.getD2(), 0.001 * (1 + e.getD2()), "Wrong green of pixel " + j + "," + i);
+                assertEquals(e.getD3(), a.getD3(), 0.001 * (1 + e.getD3()), "Wrong blue of pixel " + j + "," + i);
+            }
+
+        // TC02: changing the camera during the render does not change the render
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Camera changed = createCamera("progressiveChanged").useProgressive(true)
+                .setRayTracer(new RayTracerBase(new Scene("Threads scene")) {
+                    @Override
+                    public Color traceRay(Ray ray) {
+                        threads.add(Thread.currentThread());
+                        return Color.BLACK;
+                    }
+
+                    @Override
+                    public Color traceRays(List<Ray> rays) {
+                        throw new UnsupportedOperationException();
+                    }
+                });
+        changed.setPassListener((pass, count, image) -> {
+            changed.setMultithreading(2).setProgressListener(null);
+            return true;
+        }).renderImage();
+        assertEquals(Set.of(Thread.currentThread()), threads, "The render changed to multithreading");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: stopping after the first pass leaves the image of one ray per pixel
+        ImageWriter first = new ImageWriter("progressiveFirstPass", 40, 40);
+        createCamera("progressiveFirstPass").useProgressive(true).setImageWriter(first)
+                .setPassListener((pass, count, image) -> false).renderImage();
+        ImageWriter center = new ImageWriter("centerRender", 40, 40);
+        createCamera("centerRender").useAntiAliasing(false).setImageWriter(center).renderImage();
+        for (int i = 0; i < 40; ++i)
+            for (int j = 0; j < 40; ++j)
+                assertEquals(center.getPixel(j, i).toString(), first.getPixel(j, i).toString(),
+                        "Wrong pixel of the first pass " + j + "," + i);
+    }
+
+    /**
+     * Test method for {@link renderer.ProgressivePasses#getTarget(int, int)}.
+     */
+    @Test
+    void testConvergence() {
+        ProgressivePasses passes = new ProgressivePasses(2, 1, 4, Long.MAX_VALUE, 1);
+        for (int k = 0; k < ProgressivePasses.MIN_SAMPLES; ++k) {
+            passes.add(0, 0, new Color(100, 100, 100));
+            passes.add(1, 0, new Color(k % 2 == 0 ? 0 : 200, 100, 100));
+        }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a pixel of the same color in all the samples converged
+        assertEquals(0, passes.getInterval(0, 0), 1e-9, "Wrong interval of a uniform pixel");
+        assertEquals(ProgressivePasses.MIN_SAMPLES, passes.getTarget(0, 0), "A converged pixel needs more samples");
+        ImageWriter image = new ImageWriter("convergence", 2, 1);
+        passes.writeTo(image);
+        assertEquals(new Color(100, 100, 100).toString(), image.getPixel(0, 0).toString(), "Wrong mean");
+        assertEquals(100, image.getPixel(1, 0).getRgb().getD1(), 1e-4, "Wrong mean of a noisy pixel");
+
+        // TC02: a noisy pixel gets more samples, up to doubling them
+        assertTrue(passes.getInterval(1, 0) > 1, "Wrong interval of a noisy pixel");
+        assertEquals(2 * ProgressivePasses.MIN_SAMPLES, passes.getTarget(1, 0), "Wrong samples of a noisy pixel");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a pixel without samples gets one sample
+        assertEquals(1, new ProgressivePasses(1, 1, 4, Long.MAX_VALUE, 1).getTarget(0, 0), "Wrong first sample");
+    }
+
+    /**
+     * Test method for {@link renderer.ProgressivePasses#nextPass()}.
+     */
+    @Test
+    void testDeadline() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: before the deadline, the passes sample past the grid, in random places of its cells
+        ProgressivePasses passes = new ProgressivePasses(1, 1, 4, System.nanoTime() + 3_600_000_000_000L, 0);
+        List<Integer> samples = new ArrayList<>();
+        while (samples.size() < 6 && passes.nextPass()) {
+            samples.add(passes.getPassSamples());
+            int target = passes.getTarget(0, 0);
+            for (int sample = passes.getSamples(0, 0); sample < target; ++sample)
+                passes.add(0, 0, new Color(sample, 0, 0));
+        }
+        assertEquals(List.of(1, 2, 4, 8, 16, 32), samples, "Wrong samples of the passes before the deadline");
+        assertTrue(passes.isResample(17), "The sample past the grid is not in a random place");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: once the deadline passed, the first pass samples every pixel once, and there are no more passes
+        passes = new ProgressivePasses(2, 1, 4, System.nanoTime() - 1, 0);
+        assertTrue(passes.nextPass(), "No first pass after the deadline");
+        assertTrue(passes.isOutOfTime(), "The deadline did not pass");
+        assertEquals(1, passes.getTarget(1, 0), "Wrong samples of the first pass");
+        passes.add(0, 0, Color.BLACK);
+        passes.add(1, 0, Color.BLACK);
+        assertFalse(passes.nextPass(), "A pass after the deadline");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setTimeBudget(double)}.
+     */
+    @Test
+    void testTimeBudget() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a render whose budget is spent before the first pass ends has the image of one ray per pixel
+        List<Integer> samples = new ArrayList<>();
+        ImageWriter spent = new ImageWriter("timeBudgetRender", 40, 40);
+        createCamera("timeBudgetRender").setImageWriter(spent).setTimeBudget(1e-9)
+                .setPassListener((pass, count, image) -> samples.add(count)).renderImage();
+        assertEquals(List.of(1), samples, "Wrong samples of a render with a spent budget");
+        ImageWriter center = new ImageWriter("centerRender", 40, 40);
+        createCamera("centerRender").useAntiAliasing(false).setImageWriter(center).renderImage();
+        for (int i = 0; i < 40; ++i)
+            for (int j = 0; j < 40; ++j)
+                assertEquals(center.getPixel(j, i).toString(), spent.getPixel(j, i).toString(),
+                        "Wrong pixel of a render with a spent budget " + j + "," + i);
+
+        // TC02: a render where all the pixels converge ends before the budget
+        Scene scene = new Scene("Empty scene").setBackground(new Color(20, 40, 60));
+        samples.clear();
+        createCamera("convergedRender").setRayTracer(new RayTracerBasic(scene)).setTimeBudget(30)
+                .setConvergenceThreshold(1)
+                .setPassListener((pass, count, image) -> samples.add(count)).renderImage();
+        assertEquals(List.of(1, 2, 4), samples, "Wrong samples of a converged render");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a negative budget
+        assertThrows(IllegalArgumentException.class, () -> createCamera("badBudget").setTimeBudget(-1),
+                "Set a negative time budget");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the reading of scenes from xml files
+ */
+class ReadXMLFileTest {
+    /**
+     * @return the scene of an xml text
+     */
+    private Scene read(String xml) {
+        return ReadXMLFile.read("XML scene", new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Test method for {@link renderer.ReadXMLFile#read(String, java.io.InputStream)}.
+     */
+    @Test
+    void testRead() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: geometries of every kind with materials and emissions, and lights of every kind
+        Scene scene = read("""
+                <scene background-color="75 127.5 90">
+                    <ambient-light color="255 191 191" ka="0.5"/>
+                    <geometries>
+                        <sphere center="0 0 -100.5" radius="50.25" emission="0 0 100">
+                            <material kd="0.5" ks="0.25 0.5 0.75" shininess="100" kt="0.3"/>
+                        </sphere>
+                        <triangle p0="-100 0 -200" p1="0 100 -200" p2="-100 100 -200"/>
+                        <polygon p0="0 0 -300" p1="100 0 -300" p2="100 100 -300" p3="0 100 -300"/>
+                        <plane p0="0 0 -400" vector="0 0 1"/>
+                    </geometries>
+                    <lights>
+                        <directional-light color="100 100 100" direction="0 0 -1"/>
+                        <point-light color="500 500 500" position="0 0 50" kl="0.001" kq="0.0002"/>
+                        <spot-light color="500 500 500" position="0 50 50" direction="0 0 -1"/>
+                    </lights>
+                </scene>
+                """);
+        assertEquals(new Color(75, 127.5, 90).toString(), scene.background.toString(), "Wrong background");
+        assertEquals(new Color(127.5, 95.5, 95.5).toString(), scene.ambientLight.getIntensity().toString(),
+                "Wrong ambient light");
+        assertEquals(3, scene.lights.size(), "Wrong number of lights");
+        assertInstanceOf(PointLight.class, scene.lights.get(1), "Wrong type of light");
+        assertInstanceOf(SpotLight.class, scene.lights.get(2), "Wrong type of light");
+
+        GeoPoint sphere = scene.geometries.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0, 0, -1)));
+        assertEquals(new Point(0, 0, -50.25), sphere.point, "Wrong sphere");
+        assertEquals(new Color(0, 0, 100).toString(), sphere.geometry.getEmission().toString(), "Wrong emission");
+        assertEquals(new Double3(0.5), sphere.geometry.getMaterial().kD, "Wrong kD");
+        assertEquals(new Double3(0.25, 0.5, 0.75), sphere.geometry.getMaterial().kS, "Wrong kS");
+        assertEquals(100, sphere.geometry.getMaterial().nShininess, "Wrong shininess");
+        assertEquals(new Point(-75, 50, -200), scene.geometries.findClosestGeoIntersection(
+                new Ray(new Point(-75, 50, 0), new Vector(0, 0, -1))).point, "Wrong triangle");
+        assertEquals(new Point(25, 75, -300), scene.geometries.findClosestGeoIntersection(
+                new Ray(new Point(25, 75, 0), new Vector(0, 0, -1))).point, "Wrong polygon");
+        assertEquals(new Point(500, 0, -400), scene.geometries.findClosestGeoIntersection(
+                new Ray(new Point(500, 0, 0), new Vector(0, 0, -1))).point, "Wrong plane");
+
+        // TC02: a number which is not a number
+        assertThrows(IllegalArgumentException.class,
+                () -> read("<scene><geometries><sphere center=\"0 0 x\" radius=\"1\"/></geometries></scene>"),
+                "Read a point which is not a number");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a point of two numbers
+        assertThrows(IllegalArgumentException.class,
+                () -> read("<scene><geometries><sphere center=\"0 0\" radius=\"1\"/></geometries></scene>"),
+                "Read a point of two numbers");
+
+        // TC12: a missing attribute
+        assertThrows(IllegalArgumentException.class,
+                () -> read("<scene><geometries><sphere center=\"0 0 0\"/></geometries></scene>"),
+                "Read a sphere without a radius");
+
+        // TC13: a document which is not well formed
+        assertThrows(IllegalArgumentException.class, () -> read("<scene><geometries></scene>"),
+                "Read a document which is not well formed");
+    }
+}
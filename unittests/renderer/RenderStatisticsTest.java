@@ -0,0 +1,101 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static renderer.RenderStatistics.RayKind.*;
+
+/**
+ * Testing the statistics collected by the renders
+ */
+public class RenderStatisticsTest {
+    /**
+     * Scene of a transparent sphere above a mirror, lighted by a point light
+     *
+     * @return the scene
+     */
+    private Scene scene() {
+        Scene scene = new Scene("Statistics scene");
+        scene.geometries.add(
+                new Sphere(30, new Point(0, 0, -100)).setEmission(new Color(0, 0, 100))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30).setKt(0.5)),
+                new Plane(new Point(0, -40, 0), new Vector(0, 1, 0)).setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKd(0.5).setKr(0.5)));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(50, 50, 0)));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#getRenderStatistics()}.
+     */
+    @Test
+    void testGetRenderStatistics() {
+        Camera camera = new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setViewPlaneDistance(100)
+                .setRayTracer(new RayTracerBasic(scene()))
+                .setImageWriter(new ImageWriter("statisticsRender", 20, 20));
+
+        // =============== Boundary Values Tests ==================
+        // TC11: no statistics are collected by default
+        camera.renderImage();
+        assertNull(camera.getRenderStatistics(), "Statistics collected when turned off");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a primary ray per pixel, shadow, reflected and refracted rays, and the tests of both geometries
+        RenderStatistics stats = camera.useStatistics(true).renderImage().getRenderStatistics();
+        assertEquals(20 * 20, stats.getRays(PRIMARY), "Wrong amount of primary rays");
+        assertTrue(stats.getRays(SHADOW) > 0, "No shadow rays");
+        assertTrue(stats.getRays(REFLECTION) > 0, "No reflected rays");
+        assertTrue(stats.getRays(REFRACTION) > 0, "No refracted rays");
+        assertEquals(0, stats.getRays(GLOSSY), "Glossy rays without glossiness");
+        assertTrue(stats.getIntersectionTests().get("Sphere") > 0, "No sphere tests");
+        assertTrue(stats.getIntersectionTests().get("Plane") > 0, "No plane tests");
+        assertTrue(stats.getAverageDepth() > 1, "No recursion");
+        assertTrue(stats.getMaxDepth() <= 10, "Recursion deeper than the maximum level");
+        for (RenderStatistics.Phase phase : RenderStatistics.Phase.values())
+            assertTrue(stats.getTime(phase) >= 0, "Negative time of " + phase);
+
+        // TC02: the counters of the threads of a multi-threaded render are merged
+        RenderStatistics threaded = camera.setMultithreading(3).setProgressListener(null)
+                .renderImage().getRenderStatistics();
+        assertEquals(stats.getRays(PRIMARY), threaded.getRays(PRIMARY), "Wrong amount of primary rays");
+        assertEquals(stats.getRays(REFLECTION), threaded.getRays(REFLECTION), "Wrong amount of reflected rays");
+        assertEquals(stats.getIntersectionTests(), threaded.getIntersectionTests(), "Wrong amount of tests");
+
+        // TC03: a progressive render measures the time of tracing its samples
+        RenderStatistics progressive = camera.setMultithreading(1).useProgressive(true)
+                .renderImage().getRenderStatistics();
+        camera.useProgressive(false);
+        assertEquals(stats.getRays(PRIMARY), progressive.getRays(PRIMARY), "Wrong amount of primary rays");
+        assertTrue(progressive.getTime(RenderStatistics.Phase.SHADING) > 0, "No shading time");
+        for (RenderStatistics.Phase phase : RenderStatistics.Phase.values())
+            assertTrue(progressive.getTime(phase) >= 0, "Negative time of a progressive render of " + phase);
+
+        // TC04: a render with a time budget measures the time of tracing its samples
+        RenderStatistics budgeted = camera.setTimeBudget(1e-9).renderImage().getRenderStatistics();
+        camera.setTimeBudget(0);
+        assertEquals(stats.getRays(PRIMARY), budgeted.getRays(PRIMARY), "Wrong amount of primary rays");
+        for (RenderStatistics.Phase phase : RenderStatistics.Phase.values())
+            assertTrue(budgeted.getTime(phase) >= 0, "Negative time of a budgeted render of " + phase);
+
+        // TC05: concurrent renders with statistics count their own tests only
+        Camera other = new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setViewPlaneSize(200, 200).setViewPlaneDistance(100)
+                .setRayTracer(new RayTracerBasic(scene()))
+                .setImageWriter(new ImageWriter("statisticsOtherRender", 20, 20)).useStatistics(true);
+        camera.setMultithreading(1);
+        Thread thread = new Thread(other::renderImage);
+        thread.start();
+        RenderStatistics concurrent = camera.renderImage().getRenderStatistics();
+        assertDoesNotThrow(() -> thread.join());
+        assertEquals(stats.getIntersectionTests(), concurrent.getIntersectionTests(),
+                "Wrong amount of tests of a concurrent render");
+        assertEquals(stats.getIntersectionTests(), other.getRenderStatistics().getIntersectionTests(),
+                "Wrong amount of tests of the other concurrent render");
+    }
+}
@@ -73,21 +73,18 @@ public class RenderTests {
       camera.writeToImage();
    }
 
-//   /** Test for XML based scene - for bonus */
-//   @Test
-//   public void basicRenderXml() {
-//      Scene  scene  = new Scene("XML Test scene");
-//      // enter XML file name and parse from XML file into scene object
-//      // using the code you added in appropriate packages
-//      // ...
-//      // NB: unit tests is not the correct place to put XML parsing code
-//
-//      Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))     //
-//         .setVPDistance(100)                                                                //
-//         .setVPSize(500, 500).setImageWriter(new ImageWriter("xml render test", 1000, 1000))
-//         .setRayTracer(new RayTracerBasic(scene));
-//      camera.renderImage();
-//      camera.printGrid(100, new Color(YELLOW));
-//      camera.writeToImage();
-//   }
+   /** Test for XML based scene - for bonus */
+   @Test
+   public void basicRenderXml() {
+      // parse the scene from the XML file into a scene object
+      Scene scene = ReadXMLFile.ReadFile("XML Test scene", "xml/basicRenderTestTwoColors.xml");
+
+      Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+         .setViewPlaneDistance(100) //
+         .setViewPlaneSize(500, 500).setImageWriter(new ImageWriter("xml render test", 1000, 1000))
+         .setRayTracer(new RayTracerBasic(scene));
+      camera.renderImage();
+      camera.printGrid(100, new Color(YELLOW));
+      camera.writeToImage();
+   }
 }
@@ -0,0 +1,140 @@
+package renderer;
+
+import geometries.*;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import primitives.*;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the cache of scenes in binary files
+ */
+class SceneCacheTest {
+    @TempDir
+    Path folder;
+
+    /**
+     * @return a scene of geometries of every kind, with a mesh, lights of every kind and a built hierarchy
+     */
+    private Scene createScene() {
+        Scene scene = new Scene("Cached scene").setBackground(new Color(10, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(255, 191, 191), new Double3(0.1)));
+        Material material = new Material().setKd(0.5).setKs(new Double3(0.2, 0.3, 0.4)).setShininess(30)
+                .setKt(0.1).setKr(0.2);
+        scene.geometries.add(
+                new Sphere(20, new Point(0, 0, -100)).setEmission(new Color(0, 0, 100)).setMaterial(material),
+                new Triangle(new Point(-60, -60, -150), new Point(60, -60, -150), new Point(0, 60, -150))
+                        .setEmission(new Color(50, 50, 0)),
+                new Polygon(new Point(30, 30, -80), new Point(50, 30, -80), new Point(50, 50, -80),
+                        new Point(30, 50, -80)),
+                new Cylinder(new Ray(new Point(-40, -40, -120), new Vector(0, 1, 0)), 30, 5)
+                        .setMaterial(material),
+                new Mesh(List.of(new Point(-50, 20, -90), new Point(-20, 20, -90), new Point(-20, 50, -95),
+                        new Point(-50, 50, -95)), new int[]{0, 1, 2, 0, 2, 3}).setEmission(new Color(100, 0, 0)),
+                new Plane(new Point(0, 0, -200), new Vector(0, 0.1, 1)));
+        for (int i = 0; i < 20; ++i)
+            scene.geometries.add(new Sphere(3, new Point(-60 + 6 * i, -55, -110)).setEmission(new Color(0, 80, 0)));
+        scene.geometries.buildBVH();
+        scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(1, -1, -1)));
+        scene.lights.add(new PointLight(new Color(500, 300, 300), new Point(50, 50, 0)).setKl(0.001).setKq(0.0002));
+        scene.lights.add(new SpotLight(new Color(300, 500, 300), new Point(-50, 50, 0), new Vector(1, -1, -2))
+                .setKl(0.0004));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link renderer.SceneCache#read()}.
+     */
+    @Test
+    void testRead() throws IOException {
+        Scene scene = createScene();
+        Camera camera = new Camera(new Point(0, 0, 50), new Vector(0, 0, -1), new Vector(0, 2, 0))
+                .setViewPlaneDistance(100).setViewPlaneSize(150, 100);
+        String file = folder.resolve("scene.cache").toString();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the cached scene is rendered like the original one
+        SceneCache cache = new SceneCache(file).write(scene, camera);
+        assertTrue(cache.exists(), "The cache was not written");
+        SceneCache warm = new SceneCache(file);
+        Scene cached = warm.read();
+        Camera cachedCamera = warm.getCamera();
+        assertEquals(scene.name, cached.name, "Wrong name");
+        assertEquals(scene.background.toString(), cached.background.toString(), "Wrong background");
+        assertEquals(3, cached.lights.size(), "Wrong number of lights");
+        assertInstanceOf(SpotLight.class, cached.lights.get(2), "Wrong type of light");
+        assertNotNull(cached.geometries.getBVH(), "The hierarchy was not cached");
+        assertEquals(scene.geometries.getBVH().getNodeCount(), cached.geometries.getBVH().getNodeCount(),
+                "Wrong hierarchy");
+        assertEquals(camera.getvRight(), cachedCamera.getvRight(), "Wrong camera");
+
+        RayTracerBase original = new RayTracerBasic(scene);
+        RayTracerBase restored = new RayTracerBasic(cached);
+        for (int i = 0; i < 20; ++i)
+            for (int j = 0; j < 30; ++j) {
+                Ray ray = camera.constructRay(30, 20, j, i);
+                assertEquals(ray, cachedCamera.constructRay(30, 20, j, i), "Wrong ray of the camera");
+                assertEquals(original.traceRay(ray).toString(), restored.traceRay(ray).toString(),
+                        "Wrong color of pixel " + j + "," + i);
+            }
+
+        // TC02: a scene of random spheres, without a hierarchy or a camera
+        Scene spheres = new Scene("Spheres");
+        Random random = new Random(19);
+        for (int i = 0; i < 100; ++i)
+            spheres.geometries.add(new Sphere(1 + random.nextDouble(),
+                    new Point(random.nextDouble() * 50, random.nextDouble() * 50, -random.nextDouble() * 50)));
+        cached = cache.write(spheres, null).read();
+        assertNull(cache.getCamera(), "Read a camera which was not written");
+        assertNull(cached.geometries.getBVH(), "Read a hierarchy which was not built");
+        for (int i = 0; i < 100; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 50, random.nextDouble() * 50, 10), new Vector(0, 0, -1));
+            Intersectable.GeoPoint expected = spheres.geometries.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint actual = cached.geometries.findClosestGeoIntersection(ray);
+            assertEquals(expected == null ? null : expected.point, actual == null ? null : actual.point,
+                    "Wrong intersection");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a file which is not a cache
+        Path other = folder.resolve("other.cache");
+        Files.writeString(other, "not a scene cache");
+        assertThrows(IllegalArgumentException.class, () -> new SceneCache(other.toString()).read(),
+                "Read a file which is not a cache");
+
+        // TC12: a cut file
+        Path cut = folder.resolve("cut.cache");
+        byte[] bytes = Files.readAllBytes(Path.of(file));
+        Files.write(cut, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IllegalArgumentException.class, () -> new SceneCache(cut.toString()).read(),
+                "Read a cut cache");
+
+        // TC13: a hierarchy of geometries which hold the same geometry twice
+        Scene twice = new Scene("Twice");
+        Sphere sphere = new Sphere(2, new Point(0, 0, -50));
+        twice.geometries.add(sphere, sphere, new Sphere(2, new Point(100, 0, -50)),
+                new Sphere(2, new Point(10, 0, -50)));
+        twice.geometries.buildBVH();
+        cached = cache.write(twice, null).read();
+        for (int x : new int[]{0, 10, 100}) {
+            Ray ray = new Ray(new Point(x, 0, 10), new Vector(0, 0, -1));
+            Intersectable.GeoPoint actual = cached.geometries.findClosestGeoIntersection(ray);
+            assertNotNull(actual, "Missed the sphere at " + x);
+            assertEquals(twice.geometries.findClosestGeoIntersection(ray).point, actual.point,
+                    "Wrong intersection of a hierarchy with a repeated geometry");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package geometries;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.*;
+
+/**
+ * Kernels testing as many geometries at once as the SIMD registers of the processor hold,
+ * using the incubating vector API. The calculations are the same as the scalar ones, lane by lane,
+ * so the results are identical. The geometries left after the last full vector are tested one at a time.
+ * <p>
+ * This class is loaded by {@link BatchKernels} only if the JVM runs with {@code --add-modules jdk.incubator.vector}.
+ * It is kept in a module of its own, compiled with the same option, so the core of the project compiles without it.
+ */
+class VectorBatchKernels extends BatchKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * Numbers whose absolute value is below this are zero, like in {@link primitives.Util#isZero(double)}
+     */
+    private static final double ACCURACY = 0x1p-40;
+    private static final DoubleVector ZERO = DoubleVector.zero(SPECIES);
+
+    @Override
+    public String getName() {
+        return "vector" + SPECIES.length();
+    }
+
+    /**
+     * @return mask of the lanes which are (almost) zero
+     */
+    private static VectorMask<Double> isZero(DoubleVector v) {
+        return v.abs().compare(LT, ACCURACY);
+    }
+
+    /**
+     * @return the vector with the lanes which are almost zero set to zero
+     */
+    private static DoubleVector alignZero(DoubleVector v) {
+        return v.blend(ZERO, isZero(v));
+    }
+
+    /**
+     * Picks the closest of the valid lanes of a vector of distances
+     *
+     * @param t       the distances
+     * @param valid   the lanes of the intersections
+     * @param base    index of the geometry of the first lane
+     * @param closest index of the closest geometry found so far, or -1
+     * @param best    array holding the distance to the closest geometry found so far at index 0
+     * @return index of the closest geometry
+     */
+    private static int closest(DoubleVector t, VectorMask<Double> valid, int base, int closest, double[] best) {
+        for (int lane = 0; lane < SPECIES.length(); ++lane) {
+            if (!valid.laneIsSet(lane))
+                continue;
+            double d = t.lane(lane);
+            if (closest < 0 || d < best[0]) {
+                closest = base + lane;
+                best[0] = d;
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    public int closestSphere(double[] spheres, int capacity, int from, int to,
+                             double ox, double oy, double oz, double dx, double dy, double dz,
+                             double maxDistance, double[] t) {
+        int closest = -1;
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector radius = DoubleVector.fromArray(SPECIES, spheres, 3 * capacity + i);
+            //u=center-p0
+            DoubleVector ux = DoubleVector.fromArray(SPECIES, spheres, i).sub(ox);
+            DoubleVector uy = DoubleVector.fromArray(SPECIES, spheres, capacity + i).sub(oy);
+            DoubleVector uz = DoubleVector.fromArray(SPECIES, spheres, 2 * capacity + i).sub(oz);
+
+            DoubleVector tm = alignZero(ux.mul(dx).add(uy.mul(dy)).add(uz.mul(dz))); //tm=v*u
+            //d=squrt(|u|^2-tm^2)
+            DoubleVector d = alignZero(ux.mul(ux).add(uy.mul(uy)).add(uz.mul(uz)).sub(tm.mul(tm)).sqrt());
+            VectorMask<Double> valid = d.compare(LT, radius);
+            DoubleVector th = alignZero(radius.mul(radius).sub(d.mul(d)).sqrt());
+            //the closest positive one of t1=tm-th and t2=tm+th
+            DoubleVector t1 = alignZero(tm.sub(th));
+            DoubleVector dist = t1.blend(alignZero(tm.add(th)), t1.compare(LE, 0));
+            valid = valid.and(dist.compare(GT, 0));
+
+            //if P0 is the center of the sphere, the intersection is at the radius
+            VectorMask<Double> centered = isZero(ux).and(isZero(uy)).and(isZero(uz));
+            if (centered.anyTrue()) {
+                dist = dist.blend(radius, centered);
+                valid = valid.or(centered);
+            }
+            valid = valid.and(alignZero(dist.sub(maxDistance)).compare(LE, 0));
+
+            if (valid.anyTrue())
+                closest = closest(dist, valid, i, closest, t);
+        }
+
+        //the spheres after the last full vector
+        for (; i < to; ++i) {
+            double d = sphereDistance(spheres, capacity, i, ox, oy, oz, dx, dy, dz, maxDistance);
+            if (!Double.isNaN(d) && (closest < 0 || d < t[0])) {
+                closest = i;
+                t[0] = d;
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    public int closestTriangle(double[] triangles, int capacity, int from, int to,
+                               double ox, double oy, double oz, double dx, double dy, double dz,
+                               double maxDistance, double[] t) {
+        int closest = -1;
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector nx = DoubleVector.fromArray(SPECIES, triangles, i);
+            DoubleVector ny = DoubleVector.fromArray(SPECIES, triangles, capacity + i);
+            DoubleVector nz = DoubleVector.fromArray(SPECIES, triangles, 2 * capacity + i);
+            DoubleVector nv = nx.mul(dx).add(ny.mul(dy)).add(nz.mul(dz)); //nv=n*v
+            VectorMask<Double> valid = isZero(nv).not();
+
+            //vectors from the ray start point to the vertices, the first one is also the point of the plane
+            DoubleVector x1 = DoubleVector.fromArray(SPECIES, triangles, 3 * capacity + i).sub(ox);
+            DoubleVector y1 = DoubleVector.fromArray(SPECIES, triangles, 4 * capacity + i).sub(oy);
+            DoubleVector z1 = DoubleVector.fromArray(SPECIES, triangles, 5 * capacity + i).sub(oz);
+            valid = valid.andNot(isZero(x1).and(isZero(y1)).and(isZero(z1)));
+
+            DoubleVector numerator = x1.mul(nx).add(y1.mul(ny)).add(z1.mul(nz)); //numerator=n*Q0_P0
+            valid = valid.andNot(isZero(numerator));
+            DoubleVector dist = alignZero(numerator.div(nv));
+            valid = valid.and(dist.compare(GT, 0)).and(alignZero(dist.sub(maxDistance)).compare(LE, 0));
+            if (!valid.anyTrue())
+                continue;
+
+            DoubleVector x2 = DoubleVector.fromArray(SPECIES, triangles, 6 * capacity + i).sub(ox);
+            DoubleVector y2 = DoubleVector.fromArray(SPECIES, triangles, 7 * capacity + i).sub(oy);
+            DoubleVector z2 = DoubleVector.fromArray(SPECIES, triangles, 8 * capacity + i).sub(oz);
+            DoubleVector x3 = DoubleVector.fromArray(SPECIES, triangles, 9 * capacity + i).sub(ox);
+            DoubleVector y3 = DoubleVector.fromArray(SPECIES, triangles, 10 * capacity + i).sub(oy);
+            DoubleVector z3 = DoubleVector.fromArray(SPECIES, triangles, 11 * capacity + i).sub(oz);
+            DoubleVector s1 = tripleProduct(dx, dy, dz, x1, y1, z1, x2, y2, z2); //s1 = v * (v1 X v2)
+            DoubleVector s2 = tripleProduct(dx, dy, dz, x2, y2, z2, x3, y3, z3); //s2 = v * (v2 X v3)
+            DoubleVector s3 = tripleProduct(dx, dy, dz, x3, y3, z3, x1, y1, z1); //s3 = v * (v3 X v1)
+            valid = valid.andNot(isZero(s1).or(isZero(s2)).or(isZero(s3)));
+            VectorMask<Double> positive = s1.compare(GT, 0).and(s2.compare(GT, 0)).and(s3.compare(GT, 0));
+            VectorMask<Double> negative = s1.compare(LT, 0).and(s2.compare(LT, 0)).and(s3.compare(LT, 0));
+            valid = valid.and(positive.or(negative));
+
+            if (valid.anyTrue())
+                closest = closest(dist, valid, i, closest, t);
+        }
+
+        //the triangles after the last full vector
+        for (; i < to; ++i) {
+            double d = triangleDistance(triangles, capacity, i, ox, oy, oz, dx, dy, dz, maxDistance);
+            if (!Double.isNaN(d) && (closest < 0 || d < t[0])) {
+                closest = i;
+                t[0] = d;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Calculates the triple products v*(a X b) of a vector and vectors of vectors,
+     * like {@link Polygon#tripleProduct}
+     */
+    private static DoubleVector tripleProduct(double vx, double vy, double vz,
+                                              DoubleVector ax, DoubleVector ay, DoubleVector az,
+                                              DoubleVector bx, DoubleVector by, DoubleVector bz) {
+        return ay.mul(bz).sub(az.mul(by)).mul(vx)
+                .add(az.mul(bx).sub(ax.mul(bz)).mul(vy))
+                .add(ax.mul(by).sub(ay.mul(bx)).mul(vz));
+    }
+}